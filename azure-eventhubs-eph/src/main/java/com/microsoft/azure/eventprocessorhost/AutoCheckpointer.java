@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+
+package com.microsoft.azure.eventprocessorhost;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.microsoft.azure.eventhubs.EventData;
+
+// Writes the checkpoint of one partition on behalf of the event processor, every N events or every T, as set in
+// EventProcessorOptions. The position written is always that of the last event of the latest batch for which onEvents
+// returned - not the position in the PartitionContext, which moves ahead before onEvents is called - so there is nothing
+// to queue: while a write is in progress, further requests only set checkpointAgain, and one more write of the then
+// latest position follows when it completes.
+class AutoCheckpointer
+{
+	private final HostContext hostContext;
+	private final PartitionContext partitionContext;
+	private final int eventCount;
+	private final Duration interval;
+
+	private int eventsSinceCheckpoint = 0;
+	private boolean hasUncheckpointedEvents = false;
+	private EventData lastProcessedEvent = null;
+	private CompletableFuture<Void> inFlight = null; // never completes exceptionally
+	private boolean checkpointAgain = false;
+	private ScheduledFuture<?> timerFuture = null;
+	private boolean closed = false;
+
+	private static final Logger TRACE_LOGGER = LoggerFactory.getLogger(AutoCheckpointer.class);
+
+	AutoCheckpointer(HostContext hostContext, PartitionContext partitionContext)
+	{
+		this.hostContext = hostContext;
+		this.partitionContext = partitionContext;
+		this.eventCount = hostContext.getEventProcessorOptions().getAutoCheckpointEventCount();
+		this.interval = hostContext.getEventProcessorOptions().getAutoCheckpointInterval();
+	}
+
+	static boolean isEnabled(EventProcessorOptions options)
+	{
+		return (options.getAutoCheckpointEventCount() > 0) || (options.getAutoCheckpointInterval() != null);
+	}
+
+	synchronized void start()
+	{
+		scheduleTimer();
+	}
+
+	// Called once IEventProcessor.onEvents has returned normally, so that only processed events are checkpointed.
+	// A batch for which onEvents threw is never reported, and its position is not written.
+	synchronized void onEventsProcessed(int count, EventData last)
+	{
+		if (this.closed || (count == 0) || (last == null))
+		{
+			return;
+		}
+
+		this.lastProcessedEvent = last;
+		this.eventsSinceCheckpoint += count;
+		this.hasUncheckpointedEvents = true;
+		if ((this.eventCount > 0) && (this.eventsSinceCheckpoint >= this.eventCount))
+		{
+			checkpoint();
+		}
+	}
+
+	// Stops checkpointing. With flush, waits for the write in progress, if any, then writes the latest position if
+	// it has not been written yet. Never completes exceptionally.
+	CompletableFuture<Void> close(boolean flush)
+	{
+		CompletableFuture<Void> previous = null;
+		synchronized (this)
+		{
+			this.closed = true;
+			if (this.timerFuture != null)
+			{
+				this.timerFuture.cancel(false);
+				this.timerFuture = null;
+			}
+			if (!flush)
+			{
+				return CompletableFuture.completedFuture(null);
+			}
+			previous = (this.inFlight != null) ? this.inFlight : CompletableFuture.completedFuture(null);
+		}
+
+		return previous.thenComposeAsync((empty) ->
+		{
+			synchronized (this)
+			{
+				// The write in progress may have been followed by another one, which has the latest position.
+				if ((this.inFlight == null) && this.hasUncheckpointedEvents)
+				{
+					TRACE_LOGGER.debug(this.hostContext.withHostAndPartition(this.partitionContext, "Flushing automatic checkpoint"));
+					write();
+				}
+				return (this.inFlight != null) ? this.inFlight : CompletableFuture.completedFuture(null);
+			}
+		}, this.hostContext.getExecutor());
+	}
+
+	// Caller holds the lock.
+	private void checkpoint()
+	{
+		if (this.inFlight != null)
+		{
+			this.checkpointAgain = true;
+		}
+		else
+		{
+			write();
+		}
+	}
+
+	// Caller holds the lock.
+	private void write()
+	{
+		this.eventsSinceCheckpoint = 0;
+		this.hasUncheckpointedEvents = false;
+		this.checkpointAgain = false;
+		this.inFlight = this.partitionContext.checkpoint(this.lastProcessedEvent)
+		.handleAsync((empty, e) ->
+		{
+			onWriteComplete(e);
+			return null;
+		}, this.hostContext.getExecutor());
+	}
+
+	private synchronized void onWriteComplete(Throwable e)
+	{
+		this.inFlight = null;
+		if (e != null)
+		{
+			// Leave the position to the next trigger. If the lease has been lost, the pump is shutting down anyway.
+			Exception notifyWith = (Exception)LoggingUtils.unwrapException(e, null);
+			TRACE_LOGGER.warn(this.hostContext.withHostAndPartition(this.partitionContext, "Failure writing automatic checkpoint"), notifyWith);
+			this.hostContext.getEventProcessorOptions().notifyOfException(this.hostContext.getHostName(), notifyWith,
+					EventProcessorHostActionStrings.UPDATING_CHECKPOINT, this.partitionContext.getPartitionId());
+			this.hasUncheckpointedEvents = true;
+		}
+		else if (this.checkpointAgain && !this.closed)
+		{
+			write();
+		}
+		else if (this.checkpointAgain)
+		{
+			// Closing: close() writes the latest position once this write is done.
+			this.checkpointAgain = false;
+			this.hasUncheckpointedEvents = true;
+		}
+	}
+
+	private void onTimer()
+	{
+		synchronized (this)
+		{
+			if (this.closed)
+			{
+				return;
+			}
+			if (this.hasUncheckpointedEvents)
+			{
+				checkpoint();
+			}
+			scheduleTimer();
+		}
+	}
+
+	// Caller holds the lock.
+	private void scheduleTimer()
+	{
+		if (this.interval != null)
+		{
+			this.timerFuture = this.hostContext.getExecutor().schedule(() -> onTimer(), this.interval.toMillis(), TimeUnit.MILLISECONDS);
+		}
+	}
+}
@@ -18,8 +18,12 @@ final class AzureBlobLease extends Lease
 {
 	private final transient CloudBlockBlob blob; // do not serialize
 	private final transient BlobRequestOptions options; // do not serialize
+	private final transient StorageExecutor executor; // do not serialize
 	private String offset = null; // null means checkpoint is uninitialized
 	private long sequenceNumber = 0;
+	// Set when this object was built from a listing of the lease blobs rather than downloaded: it holds the
+	// lease state seen by the listing, and offset/sequenceNumber have not been filled in.
+	private transient LeaseState listedLeaseState = null; // do not serialize
 
 	// not intended to be used; built for GSon
 	@SuppressWarnings("unused")
@@ -28,13 +32,21 @@ final class AzureBlobLease extends Lease
 		super();
 		this.blob = null; // so that we can mark blob as final
 		this.options = null; // so that we can mark options as final
+		this.executor = null; // so that we can mark executor as final
 	}
 
-	AzureBlobLease(String partitionId, CloudBlockBlob blob, BlobRequestOptions options)
+	AzureBlobLease(String partitionId, CloudBlockBlob blob, BlobRequestOptions options, StorageExecutor executor)
 	{
 		super(partitionId);
 		this.blob = blob;
 		this.options = options;
+		this.executor = executor;
+	}
+
+	AzureBlobLease(String partitionId, CloudBlockBlob blob, BlobRequestOptions options, StorageExecutor executor, LeaseState listedLeaseState)
+	{
+		this(partitionId, blob, options, executor);
+		this.listedLeaseState = listedLeaseState;
 	}
 
 	AzureBlobLease(AzureBlobLease source)
@@ -44,22 +56,25 @@ final class AzureBlobLease extends Lease
 		this.sequenceNumber = source.sequenceNumber;
 		this.blob = source.blob;
 		this.options = source.options;
+		this.executor = source.executor;
 	}
 
-	AzureBlobLease(AzureBlobLease source, CloudBlockBlob blob, BlobRequestOptions options)
+	AzureBlobLease(AzureBlobLease source, CloudBlockBlob blob, BlobRequestOptions options, StorageExecutor executor)
 	{
 		super(source);
 		this.offset = source.offset;
 		this.sequenceNumber = source.sequenceNumber;
 		this.blob = blob;
 		this.options = options;
+		this.executor = executor;
 	}
 	
-	AzureBlobLease(Lease source, CloudBlockBlob blob, BlobRequestOptions options)
+	AzureBlobLease(Lease source, CloudBlockBlob blob, BlobRequestOptions options, StorageExecutor executor)
 	{
 		super(source);
 		this.blob = blob;
 		this.options = options;
+		this.executor = executor;
 	}
 	
 	CloudBlockBlob getBlob() { return this.blob; }
@@ -72,6 +87,11 @@ final class AzureBlobLease extends Lease
 	
 	long getSequenceNumber() { return this.sequenceNumber; }
 	
+	boolean isListed() { return (this.listedLeaseState != null); }
+	
+	// Called once offset/sequenceNumber have been downloaded, or the lease state has been changed by this host.
+	void clearListedState() { this.listedLeaseState = null; }
+	
 	Checkpoint getCheckpoint()
 	{
 		return new Checkpoint(this.getPartitionId(), this.offset, this.sequenceNumber);
@@ -80,7 +100,14 @@ final class AzureBlobLease extends Lease
 	@Override
 	public CompletableFuture<Boolean> isExpired()
 	{
-		return CompletableFuture.supplyAsync(() ->
+		final LeaseState listed = this.listedLeaseState;
+		if (listed != null)
+		{
+			// The listing which built this object already brought the lease state, no need to ask again.
+			return CompletableFuture.completedFuture(listed != LeaseState.LEASED);
+		}
+		
+		return this.executor.supplyAsync(() ->
 		{
 			try
 			{
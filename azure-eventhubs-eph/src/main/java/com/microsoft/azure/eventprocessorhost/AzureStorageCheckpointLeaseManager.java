@@ -7,11 +7,16 @@ package com.microsoft.azure.eventprocessorhost;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.concurrent.*;
@@ -48,15 +53,22 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     private CloudBlobContainer eventHubContainer;
     private CloudBlobDirectory consumerGroupDirectory;
     
-    private ArrayList<String> partitionIds = null;
-    
     private Gson gson;
     
     private final BlobRequestOptions leaseOperationOptions = new BlobRequestOptions();
     private final BlobRequestOptions checkpointOperationOptions = new BlobRequestOptions();
     private final BlobRequestOptions renewRequestOptions = new BlobRequestOptions();
     
+    // Blocking storage calls for leases and for checkpoints run on separate threads, see StorageExecutor.
+    private StorageExecutor leaseExecutor;
+    private StorageExecutor checkpointExecutor;
+    
     private enum UploadActivity { Create, Acquire, Release, Update };
+    
+    private static final String METADATA_OWNER = "owner";
+    private static final String METADATA_EPOCH = "epoch";
+    private static final String METADATA_TOKEN = "token";
+    private static final String METADATA_CONTENT_MD5 = "leasemd5";
 
     private Hashtable<String, Checkpoint> latestCheckpoint = new Hashtable<String, Checkpoint>();
 
@@ -133,6 +145,47 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
         // Keep it separate in case we need to change something later.
         // Only used for leases, not checkpoints, so set max execution time to lease value
         this.renewRequestOptions.setMaximumExecutionTimeInMs(this.hostContext.getPartitionManagerOptions().getLeaseDurationInSeconds() * 1000);
+        
+        int storageThreadCount = AzureStoragePartitionManagerOptions.DefaultStorageThreadCount;
+        int storageQueueCapacity = AzureStoragePartitionManagerOptions.DefaultStorageQueueCapacity;
+        if (this.hostContext.getPartitionManagerOptions() instanceof AzureStoragePartitionManagerOptions)
+        {
+        	AzureStoragePartitionManagerOptions storageOptions = (AzureStoragePartitionManagerOptions)this.hostContext.getPartitionManagerOptions();
+        	storageThreadCount = storageOptions.getStorageThreadCount();
+        	storageQueueCapacity = storageOptions.getStorageQueueCapacity();
+        }
+        // A storage call which waits for a thread for half the renew interval is late enough to put leases at risk.
+        long queueWaitWarningMillis = this.hostContext.getPartitionManagerOptions().getLeaseRenewIntervalInSeconds() * 500L;
+        this.leaseExecutor = new StorageExecutor(this.hostContext, "lease", storageThreadCount, storageQueueCapacity, queueWaitWarningMillis);
+        this.checkpointExecutor = new StorageExecutor(this.hostContext, "checkpoint", storageThreadCount, storageQueueCapacity, queueWaitWarningMillis);
+    }
+    
+    // Empty until initialize() has been called.
+    List<StorageQueueMetrics> getStorageQueueMetrics()
+    {
+    	List<StorageQueueMetrics> metrics = new ArrayList<StorageQueueMetrics>();
+    	if (this.leaseExecutor != null)
+    	{
+    		metrics.add(this.leaseExecutor.getMetrics());
+    	}
+    	if (this.checkpointExecutor != null)
+    	{
+    		metrics.add(this.checkpointExecutor.getMetrics());
+    	}
+    	return metrics;
+    }
+    
+    // Called by EventProcessorHost once processing has stopped.
+    void shutdownStorageExecutors()
+    {
+    	if (this.leaseExecutor != null)
+    	{
+    		this.leaseExecutor.shutdown();
+    	}
+    	if (this.checkpointExecutor != null)
+    	{
+    		this.checkpointExecutor.shutdown();
+    	}
     }
     
     
@@ -176,7 +229,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     @Override
     public CompletableFuture<Checkpoint> getCheckpoint(String partitionId)
     {
-    	return CompletableFuture.supplyAsync(() ->
+    	return this.checkpointExecutor.supplyAsync(() ->
     	{
 	    	AzureBlobLease lease = null;
 			try
@@ -199,13 +252,13 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
 		    	// else offset is null meaning no checkpoint stored for this partition so return null
 	    	}
 	    	return checkpoint;
-    	}, this.hostContext.getExecutor());
+    	});
     }
 
     @Override
     public CompletableFuture<Checkpoint> createCheckpointIfNotExists(String partitionId)
     {
-    	return CompletableFuture.supplyAsync(() ->
+    	return this.checkpointExecutor.supplyAsync(() ->
     	{
 	    	// Normally the lease will already be created, checkpoint store is initialized after lease store.
 	    	AzureBlobLease lease = null;
@@ -228,7 +281,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
 	    	}
 	    	
 	    	return checkpoint;
-    	}, this.hostContext.getExecutor());
+    	});
     }
 
     @Override
@@ -240,7 +293,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     	updatedLease.setOffset(checkpoint.getOffset());
     	updatedLease.setSequenceNumber(checkpoint.getSequenceNumber());
 
-    	return updateLeaseInternal(updatedLease, this.checkpointOperationOptions, EventProcessorHostActionStrings.UPDATING_CHECKPOINT)
+    	return updateLeaseInternal(updatedLease, this.checkpointOperationOptions, this.checkpointExecutor, EventProcessorHostActionStrings.UPDATING_CHECKPOINT)
     	.thenAcceptAsync((result) ->
     	{
     		if (!result)
@@ -290,7 +343,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     
     private CompletableFuture<Boolean> leaseStoreExistsInternal(BlobRequestOptions options, String action)
     {
-    	return CompletableFuture.supplyAsync(() ->
+    	return this.leaseExecutor.supplyAsync(() ->
     	{
     		boolean result = false;
     		try
@@ -302,7 +355,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     			throw LoggingUtils.wrapException(e, action);
     		}
     		return result;
-    	}, this.hostContext.getExecutor());
+    	});
     }
 
     @Override
@@ -320,7 +373,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     
     private CompletableFuture<Void> createLeaseStoreIfNotExistsInternal(BlobRequestOptions options, String action)
     {
-    	return CompletableFuture.runAsync(() ->
+    	return this.leaseExecutor.runAsync(() ->
     	{
     		try
     		{
@@ -332,7 +385,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     		{
     			throw LoggingUtils.wrapException(e, action);
     		}
-    	}, this.hostContext.getExecutor());
+    	});
     }
 
     @Override
@@ -343,7 +396,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     
     private CompletableFuture<Void> deleteLeaseStoreInternal(BlobRequestOptions options)
     {
-    	return CompletableFuture.runAsync(() ->
+    	return this.leaseExecutor.runAsync(() ->
     	{
 	    	for (ListBlobItem blob : this.eventHubContainer.listBlobs(null, false, EnumSet.noneOf(BlobListingDetails.class), options, null))
 	    	{
@@ -385,27 +438,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
 				TRACE_LOGGER.error(this.hostContext.withHost("Failure while deleting lease store"), e);
 				throw new CompletionException(e);
 			}
-    	}, this.hostContext.getExecutor());
-    }
-    
-    private CompletableFuture<Lease> getLease(String partitionId)
-    {
-    	return CompletableFuture.supplyAsync(() ->
-    	{
-	    	Lease result = null;
-	    	
-	    	try
-	    	{
-	    		result = getLeaseInternal(partitionId, this.leaseOperationOptions);
-	    	}
-	    	catch (URISyntaxException|IOException|StorageException e)
-	    	{
-	    		TRACE_LOGGER.warn(this.hostContext.withHostAndPartition(partitionId, "Failure while getting lease details"), e);
-	    		throw LoggingUtils.wrapException(e, EventProcessorHostActionStrings.GETTING_LEASE);
-	    	}
-	    	
-	    	return result;
-    	}, this.hostContext.getExecutor());
+    	});
     }
     
     private AzureBlobLease getLeaseInternal(String partitionId, BlobRequestOptions options) throws URISyntaxException, IOException, StorageException
@@ -424,76 +457,105 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     @Override
     public CompletableFuture<List<Lease>> getAllLeases()
     {
-    	CompletableFuture<ArrayList<CompletableFuture<Lease>>> intermediateFuture = cachePartitionIds()
-    	.thenApplyAsync((empty) ->
-    	{
-            ArrayList<CompletableFuture<Lease>> leaseFutures = new ArrayList<CompletableFuture<Lease>>();
-            for (String id : this.partitionIds)
-            {
-            	leaseFutures.add(getLease(id));
-            }
-            return leaseFutures;
-    	}, this.hostContext.getExecutor());
-    	
-    	return intermediateFuture.thenComposeAsync((leaseFutures) ->
-    	{
-    		CompletableFuture<?>[] blah = new CompletableFuture<?>[leaseFutures.size()];
-    		return CompletableFuture.allOf(leaseFutures.toArray(blah));
-    	}, this.hostContext.getExecutor())
-    	.thenCombineAsync(intermediateFuture, (empty, leaseFutures) ->
+    	// One listing of the lease blobs, with metadata, brings the owner, epoch and token of every lease (see
+    	// setLeaseMetadata) along with its lease state, instead of downloading each lease blob and then asking
+    	// each one for its lease state. Lease blobs whose metadata was not written with their current contents
+    	// are downloaded. Offset and sequence number are left out: they are downloaded, with the owner, epoch and
+    	// token, only for the leases which end up being acquired, renewed, released or updated.
+    	return this.leaseExecutor.supplyAsync(() ->
     	{
     		ArrayList<Lease> leaseList = new ArrayList<Lease>();
-    		leaseFutures.forEach((lf) ->
+    		try
     		{
-    			try
-    			{
-					leaseList.add(lf.get());
-				}
-    			catch (Exception e)
-    			{
-    				throw new CompletionException(e);
-				}
-    		});
+	    		Iterable<ListBlobItem> blobList = this.consumerGroupDirectory.listBlobs("", true, EnumSet.of(BlobListingDetails.METADATA),
+	    				this.leaseOperationOptions, null);
+	    		for (ListBlobItem lbi : blobList)
+	    		{
+	    			if (lbi instanceof CloudBlockBlob)
+	    			{
+		    			Path p = Paths.get(lbi.getUri().getPath());
+		    			leaseList.add(leaseFromListing(p.getFileName().toString(), (CloudBlockBlob)lbi));
+	    			}
+	    		}
+    		}
+    		catch (URISyntaxException|IOException|StorageException e)
+    		{
+	    		TRACE_LOGGER.warn(this.hostContext.withHost("Failure while getting lease details"), e);
+	    		throw LoggingUtils.wrapException(e, EventProcessorHostActionStrings.GETTING_LEASE);
+    		}
     		return leaseList;
-    	}, this.hostContext.getExecutor());
+    	});
     }
     
-    private CompletableFuture<Void> cachePartitionIds()
+    private AzureBlobLease leaseFromListing(String partitionId, CloudBlockBlob leaseBlob) throws URISyntaxException, IOException, StorageException
     {
-    	CompletableFuture<Void> result = null;
-    	
-    	if (this.partitionIds != null)
+    	if (!isListedMetadataCurrent(leaseBlob))
     	{
-    		result = CompletableFuture.completedFuture(null);    		
+    		TRACE_LOGGER.debug(this.hostContext.withHostAndPartition(partitionId, "No lease metadata for the current contents, downloading lease"));
+    		return downloadLease(leaseBlob, this.leaseOperationOptions);
     	}
-    	else
+    	
+    	HashMap<String, String> metadata = leaseBlob.getMetadata();
+    	AzureBlobLease listedLease = new AzureBlobLease(partitionId, leaseBlob, this.leaseOperationOptions, this.leaseExecutor,
+    			leaseBlob.getProperties().getLeaseState());
+    	listedLease.setEpoch(Long.parseLong(metadata.get(AzureStorageCheckpointLeaseManager.METADATA_EPOCH)));
+    	listedLease.setOwner(metadata.getOrDefault(AzureStorageCheckpointLeaseManager.METADATA_OWNER, ""));
+    	listedLease.setToken(metadata.getOrDefault(AzureStorageCheckpointLeaseManager.METADATA_TOKEN, ""));
+    	return listedLease;
+    }
+    
+    // Older versions of EventProcessorHost download the attributes of a lease blob, metadata included, and upload new
+    // contents with that metadata: the owner, epoch and token in it then belong to earlier contents. So the metadata
+    // is only used when the MD5 of the contents it was written with, which setLeaseMetadata keeps in it, is that of
+    // the current contents, as reported by storage.
+    static boolean isListedMetadataCurrent(CloudBlockBlob leaseBlob)
+    {
+    	HashMap<String, String> metadata = leaseBlob.getMetadata();
+    	String epoch = metadata.get(AzureStorageCheckpointLeaseManager.METADATA_EPOCH);
+    	String writtenMD5 = metadata.get(AzureStorageCheckpointLeaseManager.METADATA_CONTENT_MD5);
+    	return (epoch != null) && epoch.matches("[0-9]+") && (writtenMD5 != null) && writtenMD5.equals(leaseBlob.getProperties().getContentMD5());
+    }
+    
+    // A lease from getAllLeases does not have offset and sequence number yet, and its owner, epoch and token may
+    // have changed since the listing. They are taken from the contents before the lease is renewed or uploaded, so
+    // that neither the checkpoint nor the epoch is overwritten with older values.
+    // Returns true if the lease changed hands since the listing.
+    private boolean refreshListedLease(AzureBlobLease lease) throws StorageException, IOException
+    {
+    	boolean changedHands = false;
+    	if (lease.isListed())
     	{
-    		result = CompletableFuture.runAsync(() ->
+    		changedHands = refreshListedLease(lease, downloadLease(lease.getBlob(), this.leaseOperationOptions));
+    		if (changedHands)
     		{
-				try
-				{
-					Iterable<ListBlobItem> blobList = this.consumerGroupDirectory.listBlobs("", true, null, this.leaseOperationOptions, null);
-					this.partitionIds = new ArrayList<String>();
-		    		blobList.forEach((lbi) ->
-		    		{
-		    			Path p = Paths.get(lbi.getUri().getPath());
-		    			this.partitionIds.add(p.getFileName().toString());
-		    		});
-				}
-				catch (URISyntaxException | StorageException e)
-				{
-					throw new CompletionException(e);
-				}
-    		}, this.hostContext.getExecutor());
-    		
+    			TRACE_LOGGER.debug(this.hostContext.withHostAndPartition(lease, "Lease changed hands since it was listed"));
+    		}
     	}
-    	return result;
+    	return changedHands;
+    }
+    
+    static boolean refreshListedLease(AzureBlobLease lease, AzureBlobLease downloaded)
+    {
+    	boolean changedHands = !nullToEmpty(lease.getOwner()).equals(nullToEmpty(downloaded.getOwner())) ||
+    			!nullToEmpty(lease.getToken()).equals(nullToEmpty(downloaded.getToken()));
+    	lease.setOwner(downloaded.getOwner());
+    	lease.setToken(downloaded.getToken());
+    	lease.setEpoch(Math.max(lease.getEpoch(), downloaded.getEpoch()));
+    	lease.setOffset(downloaded.getOffset());
+    	lease.setSequenceNumber(downloaded.getSequenceNumber());
+    	lease.clearListedState();
+    	return changedHands;
+    }
+    
+    private static String nullToEmpty(String value)
+    {
+    	return (value != null) ? value : "";
     }
 
     @Override
     public CompletableFuture<Lease> createLeaseIfNotExists(String partitionId)
     {
-    	return CompletableFuture.supplyAsync(() ->
+    	return this.leaseExecutor.supplyAsync(() ->
     	{
 	    	Lease returnLease = null;
 	    	try
@@ -508,7 +570,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
 	            throw LoggingUtils.wrapException(e, EventProcessorHostActionStrings.CREATING_LEASE);
 	    	}
 	    	return returnLease;
-    	}, this.hostContext.getExecutor());
+    	});
     }
     
     private AzureBlobLease createLeaseIfNotExistsInternal(String partitionId, BlobRequestOptions options) throws URISyntaxException, IOException, StorageException
@@ -517,7 +579,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     	try
     	{
     		CloudBlockBlob leaseBlob = this.consumerGroupDirectory.getBlockBlobReference(partitionId); // getBlockBlobReference does not take options
-    		returnLease = new AzureBlobLease(partitionId, leaseBlob, this.leaseOperationOptions);
+    		returnLease = new AzureBlobLease(partitionId, leaseBlob, this.leaseOperationOptions, this.leaseExecutor);
     		uploadLease(returnLease, leaseBlob, AccessCondition.generateIfNoneMatchCondition("*"), UploadActivity.Create, options);
             TRACE_LOGGER.info(this.hostContext.withHostAndPartition(partitionId,
                     "CreateLeaseIfNotExist OK - leaseContainerName: " + this.storageContainerName + " consumerGroupName: " + this.hostContext.getConsumerGroupName() +
@@ -546,7 +608,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     @Override
     public CompletableFuture<Void> deleteLease(Lease lease)
     {
-    	return CompletableFuture.runAsync(() ->
+    	return this.leaseExecutor.runAsync(() ->
     	{
 	    	TRACE_LOGGER.info(this.hostContext.withHostAndPartition(lease,"Deleting lease"));
 	    	try
@@ -558,13 +620,13 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
 	    		TRACE_LOGGER.error(this.hostContext.withHostAndPartition(lease, "Exception deleting lease"), e);
 	    		throw LoggingUtils.wrapException(e, EventProcessorHostActionStrings.DELETING_LEASE);
 			}
-    	}, this.hostContext.getExecutor());
+    	});
     }
 
     @Override
     public CompletableFuture<Boolean> acquireLease(Lease lease)
     {
-    	return CompletableFuture.supplyAsync(() ->
+    	return this.leaseExecutor.supplyAsync(() ->
     	{
 	    	boolean result = false;
 	    	try
@@ -577,7 +639,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
 	    		throw LoggingUtils.wrapException(e, EventProcessorHostActionStrings.ACQUIRING_LEASE);
 	    	}
 	        return result;
-    	}, this.hostContext.getExecutor());
+    	});
     }
     
     private boolean acquireLeaseInternal(AzureBlobLease lease) throws IOException, StorageException
@@ -593,6 +655,11 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     	}
     	try
     	{
+    		if (refreshListedLease(lease))
+    		{
+    			// Acquiring, or stealing, was decided on the owner seen by the scan. Leave the lease to the next scan.
+    			return false;
+    		}
     		String newToken = null;
     		leaseBlob.downloadAttributes();
 	    	if (leaseBlob.getProperties().getLeaseState() == LeaseState.LEASED)
@@ -645,7 +712,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     @Override
     public CompletableFuture<Boolean> renewLease(Lease lease)
     {
-    	return CompletableFuture.supplyAsync(() ->
+    	return this.leaseExecutor.supplyAsync(() ->
     	{
 	    	TRACE_LOGGER.debug(this.hostContext.withHostAndPartition(lease, "Renewing lease"));
 	    	
@@ -654,6 +721,11 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
 	    	
 	    	try
 	    	{
+	    		if (refreshListedLease((AzureBlobLease)lease))
+	    		{
+	    			// Somebody else holds the lease now.
+	    			return false;
+	    		}
 	    		leaseBlob.renewLease(AccessCondition.generateLeaseCondition(lease.getToken()), this.renewRequestOptions, null);
 	    	}
 	    	catch (StorageException se)
@@ -667,15 +739,19 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
 	        		throw LoggingUtils.wrapException(se, EventProcessorHostActionStrings.RENEWING_LEASE);
 	    		}
 	    	}
+	    	catch (IOException ie)
+	    	{
+	    		throw LoggingUtils.wrapException(ie, EventProcessorHostActionStrings.RENEWING_LEASE);
+	    	}
 	    	
 	    	return retval;
-    	}, this.hostContext.getExecutor());
+    	});
     }
 
     @Override
     public CompletableFuture<Void> releaseLease(Lease lease)
     {
-    	return CompletableFuture.runAsync(() ->
+    	return this.leaseExecutor.runAsync(() ->
     	{
 	    	TRACE_LOGGER.debug(this.hostContext.withHostAndPartition(lease, "Releasing lease"));
 	    	
@@ -684,6 +760,11 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
 	    	try
 	    	{
 	    		String leaseId = lease.getToken();
+	    		if (refreshListedLease(inLease))
+	    		{
+	    			// Somebody else holds the lease now, the intent of releasing it has been achieved.
+	    			return;
+	    		}
 	    		AzureBlobLease releasedCopy = new AzureBlobLease(inLease);
 	    		releasedCopy.setToken("");
 	    		releasedCopy.setOwner("");
@@ -705,13 +786,13 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
 	    	{
 	    		throw LoggingUtils.wrapException(ie, EventProcessorHostActionStrings.RELEASING_LEASE);
 	    	}
-    	}, this.hostContext.getExecutor());
+    	});
     }
 
     @Override
     public CompletableFuture<Boolean> updateLease(Lease lease)
     {
-    	return updateLeaseInternal((AzureBlobLease)lease, this.leaseOperationOptions, EventProcessorHostActionStrings.UPDATING_LEASE)
+    	return updateLeaseInternal((AzureBlobLease)lease, this.leaseOperationOptions, this.leaseExecutor, EventProcessorHostActionStrings.UPDATING_LEASE)
     	.whenCompleteAsync((result, e) ->
     	{
     		if (e != null)
@@ -721,7 +802,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     	}, this.hostContext.getExecutor());
     }
     
-    public CompletableFuture<Boolean> updateLeaseInternal(AzureBlobLease lease, BlobRequestOptions options, String action)
+    public CompletableFuture<Boolean> updateLeaseInternal(AzureBlobLease lease, BlobRequestOptions options, StorageExecutor storageExecutor, String action)
     {
 
     	if (lease == null)
@@ -740,11 +821,16 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     	// Renew the lease to make sure the update will go through.
     	// Renewing the lease is always logically a lease operation, even if it is part of writing a checkpoint, so
     	// don't pass options.
-    	return renewLease(lease).thenApplyAsync((result) ->
+    	// The upload runs on the threads for the kind of update, so that checkpoints do not queue up in front of lease renewals.
+    	return renewLease(lease).thenComposeAsync((result) -> storageExecutor.supplyAsync(() ->
     	{
 	    	CloudBlockBlob leaseBlob = lease.getBlob();
 	    	try
 	    	{
+	    		if (refreshListedLease(lease))
+	    		{
+	    			return false;
+	    		}
 	    		uploadLease(lease, leaseBlob, AccessCondition.generateLeaseCondition(token), UploadActivity.Update, options);
 	    	}
 	    	catch (StorageException se)
@@ -764,7 +850,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
 	    	}
 	    	
 	    	return true;
-    	}, this.hostContext.getExecutor());
+    	}), this.hostContext.getExecutor());
     }
 
     private AzureBlobLease downloadLease(CloudBlockBlob blob, BlobRequestOptions options) throws StorageException, IOException
@@ -772,7 +858,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     	String jsonLease = blob.downloadText(null, null, options, null);
     	TRACE_LOGGER.debug(this.hostContext.withHost("Raw JSON downloaded: " + jsonLease));
     	AzureBlobLease rehydrated = this.gson.fromJson(jsonLease, AzureBlobLease.class);
-    	AzureBlobLease blobLease = new AzureBlobLease(rehydrated, blob, this.leaseOperationOptions);
+    	AzureBlobLease blobLease = new AzureBlobLease(rehydrated, blob, this.leaseOperationOptions, this.leaseExecutor);
     	
     	if (blobLease.getOffset() != null)
     	{
@@ -808,6 +894,7 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
     	}
     	
     	String jsonLease = this.gson.toJson(lease);
+    	setLeaseMetadata(lease, blob, jsonLease);
  		blob.uploadText(jsonLease, null, condition, options, null);
 		// During create, we blindly try upload and it may throw. Doing the logging after the upload
 		// avoids a spurious trace in that case.
@@ -815,6 +902,71 @@ class AzureStorageCheckpointLeaseManager implements ICheckpointManager, ILeaseMa
                 "Raw JSON uploading for " + activity + ": " + jsonLease));
     }
     
+    // The lease is also kept in the metadata of the blob, which is written along with the contents, so that getAllLeases
+    // can get it from a listing. The MD5 of the contents goes with it, see isListedMetadataCurrent. Storage does not accept
+    // empty metadata values, so empty owner and token are left out; and a lease which cannot be carried in HTTP headers is
+    // left out altogether, which makes getAllLeases download it.
+    static void setLeaseMetadata(AzureBlobLease lease, CloudBlockBlob blob, String jsonLease)
+    {
+    	HashMap<String, String> metadata = blob.getMetadata();
+    	metadata.remove(AzureStorageCheckpointLeaseManager.METADATA_OWNER);
+    	metadata.remove(AzureStorageCheckpointLeaseManager.METADATA_EPOCH);
+    	metadata.remove(AzureStorageCheckpointLeaseManager.METADATA_TOKEN);
+    	metadata.remove(AzureStorageCheckpointLeaseManager.METADATA_CONTENT_MD5);
+    	
+    	String contentMD5 = contentMD5(jsonLease);
+    	if (!fitsInMetadata(lease.getOwner()) || !fitsInMetadata(lease.getToken()) || (contentMD5 == null))
+    	{
+    		return;
+    	}
+    	
+    	metadata.put(AzureStorageCheckpointLeaseManager.METADATA_CONTENT_MD5, contentMD5);
+    	metadata.put(AzureStorageCheckpointLeaseManager.METADATA_EPOCH, Long.toString(lease.getEpoch()));
+    	if ((lease.getOwner() != null) && !lease.getOwner().isEmpty())
+    	{
+    		metadata.put(AzureStorageCheckpointLeaseManager.METADATA_OWNER, lease.getOwner());
+    	}
+    	if ((lease.getToken() != null) && !lease.getToken().isEmpty())
+    	{
+    		metadata.put(AzureStorageCheckpointLeaseManager.METADATA_TOKEN, lease.getToken());
+    	}
+    }
+    
+    // Base64 of the MD5 of the contents as uploadText writes them, in UTF-8: the form storage reports Content-MD5 in.
+    static String contentMD5(String jsonLease)
+    {
+    	try
+    	{
+    		return Base64.getEncoder().encodeToString(MessageDigest.getInstance("MD5").digest(jsonLease.getBytes(StandardCharsets.UTF_8)));
+    	}
+    	catch (NoSuchAlgorithmException e)
+    	{
+    		// Without MD5 the metadata is never trusted, and getAllLeases downloads every lease.
+    		return null;
+    	}
+    }
+    
+    private static boolean fitsInMetadata(String value)
+    {
+    	if ((value == null) || value.isEmpty())
+    	{
+    		return true;
+    	}
+    	if (!value.equals(value.trim()))
+    	{
+    		return false;
+    	}
+    	for (int i = 0; i < value.length(); i++)
+    	{
+    		char c = value.charAt(i);
+    		if ((c < 0x20) || (c > 0x7E))
+    		{
+    			return false;
+    		}
+    	}
+    	return true;
+    }
+    
     private boolean wasLeaseLost(StorageException se, String partitionId)
     {
     	boolean retval = false;
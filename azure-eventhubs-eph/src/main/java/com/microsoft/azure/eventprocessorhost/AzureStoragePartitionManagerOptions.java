@@ -7,6 +7,19 @@ package com.microsoft.azure.eventprocessorhost;
 
 public final class AzureStoragePartitionManagerOptions extends PartitionManagerOptions
 {
+	/**
+	 * The default number of threads making Azure Storage calls for lease operations, and again for checkpoint operations.
+	 */
+	public final static int DefaultStorageThreadCount = 4;
+
+	/**
+	 * The default number of Azure Storage calls for lease operations, and again for checkpoint operations, which can wait for a thread.
+	 */
+	public final static int DefaultStorageQueueCapacity = 1000;
+
+	private int storageThreadCount = AzureStoragePartitionManagerOptions.DefaultStorageThreadCount;
+	private int storageQueueCapacity = AzureStoragePartitionManagerOptions.DefaultStorageQueueCapacity;
+
 	public AzureStoragePartitionManagerOptions()
 	{
 	}
@@ -21,4 +34,52 @@ public final class AzureStoragePartitionManagerOptions extends PartitionManagerO
 		}
 		super.setLeaseDurationInSeconds(duration);
 	}
+
+	/**
+	 * Gets the number of threads making Azure Storage calls. Defaults to DefaultStorageThreadCount.
+	 *
+	 * @return  number of storage threads
+	 */
+	public int getStorageThreadCount() { return this.storageThreadCount; }
+
+	/**
+	 * Sets the number of threads making Azure Storage calls. Must be greater than 0.
+	 * <p>
+	 * Azure Storage calls block, so they are made on threads of their own rather than on the executor of the
+	 * event processor host: slow storage does not hold up event processing, and busy event processors do not
+	 * hold up lease renewals. Lease operations and checkpoint operations each get this many threads, so that
+	 * frequent checkpointing does not delay lease renewals either.
+	 *
+	 * @param threadCount  new value for the number of storage threads
+	 */
+	public void setStorageThreadCount(int threadCount)
+	{
+		if (threadCount <= 0)
+		{
+			throw new IllegalArgumentException("Storage thread count must be greater than 0");
+		}
+		this.storageThreadCount = threadCount;
+	}
+
+	/**
+	 * Gets the number of Azure Storage calls which can wait for a storage thread. Defaults to DefaultStorageQueueCapacity.
+	 *
+	 * @return  storage queue capacity
+	 */
+	public int getStorageQueueCapacity() { return this.storageQueueCapacity; }
+
+	/**
+	 * Sets the number of Azure Storage calls which can wait for a storage thread, for lease operations and again for
+	 * checkpoint operations. Must be greater than 0. Calls made while the queue is full fail with RejectedExecutionException.
+	 *
+	 * @param queueCapacity  new value for the storage queue capacity
+	 */
+	public void setStorageQueueCapacity(int queueCapacity)
+	{
+		if (queueCapacity <= 0)
+		{
+			throw new IllegalArgumentException("Storage queue capacity must be greater than 0");
+		}
+		this.storageQueueCapacity = queueCapacity;
+	}
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+
+package com.microsoft.azure.eventprocessorhost;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import com.microsoft.azure.eventhubs.EventHubClient;
+import com.microsoft.azure.eventhubs.EventHubClientOptions;
+import com.microsoft.azure.eventhubs.EventHubException;
+import com.microsoft.azure.eventhubs.ReactorGroup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// The EventHubClients the partition pumps create their receivers on. With a pool size of 0 (the default),
+// every pump gets a client of its own. Otherwise partitions are assigned by hash to one of a fixed number of
+// shared clients, each of which is created by the first pump that needs it and closed when the last pump
+// using it releases it.
+class EventHubClientPool
+{
+	private final HostContext hostContext;
+	private final Object synchronizer = new Object();
+	private SharedClient[] sharedClients = null;
+
+	private static final Logger TRACE_LOGGER = LoggerFactory.getLogger(EventHubClientPool.class);
+
+	EventHubClientPool(HostContext hostContext)
+	{
+		this.hostContext = hostContext;
+	}
+
+	// Each successful acquire must be matched by a release. A failed or cancelled acquire releases itself.
+	CompletableFuture<EventHubClient> acquire(String partitionId)
+	{
+		final int poolSize = this.hostContext.getEventProcessorOptions().getClientPoolSize();
+		if (poolSize <= 0)
+		{
+			return createClient();
+		}
+
+		SharedClient sharedClient = null;
+		synchronized (this.synchronizer)
+		{
+			if (this.sharedClients == null)
+			{
+				this.sharedClients = new SharedClient[poolSize];
+			}
+
+			final int index = indexOf(partitionId, this.sharedClients.length);
+			sharedClient = this.sharedClients[index];
+			if ((sharedClient == null) || sharedClient.clientFuture.isCompletedExceptionally())
+			{
+				TRACE_LOGGER.info(this.hostContext.withHostAndPartition(partitionId, "Opening shared EH client " + index));
+				sharedClient = new SharedClient(index, createClient());
+				this.sharedClients[index] = sharedClient;
+			}
+			sharedClient.referenceCount++;
+		}
+
+		final SharedClient acquired = sharedClient;
+		final CompletableFuture<EventHubClient> acquireFuture = new CompletableFuture<EventHubClient>();
+		acquired.clientFuture.whenComplete((client, e) ->
+		{
+			if (e != null)
+			{
+				acquireFuture.completeExceptionally(e);
+			}
+			else
+			{
+				acquireFuture.complete(client);
+			}
+		});
+		acquireFuture.whenCompleteAsync((client, e) ->
+		{
+			// Covers cancellation by the pump too: the pump only releases clients it has got hold of.
+			if (e != null)
+			{
+				release(acquired);
+			}
+		}, this.hostContext.getExecutor());
+
+		return acquireFuture;
+	}
+
+	CompletableFuture<Void> release(String partitionId, EventHubClient client)
+	{
+		SharedClient sharedClient = null;
+		synchronized (this.synchronizer)
+		{
+			if (this.sharedClients != null)
+			{
+				sharedClient = this.sharedClients[indexOf(partitionId, this.sharedClients.length)];
+			}
+		}
+
+		if ((sharedClient == null) || (sharedClient.clientFuture.getNow(null) != client))
+		{
+			// A client of the pump's own.
+			return client.close();
+		}
+
+		return release(sharedClient);
+	}
+
+	private CompletableFuture<Void> release(SharedClient sharedClient)
+	{
+		synchronized (this.synchronizer)
+		{
+			sharedClient.referenceCount--;
+			if (sharedClient.referenceCount > 0)
+			{
+				return CompletableFuture.completedFuture(null);
+			}
+
+			if (this.sharedClients[sharedClient.index] == sharedClient)
+			{
+				this.sharedClients[sharedClient.index] = null;
+			}
+		}
+
+		// The last pump may have given up while the client was still being created: close it once it is.
+		return sharedClient.clientFuture.handleAsync((client, e) -> client, this.hostContext.getExecutor())
+		.thenComposeAsync((client) ->
+		{
+			if (client == null)
+			{
+				return CompletableFuture.completedFuture(null);
+			}
+
+			TRACE_LOGGER.info(this.hostContext.withHost("Closing shared EH client " + sharedClient.index));
+			return client.close();
+		}, this.hostContext.getExecutor());
+	}
+
+	private CompletableFuture<EventHubClient> createClient()
+	{
+		CompletableFuture<EventHubClient> createFuture = null;
+		try
+		{
+			final ReactorGroup reactorGroup = this.hostContext.getEventProcessorOptions().getReactorGroup();
+			createFuture = reactorGroup == null
+					? EventHubClient.create(this.hostContext.getEventHubConnectionString(),
+							this.hostContext.getRetryPolicy(), this.hostContext.getExecutor())
+					: EventHubClient.create(this.hostContext.getEventHubConnectionString(),
+							this.hostContext.getRetryPolicy(), this.hostContext.getExecutor(),
+							new EventHubClientOptions().with(options -> options.reactorGroup = reactorGroup));
+		}
+		catch (EventHubException | IOException e)
+		{
+			createFuture = new CompletableFuture<EventHubClient>();
+			createFuture.completeExceptionally(e);
+		}
+		return createFuture;
+	}
+
+	// Partition ids are normally "0".."n-1", which spread evenly with a plain modulo.
+	private static int indexOf(String partitionId, int poolSize)
+	{
+		int hash;
+		try
+		{
+			hash = Integer.parseInt(partitionId);
+		}
+		catch (NumberFormatException e)
+		{
+			hash = partitionId.hashCode();
+		}
+		return (hash & Integer.MAX_VALUE) % poolSize;
+	}
+
+	private static class SharedClient
+	{
+		final int index;
+		final CompletableFuture<EventHubClient> clientFuture;
+		int referenceCount = 0;
+
+		SharedClient(int index, CompletableFuture<EventHubClient> clientFuture)
+		{
+			this.index = index;
+			this.clientFuture = clientFuture;
+		}
+	}
+}
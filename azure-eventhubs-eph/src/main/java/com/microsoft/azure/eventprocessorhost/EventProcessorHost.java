@@ -11,6 +11,8 @@ import com.microsoft.azure.storage.StorageException;
 
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.*;
 
@@ -354,6 +356,23 @@ public final class EventProcessorHost
      */
     public void setPartitionManagerOptions(PartitionManagerOptions options) { this.partitionManagerOptions = options; }
     
+    /**
+     * Returns a snapshot of the queues of the Azure Storage threads which the default lease and checkpoint manager
+     * runs its storage calls on: one for the "lease" lane and one for the "checkpoint" lane, each with its queue depth
+     * and how long calls have waited for a thread. Useful to monitor whether storage keeps up with lease renewals.
+     * 
+     * @return the metrics of each lane, or an empty list when using user implementations of ILeaseManager and
+     * ICheckpointManager, or before registering an event processor
+     */
+    public List<StorageQueueMetrics> getStorageQueueMetrics()
+    {
+    	if (this.initializeLeaseManager)
+    	{
+    		return ((AzureStorageCheckpointLeaseManager)this.hostContext.getLeaseManager()).getStorageQueueMetrics();
+    	}
+    	return new ArrayList<StorageQueueMetrics>();
+    }
+    
     /**
      * Register class for event processor and start processing.
      * 
@@ -489,6 +508,15 @@ public final class EventProcessorHost
         // this.partitionManager is not null.
         CompletableFuture<Void> result = this.partitionManager.stopPartitions();
         
+        // If we created the lease manager, stop its storage threads also.
+        if (this.initializeLeaseManager)
+        {
+        	result = result.whenComplete((empty, e) ->
+        	{
+        		((AzureStorageCheckpointLeaseManager)this.hostContext.getLeaseManager()).shutdownStorageExecutors();
+        	});
+        }
+        
         // If we own the executor, stop it also.
         // Owned executor is also created in constructor.
     	if (this.weOwnExecutor)
@@ -10,6 +10,7 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 
 import com.microsoft.azure.eventhubs.EventPosition;
+import com.microsoft.azure.eventhubs.ReactorGroup;
 
 /***
  * Options affecting the behavior of the event processor host instance in general.
@@ -22,6 +23,10 @@ public final class EventProcessorOptions
     private int maxBatchSize = 10;
     private int prefetchCount = 300;
     private Duration receiveTimeOut = Duration.ofMinutes(1);
+    private ReactorGroup reactorGroup = null;
+    private int clientPoolSize = 0;
+    private int autoCheckpointEventCount = 0;
+    private Duration autoCheckpointInterval = null;
     private Function<String, EventPosition> initialPositionProvider = (partitionId) -> { return EventPosition.fromStartOfStream(); };
 
     /***
@@ -35,6 +40,9 @@ public final class EventProcessorOptions
      * InitialPositionProvider: uses the last checkpoint, or START_OF_STREAM
      * InvokeProcessorAfterReceiveTimeout: false
      * ReceiverRuntimeMetricEnabled: false
+     * ClientPoolSize: 0
+     * AutoCheckpointEventCount: 0 (no automatic checkpoints)
+     * AutoCheckpointInterval: null (no automatic checkpoints)
      * </pre>
      * 
      * @return an EventProcessorOptions instance with all options set to the default values
@@ -232,6 +240,120 @@ public final class EventProcessorOptions
         this.receiverRuntimeMetricEnabled = value;
     }
 
+    /**
+     * Returns the {@link ReactorGroup} whose I/O threads the EventHubClients of the partition pumps run on.
+     * 
+     * @return the ReactorGroup, or null if each EventHubClient has its own I/O thread
+     */
+    public ReactorGroup getReactorGroup()
+    {
+        return this.reactorGroup;
+    }
+
+    /**
+     * Sets the {@link ReactorGroup} whose I/O threads the EventHubClients of the partition pumps run on.
+     * <p>
+     * The event processor host opens an EventHubClient for each partition it owns - each with its own I/O thread by default.
+     * With a ReactorGroup, all of them share the few I/O threads of the group. The group is not closed by the event processor host:
+     * close it after unregistering the event processor.
+     * 
+     * @param reactorGroup the ReactorGroup, or null to give each EventHubClient its own I/O thread
+     */
+    public void setReactorGroup(ReactorGroup reactorGroup)
+    {
+        this.reactorGroup = reactorGroup;
+    }
+
+    /**
+     * Returns the number of EventHubClients which the partition pumps of the event processor host share.
+     * 
+     * @return the number of shared EventHubClients, or 0 if each partition pump has an EventHubClient of its own
+     */
+    public int getClientPoolSize()
+    {
+        return this.clientPoolSize;
+    }
+
+    /**
+     * Sets the number of EventHubClients which the partition pumps of the event processor host share.
+     * <p>
+     * The default is 0: each partition pump opens an EventHubClient - a connection - of its own, so the number of connections
+     * grows with the number of partitions the host owns, and taking over a partition pays for a new connection.
+     * With a pool size greater than 0, the pumps create their receivers on that many shared EventHubClients instead - partitions are
+     * assigned to them by hash. A shared EventHubClient is opened by the first pump which needs it, and closed when the last one is done with it.
+     * 
+     * @param clientPoolSize the number of shared EventHubClients, or 0 to give each partition pump an EventHubClient of its own
+     */
+    public void setClientPoolSize(int clientPoolSize)
+    {
+        if (clientPoolSize < 0)
+        {
+            throw new IllegalArgumentException("clientPoolSize cannot be negative");
+        }
+        this.clientPoolSize = clientPoolSize;
+    }
+
+    /**
+     * Returns the number of events after which the event processor host checkpoints a partition on its own.
+     * 
+     * @return the number of events, or 0 if checkpoints are not written after a number of events
+     */
+    public int getAutoCheckpointEventCount()
+    {
+        return this.autoCheckpointEventCount;
+    }
+
+    /**
+     * Sets the number of events after which the event processor host checkpoints a partition on its own.
+     * <p>
+     * With automatic checkpoints, the position of the last event of the latest batch for which IEventProcessor.onEvents
+     * returned without throwing is written to the checkpoint store once this many events have been processed since the last checkpoint, or
+     * once the auto checkpoint interval has passed, whichever comes first. Only the latest position is kept, and
+     * only one checkpoint write per partition is in progress at a time: positions reached in the meantime are
+     * written by a single write once it completes. The latest position is also written when the partition is
+     * closed, unless the lease has been lost.
+     * <p>
+     * The default is 0: no checkpoints are written after a number of events. Automatic checkpoints can be used
+     * alongside PartitionContext.checkpoint(), a checkpoint never moves backwards.
+     * 
+     * @param autoCheckpointEventCount the number of events, or 0 to not write checkpoints after a number of events
+     */
+    public void setAutoCheckpointEventCount(int autoCheckpointEventCount)
+    {
+        if (autoCheckpointEventCount < 0)
+        {
+            throw new IllegalArgumentException("autoCheckpointEventCount cannot be negative");
+        }
+        this.autoCheckpointEventCount = autoCheckpointEventCount;
+    }
+
+    /**
+     * Returns the interval after which the event processor host checkpoints a partition on its own.
+     * 
+     * @return the interval, or null if checkpoints are not written after an interval
+     */
+    public Duration getAutoCheckpointInterval()
+    {
+        return this.autoCheckpointInterval;
+    }
+
+    /**
+     * Sets the interval after which the event processor host checkpoints a partition on its own,
+     * if events have been processed since the last checkpoint. See {@link #setAutoCheckpointEventCount(int)}.
+     * <p>
+     * The default is null: no checkpoints are written after an interval.
+     * 
+     * @param autoCheckpointInterval the interval, or null to not write checkpoints after an interval
+     */
+    public void setAutoCheckpointInterval(Duration autoCheckpointInterval)
+    {
+        if ((autoCheckpointInterval != null) && (autoCheckpointInterval.isNegative() || autoCheckpointInterval.isZero()))
+        {
+            throw new IllegalArgumentException("autoCheckpointInterval must be positive");
+        }
+        this.autoCheckpointInterval = autoCheckpointInterval;
+    }
+
     void notifyOfException(String hostname, Exception exception, String action)
     {
     	notifyOfException(hostname, exception, action, ExceptionReceivedEventArgs.NO_ASSOCIATED_PARTITION);
@@ -27,6 +27,8 @@ final class HostContext
 	final private ILeaseManager leaseManager;
 	final private ICheckpointManager checkpointManager;
 	
+	final private EventHubClientPool clientPool;
+	
 	// Cannot be final because it is not available at HostContext construction time.
 	private EventProcessorOptions eventProcessorOptions = null;
 	
@@ -51,6 +53,8 @@ final class HostContext
 		
 		this.leaseManager = leaseManager;
 		this.checkpointManager = checkpointManager;
+		
+		this.clientPool = new EventHubClientPool(this);
 	}
 	
 	ScheduledExecutorService getExecutor() { return this.executor; }
@@ -69,6 +73,8 @@ final class HostContext
 	
 	ICheckpointManager getCheckpointManager() { return this.checkpointManager; }
 	
+	EventHubClientPool getClientPool() { return this.clientPool; }
+	
 	PartitionManagerOptions getPartitionManagerOptions() { return this.host.getPartitionManagerOptions(); }
 	
 	
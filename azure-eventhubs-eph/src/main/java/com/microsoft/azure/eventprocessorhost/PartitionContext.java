@@ -100,16 +100,16 @@ public class PartitionContext
 
     void setOffsetAndSequenceNumber(EventData event)
     {
-		if (event.getSystemProperties().getSequenceNumber() >= this.sequenceNumber)
+		if (event.getSequenceNumber() >= this.sequenceNumber)
 		{
-			this.offset = event.getSystemProperties().getOffset();
-			this.sequenceNumber = event.getSystemProperties().getSequenceNumber();
+			this.offset = event.getOffset();
+			this.sequenceNumber = event.getSequenceNumber();
 		}
 		else
 		{
 			TRACE_LOGGER.info(this.hostContext.withHostAndPartition(this.partitionId,
-                    "setOffsetAndSequenceNumber(" + event.getSystemProperties().getOffset() + "//" +
-					event.getSystemProperties().getSequenceNumber() + ") would move backwards, ignoring"));
+                    "setOffsetAndSequenceNumber(" + event.getOffset() + "//" +
+					event.getSequenceNumber() + ") would move backwards, ignoring"));
 		}
     }
     
@@ -195,7 +195,7 @@ public class PartitionContext
      */
     public CompletableFuture<Void> checkpoint(EventData event)
     {
-    	return persistCheckpoint(new Checkpoint(this.partitionId, event.getSystemProperties().getOffset(), event.getSystemProperties().getSequenceNumber()));
+    	return persistCheckpoint(new Checkpoint(this.partitionId, event.getOffset(), event.getSequenceNumber()));
     }
     
     private CompletableFuture<Void> persistCheckpoint(Checkpoint persistThis)
@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -386,7 +387,7 @@ class PartitionManager
         final BoolWrapper resultsAreComplete = new BoolWrapper(true);
 
         // Stage A: get the list of all leases
-        CompletableFuture<Lease> leaseToStealFuture = this.hostContext.getLeaseManager().getAllLeases()
+        this.hostContext.getLeaseManager().getAllLeases()
         // Stage B: check the state of each lease in parallel, acquiring those which are expired
         .thenApplyAsync((leaseList) ->
         {
@@ -459,54 +460,61 @@ class PartitionManager
         	}
         	return result;
         }, this.hostContext.getExecutor())
-        // Stage D: consume the counting done by the per-lease stage to decide whether and what lease to steal
+        // Stage D: consume the counting done by the per-lease stage to decide whether and what leases to steal
         .thenApplyAsync((empty) ->
         {
         	TRACE_LOGGER.debug(this.hostContext.withHost("Lease scan steal check"));
         	
             // Grab more leases if available and needed for load balancing, but only if all leases were checked OK.
             // Don't try to steal if numbers are in doubt due to errors in the previous stage. 
-        	Lease stealThisLease = null;
+        	List<Lease> stealTheseLeases = new ArrayList<Lease>();
             if ((leasesOwnedByOthers.size() > 0) && resultsAreComplete.value)
             {
-	            stealThisLease = whichLeaseToSteal(leasesOwnedByOthers.values(), ourLeasesCount.get());
+	            stealTheseLeases = whichLeasesToSteal(leasesOwnedByOthers.values(), ourLeasesCount.get(),
+	            		this.hostContext.getPartitionManagerOptions().getMaxLeasesToStealPerScan());
             }
-        	return stealThisLease;
-        }, this.hostContext.getExecutor());
-        
-        // Stage E: if D identified a candidate for stealing, attempt to steal it. Return true on successful stealing, false in all other cases
-        leaseToStealFuture.thenComposeAsync((stealThisLease) ->
-        {
-        	return (stealThisLease != null) ? this.hostContext.getLeaseManager().acquireLease(stealThisLease) : CompletableFuture.completedFuture(false);
+        	return stealTheseLeases;
         }, this.hostContext.getExecutor())
-        // Stage F: consume results from E and D. Start a pump if a lease was stolen.
-        .thenCombineAsync(leaseToStealFuture, (stealSucceeded, lease) ->
+        // Stage E: if D identified candidates for stealing, attempt to steal them in parallel. Start a pump for each lease stolen.
+        .thenComposeAsync((stealTheseLeases) ->
         {
-            if (stealSucceeded)
-            {
-        		TRACE_LOGGER.debug(this.hostContext.withHostAndPartition(lease, "Stole lease"));
-        		this.pump.addPump(lease);
-            }
-            return lease;
+        	CompletableFuture<?>[] stealFutures = new CompletableFuture<?>[stealTheseLeases.size()];
+        	for (int i = 0; i < stealTheseLeases.size(); i++)
+        	{
+        		final Lease stealThisLease = stealTheseLeases.get(i);
+        		stealFutures[i] = this.hostContext.getLeaseManager().acquireLease(stealThisLease)
+        		.thenAcceptAsync((stealSucceeded) ->
+        		{
+                    if (stealSucceeded)
+                    {
+                		TRACE_LOGGER.debug(this.hostContext.withHostAndPartition(stealThisLease, "Stole lease"));
+                		this.pump.addPump(stealThisLease);
+                    }
+        		}, this.hostContext.getExecutor())
+        		// Stage E.1: ALWAYS RUN REGARDLESS OF EXCEPTIONS -- log/notify, do not fail the other steals
+        		.handleAsync((empty, e) ->
+        		{
+        			if (e != null)
+        			{
+            			Exception notifyWith = (Exception)LoggingUtils.unwrapException(e, null);
+    	    			TRACE_LOGGER.warn(this.hostContext.withHost("Exception stealing lease for partition " + stealThisLease.getPartitionId()), notifyWith);
+    	    			this.hostContext.getEventProcessorOptions().notifyOfException(this.hostContext.getHostName(), notifyWith,
+    	    					EventProcessorHostActionStrings.STEALING_LEASE, stealThisLease.getPartitionId());
+        			}
+        			return null;
+        		}, this.hostContext.getExecutor());
+        	}
+        	return CompletableFuture.allOf(stealFutures);
         }, this.hostContext.getExecutor())
-        // Stage G: ALWAYS RUN REGARDLESS OF EXCEPTIONS -- log/notify, schedule next scan
-        .whenCompleteAsync((lease, e) ->
+        // Stage F: ALWAYS RUN REGARDLESS OF EXCEPTIONS -- log/notify, schedule next scan
+        .whenCompleteAsync((empty, e) ->
         {
         	if (e != null)
         	{
     			Exception notifyWith = (Exception)LoggingUtils.unwrapException(e, null);
-    			if (lease != null)
-    			{
-	    			TRACE_LOGGER.warn(this.hostContext.withHost("Exception stealing lease for partition " + lease.getPartitionId()), notifyWith);
-	    			this.hostContext.getEventProcessorOptions().notifyOfException(this.hostContext.getHostName(), notifyWith,
-	    					EventProcessorHostActionStrings.STEALING_LEASE, lease.getPartitionId());
-    			}
-    			else
-    			{
-	    			TRACE_LOGGER.warn(this.hostContext.withHost("Exception stealing lease"), notifyWith);
-	    			this.hostContext.getEventProcessorOptions().notifyOfException(this.hostContext.getHostName(), notifyWith,
-	    					EventProcessorHostActionStrings.STEALING_LEASE, ExceptionReceivedEventArgs.NO_ASSOCIATED_PARTITION);
-    			}
+    			TRACE_LOGGER.warn(this.hostContext.withHost("Exception stealing lease"), notifyWith);
+    			this.hostContext.getEventProcessorOptions().notifyOfException(this.hostContext.getHostName(), notifyWith,
+    					EventProcessorHostActionStrings.STEALING_LEASE, ExceptionReceivedEventArgs.NO_ASSOCIATED_PARTITION);
         	}
         	
             onPartitionCheckCompleteTestHook();
@@ -526,12 +534,11 @@ class PartitionManager
     	return null;
     }
 
-    private Lease whichLeaseToSteal(Collection<Lease> stealableLeases, int haveLeaseCount)
+    private List<Lease> whichLeasesToSteal(Collection<Lease> stealableLeases, int haveLeaseCount, int maxLeasesToSteal)
     {
     	HashMap<String, Integer> countsByOwner = countLeasesByOwner(stealableLeases);
-    	String biggestOwner = findBiggestOwner(countsByOwner);
-    	int biggestCount = countsByOwner.get(biggestOwner); // HASHMAP
-    	Lease stealThisLease = null;
+    	List<Lease> stealTheseLeases = new ArrayList<Lease>();
+    	int ourCount = haveLeaseCount;
     	
     	// If the number of leases is a multiple of the number of hosts, then the desired configuration is
     	// that all hosts own the name number of leases, and the difference between the "biggest" owner and
@@ -551,20 +558,38 @@ class PartitionManager
     	// this host by two at a time. If the starting difference is two or greater, then the difference cannot
     	// end up below 0. This host may become tied for biggest, but it cannot become larger than the host that
     	// it is stealing from.
+    	//
+    	// Up to maxLeasesToSteal leases are picked that way in one scan, recounting after each pick as if the
+    	// previous ones had been stolen already, so that the same argument holds for each of them.
     	
-    	if ((biggestCount - haveLeaseCount) >= 2)
+    	while (stealTheseLeases.size() < maxLeasesToSteal)
     	{
+        	String biggestOwner = findBiggestOwner(countsByOwner);
+        	if ((biggestOwner == null) || ((countsByOwner.get(biggestOwner) - ourCount) < 2)) // HASHMAP
+        	{
+        		break;
+        	}
+        	
+        	Lease stealThisLease = null;
     		for (Lease l : stealableLeases)
     		{
-    			if (l.isOwnedBy(biggestOwner))
+    			if (l.isOwnedBy(biggestOwner) && !stealTheseLeases.contains(l))
     			{
     				stealThisLease = l;
     				TRACE_LOGGER.debug(this.hostContext.withHost("Proposed to steal lease for partition " + l.getPartitionId() + " from " + biggestOwner));
   					break;
     			}
     		}
+    		if (stealThisLease == null)
+    		{
+    			break;
+    		}
+    		
+    		stealTheseLeases.add(stealThisLease);
+    		countsByOwner.put(biggestOwner, countsByOwner.get(biggestOwner) - 1); // HASHMAP
+    		ourCount++;
     	}
-    	return stealThisLease;
+    	return stealTheseLeases;
     }
     
     private String findBiggestOwner(HashMap<String, Integer> countsByOwner)
@@ -28,9 +28,15 @@ public class PartitionManagerOptions
 	 */
 	public final static int DefaultCheckpointTimeoutInSeconds = 120;
 
+	/**
+	 * The default maximum number of leases a host steals from other hosts in one lease scan.
+	 */
+	public final static int DefaultMaxLeasesToStealPerScan = 1;
+
 	protected int leaseDurationInSeconds = PartitionManagerOptions.DefaultLeaseDurationInSeconds;
 	protected int leaseRenewIntervalInSeconds = PartitionManagerOptions.DefaultLeaseRenewIntervalInSeconds;
 	protected int checkpointTimeoutInSeconds = PartitionManagerOptions.DefaultCheckpointTimeoutInSeconds;
+	protected int maxLeasesToStealPerScan = PartitionManagerOptions.DefaultMaxLeasesToStealPerScan;
 	
 	/***
 	 * The base class automatically sets members to the static defaults.
@@ -104,4 +110,31 @@ public class PartitionManagerOptions
 		}
 		this.checkpointTimeoutInSeconds = timeout;
 	}
+	
+	/**
+	 * Gets the maximum number of leases a host steals from other hosts in one lease scan.
+	 * Defaults to DefaultMaxLeasesToStealPerScan.
+	 *
+	 * @return  maximum number of leases stolen per scan
+	 */
+	public int getMaxLeasesToStealPerScan() { return this.maxLeasesToStealPerScan; }
+	
+	/**
+	 * Sets the maximum number of leases a host steals from other hosts in one lease scan. Must be greater than 0.
+	 * <p>
+	 * Each scan, a host which owns fewer leases than its fair share steals leases from the hosts which own the most,
+	 * in parallel, until it is within one lease of them or has stolen this many. With the default of 1, a host which
+	 * joins needs as many scans - one every lease renew interval - as the leases it is short of. A higher value makes
+	 * the hosts converge on an even distribution sooner, at the cost of moving more partitions at once.
+	 *
+	 * @param maxLeases  new value for the maximum number of leases stolen per scan
+	 */
+	public void setMaxLeasesToStealPerScan(int maxLeases)
+	{
+		if (maxLeases <= 0)
+		{
+			throw new IllegalArgumentException("Maximum leases to steal per scan must be greater than 0");
+		}
+		this.maxLeasesToStealPerScan = maxLeases;
+	}
 }
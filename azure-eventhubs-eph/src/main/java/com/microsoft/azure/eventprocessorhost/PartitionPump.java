@@ -5,9 +5,10 @@
 
 package com.microsoft.azure.eventprocessorhost;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ScheduledFuture;
@@ -44,6 +45,7 @@ class PartitionPump implements PartitionReceiveHandler
     private final Object processingSynchronizer;
     
     private ScheduledFuture<?> leaseRenewerFuture = null;
+    private AutoCheckpointer autoCheckpointer = null;
 
     private static final Logger TRACE_LOGGER = LoggerFactory.getLogger(PartitionPump.class);
     
@@ -76,6 +78,11 @@ class PartitionPump implements PartitionReceiveHandler
     {
     	// Fast, non-blocking actions.
     	setupPartitionContext();
+    	if (AutoCheckpointer.isEnabled(this.hostContext.getEventProcessorOptions()))
+    	{
+    		this.autoCheckpointer = new AutoCheckpointer(this.hostContext, this.partitionContext);
+    		this.autoCheckpointer.start();
+    	}
         
         // Do the slow startup stuff asynchronously.
         // Use whenComplete to trigger cleanup on exception.
@@ -208,22 +215,10 @@ class PartitionPump implements PartitionReceiveHandler
 
     private CompletableFuture<Boolean> openClients()
     {
-    	// Create new client
+    	// Create new client, or get hold of the shared one the partition is assigned to
         TRACE_LOGGER.info(this.hostContext.withHostAndPartition(this.partitionContext, "Opening EH client"));
         
-        CompletableFuture<EventHubClient> startOpeningFuture = null;
-        try
-        {
-			startOpeningFuture = EventHubClient.create(this.hostContext.getEventHubConnectionString(),
-					this.hostContext.getRetryPolicy(), this.hostContext.getExecutor());
-		}
-        catch (EventHubException | IOException e2)
-        {
-        	// Marking startOpeningFuture as completed exceptionally will cause all the
-        	// following stages to fall through except stage 1 which will report the error.
-        	startOpeningFuture = new CompletableFuture<EventHubClient>();
-        	startOpeningFuture.completeExceptionally(e2);
-        } 
+        CompletableFuture<EventHubClient> startOpeningFuture = this.hostContext.getClientPool().acquire(this.partitionContext.getPartitionId());
 		this.internalOperationFuture = startOpeningFuture;
 		
 		// Stage 0: get EventHubClient
@@ -316,6 +311,9 @@ class PartitionPump implements PartitionReceiveHandler
     private CompletableFuture<Void> cleanUpAll(CloseReason reason) // swallows all exceptions
     {
     	return cleanUpClients()
+    	// No more events will be processed. Write the last position, unless the lease is gone and the write would fail.
+    	.thenComposeAsync((empty) -> (this.autoCheckpointer != null) ? this.autoCheckpointer.close(reason != CloseReason.LeaseLost) :
+    		CompletableFuture.completedFuture(null), this.hostContext.getExecutor())
     	.thenRunAsync(() ->
     	{
             if (this.processor != null)
@@ -403,7 +401,9 @@ class PartitionPump implements PartitionReceiveHandler
     	}, this.hostContext.getExecutor())
     	.thenComposeAsync((eventHubClientTemp) ->
     	{
-    		return (eventHubClientTemp != null) ? eventHubClientTemp.close() : CompletableFuture.completedFuture(null);
+    		return (eventHubClientTemp != null)
+    				? this.hostContext.getClientPool().release(this.partitionContext.getPartitionId(), eventHubClientTemp)
+    				: CompletableFuture.completedFuture(null);
     	}, this.hostContext.getExecutor())
     	.handleAsync((empty, e) ->
     	{
@@ -558,11 +558,26 @@ class PartitionPump implements PartitionReceiveHandler
         }
         
     	// Update offset and sequence number in the PartitionContext to support argument-less overload of PartitionContext.checkpoint()
-		Iterator<EventData> iter = effectiveEvents.iterator();
+		// The client hands over array-backed batches, so the last event is usually found without walking the batch.
 		EventData last = null;
-		while (iter.hasNext())
+		int eventCount = 0;
+		if ((effectiveEvents instanceof List) && (effectiveEvents instanceof RandomAccess))
+		{
+			List<EventData> eventList = (List<EventData>) effectiveEvents;
+			eventCount = eventList.size();
+			if (!eventList.isEmpty())
+			{
+				last = eventList.get(eventList.size() - 1);
+			}
+		}
+		else
 		{
-			last = iter.next();
+			Iterator<EventData> iter = effectiveEvents.iterator();
+			while (iter.hasNext())
+			{
+				last = iter.next();
+				eventCount++;
+			}
 		}
 		if (last != null)
 		{
@@ -579,6 +594,10 @@ class PartitionPump implements PartitionReceiveHandler
         	{
         		this.processor.onEvents(this.partitionContext, effectiveEvents);
         	}
+        	if (this.autoCheckpointer != null)
+        	{
+        		this.autoCheckpointer.onEventsProcessed(eventCount, last);
+        	}
         }
         catch (Exception e)
         {
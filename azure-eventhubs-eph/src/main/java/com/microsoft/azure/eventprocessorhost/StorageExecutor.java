@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+
+package com.microsoft.azure.eventprocessorhost;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Fixed number of threads with a bounded queue, for the blocking Azure Storage calls of AzureStorageCheckpointLeaseManager.
+// Keeping them off the host executor means slow storage cannot starve event processing and busy processors
+// cannot hold up lease renewals. When the queue is full, work is failed rather than queued without bound: the
+// resulting CompletableFuture completes exceptionally with RejectedExecutionException, which callers already
+// handle like any other storage failure. The state of the queue is traced, and exposed through
+// EventProcessorHost.getStorageQueueMetrics().
+final class StorageExecutor
+{
+	private final HostContext hostContext;
+	private final String name;
+	private final ThreadPoolExecutor executor;
+	private final long queueWaitWarningMillis;
+	private final AtomicLong rejectedCount = new AtomicLong();
+	private final AtomicLong lastQueueWaitMillis = new AtomicLong();
+	private final AtomicLong maxQueueWaitMillis = new AtomicLong();
+
+	private static final Logger TRACE_LOGGER = LoggerFactory.getLogger(StorageExecutor.class);
+
+	StorageExecutor(HostContext hostContext, String name, int threadCount, int queueCapacity, long queueWaitWarningMillis)
+	{
+		this.hostContext = hostContext;
+		this.name = name;
+		this.queueWaitWarningMillis = queueWaitWarningMillis;
+
+		final AtomicInteger threadNumber = new AtomicInteger();
+		final ThreadFactory threadFactory = (runnable) ->
+		{
+			Thread thread = new Thread(runnable, hostContext.getHostName() + "-" + name + "-storage-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		this.executor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(queueCapacity), threadFactory);
+	}
+
+	<T> CompletableFuture<T> supplyAsync(Supplier<T> supplier)
+	{
+		final long queuedAt = System.nanoTime();
+		try
+		{
+			return CompletableFuture.supplyAsync(() ->
+			{
+				traceQueueWait(queuedAt);
+				return supplier.get();
+			}, this.executor);
+		}
+		catch (RejectedExecutionException e)
+		{
+			this.rejectedCount.incrementAndGet();
+			TRACE_LOGGER.warn(this.hostContext.withHost("Storage " + this.name + " queue full, rejecting work. " + getStateDebug()));
+			CompletableFuture<T> rejected = new CompletableFuture<T>();
+			rejected.completeExceptionally(e);
+			return rejected;
+		}
+	}
+
+	CompletableFuture<Void> runAsync(Runnable runnable)
+	{
+		return supplyAsync(() ->
+		{
+			runnable.run();
+			return null;
+		});
+	}
+
+	// Number of storage calls waiting for a thread.
+	int getQueueDepth() { return this.executor.getQueue().size(); }
+
+	// Number of storage calls in progress.
+	int getActiveCount() { return this.executor.getActiveCount(); }
+
+	long getCompletedCount() { return this.executor.getCompletedTaskCount(); }
+
+	StorageQueueMetrics getMetrics()
+	{
+		return new StorageQueueMetrics(this.name, getQueueDepth(), getActiveCount(), getCompletedCount(), this.rejectedCount.get(),
+				Duration.ofMillis(this.lastQueueWaitMillis.get()), Duration.ofMillis(this.maxQueueWaitMillis.get()));
+	}
+
+	String getStateDebug()
+	{
+		return "queued: " + getQueueDepth() + " active: " + getActiveCount() + " completed: " + getCompletedCount() +
+				" rejected: " + this.rejectedCount.get() + " maxWait: " + this.maxQueueWaitMillis.get() + "ms";
+	}
+
+	// Already queued calls still run.
+	void shutdown()
+	{
+		this.executor.shutdown();
+	}
+
+	private void traceQueueWait(long queuedAt)
+	{
+		long waitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt);
+		this.lastQueueWaitMillis.set(waitMillis);
+		this.maxQueueWaitMillis.accumulateAndGet(waitMillis, Math::max);
+		if (waitMillis >= this.queueWaitWarningMillis)
+		{
+			TRACE_LOGGER.warn(this.hostContext.withHost("Storage " + this.name + " call waited " + waitMillis + "ms for a thread. " + getStateDebug()));
+		}
+		else if (TRACE_LOGGER.isDebugEnabled())
+		{
+			TRACE_LOGGER.debug(this.hostContext.withHost("Storage " + this.name + " call waited " + waitMillis + "ms for a thread. " + getStateDebug()));
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+
+package com.microsoft.azure.eventprocessorhost;
+
+import java.time.Duration;
+
+/**
+ * A snapshot of the queue of one lane of Azure Storage threads, as returned by EventProcessorHost.getStorageQueueMetrics().
+ * <p>
+ * The Azure Storage calls of the default lease and checkpoint manager run on a fixed number of threads per lane, "lease"
+ * and "checkpoint", with a bounded queue each (see AzureStoragePartitionManagerOptions). A queue that stays deep, or
+ * calls that wait long for a thread, mean storage is not keeping up: lease renewals may be late enough to lose leases.
+ */
+public final class StorageQueueMetrics
+{
+	private final String lane;
+	private final int queueDepth;
+	private final int activeCount;
+	private final long completedCount;
+	private final long rejectedCount;
+	private final Duration lastQueueWait;
+	private final Duration maxQueueWait;
+
+	StorageQueueMetrics(String lane, int queueDepth, int activeCount, long completedCount, long rejectedCount,
+			Duration lastQueueWait, Duration maxQueueWait)
+	{
+		this.lane = lane;
+		this.queueDepth = queueDepth;
+		this.activeCount = activeCount;
+		this.completedCount = completedCount;
+		this.rejectedCount = rejectedCount;
+		this.lastQueueWait = lastQueueWait;
+		this.maxQueueWait = maxQueueWait;
+	}
+
+	/**
+	 * @return "lease" or "checkpoint"
+	 */
+	public String getLane()
+	{
+		return this.lane;
+	}
+
+	/**
+	 * @return the number of storage calls waiting for a thread
+	 */
+	public int getQueueDepth()
+	{
+		return this.queueDepth;
+	}
+
+	/**
+	 * @return the number of storage calls in progress
+	 */
+	public int getActiveCount()
+	{
+		return this.activeCount;
+	}
+
+	/**
+	 * @return the number of storage calls completed since the host was created
+	 */
+	public long getCompletedCount()
+	{
+		return this.completedCount;
+	}
+
+	/**
+	 * Storage calls are failed with RejectedExecutionException, rather than queued, when the queue is full.
+	 *
+	 * @return the number of storage calls rejected since the host was created
+	 */
+	public long getRejectedCount()
+	{
+		return this.rejectedCount;
+	}
+
+	/**
+	 * @return how long the most recently started storage call waited for a thread, Duration.ZERO if none has started
+	 */
+	public Duration getLastQueueWait()
+	{
+		return this.lastQueueWait;
+	}
+
+	/**
+	 * @return the longest any storage call has waited for a thread since the host was created
+	 */
+	public Duration getMaxQueueWait()
+	{
+		return this.maxQueueWait;
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.lane + " queued: " + this.queueDepth + " active: " + this.activeCount + " completed: " + this.completedCount +
+				" rejected: " + this.rejectedCount + " lastWait: " + this.lastQueueWait.toMillis() + "ms maxWait: " + this.maxQueueWait.toMillis() + "ms";
+	}
+}
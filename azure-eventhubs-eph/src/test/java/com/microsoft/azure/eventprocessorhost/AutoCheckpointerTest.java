@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+
+package com.microsoft.azure.eventprocessorhost;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.microsoft.azure.eventhubs.EventData;
+
+// Does not need an event hub or a storage account: checkpoints are written to a recording checkpoint manager.
+public class AutoCheckpointerTest
+{
+	private ScheduledExecutorService executor;
+	private List<Checkpoint> writtenCheckpoints;
+	private HostContext hostContext;
+	private PartitionContext partitionContext;
+
+	@Before
+	public void setup()
+	{
+		this.executor = Executors.newScheduledThreadPool(2);
+		this.writtenCheckpoints = new CopyOnWriteArrayList<Checkpoint>();
+		ICheckpointManager checkpointManager = new InMemoryCheckpointManager()
+		{
+			@Override
+			public CompletableFuture<Void> updateCheckpoint(Lease lease, Checkpoint checkpoint)
+			{
+				AutoCheckpointerTest.this.writtenCheckpoints.add(checkpoint);
+				return CompletableFuture.completedFuture(null);
+			}
+		};
+
+		this.hostContext = new HostContext(this.executor, null, "autoCheckpointerTestHost", "hub", "$Default",
+				"Endpoint=sb://test.servicebus.windows.net/;SharedAccessKeyName=keyName;SharedAccessKey=key;EntityPath=hub", null,
+				null, checkpointManager);
+		this.hostContext.setEventProcessorOptions(new EventProcessorOptions());
+		this.partitionContext = new PartitionContext(this.hostContext, "0");
+		this.partitionContext.setLease(new Lease("0"));
+	}
+
+	@After
+	public void cleanup()
+	{
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void batchForWhichOnEventsThrewIsNotCheckpointed() throws Exception
+	{
+		// nothing is written until the partition closes
+		this.hostContext.getEventProcessorOptions().setAutoCheckpointEventCount(100);
+		AutoCheckpointer autoCheckpointer = new AutoCheckpointer(this.hostContext, this.partitionContext);
+		autoCheckpointer.start();
+
+		receive(autoCheckpointer, false, event("100", 1), event("200", 2));
+		receive(autoCheckpointer, true, event("300", 3), event("400", 4));
+		assertEquals(0, this.writtenCheckpoints.size());
+
+		autoCheckpointer.close(true).get(10, TimeUnit.SECONDS);
+		assertEquals(1, this.writtenCheckpoints.size());
+		assertEquals("200", this.writtenCheckpoints.get(0).getOffset());
+		assertEquals(2, this.writtenCheckpoints.get(0).getSequenceNumber());
+	}
+
+	@Test
+	public void timerDoesNotCheckpointBatchStillInOnEvents() throws Exception
+	{
+		this.hostContext.getEventProcessorOptions().setAutoCheckpointInterval(Duration.ofMillis(10));
+		AutoCheckpointer autoCheckpointer = new AutoCheckpointer(this.hostContext, this.partitionContext);
+		autoCheckpointer.start();
+
+		receive(autoCheckpointer, false, event("100", 1));
+
+		// the next batch is in onEvents for several intervals - its position is already in the PartitionContext
+		EventData inProgress = event("200", 2);
+		this.partitionContext.setOffsetAndSequenceNumber(inProgress);
+		Thread.sleep(100);
+		assertTrue(this.writtenCheckpoints.size() > 0);
+		for (Checkpoint written : this.writtenCheckpoints)
+		{
+			assertEquals("100", written.getOffset());
+		}
+
+		// onEvents returns - the batch is written on close
+		autoCheckpointer.onEventsProcessed(1, inProgress);
+		autoCheckpointer.close(true).get(10, TimeUnit.SECONDS);
+		assertEquals("200", this.writtenCheckpoints.get(this.writtenCheckpoints.size() - 1).getOffset());
+	}
+
+	@Test
+	public void nothingIsCheckpointedWhenEveryBatchThrew() throws Exception
+	{
+		this.hostContext.getEventProcessorOptions().setAutoCheckpointEventCount(1);
+		this.hostContext.getEventProcessorOptions().setAutoCheckpointInterval(Duration.ofMillis(10));
+		AutoCheckpointer autoCheckpointer = new AutoCheckpointer(this.hostContext, this.partitionContext);
+		autoCheckpointer.start();
+
+		receive(autoCheckpointer, true, event("100", 1));
+		Thread.sleep(50);
+
+		autoCheckpointer.close(true).get(10, TimeUnit.SECONDS);
+		assertEquals(0, this.writtenCheckpoints.size());
+	}
+
+	// Same order as PartitionPump.onReceive: the PartitionContext position moves first, and the automatic
+	// checkpointer is told about the batch only if onEvents returns.
+	private void receive(AutoCheckpointer autoCheckpointer, boolean onEventsThrows, EventData... events)
+	{
+		EventData last = events[events.length - 1];
+		this.partitionContext.setOffsetAndSequenceNumber(last);
+		try
+		{
+			if (onEventsThrows)
+			{
+				throw new IllegalStateException("onEvents failed");
+			}
+			autoCheckpointer.onEventsProcessed(events.length, last);
+		}
+		catch (IllegalStateException e)
+		{
+			// PartitionPump traces the exception and carries on with the next batch
+		}
+	}
+
+	private static EventData event(String offset, long sequenceNumber)
+	{
+		return (EventData)Proxy.newProxyInstance(EventData.class.getClassLoader(), new Class<?>[] { EventData.class },
+				(proxy, method, args) ->
+				{
+					switch (method.getName())
+					{
+						case "getOffset":
+							return offset;
+						case "getSequenceNumber":
+							return sequenceNumber;
+						default:
+							throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+}
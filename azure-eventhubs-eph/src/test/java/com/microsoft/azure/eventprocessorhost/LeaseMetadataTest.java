@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+
+package com.microsoft.azure.eventprocessorhost;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+import com.microsoft.azure.storage.blob.LeaseState;
+
+// Does not need a storage account: the blob only holds the metadata and properties a listing would bring.
+public class LeaseMetadataTest
+{
+	private final Gson gson = new Gson();
+	private CloudBlockBlob blob;
+
+	@Before
+	public void setup() throws Exception
+	{
+		this.blob = new CloudBlockBlob(new URI("https://account.blob.core.windows.net/container/$Default/0"));
+	}
+
+	@Test
+	public void metadataWrittenWithCurrentContentsIsTrusted()
+	{
+		AzureBlobLease lease = lease("newHost", "token-1", 3);
+		upload(lease, true);
+
+		assertTrue(AzureStorageCheckpointLeaseManager.isListedMetadataCurrent(this.blob));
+	}
+
+	@Test
+	public void metadataLeftBehindByOlderHostIsNotTrusted()
+	{
+		upload(lease("newHost", "token-1", 3), true);
+
+		// An older host downloads the attributes, steals the lease, and uploads new contents with the metadata it downloaded.
+		upload(lease("oldHost", "token-2", 4), false);
+
+		assertEquals("newHost", this.blob.getMetadata().get("owner"));
+		assertFalse(AzureStorageCheckpointLeaseManager.isListedMetadataCurrent(this.blob));
+	}
+
+	@Test
+	public void metadataWithoutContentMD5IsNotTrusted()
+	{
+		upload(lease("newHost", "token-1", 3), true);
+		this.blob.getMetadata().remove("leasemd5");
+
+		assertFalse(AzureStorageCheckpointLeaseManager.isListedMetadataCurrent(this.blob));
+	}
+
+	@Test
+	public void metadataIsNotTrustedWhenStorageReportsNoContentMD5()
+	{
+		upload(lease("newHost", "token-1", 3), true);
+		this.blob.getProperties().setContentMD5(null);
+
+		assertFalse(AzureStorageCheckpointLeaseManager.isListedMetadataCurrent(this.blob));
+	}
+
+	@Test
+	public void listedLeaseTakesOwnerEpochTokenAndCheckpointFromContents()
+	{
+		AzureBlobLease listed = new AzureBlobLease("0", this.blob, null, null, LeaseState.LEASED);
+		listed.setOwner("newHost");
+		listed.setToken("token-1");
+		listed.setEpoch(5);
+
+		AzureBlobLease downloaded = lease("oldHost", "token-2", 4);
+		downloaded.setOffset("1024");
+		downloaded.setSequenceNumber(7);
+
+		assertTrue(AzureStorageCheckpointLeaseManager.refreshListedLease(listed, downloaded));
+		assertEquals("oldHost", listed.getOwner());
+		assertEquals("token-2", listed.getToken());
+		assertEquals(5, listed.getEpoch()); // never moves backwards
+		assertEquals("1024", listed.getOffset());
+		assertEquals(7, listed.getSequenceNumber());
+		assertFalse(listed.isListed());
+	}
+
+	@Test
+	public void listedLeaseWhichKeptItsOwnerDidNotChangeHands()
+	{
+		AzureBlobLease listed = new AzureBlobLease("0", this.blob, null, null, LeaseState.AVAILABLE);
+		listed.setEpoch(2);
+
+		AzureBlobLease downloaded = lease("", "", 3);
+		assertFalse(AzureStorageCheckpointLeaseManager.refreshListedLease(listed, downloaded));
+		assertEquals(3, listed.getEpoch());
+	}
+
+	private AzureBlobLease lease(String owner, String token, long epoch)
+	{
+		AzureBlobLease lease = new AzureBlobLease("0", this.blob, null, null);
+		lease.setOwner(owner);
+		lease.setToken(token);
+		lease.setEpoch(epoch);
+		return lease;
+	}
+
+	// Sets what storage keeps for an upload of the lease: the contents, of which the listing reports the MD5, and
+	// - when written by this version - the lease in the metadata.
+	private void upload(AzureBlobLease lease, boolean writeMetadata)
+	{
+		String jsonLease = this.gson.toJson(lease);
+		if (writeMetadata)
+		{
+			AzureStorageCheckpointLeaseManager.setLeaseMetadata(lease, this.blob, jsonLease);
+		}
+		this.blob.getProperties().setContentMD5(AzureStorageCheckpointLeaseManager.contentMD5(jsonLease));
+	}
+}
@@ -107,6 +107,37 @@ public class SmokeTest extends TestBase
 				firstSettings.inDoCheckpoint);
 	}
 
+	@Test
+	public void receiveFromAutoCheckpoint() throws Exception
+	{
+		PerTestSettings firstSettings = receiveFromAutoCheckpointIteration(1, SmokeTest.ANY_NONZERO_COUNT, null);
+		
+		receiveFromAutoCheckpointIteration(2, firstSettings.outPartitionIds.size(), firstSettings.inoutEPHConstructorArgs.getStorageContainerName());
+	}
+
+	private PerTestSettings receiveFromAutoCheckpointIteration(int iteration, int expectedEvents, String containerName) throws Exception
+	{
+		PerTestSettings settings = new PerTestSettings("recvFromAutoCkpt-" + iteration);
+		if (containerName != null)
+		{
+			settings.inoutEPHConstructorArgs.setStorageContainerName(containerName);
+		}
+		// The processor does not checkpoint, the host does it after every event.
+		settings.inDoCheckpoint = PrefabEventProcessor.CheckpointChoices.CKP_NONE;
+		settings.inOptions.setAutoCheckpointEventCount(1);
+		settings = testSetup(settings);
+
+		for (String id: settings.outPartitionIds)
+		{
+			settings.outUtils.sendToPartition(id, settings.outTelltale);
+			waitForTelltale(settings, id);
+		}
+
+		testFinish(settings, expectedEvents);
+		
+		return settings;
+	}
+
 	private PerTestSettings receiveFromCheckpointIteration(int iteration, int expectedEvents, String containerName,
 			PrefabEventProcessor.CheckpointChoices checkpointCallType) throws Exception
 	{
@@ -196,6 +227,30 @@ public class SmokeTest extends TestBase
 		testFinish(settings, (settings.outPartitionIds.size() * (maxGeneration + 1))); // +1 for the telltales
 	}
 	
+	@Test
+	public void receiveAllPartitionsWithClientPoolTest() throws Exception
+	{
+		// Save "now" to avoid race with sender startup.
+		final Instant savedNow = Instant.now();
+		
+		PerTestSettings settings = new PerTestSettings("receiveAllPartitionsWithClientPool");
+		settings.inOptions.setInitialPositionProvider((partitionId) -> { return EventPosition.fromEnqueuedTime(savedNow); });
+		settings.inOptions.setClientPoolSize(2);
+		settings = testSetup(settings);
+
+		for (String id : settings.outPartitionIds)
+		{
+			settings.outUtils.sendToPartition(id, settings.outTelltale);
+			TestUtilities.log("Telltale " + id + " sent\n");
+		}
+		for (String id : settings.outPartitionIds)
+		{
+			waitForTelltale(settings, id);
+		}
+		
+		testFinish(settings, settings.outPartitionIds.size());
+	}
+	
 	@Test
 	public void receiveAllPartitionsWithUserExecutorTest() throws Exception
 	{
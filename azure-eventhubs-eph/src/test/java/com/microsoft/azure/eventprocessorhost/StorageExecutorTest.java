@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+
+package com.microsoft.azure.eventprocessorhost;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+// Does not need a storage account: the storage calls are plain blocking work.
+public class StorageExecutorTest
+{
+	private StorageExecutor storageExecutor;
+
+	@Before
+	public void setup()
+	{
+		HostContext hostContext = new HostContext(null, null, "storageExecutorTestHost", "hub", "$Default",
+				"Endpoint=sb://test.servicebus.windows.net/;SharedAccessKeyName=keyName;SharedAccessKey=key;EntityPath=hub", null,
+				null, null);
+		// one thread, room for one waiting call
+		this.storageExecutor = new StorageExecutor(hostContext, "lease", 1, 1, 60000);
+	}
+
+	@After
+	public void cleanup()
+	{
+		this.storageExecutor.shutdown();
+	}
+
+	@Test
+	public void metricsReportQueueDepthWaitAndRejections() throws Exception
+	{
+		StorageQueueMetrics idle = this.storageExecutor.getMetrics();
+		assertEquals("lease", idle.getLane());
+		assertEquals(0, idle.getQueueDepth());
+		assertEquals(Duration.ZERO, idle.getMaxQueueWait());
+
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> blocking = this.storageExecutor.runAsync(() ->
+		{
+			running.countDown();
+			awaitQuietly(release);
+		});
+		assertTrue(running.await(10, TimeUnit.SECONDS));
+		CompletableFuture<Void> waiting = this.storageExecutor.runAsync(() -> { });
+		CompletableFuture<Void> rejected = this.storageExecutor.runAsync(() -> { });
+
+		StorageQueueMetrics busy = this.storageExecutor.getMetrics();
+		assertEquals(1, busy.getQueueDepth());
+		assertEquals(1, busy.getActiveCount());
+		assertEquals(1, busy.getRejectedCount());
+		assertTrue(rejected.isCompletedExceptionally());
+		try
+		{
+			rejected.get();
+		}
+		catch (ExecutionException e)
+		{
+			assertTrue(e.getCause() instanceof RejectedExecutionException);
+		}
+
+		// the waiting call waits for the blocking one to finish
+		Thread.sleep(50);
+		release.countDown();
+		blocking.get(10, TimeUnit.SECONDS);
+		waiting.get(10, TimeUnit.SECONDS);
+
+		StorageQueueMetrics drained = this.storageExecutor.getMetrics();
+		assertEquals(0, drained.getQueueDepth());
+		assertEquals(1, drained.getRejectedCount());
+		assertTrue(drained.getLastQueueWait().toMillis() >= 50);
+		assertTrue(drained.getMaxQueueWait().compareTo(drained.getLastQueueWait()) >= 0);
+	}
+
+	@Test
+	public void maxQueueWaitIsKeptAfterShorterWaits() throws Exception
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> blocking = this.storageExecutor.runAsync(() -> awaitQuietly(release));
+		CompletableFuture<Void> waiting = this.storageExecutor.runAsync(() -> { });
+		Thread.sleep(50);
+		release.countDown();
+		blocking.get(10, TimeUnit.SECONDS);
+		waiting.get(10, TimeUnit.SECONDS);
+		long maxWaitMillis = this.storageExecutor.getMetrics().getMaxQueueWait().toMillis();
+		assertTrue(maxWaitMillis >= 50);
+
+		// a call on an idle lane does not wait
+		this.storageExecutor.runAsync(() -> { }).get(10, TimeUnit.SECONDS);
+		StorageQueueMetrics metrics = this.storageExecutor.getMetrics();
+		assertTrue(metrics.getLastQueueWait().toMillis() < maxWaitMillis);
+		assertEquals(maxWaitMillis, metrics.getMaxQueueWait().toMillis());
+	}
+
+	private static void awaitQuietly(CountDownLatch latch)
+	{
+		try
+		{
+			latch.await(10, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs;
+
+import com.microsoft.azure.eventhubs.impl.ExceptionUtil;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A sender which accepts single {@link EventData}s and coalesces them into batches before sending them to EventHubs.
+ * <p>
+ * A batch is sent when it reaches the maximum message size negotiated with EventHubs service, or when
+ * {@link BufferedProducerOptions#lingerTime} elapses after the first {@link EventData} was added to it - whichever happens first.
+ * The CompletableFuture returned by {@link #send(EventData)} is completed once the batch containing the {@link EventData} is acknowledged by the service.
+ *
+ * @see EventHubClient#createBufferedProducer(BufferedProducerOptions)
+ */
+public interface BufferedProducer {
+
+    /**
+     * Synchronous version of {@link #send(EventData)}.
+     *
+     * @param data the {@link EventData} to be sent.
+     * @throws PayloadSizeExceededException if the size of the {@link EventData} exceeds the maximum size of a batch.
+     * @throws EventHubException          if Service Bus service encountered problems during the operation.
+     */
+    default void sendSync(final EventData data) throws EventHubException {
+        ExceptionUtil.syncVoid(() -> this.send(data).get());
+    }
+
+    /**
+     * Add {@link EventData} to the batch which is currently being filled.
+     *
+     * @param data the {@link EventData} to be sent.
+     * @return a CompletableFuture that will be completed when the batch containing the {@link EventData} is sent.
+     */
+    CompletableFuture<Void> send(final EventData data);
+
+    /**
+     * Send the batch which is currently being filled, without waiting for it to fill up or for the linger time to elapse.
+     *
+     * @return a CompletableFuture that will be completed when the flushed batch is sent.
+     */
+    CompletableFuture<Void> flush();
+
+    /**
+     * Flushes the buffered {@link EventData}s and closes the underlying link to EventHubs.
+     *
+     * @return a CompletableFuture that will be completed when the producer is closed.
+     */
+    CompletableFuture<Void> close();
+
+    /**
+     * Synchronous version of {@link #close()}.
+     *
+     * @throws EventHubException if Service Bus service encountered problems during the operation.
+     */
+    void closeSync() throws EventHubException;
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+
+package com.microsoft.azure.eventhubs;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * BufferedProducerOptions is used to create {@link BufferedProducer}s using {@link EventHubClient#createBufferedProducer(BufferedProducerOptions)}.
+ *
+ * Default settings:
+ *      - partitionKey is null
+ *      - maxMessageSize is the maximum allowed size
+ *      - lingerTime is 10 milliseconds
+ *      - senderOptions is null (the send window is unbounded)
+ *
+ * <pre>
+ *     {@code
+ *     // Create BufferedProducer with defaults
+ *     BufferedProducer producer1 = client.createBufferedProducerSync(new BufferedProducerOptions());
+ *
+ *     // Create BufferedProducer which waits up to 50 milliseconds to fill a batch
+ *     BufferedProducerOptions options = new BufferedProducerOptions().with( options -> options.lingerTime = Duration.ofMillis(50));
+ *     BufferedProducer producer2 = client.createBufferedProducerSync(options);
+ *     }
+ * </pre>
+ */
+public final class BufferedProducerOptions {
+
+    public static final Duration DEFAULT_LINGER_TIME = Duration.ofMillis(10);
+
+    /**
+     * The partitionKey to use for all {@link EventData}s sent using the {@link BufferedProducer}.
+     * Setting a PartitionKey will deliver all the {@link EventData}s to a specific Event Hubs partition.
+     */
+    public String partitionKey = null;
+
+    /**
+     * The maximum size in bytes of each batch sent by the {@link BufferedProducer}.
+     * This value cannot exceed the maximum size supported by Event Hubs service.
+     */
+    public Integer maxMessageSize = null;
+
+    /**
+     * The maximum time an {@link EventData} waits in the {@link BufferedProducer} for the batch to fill up,
+     * before the batch is sent to Event Hubs service.
+     */
+    public Duration lingerTime = DEFAULT_LINGER_TIME;
+
+    /**
+     * The options of the link used by the {@link BufferedProducer} - each batch sent takes one place in its send window.
+     */
+    public SenderOptions senderOptions = null;
+
+    public final BufferedProducerOptions with(Consumer<BufferedProducerOptions> builderFunction) {
+        builderFunction.accept(this);
+        return this;
+    }
+}
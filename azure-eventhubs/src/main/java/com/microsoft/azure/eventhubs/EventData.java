@@ -151,6 +151,58 @@ public interface EventData extends Serializable {
      */
     SystemProperties getSystemProperties();
 
+    /**
+     * The offset of a received {@link EventData} - same as {@link SystemProperties#getOffset()}, without building the {@link SystemProperties}.
+     *
+     * @return the offset of the {@link EventData} in its partition
+     * @throws IllegalStateException if the {@link EventData} is not received and is created by the public constructors.
+     */
+    default String getOffset() {
+        if (this.getSystemProperties() == null) {
+            throw new IllegalStateException("offset is only present on an EventData received from EventHubs");
+        }
+
+        return this.getSystemProperties().getOffset();
+    }
+
+    /**
+     * The sequence number of a received {@link EventData} - same as {@link SystemProperties#getSequenceNumber()}, without building the {@link SystemProperties}.
+     *
+     * @return the sequence number of the {@link EventData} in its partition
+     * @throws IllegalStateException if the {@link EventData} is not received and is created by the public constructors.
+     */
+    default long getSequenceNumber() {
+        if (this.getSystemProperties() == null) {
+            throw new IllegalStateException("sequence number is only present on an EventData received from EventHubs");
+        }
+
+        return this.getSystemProperties().getSequenceNumber();
+    }
+
+    /**
+     * The time a received {@link EventData} was enqueued - same as {@link SystemProperties#getEnqueuedTime()}, without building the {@link SystemProperties}.
+     *
+     * @return the enqueued time in milliseconds since the epoch
+     * @throws IllegalStateException if the {@link EventData} is not received and is created by the public constructors.
+     */
+    default long getEnqueuedTimeMillis() {
+        if (this.getSystemProperties() == null) {
+            throw new IllegalStateException("enqueued time is only present on an EventData received from EventHubs");
+        }
+
+        return this.getSystemProperties().getEnqueuedTime().toEpochMilli();
+    }
+
+    /**
+     * The id of the partition a received {@link EventData} was received from.
+     *
+     * @return the partition id; null if the {@link EventData} is not received and is created by the public constructors.
+     * @see EventHubConsumer
+     */
+    default String getPartitionId() {
+        return null;
+    }
+
     class SystemProperties extends HashMap<String, Object> {
         private static final long serialVersionUID = -2827050124966993723L;
 
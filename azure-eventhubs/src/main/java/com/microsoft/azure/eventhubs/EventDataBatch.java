@@ -23,6 +23,7 @@ public interface EventDataBatch {
      * @param eventData The {@link EventData} to add.
      * @return A boolean value indicating if the {@link EventData} addition to this batch/collection was successful or not.
      * @throws PayloadSizeExceededException when a single {@link EventData} instance exceeds maximum allowed size of the batch
+     * @throws IllegalStateException when the batch was already sent
      */
     boolean tryAdd(final EventData eventData) throws PayloadSizeExceededException;
 }
@@ -89,6 +89,41 @@ public interface EventHubClient {
         return EventHubClientImpl.create(connectionString, retryPolicy, executor);
     }
 
+    /**
+     * Synchronous version of {@link #create(String, RetryPolicy, Executor, EventHubClientOptions)}.
+     *
+     * @param connectionString The connection string to be used. See {@link ConnectionStringBuilder} to construct a connectionString.
+     * @param retryPolicy      A custom {@link RetryPolicy} to be used when communicating with EventHub.
+     * @param executor An {@link Executor} to run all tasks performed by {@link EventHubClient}.
+     * @param options          see {@link EventHubClientOptions} for more details
+     * @return EventHubClient which can be used to create Senders and Receivers to EventHub
+     * @throws EventHubException If Service Bus service encountered problems during connection creation.
+     * @throws IOException         If the underlying Proton-J layer encounter network errors.
+     */
+    static EventHubClient createSync(
+            final String connectionString, final RetryPolicy retryPolicy, final Executor executor, final EventHubClientOptions options)
+            throws EventHubException, IOException {
+        return ExceptionUtil.syncWithIOException(() -> create(connectionString, retryPolicy, executor, options).get());
+    }
+
+    /**
+     * Factory method to create an instance of {@link EventHubClient} which spreads its senders and receivers across
+     * multiple connections to the Azure ServiceBus EventHubs service - as configured in {@link EventHubClientOptions}.
+     *
+     * @param connectionString The connection string to be used. See {@link ConnectionStringBuilder} to construct a connectionString.
+     * @param retryPolicy      A custom {@link RetryPolicy} to be used when communicating with EventHub.
+     * @param executor An {@link Executor} to run all tasks performed by {@link EventHubClient}.
+     * @param options          see {@link EventHubClientOptions} for more details
+     * @return CompletableFuture{@literal <EventHubClient>} which can be used to create Senders and Receivers to EventHub
+     * @throws EventHubException If Service Bus service encountered problems during connection creation.
+     * @throws IOException         If the underlying Proton-J layer encounter network errors.
+     */
+    static CompletableFuture<EventHubClient> create(
+            final String connectionString, final RetryPolicy retryPolicy, final Executor executor, final EventHubClientOptions options)
+            throws EventHubException, IOException {
+        return EventHubClientImpl.create(connectionString, retryPolicy, executor, options);
+    }
+
     /**
      * Creates an Empty Collection of {@link EventData}.
      * The same partitionKey must be used while sending these events using {@link EventHubClient#send(EventDataBatch)}.
@@ -297,6 +332,81 @@ public interface EventHubClient {
      */
     CompletableFuture<Void> send(final Iterable<EventData> eventDatas, final String partitionKey);
 
+    /**
+     * Synchronous version of {@link #createBufferedProducer(BufferedProducerOptions)}.
+     *
+     * @param options see {@link BufferedProducerOptions} for more details
+     * @return BufferedProducer which can be used to send single events, which are sent to EventHub in batches.
+     * @throws EventHubException if Service Bus service encountered problems during connection creation.
+     */
+    default BufferedProducer createBufferedProducerSync(final BufferedProducerOptions options) throws EventHubException, IllegalArgumentException {
+        return ExceptionUtil.syncWithIllegalArgException(() -> this.createBufferedProducer(options).get());
+    }
+
+    /**
+     * Create a {@link BufferedProducer} which coalesces the {@link EventData}s sent using {@link BufferedProducer#send(EventData)} into batches.
+     * Use this in place of {@link #send(EventData)} when sending a high rate of single events - as each batch is sent as one delivery to EventHubs
+     * instead of one delivery per {@link EventData}.
+     *
+     * @param options see {@link BufferedProducerOptions} for more details
+     * @return a CompletableFuture that would result in a BufferedProducer when it is completed.
+     * @throws EventHubException if Service Bus service encountered problems during connection creation.
+     * @see BufferedProducer
+     */
+    CompletableFuture<BufferedProducer> createBufferedProducer(final BufferedProducerOptions options) throws EventHubException;
+
+    /**
+     * Synchronous version of {@link #createPartitionedSender(PartitionedEventHubSenderOptions)}.
+     *
+     * @param options see {@link PartitionedEventHubSenderOptions} for more details
+     * @return PartitionedEventHubSender which can be used to send single events, which are batched per partition and sent over all the partition links.
+     * @throws EventHubException if Service Bus service encountered problems during connection creation.
+     */
+    default PartitionedEventHubSender createPartitionedSenderSync(final PartitionedEventHubSenderOptions options) throws EventHubException, IllegalArgumentException {
+        return ExceptionUtil.syncWithIllegalArgException(() -> this.createPartitionedSender(options).get());
+    }
+
+    /**
+     * Create a {@link PartitionedEventHubSender} which opens a link to every partition of the EventHub and batches the {@link EventData}s
+     * sent to each partition locally. Use this in place of {@link #send(EventData, String)} when sending a high rate of events -
+     * as the batches of all the partitions are filled and sent concurrently, each over its own link.
+     *
+     * @param options see {@link PartitionedEventHubSenderOptions} for more details
+     * @return a CompletableFuture that would result in a PartitionedEventHubSender when it is completed.
+     * @throws EventHubException if Service Bus service encountered problems during connection creation.
+     * @see PartitionedEventHubSender
+     */
+    CompletableFuture<PartitionedEventHubSender> createPartitionedSender(final PartitionedEventHubSenderOptions options) throws EventHubException;
+
+    /**
+     * Synchronous version of {@link #createConsumer(String, EventPosition, EventHubConsumerOptions)}.
+     *
+     * @param consumerGroupName the consumer group name that this consumer should be grouped under.
+     * @param eventPosition     the position to start receiving the events from, in each of the partitions.
+     * @param options           see {@link EventHubConsumerOptions} for more details
+     * @return EventHubConsumer which can be used to receive the events of a set of partitions - or of all the partitions - as a single stream.
+     * @throws EventHubException if Service Bus service encountered problems during the operation.
+     */
+    default EventHubConsumer createConsumerSync(final String consumerGroupName, final EventPosition eventPosition, final EventHubConsumerOptions options)
+            throws EventHubException, IllegalArgumentException {
+        return ExceptionUtil.syncWithIllegalArgException(() -> this.createConsumer(consumerGroupName, eventPosition, options).get());
+    }
+
+    /**
+     * Create an {@link EventHubConsumer} which opens a link to each of the partitions in {@link EventHubConsumerOptions#partitionIds} -
+     * or to every partition of the EventHub - all on the same connection, and merges the events of those partitions into a single stream.
+     * Use this in place of one {@link PartitionReceiver} per partition when a single process receives from many partitions.
+     *
+     * @param consumerGroupName the consumer group name that this consumer should be grouped under.
+     * @param eventPosition     the position to start receiving the events from, in each of the partitions.
+     * @param options           see {@link EventHubConsumerOptions} for more details
+     * @return a CompletableFuture that would result in an EventHubConsumer when it is completed.
+     * @throws EventHubException if Service Bus service encountered problems during the operation.
+     * @see EventHubConsumer
+     */
+    CompletableFuture<EventHubConsumer> createConsumer(final String consumerGroupName, final EventPosition eventPosition, final EventHubConsumerOptions options)
+            throws EventHubException;
+
     /**
      * Synchronous version of {@link #createPartitionSender(String)}.
      *
@@ -325,6 +435,31 @@ public interface EventHubClient {
      */
     CompletableFuture<PartitionSender> createPartitionSender(final String partitionId) throws EventHubException;
 
+    /**
+     * Synchronous version of {@link #createPartitionSender(String, SenderOptions)}.
+     *
+     * @param partitionId   partitionId of EventHub to send the {@link EventData}'s to
+     * @param senderOptions the set of options to enable on the PartitionSender
+     * @return PartitionSenderImpl which can be used to send events to a specific partition.
+     * @throws EventHubException if Service Bus service encountered problems during connection creation.
+     */
+    default PartitionSender createPartitionSenderSync(final String partitionId, final SenderOptions senderOptions) throws EventHubException, IllegalArgumentException {
+        return ExceptionUtil.syncWithIllegalArgException(() -> this.createPartitionSender(partitionId, senderOptions).get());
+    }
+
+    /**
+     * Create a {@link PartitionSender} which can publish {@link EventData}'s directly to a specific EventHub partition,
+     * with its send window bounded as configured in {@link SenderOptions}.
+     *
+     * @param partitionId   partitionId of EventHub to send the {@link EventData}'s to
+     * @param senderOptions the set of options to enable on the PartitionSender
+     * @return a CompletableFuture that would result in a PartitionSenderImpl when it is completed.
+     * @throws EventHubException if Service Bus service encountered problems during connection creation.
+     * @see PartitionSender
+     * @see SenderOptions
+     */
+    CompletableFuture<PartitionSender> createPartitionSender(final String partitionId, final SenderOptions senderOptions) throws EventHubException;
+
     /**
      * Synchronous version of {@link #createReceiver(String, String, EventPosition)}.
      *
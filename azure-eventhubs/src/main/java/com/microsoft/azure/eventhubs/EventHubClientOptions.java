@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+
+package com.microsoft.azure.eventhubs;
+
+import java.util.function.Consumer;
+
+/**
+ * EventHubClientOptions is used to create {@link EventHubClient}s using {@link EventHubClient#create(String, RetryPolicy, java.util.concurrent.Executor, EventHubClientOptions)}.
+ *
+ * An {@link EventHubClient} opens connectionCount connections to Event Hubs service - each with its own I/O thread.
+ * The management operations and the sends of {@link EventHubClient#send(EventData)} use the first connection;
+ * {@link PartitionSender}s and {@link PartitionReceiver}s are spread across all the connections as chosen by {@link #connectionAssignment}.
+ * With a {@link #reactorGroup}, the connections share the I/O threads of the group instead.
+ * Default settings:
+ *      - connectionCount is 1
+ *      - connectionAssignment is {@link ConnectionAssignment#PARTITION}
+ *      - payloadCodec is null (bodies are sent as-is)
+ *      - senderOptions is null (the sends of {@link EventHubClient#send(EventData)} are not bounded by a send window)
+ *      - reactorGroup is null (each connection has its own I/O thread)
+ *      - sessionCount is 0 (each sender, receiver and management link opens its own session)
+ *      - maxPooledSendBufferSize is 1MB
+ *      - maxPooledSendBufferBytes is 4MB
+ *
+ * <pre>
+ *     {@code
+ *     // Create EventHubClient which spreads its partition senders and receivers across 4 connections
+ *     EventHubClientOptions options = new EventHubClientOptions().with( options -> options.connectionCount = 4);
+ *     EventHubClient client = EventHubClient.createSync(connectionString, null, executor, options);
+ *     }
+ * </pre>
+ */
+public final class EventHubClientOptions {
+
+    /**
+     * How the connection of a new sender or receiver is chosen.
+     */
+    public enum ConnectionAssignment {
+        /**
+         * Senders and receivers of the same partition always use the same connection - partitions are spread evenly across the connections.
+         */
+        PARTITION,
+
+        /**
+         * Each sender or receiver uses the connection with the fewest open senders and receivers.
+         */
+        LEAST_LOADED
+    }
+
+    /**
+     * The number of connections the {@link EventHubClient} opens to Event Hubs service.
+     */
+    public int connectionCount = 1;
+
+    /**
+     * How the connection of a new {@link PartitionSender}, {@link PartitionReceiver} or {@link BufferedProducer} is chosen.
+     * {@link BufferedProducer}s, which are not bound to a partition, always use the least loaded connection.
+     */
+    public ConnectionAssignment connectionAssignment = ConnectionAssignment.PARTITION;
+
+    /**
+     * The codec which encodes the body of each {@link EventData} sent using {@link EventHubClient#send(EventData)} and its overloads -
+     * including the {@link EventData}s added to the {@link EventDataBatch}es created by {@link EventHubClient#createBatch(BatchOptions)}.
+     * A body is sent as-is if it is smaller than {@link PayloadCodecs#MIN_ENCODED_BODY_SIZE}, or if encoding does not make it smaller.
+     * {@link PartitionSender}s and {@link BufferedProducer}s use {@link SenderOptions#payloadCodec} instead.
+     *
+     * @see PayloadCodecs
+     */
+    public PayloadCodec payloadCodec = null;
+
+    /**
+     * The options of the sender used by {@link EventHubClient#send(EventData)} and its overloads - for ex: to bound its sends in flight
+     * using {@link SenderOptions#maxInFlightSends} and {@link SenderOptions#maxInFlightBytes}.
+     * {@link SenderOptions#payloadCodec} only applies if {@link #payloadCodec} is null.
+     */
+    public SenderOptions senderOptions = null;
+
+    /**
+     * The {@link ReactorGroup} whose I/O threads the connections of the {@link EventHubClient} run on.
+     * Share one group across many clients to keep the number of I/O threads of the process fixed.
+     * The group should be created using {@link ReactorGroup#create(int, java.util.concurrent.Executor)}.
+     */
+    public ReactorGroup reactorGroup = null;
+
+    /**
+     * The number of AMQP sessions each connection multiplexes its links over - 0, to open a session per link.
+     * Pooled sessions save a session handshake on every link created, and keep the number of sessions of a connection
+     * within the service's limit when opening many senders and receivers.
+     */
+    public int sessionCount = 0;
+
+    /**
+     * The size of the largest buffer each connection pools for encoding outgoing messages - larger messages are encoded into buffers which are not pooled.
+     * Should be at least 1KB.
+     */
+    public int maxPooledSendBufferSize = 1024 * 1024;
+
+    /**
+     * The number of bytes each connection retains in released send buffers, per buffer size - 0, to not pool send buffers at all.
+     */
+    public int maxPooledSendBufferBytes = 4 * 1024 * 1024;
+
+    public final EventHubClientOptions with(Consumer<EventHubClientOptions> builderFunction) {
+        builderFunction.accept(this);
+        return this;
+    }
+}
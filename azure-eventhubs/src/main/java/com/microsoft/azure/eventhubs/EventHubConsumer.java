@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs;
+
+import com.microsoft.azure.eventhubs.impl.ExceptionUtil;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A consumer which receives from a set of partitions - or from all the partitions of the EventHub - over a single connection,
+ * and merges the events of all its partitions into a single stream.
+ * <p>
+ * Each partition is received over its own link, as by a {@link PartitionReceiver}. Every {@link #receive(int)} drains the prefetched events
+ * of the partitions using deficit round-robin: in each round, a partition may hand over events worth up to {@link EventHubConsumerOptions#quantum}
+ * bytes of payload, plus what it was left with from the rounds before. Hot partitions can not starve the cold ones, and partitions with large events
+ * do not get more than their share of the batches.
+ * <p>
+ * Events of the same partition are handed over in order. {@link EventData#getPartitionId()} tells the partition each event was received from.
+ *
+ * @see EventHubClient#createConsumer(String, EventPosition, EventHubConsumerOptions)
+ */
+public interface EventHubConsumer {
+
+    /**
+     * The ids of the partitions this consumer receives from.
+     *
+     * @return the partition ids
+     */
+    String[] getPartitionIds();
+
+    /**
+     * The time to wait for events - when none are prefetched - before {@link #receive(int)} returns null.
+     *
+     * @return the receive timeout
+     */
+    Duration getReceiveTimeout();
+
+    /**
+     * Set the time to wait for events - when none are prefetched - before {@link #receive(int)} returns null.
+     *
+     * @param value the receive timeout
+     */
+    void setReceiveTimeout(final Duration value);
+
+    /**
+     * Synchronous version of {@link #receive(int)}.
+     *
+     * @param maxEventCount maximum number of {@link EventData}'s that this call should return
+     * @return Batch of {@link EventData}'s from the partitions of this consumer. null if no events are present.
+     * @throws EventHubException if Service Bus service encountered problems during the operation.
+     */
+    default Iterable<EventData> receiveSync(final int maxEventCount) throws EventHubException {
+        return ExceptionUtil.sync(() -> this.receive(maxEventCount).get());
+    }
+
+    /**
+     * Receive a batch of {@link EventData}'s from the partitions of this consumer - drained fairly across the partitions.
+     *
+     * @param maxEventCount maximum number of {@link EventData}'s that this call should return
+     * @return A completableFuture that will yield a batch of {@link EventData}'s from the partitions of this consumer.
+     * null if no events arrive within {@link #getReceiveTimeout()}.
+     */
+    CompletableFuture<Iterable<EventData>> receive(final int maxEventCount);
+
+    /**
+     * Register a receive handler that will be called with the events of all the partitions of this consumer - one batch at a time,
+     * on the executor of the {@link EventHubClient}.
+     *
+     * @param receiveHandler An implementation of {@link PartitionReceiveHandler}; null to stop invoking the handler which is registered.
+     * @return A completableFuture which completes when the handler is set - or, when receiveHandler is null, when the handler which was registered is no longer invoked.
+     */
+    default CompletableFuture<Void> setReceiveHandler(final PartitionReceiveHandler receiveHandler) {
+        return this.setReceiveHandler(receiveHandler, false);
+    }
+
+    /**
+     * Register a receive handler that will be called with the events of all the partitions of this consumer - one batch at a time,
+     * on the executor of the {@link EventHubClient}.
+     *
+     * @param receiveHandler     An implementation of {@link PartitionReceiveHandler}; null to stop invoking the handler which is registered.
+     * @param invokeWhenNoEvents flag to indicate whether the {@link PartitionReceiveHandler#onReceive(Iterable)} should be invoked when the receive call times out
+     * @return A completableFuture which completes when the handler is set - or, when receiveHandler is null, when the handler which was registered is no longer invoked.
+     */
+    CompletableFuture<Void> setReceiveHandler(final PartitionReceiveHandler receiveHandler, final boolean invokeWhenNoEvents);
+
+    /**
+     * Closes the links to all the partitions.
+     *
+     * @return a CompletableFuture that will be completed when all the links are closed.
+     */
+    CompletableFuture<Void> close();
+
+    /**
+     * Synchronous version of {@link #close()}.
+     *
+     * @throws EventHubException if Service Bus service encountered problems during the operation.
+     */
+    void closeSync() throws EventHubException;
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+
+package com.microsoft.azure.eventhubs;
+
+import java.util.function.Consumer;
+
+/**
+ * EventHubConsumerOptions is used to create {@link EventHubConsumer}s using {@link EventHubClient#createConsumer(String, EventPosition, EventHubConsumerOptions)}.
+ *
+ * Default settings:
+ *      - partitionIds is null (all the partitions of the EventHub)
+ *      - quantum is 32KB
+ *      - receiverOptions is null
+ *
+ * <pre>
+ *     {@code
+ *     // Create EventHubConsumer which receives from partitions 0 and 1
+ *     EventHubConsumerOptions options = new EventHubConsumerOptions().with( options -> options.partitionIds = new String[] { "0", "1" });
+ *     EventHubConsumer consumer = client.createConsumerSync(consumerGroupName, EventPosition.fromEndOfStream(), options);
+ *     }
+ * </pre>
+ */
+public final class EventHubConsumerOptions {
+
+    public static final int DEFAULT_QUANTUM = 32 * 1024;
+
+    /**
+     * The partitions to receive from - all the partitions of the EventHub, if null.
+     */
+    public String[] partitionIds = null;
+
+    /**
+     * The bytes of payload each partition may hand over per round of the deficit round-robin.
+     * Smaller values interleave the partitions more finely within a batch.
+     */
+    public int quantum = DEFAULT_QUANTUM;
+
+    /**
+     * The options of each partition link.
+     */
+    public ReceiverOptions receiverOptions = null;
+
+    public final EventHubConsumerOptions with(Consumer<EventHubConsumerOptions> builderFunction) {
+        builderFunction.accept(this);
+        return this;
+    }
+}
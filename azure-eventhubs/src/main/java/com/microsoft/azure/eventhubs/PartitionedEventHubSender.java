@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs;
+
+import com.microsoft.azure.eventhubs.impl.ExceptionUtil;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A sender which holds one link per EventHub partition and batches the {@link EventData}s sent to each partition locally.
+ * <p>
+ * Each {@link EventData} is routed to a partition - by the hash of its partitionKey, or round-robin when no partitionKey is given -
+ * and is added to the batch being filled for that partition. The batches of all the partitions are filled and sent concurrently,
+ * each over its own partition link, as described in {@link BufferedProducer}.
+ * <p>
+ * The partition of a partitionKey is chosen by the client: all the {@link EventData}s sent with the same partitionKey land on the same partition,
+ * but that partition is not the one Event Hubs service would pick for {@link EventHubClient#send(EventData, String)}.
+ *
+ * @see EventHubClient#createPartitionedSender(PartitionedEventHubSenderOptions)
+ */
+public interface PartitionedEventHubSender {
+
+    /**
+     * The ids of the partitions this sender holds a link to.
+     *
+     * @return the partition ids, in the order returned by {@link EventHubClient#getRuntimeInformation()}
+     */
+    String[] getPartitionIds();
+
+    /**
+     * Synchronous version of {@link #send(EventData)}.
+     *
+     * @param data the {@link EventData} to be sent.
+     * @throws PayloadSizeExceededException if the size of the {@link EventData} exceeds the maximum size of a batch.
+     * @throws EventHubException          if Service Bus service encountered problems during the operation.
+     */
+    default void sendSync(final EventData data) throws EventHubException {
+        ExceptionUtil.syncVoid(() -> this.send(data).get());
+    }
+
+    /**
+     * Add {@link EventData} to the batch of the next partition in round-robin order.
+     *
+     * @param data the {@link EventData} to be sent.
+     * @return a CompletableFuture that will be completed when the batch containing the {@link EventData} is sent.
+     */
+    CompletableFuture<Void> send(final EventData data);
+
+    /**
+     * Synchronous version of {@link #send(EventData, String)}.
+     *
+     * @param data         the {@link EventData} to be sent.
+     * @param partitionKey the key whose hash chooses the partition.
+     * @throws PayloadSizeExceededException if the size of the {@link EventData} exceeds the maximum size of a batch.
+     * @throws EventHubException          if Service Bus service encountered problems during the operation.
+     */
+    default void sendSync(final EventData data, final String partitionKey) throws EventHubException {
+        ExceptionUtil.syncVoid(() -> this.send(data, partitionKey).get());
+    }
+
+    /**
+     * Add {@link EventData} to the batch of the partition chosen by the hash of the partitionKey.
+     *
+     * @param data         the {@link EventData} to be sent.
+     * @param partitionKey the key whose hash chooses the partition.
+     * @return a CompletableFuture that will be completed when the batch containing the {@link EventData} is sent.
+     */
+    CompletableFuture<Void> send(final EventData data, final String partitionKey);
+
+    /**
+     * Send the batches which are currently being filled for all the partitions.
+     *
+     * @return a CompletableFuture that will be completed when all the flushed batches are sent.
+     */
+    CompletableFuture<Void> flush();
+
+    /**
+     * Flushes the buffered {@link EventData}s and closes the links to all the partitions.
+     *
+     * @return a CompletableFuture that will be completed when the sender is closed.
+     */
+    CompletableFuture<Void> close();
+
+    void closeSync() throws EventHubException;
+}
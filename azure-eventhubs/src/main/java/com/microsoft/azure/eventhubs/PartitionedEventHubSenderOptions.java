@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+
+package com.microsoft.azure.eventhubs;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * PartitionedEventHubSenderOptions is used to create {@link PartitionedEventHubSender}s using {@link EventHubClient#createPartitionedSender(PartitionedEventHubSenderOptions)}.
+ *
+ * Default settings:
+ *      - maxMessageSize is the maximum allowed size
+ *      - lingerTime is 10 milliseconds
+ *      - senderOptions is null (the send window of each partition link is unbounded)
+ *
+ * <pre>
+ *     {@code
+ *     // Create PartitionedEventHubSender which waits up to 50 milliseconds to fill the batch of each partition
+ *     PartitionedEventHubSenderOptions options = new PartitionedEventHubSenderOptions().with( options -> options.lingerTime = Duration.ofMillis(50));
+ *     PartitionedEventHubSender sender = client.createPartitionedSenderSync(options);
+ *     }
+ * </pre>
+ */
+public final class PartitionedEventHubSenderOptions {
+
+    /**
+     * The maximum size in bytes of each batch sent to a partition.
+     * This value cannot exceed the maximum size supported by Event Hubs service.
+     */
+    public Integer maxMessageSize = null;
+
+    /**
+     * The maximum time an {@link EventData} waits for the batch of its partition to fill up,
+     * before the batch is sent to Event Hubs service.
+     */
+    public Duration lingerTime = BufferedProducerOptions.DEFAULT_LINGER_TIME;
+
+    /**
+     * The options of each partition link - each batch sent takes one place in the send window of its partition link.
+     */
+    public SenderOptions senderOptions = null;
+
+    public final PartitionedEventHubSenderOptions with(Consumer<PartitionedEventHubSenderOptions> builderFunction) {
+        builderFunction.accept(this);
+        return this;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs;
+
+import java.io.IOException;
+
+/**
+ * Encodes the body of the {@link EventData}s being sent - typically to compress it - and decodes the body of the {@link EventData}s received.
+ * <p>
+ * The sender sets the AMQP content-encoding property of each encoded {@link EventData} to {@link #getContentEncoding()};
+ * a receiver created with {@link ReceiverOptions#setPayloadDecoding(boolean)} decodes the body of each received {@link EventData}
+ * whose content-encoding matches a codec registered in {@link PayloadCodecs}.
+ * Only binary bodies - {@link EventData#getBytes()} - are encoded.
+ *
+ * @see PayloadCodecs
+ * @see SenderOptions#payloadCodec
+ */
+public interface PayloadCodec {
+
+    /**
+     * The value of the AMQP content-encoding property of the {@link EventData}s encoded by this codec - for ex: gzip.
+     *
+     * @return the content-encoding, compared ignoring case
+     */
+    String getContentEncoding();
+
+    /**
+     * Encodes the body of an {@link EventData} being sent.
+     *
+     * @param data   the array holding the body
+     * @param offset the offset of the body in the array
+     * @param length the length of the body
+     * @return the encoded body
+     */
+    byte[] encode(byte[] data, int offset, int length);
+
+    /**
+     * Decodes the body of an {@link EventData} received.
+     *
+     * @param data   the array holding the encoded body
+     * @param offset the offset of the encoded body in the array
+     * @param length the length of the encoded body
+     * @return the decoded body
+     * @throws IOException if the body is not a valid encoding, or decodes to more than the codec allows -
+     *                     the {@link EventData} is then handed over with its body as received
+     */
+    byte[] decode(byte[] data, int offset, int length) throws IOException;
+}
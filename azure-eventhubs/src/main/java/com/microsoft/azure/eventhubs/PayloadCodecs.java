@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs;
+
+import com.microsoft.azure.eventhubs.impl.ZipPayloadCodec;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The built-in {@link PayloadCodec}s, and the registry of codecs used to decode the {@link EventData}s received.
+ * <p>
+ * {@link #GZIP} and {@link #DEFLATE} are registered up front; other codecs can be plugged in using {@link #register(PayloadCodec)}.
+ * Received {@link EventData}s are only decoded by receivers created with {@link ReceiverOptions#setPayloadDecoding(boolean)};
+ * one whose content-encoding has no registered codec is handed over with its body as received.
+ * <p>
+ * The built-in codecs decode a body to at most {@link #MAX_DECODED_BODY_SIZE} bytes - a larger one is handed over as received.
+ *
+ * <pre>
+ *     {@code
+ *     // Create PartitionSender which gzips the body of every EventData it sends
+ *     PartitionSender sender = client.createPartitionSenderSync("0", new SenderOptions().with( options -> options.payloadCodec = PayloadCodecs.GZIP));
+ *     }
+ * </pre>
+ */
+public final class PayloadCodecs {
+
+    /**
+     * Bodies smaller than this many bytes are sent as-is - the codec overhead outweighs what encoding them saves.
+     */
+    public static final int MIN_ENCODED_BODY_SIZE = 256;
+
+    /**
+     * The most bytes the built-in codecs decode a body to - guards the receiver against bodies which expand without bound.
+     */
+    public static final int MAX_DECODED_BODY_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * GZIP format (RFC 1952) - content-encoding gzip.
+     */
+    public static final PayloadCodec GZIP = ZipPayloadCodec.gzip(MAX_DECODED_BODY_SIZE);
+
+    /**
+     * ZLIB format (RFC 1950) - content-encoding deflate.
+     */
+    public static final PayloadCodec DEFLATE = ZipPayloadCodec.deflate(MAX_DECODED_BODY_SIZE);
+
+    private static final ConcurrentHashMap<String, PayloadCodec> REGISTERED_CODECS = new ConcurrentHashMap<>();
+
+    static {
+        register(GZIP);
+        register(DEFLATE);
+    }
+
+    private PayloadCodecs() {
+    }
+
+    /**
+     * Registers a codec to decode the received {@link EventData}s with its content-encoding - replacing any codec registered with the same content-encoding.
+     *
+     * @param codec the codec
+     */
+    public static void register(final PayloadCodec codec) {
+        if (codec == null || codec.getContentEncoding() == null) {
+            throw new IllegalArgumentException("codec and its contentEncoding cannot be null");
+        }
+
+        REGISTERED_CODECS.put(codec.getContentEncoding().toLowerCase(Locale.US), codec);
+    }
+
+    /**
+     * Looks up the codec registered for a content-encoding.
+     *
+     * @param contentEncoding the content-encoding, compared ignoring case
+     * @return the codec, or null if none is registered
+     */
+    public static PayloadCodec get(final String contentEncoding) {
+        return contentEncoding == null ? null : REGISTERED_CODECS.get(contentEncoding.toLowerCase(Locale.US));
+    }
+}
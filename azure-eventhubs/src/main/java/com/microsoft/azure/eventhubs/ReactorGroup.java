@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.microsoft.azure.eventhubs.impl.ExceptionUtil;
+import com.microsoft.azure.eventhubs.impl.ReactorGroupImpl;
+
+/**
+ * A fixed set of I/O event loops which the connections of many {@link EventHubClient}s share.
+ * <p>
+ * By default, every connection an {@link EventHubClient} opens runs its own event loop - which occupies a thread of the client's executor
+ * for as long as the connection is open. A process with many clients (like EventProcessorHost, which opens a client per partition)
+ * ends up with as many busy threads. Connections created with {@link EventHubClientOptions#reactorGroup} are instead assigned to the
+ * event loop of this group with the fewest connections - so the number of I/O threads stays at {@link #getReactorCount()}.
+ * <p>
+ * A group should outlive the clients using it: close the clients before closing the group.
+ * Groups are created using {@link #create(int, Executor)} - this interface is not meant to be implemented outside this library.
+ *
+ * <pre>
+ *     {@code
+ *     ReactorGroup reactorGroup = ReactorGroup.create(2, executor);
+ *     EventHubClientOptions options = new EventHubClientOptions().with( options -> options.reactorGroup = reactorGroup);
+ *     EventHubClient client = EventHubClient.createSync(connectionString, null, executor, options);
+ *     }
+ * </pre>
+ */
+public interface ReactorGroup {
+
+    /**
+     * Create a ReactorGroup with the given number of event loops.
+     *
+     * @param reactorCount the number of event loops - each occupies one thread of the executor while the group is open
+     * @param executor     the executor the event loops run on
+     * @return the ReactorGroup
+     * @throws IOException if the I/O of an event loop could not be set up
+     */
+    static ReactorGroup create(final int reactorCount, final Executor executor) throws IOException {
+        return new ReactorGroupImpl(reactorCount, executor);
+    }
+
+    /**
+     * The number of event loops in this group.
+     *
+     * @return the number of event loops
+     */
+    int getReactorCount();
+
+    /**
+     * The number of connections which are currently assigned to the event loops of this group.
+     *
+     * @return the number of connections
+     */
+    int getConnectionCount();
+
+    /**
+     * Stops all the event loops of this group. Connections still assigned to the group fail with an {@link OperationCancelledException}.
+     *
+     * @return a CompletableFuture which completes when all the event loops are stopped
+     */
+    CompletableFuture<Void> close();
+
+    /**
+     * Synchronous version of {@link #close()}.
+     *
+     * @throws EventHubException if the event loops failed to stop
+     */
+    default void closeSync() throws EventHubException {
+        ExceptionUtil.syncVoid(() -> this.close().get());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs;
+
+import com.microsoft.azure.eventhubs.impl.ReceiveMemoryGovernor;
+
+/**
+ * Bounds the memory held by the events prefetched by all the {@link PartitionReceiver}s in the process - across all {@link EventHubClient}s.
+ * <p>
+ * Every receiver prefetches up to {@link PartitionReceiver#getPrefetchCount()} events, so a process with many receivers can hold
+ * receivers x prefetchCount x event size bytes at worst. Once the bytes held by all receivers exceed {@link #setLimit(long)},
+ * receivers stop granting the service more credit; as events are received by the application, credit goes back
+ * to the receivers with the most backlog first.
+ *
+ * <pre>
+ *     {@code
+ *     // hold at most 256MB of prefetched events, and hold off prefetching while the heap stays 80% full after collections
+ *     ReceiveMemoryBudget.setLimit(256 * 1024 * 1024);
+ *     ReceiveMemoryBudget.setHeapUsageThreshold(0.8);
+ *     }
+ * </pre>
+ */
+public final class ReceiveMemoryBudget {
+
+    private ReceiveMemoryBudget() {
+    }
+
+    /**
+     * Gets the limit on the bytes of prefetched events held by all receivers.
+     *
+     * @return the limit in bytes; 0 if there is no limit
+     */
+    public static long getLimit() {
+        return ReceiveMemoryGovernor.getInstance().getLimit();
+    }
+
+    /**
+     * Sets the limit on the bytes of prefetched events held by all receivers. Default: 0, no limit.
+     *
+     * @param bytes the limit in bytes; 0 to remove the limit
+     */
+    public static void setLimit(final long bytes) {
+        ReceiveMemoryGovernor.getInstance().setLimit(bytes);
+    }
+
+    /**
+     * Gets the bytes of prefetched events currently held by all receivers - events received from the service, but not yet by the application.
+     *
+     * @return the bytes held
+     */
+    public static long getHeldBytes() {
+        return ReceiveMemoryGovernor.getInstance().getHeldBytes();
+    }
+
+    /**
+     * Additionally withhold credit while a heap memory pool stays above this fraction of its maximum size after a collection -
+     * as reported by the {@link java.lang.management.MemoryPoolMXBean} collection usage threshold of the pool.
+     * <p>
+     * This sets the collection usage threshold of the heap pools which support one. Default: 0, disabled.
+     *
+     * @param fraction the fraction of the maximum size of a heap pool, in the range [0, 1); 0 to disable
+     */
+    public static void setHeapUsageThreshold(final double fraction) {
+        ReceiveMemoryGovernor.getInstance().setHeapUsageThreshold(fraction);
+    }
+}
@@ -4,6 +4,9 @@
  */
 package com.microsoft.azure.eventhubs;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
 import com.microsoft.azure.eventhubs.impl.ClientConstants;
 
 /**
@@ -13,6 +16,12 @@ public final class ReceiverOptions {
 
     private boolean receiverRuntimeMetricEnabled;
     private String identifier;
+    private boolean offHeapPrefetch;
+    private long prefetchByteBudget;
+    private Duration targetLatency;
+    private boolean pushReceiveHandler;
+    private Executor receiveHandlerExecutor;
+    private boolean payloadDecoding;
 
     /**
      * Knob to enable/disable runtime metric of the receiver. If this is set to true and is passed to {@link EventHubClient#createReceiver},
@@ -67,6 +76,159 @@ public final class ReceiverOptions {
         this.identifier = value;
     }
 
+    /**
+     * Knob to hold the events prefetched by the receiver off the java heap.
+     *
+     * @return the {@link boolean} indicating, whether, prefetched events are held off-heap
+     */
+    public boolean getOffHeapPrefetch() {
+
+        return this.offHeapPrefetch;
+    }
+
+    /**
+     * Knob to hold the events prefetched by the receiver off the java heap. If this is set to true and is passed to {@link EventHubClient#createReceiver},
+     * received events are kept as raw bytes in a direct-memory buffer sized from {@link PartitionReceiver#getPrefetchCount()},
+     * and are only decoded when they are handed over by {@link PartitionReceiver#receive(int)} - on the executor of the {@link EventHubClient}
+     * instead of on the thread shared by all links of the connection.
+     * <p>
+     * This suits receivers with a large prefetch count (thousands of events), which otherwise hold all of them as decoded objects on the heap.
+     *
+     * @param value the {@link boolean} to indicate, whether, prefetched events should be held off-heap
+     */
+    public void setOffHeapPrefetch(boolean value) {
+
+        this.offHeapPrefetch = value;
+    }
+
+    /**
+     * Gets the number of bytes of received events the {@link PartitionReceiver} prefetches.
+     *
+     * @return the prefetch byte budget; 0 if the prefetch is sized by {@link PartitionReceiver#getPrefetchCount()}
+     */
+    public long getPrefetchByteBudget() {
+
+        return this.prefetchByteBudget;
+    }
+
+    /**
+     * Size the prefetch of the {@link PartitionReceiver} by bytes instead of by a number of events.
+     * <p>
+     * The link credit is then adjusted as events are received - from the observed event size, so that the prefetched events stay within the budget
+     * whether events are a few bytes or a few hundred kilobytes. {@link PartitionReceiver#getPrefetchCount()} then only bounds
+     * the maximum number of events returned by a single {@link PartitionReceiver#receive(int)}.
+     *
+     * @param value the number of bytes of received events to prefetch; 0 to size the prefetch by {@link PartitionReceiver#getPrefetchCount()}
+     * @see #setTargetLatency(Duration)
+     */
+    public void setPrefetchByteBudget(final long value) {
+
+        if (value < 0) {
+            throw new IllegalArgumentException("prefetchByteBudget cannot be negative");
+        }
+
+        this.prefetchByteBudget = value;
+    }
+
+    /**
+     * Gets the target latency of the events prefetched by the {@link PartitionReceiver}.
+     *
+     * @return the target latency; null if nothing was set
+     */
+    public Duration getTargetLatency() {
+
+        return this.targetLatency;
+    }
+
+    /**
+     * Set the time events prefetched by the {@link PartitionReceiver} should wait before they are received.
+     * <p>
+     * Only applies along with {@link #setPrefetchByteBudget(long)}: the link credit is further limited to the number of events
+     * the consumer drains in this duration - as measured while receiving. Fast consumers get a deep prefetch that keeps the link saturated,
+     * while slow consumers do not hold events in memory long before processing them.
+     *
+     * @param value the target latency; null to size the prefetch by the byte budget alone
+     */
+    public void setTargetLatency(final Duration value) {
+
+        if (value != null && (value.isNegative() || value.isZero())) {
+            throw new IllegalArgumentException("targetLatency should be a positive duration");
+        }
+
+        this.targetLatency = value;
+    }
+
+    /**
+     * Knob to push received events to the {@link PartitionReceiveHandler}.
+     *
+     * @return the {@link boolean} indicating, whether, events are pushed to the {@link PartitionReceiveHandler}
+     */
+    public boolean getPushReceiveHandler() {
+
+        return this.pushReceiveHandler;
+    }
+
+    /**
+     * Knob to push received events to the {@link PartitionReceiveHandler}. If this is set to true and is passed to {@link EventHubClient#createReceiver},
+     * the handler set using {@link PartitionReceiver#setReceiveHandler(PartitionReceiveHandler)} is invoked on {@link #getReceiveHandlerExecutor()}
+     * as soon as events arrive - instead of on a thread dedicated to the {@link PartitionReceiver} which waits for events by calling {@link PartitionReceiver#receiveSync(int)}.
+     * <p>
+     * {@link PartitionReceiveHandler#onReceive(Iterable)} is still invoked one batch at a time, in order. This suits processes with many receivers,
+     * which otherwise need as many threads.
+     *
+     * @param value the {@link boolean} to indicate, whether, events should be pushed to the {@link PartitionReceiveHandler}
+     */
+    public void setPushReceiveHandler(boolean value) {
+
+        this.pushReceiveHandler = value;
+    }
+
+    /**
+     * Gets the executor on which events are pushed to the {@link PartitionReceiveHandler}.
+     *
+     * @return the executor; null if events are pushed on the executor of the {@link EventHubClient}
+     */
+    public Executor getReceiveHandlerExecutor() {
+
+        return this.receiveHandlerExecutor;
+    }
+
+    /**
+     * Set the executor on which events are pushed to the {@link PartitionReceiveHandler}, when {@link #setPushReceiveHandler(boolean)} is set -
+     * for example, a bounded pool shared by all receivers, or an executor of virtual threads on runtimes which support them.
+     *
+     * @param value the executor; null to push events on the executor of the {@link EventHubClient}
+     */
+    public void setReceiveHandlerExecutor(final Executor value) {
+
+        this.receiveHandlerExecutor = value;
+    }
+
+    /**
+     * Knob to decode the body of received events with the {@link PayloadCodec} registered for their content-encoding.
+     *
+     * @return the {@link boolean} indicating, whether, received events are decoded
+     */
+    public boolean getPayloadDecoding() {
+
+        return this.payloadDecoding;
+    }
+
+    /**
+     * Knob to decode the body of received events with the {@link PayloadCodec} registered for their content-encoding. If this is set to true and is passed to {@link EventHubClient#createReceiver},
+     * {@link EventData#getBytes()} of an event whose content-encoding has a codec registered in {@link PayloadCodecs} returns the decoded body,
+     * and the content-encoding is dropped from its {@link EventData#getSystemProperties()} as it no longer applies.
+     * <p>
+     * Off by default: events are handed over with the body and content-encoding as received - for consumers which decode the body themselves.
+     *
+     * @param value the {@link boolean} to indicate, whether, received events should be decoded
+     * @see SenderOptions#payloadCodec
+     */
+    public void setPayloadDecoding(boolean value) {
+
+        this.payloadDecoding = value;
+    }
+
     private static void validateReceiverIdentifier(final String receiverName) {
 
         if (receiverName != null &&
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+
+package com.microsoft.azure.eventhubs;
+
+import java.util.function.Consumer;
+
+/**
+ * SenderOptions is used to create {@link PartitionSender}s using {@link EventHubClient#createPartitionSender(String, SenderOptions)}
+ * and {@link BufferedProducer}s using {@link BufferedProducerOptions#senderOptions}.
+ *
+ * The send window bounds the sends which were handed to the sender and are not yet acknowledged by Event Hubs service -
+ * by their count and by their total encoded size. When the window is full, a send either waits for in-flight sends to
+ * complete before it is sent, or fails with {@link QuotaExceededException} - as chosen by {@link #whenWindowFull}.
+ * Default settings:
+ *      - maxInFlightSends is null (unbounded)
+ *      - maxInFlightBytes is null (unbounded)
+ *      - whenWindowFull is {@link WindowFullBehavior#WAIT}
+ *      - payloadCodec is null (bodies are sent as-is)
+ *      - deliveryMode is {@link DeliveryMode#AT_LEAST_ONCE}
+ *
+ * <pre>
+ *     {@code
+ *     // Create PartitionSender which allows up to 1000 sends and 16MB in flight, and fails sends beyond that
+ *     SenderOptions options = new SenderOptions().with( options -> {
+ *         options.maxInFlightSends = 1000;
+ *         options.maxInFlightBytes = 16 * 1024 * 1024;
+ *         options.whenWindowFull = SenderOptions.WindowFullBehavior.FAIL;
+ *     });
+ *     PartitionSender sender = client.createPartitionSenderSync("0", options);
+ *     }
+ * </pre>
+ */
+public final class SenderOptions {
+
+    /**
+     * What a send does when it does not fit in the send window.
+     */
+    public enum WindowFullBehavior {
+        /**
+         * The CompletableFuture returned by the send is completed with {@link QuotaExceededException}.
+         */
+        FAIL,
+
+        /**
+         * The send waits until enough in-flight sends complete.
+         */
+        WAIT
+    }
+
+    /**
+     * Whether the sends wait for Event Hubs service to acknowledge them.
+     */
+    public enum DeliveryMode {
+        /**
+         * The CompletableFuture returned by a send is completed once Event Hubs service accepts the send -
+         * sends which are not accepted in time are retried as per the {@link RetryPolicy}.
+         */
+        AT_LEAST_ONCE,
+
+        /**
+         * Sends are pre-settled: the CompletableFuture returned by a send is completed as soon as the send is written to the link.
+         * Event Hubs service doesn't acknowledge the sends - so a send lost on a connection failure is neither retried nor reported.
+         * Use this for streams where occasionally losing an {@link EventData} is acceptable in exchange for throughput and latency.
+         */
+        AT_MOST_ONCE
+    }
+
+    /**
+     * The maximum number of sends which are not yet acknowledged by Event Hubs service.
+     */
+    public Integer maxInFlightSends = null;
+
+    /**
+     * The maximum total size in bytes of the sends which are not yet acknowledged by Event Hubs service.
+     * A single send larger than this value is admitted once no other send is in flight.
+     */
+    public Integer maxInFlightBytes = null;
+
+    /**
+     * What a send does when it does not fit in the send window.
+     */
+    public WindowFullBehavior whenWindowFull = WindowFullBehavior.WAIT;
+
+    /**
+     * The codec which encodes the body of each {@link EventData} sent - including the {@link EventData}s added to
+     * the {@link EventDataBatch}es created by the sender. A body is sent as-is if it is smaller than {@link PayloadCodecs#MIN_ENCODED_BODY_SIZE},
+     * or if encoding does not make it smaller.
+     *
+     * @see PayloadCodecs
+     */
+    public PayloadCodec payloadCodec = null;
+
+    /**
+     * Whether the sends wait for Event Hubs service to acknowledge them.
+     * With {@link DeliveryMode#AT_MOST_ONCE} the send window bounds the sends which are not yet written to the link.
+     */
+    public DeliveryMode deliveryMode = DeliveryMode.AT_LEAST_ONCE;
+
+    public final SenderOptions with(Consumer<SenderOptions> builderFunction) {
+        builderFunction.accept(this);
+        return this;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.time.Duration;
+
+import com.microsoft.azure.eventhubs.PartitionReceiver;
+
+/**
+ * Sizes the credit window of a receive link from a byte budget - using the observed event size,
+ * and, when a target latency is set, the rate at which the consumer drains prefetched events.
+ * <p>
+ * window = min(byteBudget / averageEventSize, drainRate * targetLatency), never below {@link PartitionReceiver#MINIMUM_PREFETCH_COUNT}
+ * <p>
+ * CONTRACT: all methods are to be called on the reactor thread.
+ */
+final class AdaptiveCredit {
+    static final int INITIAL_EVENT_SIZE_ESTIMATE = 1024;
+
+    private static final double SMOOTHING_FACTOR = 0.125;
+    private static final long DRAIN_SAMPLE_INTERVAL_NANOS = Duration.ofMillis(500).toNanos();
+
+    private final long byteBudget;
+    private final Duration targetLatency;
+
+    private double averageEventSize;
+    private boolean eventSizeSampled;
+    private double drainRatePerSecond;
+    private boolean drainRateSampled;
+    private long drainSampleStartNanos;
+    private int drainedInSample;
+
+    AdaptiveCredit(final long byteBudget, final Duration targetLatency) {
+        if (byteBudget <= 0) {
+            throw new IllegalArgumentException("byteBudget should be a positive number");
+        }
+
+        if (targetLatency != null && (targetLatency.isNegative() || targetLatency.isZero())) {
+            throw new IllegalArgumentException("targetLatency should be a positive duration");
+        }
+
+        this.byteBudget = byteBudget;
+        this.targetLatency = targetLatency;
+        this.averageEventSize = INITIAL_EVENT_SIZE_ESTIMATE;
+        this.drainSampleStartNanos = System.nanoTime();
+    }
+
+    long getByteBudget() {
+        return this.byteBudget;
+    }
+
+    void onReceived(final int eventSize) {
+        if (this.eventSizeSampled) {
+            this.averageEventSize += SMOOTHING_FACTOR * (eventSize - this.averageEventSize);
+        } else {
+            this.averageEventSize = eventSize;
+            this.eventSizeSampled = true;
+        }
+    }
+
+    void onDelivered() {
+        this.drainedInSample++;
+
+        final long now = System.nanoTime();
+        final long elapsedNanos = now - this.drainSampleStartNanos;
+        if (elapsedNanos >= DRAIN_SAMPLE_INTERVAL_NANOS) {
+            final double sampledRate = this.drainedInSample * 1_000_000_000d / elapsedNanos;
+            if (this.drainRateSampled) {
+                this.drainRatePerSecond += SMOOTHING_FACTOR * (sampledRate - this.drainRatePerSecond);
+            } else {
+                this.drainRatePerSecond = sampledRate;
+                this.drainRateSampled = true;
+            }
+
+            this.drainSampleStartNanos = now;
+            this.drainedInSample = 0;
+        }
+    }
+
+    int getCreditWindow() {
+        double window = this.byteBudget / Math.max(this.averageEventSize, 1d);
+
+        if (this.targetLatency != null && this.drainRateSampled) {
+            window = Math.min(window, this.drainRatePerSecond * this.targetLatency.toMillis() / 1000d);
+        }
+
+        return (int) Math.max(PartitionReceiver.MINIMUM_PREFETCH_COUNT, Math.min(window, Integer.MAX_VALUE / 2));
+    }
+}
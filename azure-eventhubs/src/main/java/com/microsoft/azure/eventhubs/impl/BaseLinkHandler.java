@@ -55,7 +55,8 @@ public class BaseLinkHandler extends BaseHandler {
     }
 
     private void closeSession(Link link) {
-        if (link.getSession() != null && link.getSession().getLocalState() != EndpointState.CLOSED)
+        // a pooled session carries other links - it ends with the connection
+        if (link.getSession() != null && link.getSession().getLocalState() != EndpointState.CLOSED && !SessionPool.isPooled(link.getSession()))
             link.getSession().close();
     }
 
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Size-classed pool of the byte arrays into which outgoing messages are encoded - one per {@link MessagingFactory}.
+ * <p>
+ * Arrays are handed out in power-of-2 size classes, from 1KB up to maxBufferSize - larger requests are allocated and never pooled.
+ * Each size class retains at most maxPooledBytesPerSizeClass bytes worth of released arrays; arrays released beyond that are left to the GC.
+ * The arrays are heap arrays, as that is what proton-j {@link org.apache.qpid.proton.engine.Sender#send(byte[], int, int)} accepts.
+ */
+public final class BufferPool {
+
+    public static final int DEFAULT_MAX_BUFFER_SIZE = 1024 * 1024;
+    public static final int DEFAULT_MAX_POOLED_BYTES_PER_SIZE_CLASS = 4 * 1024 * 1024;
+
+    private static final int MIN_SIZE_CLASS_SHIFT = 10;
+
+    private final SizeClass[] sizeClasses;
+
+    public BufferPool() {
+        this(DEFAULT_MAX_BUFFER_SIZE, DEFAULT_MAX_POOLED_BYTES_PER_SIZE_CLASS);
+    }
+
+    public BufferPool(final int maxBufferSize, final int maxPooledBytesPerSizeClass) {
+        if (maxBufferSize < (1 << MIN_SIZE_CLASS_SHIFT)) {
+            throw new IllegalArgumentException(String.format("maxBufferSize cannot be less than %s bytes", 1 << MIN_SIZE_CLASS_SHIFT));
+        }
+
+        if (maxPooledBytesPerSizeClass < 0) {
+            throw new IllegalArgumentException("maxPooledBytesPerSizeClass cannot be negative");
+        }
+
+        // the largest size class is the largest power of 2 not exceeding maxBufferSize
+        final int maxSizeClassShift = 31 - Integer.numberOfLeadingZeros(maxBufferSize);
+        this.sizeClasses = new SizeClass[maxSizeClassShift - MIN_SIZE_CLASS_SHIFT + 1];
+        for (int index = 0; index < this.sizeClasses.length; index++) {
+            this.sizeClasses[index] = new SizeClass(maxPooledBytesPerSizeClass >> (MIN_SIZE_CLASS_SHIFT + index));
+        }
+    }
+
+    /**
+     * Leases an array of at least minimumSize bytes - the array can be larger than requested and its contents are not cleared.
+     *
+     * @param minimumSize the number of bytes needed
+     * @return the array - which should be {@link #release(byte[])}d once it is no longer used
+     */
+    public byte[] lease(final int minimumSize) {
+        final int sizeClassIndex = sizeClassIndex(minimumSize);
+        if (sizeClassIndex >= this.sizeClasses.length) {
+            return new byte[minimumSize];
+        }
+
+        final byte[] pooled = this.sizeClasses[sizeClassIndex].poll();
+        return pooled != null ? pooled : new byte[1 << (sizeClassIndex + MIN_SIZE_CLASS_SHIFT)];
+    }
+
+    /**
+     * Returns a leased array to the pool - the array must not be used after it is released.
+     *
+     * @param buffer the array returned by {@link #lease(int)}
+     */
+    public void release(final byte[] buffer) {
+        if (buffer == null || Integer.bitCount(buffer.length) != 1 || buffer.length < (1 << MIN_SIZE_CLASS_SHIFT)) {
+            return;
+        }
+
+        final int sizeClassIndex = sizeClassIndex(buffer.length);
+        if (sizeClassIndex < this.sizeClasses.length) {
+            this.sizeClasses[sizeClassIndex].offer(buffer);
+        }
+    }
+
+    private static int sizeClassIndex(final int size) {
+        if (size <= (1 << MIN_SIZE_CLASS_SHIFT)) {
+            return 0;
+        }
+
+        return (32 - Integer.numberOfLeadingZeros(size - 1)) - MIN_SIZE_CLASS_SHIFT;
+    }
+
+    private static final class SizeClass {
+        private final ConcurrentLinkedQueue<byte[]> buffers;
+        private final AtomicInteger pooledCount;
+        private final int maxPooledCount;
+
+        SizeClass(final int maxPooledCount) {
+            this.buffers = new ConcurrentLinkedQueue<>();
+            this.pooledCount = new AtomicInteger();
+            this.maxPooledCount = maxPooledCount;
+        }
+
+        byte[] poll() {
+            final byte[] buffer = this.buffers.poll();
+            if (buffer != null) {
+                this.pooledCount.decrementAndGet();
+            }
+
+            return buffer;
+        }
+
+        void offer(final byte[] buffer) {
+            if (this.pooledCount.incrementAndGet() > this.maxPooledCount) {
+                this.pooledCount.decrementAndGet();
+                return;
+            }
+
+            this.buffers.offer(buffer);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import com.microsoft.azure.eventhubs.BufferedProducer;
+import com.microsoft.azure.eventhubs.BufferedProducerOptions;
+import com.microsoft.azure.eventhubs.EventData;
+import com.microsoft.azure.eventhubs.PayloadCodec;
+import com.microsoft.azure.eventhubs.PayloadSizeExceededException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class BufferedProducerImpl extends ClientEntity implements BufferedProducer {
+    private static final Logger TRACE_LOGGER = LoggerFactory.getLogger(BufferedProducerImpl.class);
+
+    private final String sendPath;
+    private final String partitionKey;
+    private final Integer requestedMaxMessageSize;
+    private final Duration lingerTime;
+    private final PayloadCodec payloadCodec;
+    private final Object bufferLock;
+    private final Timer timer;
+
+    private MessageSender internalSender;
+    private int maxMessageSize;
+    private PendingBatch currentBatch;
+
+    private BufferedProducerImpl(final MessagingFactory factory, final String sendPath, final BufferedProducerOptions options, final Executor executor) {
+        super(StringUtil.getRandomString(), null, executor);
+
+        this.sendPath = sendPath;
+        this.partitionKey = options.partitionKey;
+        this.requestedMaxMessageSize = options.maxMessageSize;
+        this.lingerTime = options.lingerTime == null ? BufferedProducerOptions.DEFAULT_LINGER_TIME : options.lingerTime;
+        this.payloadCodec = options.senderOptions == null ? null : options.senderOptions.payloadCodec;
+        this.bufferLock = new Object();
+        this.timer = new Timer(factory);
+    }
+
+    static CompletableFuture<BufferedProducer> create(final MessagingFactory factory,
+                                                      final String sendPath,
+                                                      final BufferedProducerOptions options,
+                                                      final Executor executor) {
+        if (options == null) {
+            throw new IllegalArgumentException("options cannot be null");
+        }
+
+        if (options.partitionKey != null && options.partitionKey.length() > ClientConstants.MAX_PARTITION_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    String.format(Locale.US, "PartitionKey exceeds the maximum allowed length of partitionKey: %s", ClientConstants.MAX_PARTITION_KEY_LENGTH));
+        }
+
+        if (options.lingerTime != null && options.lingerTime.isNegative()) {
+            throw new IllegalArgumentException("lingerTime cannot be negative");
+        }
+
+        final BufferedProducerImpl producer = new BufferedProducerImpl(factory, sendPath, options, executor);
+        return MessageSender.create(factory, StringUtil.getRandomString(), sendPath, options.senderOptions)
+                .thenApplyAsync(new Function<MessageSender, BufferedProducer>() {
+                    @Override
+                    public BufferedProducer apply(MessageSender sender) {
+                        producer.internalSender = sender;
+
+                        final int linkMaxMessageSize = sender.getMaxMessageSize();
+                        if (producer.requestedMaxMessageSize == null) {
+                            producer.maxMessageSize = linkMaxMessageSize;
+                        } else if (producer.requestedMaxMessageSize > linkMaxMessageSize) {
+                            sender.close();
+                            throw new IllegalArgumentException("The maxMessageSize set in BufferedProducerOptions is too large. You set a maxMessageSize of " +
+                                    producer.requestedMaxMessageSize + ". The maximum allowed size is " + linkMaxMessageSize + ".");
+                        } else {
+                            producer.maxMessageSize = producer.requestedMaxMessageSize;
+                        }
+
+                        return producer;
+                    }
+                }, executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> send(final EventData data) {
+        if (data == null) {
+            throw new IllegalArgumentException("EventData cannot be null.");
+        }
+
+        this.throwIfClosed();
+
+        final CompletableFuture<Void> onSend = new CompletableFuture<>();
+        PendingBatch fullBatch = null;
+        synchronized (this.bufferLock) {
+            try {
+                if (this.currentBatch == null) {
+                    this.currentBatch = this.startBatch();
+                }
+
+                if (!this.currentBatch.tryAdd(data, onSend)) {
+                    // the event goes into a batch of its own before the current batch is sent -
+                    // an event which can never fit then fails without flushing the current batch
+                    final PendingBatch nextBatch = this.newBatch();
+                    if (!nextBatch.tryAdd(data, onSend)) {
+                        throw new PayloadSizeExceededException(String.format("Size of the payload exceeded Maximum message size: %s kb", this.maxMessageSize / 1024));
+                    }
+
+                    fullBatch = this.currentBatch;
+                    this.currentBatch = nextBatch;
+                    this.startLingerTimer(nextBatch);
+                }
+            } catch (PayloadSizeExceededException exception) {
+                onSend.completeExceptionally(exception);
+            }
+        }
+
+        if (fullBatch != null) {
+            this.sendBatch(fullBatch);
+        }
+
+        return onSend;
+    }
+
+    @Override
+    public CompletableFuture<Void> flush() {
+        final PendingBatch batchToFlush;
+        synchronized (this.bufferLock) {
+            batchToFlush = this.currentBatch;
+            this.currentBatch = null;
+        }
+
+        if (batchToFlush == null || batchToFlush.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return this.sendBatch(batchToFlush);
+    }
+
+    @Override
+    protected CompletableFuture<Void> onClose() {
+        return this.flush().handleAsync((unUsed, exception) -> null, this.executor)
+                .thenComposeAsync(new Function<Object, CompletableFuture<Void>>() {
+                    @Override
+                    public CompletableFuture<Void> apply(Object unUsed) {
+                        return BufferedProducerImpl.this.internalSender == null
+                                ? CompletableFuture.completedFuture(null)
+                                : BufferedProducerImpl.this.internalSender.close();
+                    }
+                }, this.executor);
+    }
+
+    // should be invoked while holding the bufferLock
+    private PendingBatch startBatch() {
+        final PendingBatch batch = this.newBatch();
+        this.startLingerTimer(batch);
+        return batch;
+    }
+
+    private PendingBatch newBatch() {
+        return new PendingBatch(new EventDataBatchImpl(this.maxMessageSize, this.partitionKey, this.payloadCodec));
+    }
+
+    // should be invoked while holding the bufferLock
+    private void startLingerTimer(final PendingBatch batch) {
+        final CompletableFuture<?> lingerTimer = this.timer.schedule(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        BufferedProducerImpl.this.flushIfCurrent(batch);
+                    }
+                },
+                this.lingerTime);
+
+        if (lingerTimer.isCompletedExceptionally() && TRACE_LOGGER.isWarnEnabled()) {
+            TRACE_LOGGER.warn(String.format(Locale.US, "path[%s], clientId[%s] - scheduling linger timer failed, batch will be sent once it is full",
+                    this.sendPath, this.getClientId()));
+        }
+    }
+
+    private void flushIfCurrent(final PendingBatch batch) {
+        synchronized (this.bufferLock) {
+            if (this.currentBatch != batch) {
+                return;
+            }
+
+            this.currentBatch = null;
+        }
+
+        if (!batch.isEmpty()) {
+            this.sendBatch(batch);
+        }
+    }
+
+    private CompletableFuture<Void> sendBatch(final PendingBatch batch) {
+        CompletableFuture<Void> batchSend;
+        try {
+            batchSend = this.internalSender.send(batch.events.seal(), batch.events.getEncodedSize(), AmqpConstants.AMQP_BATCH_MESSAGE_FORMAT);
+        } catch (RuntimeException exception) {
+            batchSend = new CompletableFuture<>();
+            batchSend.completeExceptionally(exception);
+        }
+
+        return batchSend.whenCompleteAsync((unUsed, exception) -> batch.complete(exception), this.executor);
+    }
+
+    private static final class PendingBatch {
+        private final EventDataBatchImpl events;
+        private final List<CompletableFuture<Void>> sends;
+
+        PendingBatch(final EventDataBatchImpl events) {
+            this.events = events;
+            this.sends = new LinkedList<>();
+        }
+
+        boolean tryAdd(final EventData eventData, final CompletableFuture<Void> onSend) throws PayloadSizeExceededException {
+            if (!this.events.tryAdd(eventData)) {
+                return false;
+            }
+
+            this.sends.add(onSend);
+            return true;
+        }
+
+        boolean isEmpty() {
+            return this.events.getSize() == 0;
+        }
+
+        void complete(final Throwable exception) {
+            final Throwable cause = (exception instanceof CompletionException && exception.getCause() != null)
+                    ? exception.getCause()
+                    : exception;
+            for (CompletableFuture<Void> send : this.sends) {
+                if (cause == null) {
+                    send.complete(null);
+                } else {
+                    send.completeExceptionally(cause);
+                }
+            }
+        }
+    }
+}
@@ -43,6 +43,8 @@ public final class ClientConstants {
     public final static int SESSION_OPEN_TIMEOUT_IN_MS = 15000;
 
     public final static int REACTOR_IO_POLL_TIMEOUT = 20;
+    public final static int TIMING_WHEEL_TICK_IN_MS = 10;
+    public final static int TIMING_WHEEL_SIZE = 512;
     public final static int SERVER_BUSY_BASE_SLEEP_TIME_IN_SECS = 4;
 
     public final static String NO_RETRY = "NoRetry";
@@ -115,10 +115,14 @@ abstract class ClientEntity {
 
     protected final void throwIfClosed() {
         if (this.getIsClosingOrClosed()) {
-            throw new IllegalStateException(String.format(Locale.US, "Operation not allowed after the %s instance is Closed.", this.getClass().getName()), this.getLastKnownError());
+            throw this.closedException();
         }
     }
 
+    protected final IllegalStateException closedException() {
+        return new IllegalStateException(String.format(Locale.US, "Operation not allowed after the %s instance is Closed.", this.getClass().getName()), this.getLastKnownError());
+    }
+
     protected Exception getLastKnownError() {
         return null;
     }
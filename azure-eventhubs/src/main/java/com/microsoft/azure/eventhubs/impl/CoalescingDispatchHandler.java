@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.qpid.proton.engine.Event;
+
+/**
+ * A {@link DispatchHandler} which is queued at most once on a {@link ReactorDispatcher} - for idempotent work (like draining the pending sends of a link),
+ * which any number of {@link ReactorDispatcher#invoke(DispatchHandler)}'s made before it runs can share.
+ */
+abstract class CoalescingDispatchHandler extends DispatchHandler {
+    private final AtomicBoolean isQueued = new AtomicBoolean();
+
+    final boolean tryQueue() {
+        return this.isQueued.compareAndSet(false, true);
+    }
+
+    // the dispatcher could not queue the work - it is not pending anymore
+    final void onQueueFailed() {
+        this.isQueued.set(false);
+    }
+
+    @Override
+    public void onTimerTask(Event e) {
+        // cleared before the work runs - work scheduled while it runs queues it again
+        this.isQueued.set(false);
+        this.onEvent();
+    }
+}
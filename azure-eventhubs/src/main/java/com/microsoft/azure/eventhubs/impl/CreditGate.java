@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Flows the credit of a {@link MessageReceiver} - or, while the {@link ReceiveMemoryGovernor} is over its budget, withholds it
+ * until the governor grants it back.
+ * <p>
+ * Except for {@link #grantCredit(int)}, which the governor calls on any thread, to be used on the reactor thread.
+ */
+final class CreditGate implements ReceiveMemoryGovernor.Participant {
+    static final int WITHHELD_CREDIT_RETRY_MILLIS = 1000;
+
+    private final ReceiveMemoryGovernor memoryGovernor;
+    private final SchedulerProvider schedulerProvider;
+    private final Sink sink;
+
+    private volatile int withheldCredit;
+    private boolean withheldCreditRetryScheduled;
+
+    CreditGate(final ReceiveMemoryGovernor memoryGovernor, final SchedulerProvider schedulerProvider, final Sink sink) {
+        this.memoryGovernor = memoryGovernor;
+        this.schedulerProvider = schedulerProvider;
+        this.sink = sink;
+    }
+
+    void acquire(final long bytes) {
+        this.memoryGovernor.acquire(bytes);
+    }
+
+    void release(final long bytes) {
+        this.memoryGovernor.release(bytes);
+    }
+
+    // flows the credits - unless the process holds too many prefetched bytes
+    void flow(final int credits) {
+        if (credits > 0 && this.memoryGovernor.shouldWithhold()) {
+            this.withholdCredit(credits);
+        } else {
+            this.sink.flow(credits, false);
+        }
+    }
+
+    // the receiver is closed - its withheld credit is no longer granted
+    void close() {
+        this.memoryGovernor.remove(this);
+    }
+
+    @Override
+    public int getWithheldCredit() {
+        return this.withheldCredit;
+    }
+
+    @Override
+    public long getAverageEventSize() {
+        return this.sink.getAverageEventSize();
+    }
+
+    @Override
+    public void grantCredit(final int credits) {
+        try {
+            this.schedulerProvider.getReactorScheduler().invoke(new DispatchHandler() {
+                @Override
+                public void onEvent() {
+                    if (sink.isClosingOrClosed()) {
+                        return;
+                    }
+
+                    final int grantedCredit = Math.min(credits, withheldCredit);
+                    withheldCredit -= grantedCredit;
+
+                    // the link may be out of credit altogether - so do not hold back the granted credit
+                    sink.flow(grantedCredit, true);
+
+                    if (withheldCredit > 0) {
+                        memoryGovernor.withhold(CreditGate.this);
+                    }
+                }
+            });
+        } catch (IOException|RejectedExecutionException schedulerException) {
+            this.memoryGovernor.withhold(this);
+        }
+    }
+
+    private void withholdCredit(final int credits) {
+        this.withheldCredit += credits;
+        this.memoryGovernor.withhold(this);
+
+        if (!this.withheldCreditRetryScheduled) {
+            this.withheldCreditRetryScheduled = true;
+            this.scheduleWithheldCreditRetry();
+        }
+    }
+
+    // withheld credit is granted back as prefetched bytes are released - retry periodically in case nothing is left to release
+    private void scheduleWithheldCreditRetry() {
+        try {
+            this.schedulerProvider.getReactorScheduler().invoke(WITHHELD_CREDIT_RETRY_MILLIS, new DispatchHandler() {
+                @Override
+                public void onEvent() {
+                    memoryGovernor.rebalance();
+                    if (withheldCredit > 0 && !sink.isClosingOrClosed()) {
+                        scheduleWithheldCreditRetry();
+                    } else {
+                        withheldCreditRetryScheduled = false;
+                    }
+                }
+            });
+        } catch (IOException|RejectedExecutionException schedulerException) {
+            this.withheldCreditRetryScheduled = false;
+        }
+    }
+
+    interface Sink {
+        // called on the reactor thread
+        void flow(int credits, boolean flush);
+
+        boolean isClosingOrClosed();
+
+        long getAverageEventSize();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.microsoft.azure.eventhubs.EventData;
+import org.apache.qpid.proton.amqp.messaging.Data;
+import org.apache.qpid.proton.amqp.messaging.Section;
+import org.apache.qpid.proton.message.Message;
+
+/**
+ * Deficit round-robin over the prefetch of the partitions of an {@link EventHubConsumerImpl} - so that a partition with a deep backlog,
+ * or with large events, does not starve the others of their share of each batch.
+ * <p>
+ * The current partition is charged a quantum (in bytes of payload) once per round, and hands over events while it has deficit left.
+ * A partition with nothing prefetched gives up its deficit.
+ * <p>
+ * CONTRACT: to be used on the reactor thread - as the prefetch of the partitions is.
+ */
+final class DeficitRoundRobin {
+    private final Partition[] partitions;
+    private final String[] partitionIds;
+    private final long[] deficits;
+    private final int quantum;
+    private final boolean payloadDecoding;
+
+    private int currentPartition;
+    private boolean currentPartitionCharged;
+
+    DeficitRoundRobin(final Partition[] partitions, final String[] partitionIds, final int quantum, final boolean payloadDecoding) {
+        this.partitions = partitions;
+        this.partitionIds = partitionIds;
+        this.deficits = new long[partitions.length];
+        this.quantum = quantum;
+        this.payloadDecoding = payloadDecoding;
+    }
+
+    // returns null if no partition has anything prefetched
+    List<EventData> drain(final int maxEventCount) {
+        List<EventData> events = null;
+        int emptyPartitions = 0;
+
+        while (emptyPartitions < this.partitions.length && (events == null || events.size() < maxEventCount)) {
+            final int partition = this.currentPartition;
+            final Partition prefetch = this.partitions[partition];
+
+            if (!this.currentPartitionCharged) {
+                this.deficits[partition] += this.quantum;
+                this.currentPartitionCharged = true;
+            }
+
+            Message message;
+            while (this.deficits[partition] > 0
+                    && (events == null || events.size() < maxEventCount)
+                    && (message = prefetch.pollPrefetchedMessage()) != null) {
+                if (events == null) {
+                    events = new ArrayList<>(maxEventCount);
+                }
+
+                this.deficits[partition] -= payloadSize(message);
+                events.add(new EventDataImpl(message, this.partitionIds[partition], this.payloadDecoding));
+            }
+
+            final boolean isPartitionEmpty = prefetch.isPrefetchEmpty();
+            if (!isPartitionEmpty && this.deficits[partition] > 0) {
+                // the batch is full - the partition carries on from here in the next receive
+                break;
+            }
+
+            if (isPartitionEmpty) {
+                this.deficits[partition] = 0;
+                emptyPartitions++;
+            } else {
+                emptyPartitions = 0;
+            }
+
+            this.currentPartition = (partition + 1) % this.partitions.length;
+            this.currentPartitionCharged = false;
+        }
+
+        return events;
+    }
+
+    private static int payloadSize(final Message message) {
+        final Section body = message.getBody();
+        if (body instanceof Data && ((Data) body).getValue() != null) {
+            return Math.max(1, ((Data) body).getValue().getLength());
+        }
+
+        return 1;
+    }
+
+    // the prefetch of a partition - a MessageReceiver
+    interface Partition {
+        Message pollPrefetchedMessage();
+
+        boolean isPrefetchEmpty();
+    }
+}
@@ -6,29 +6,54 @@ package com.microsoft.azure.eventhubs.impl;
 
 import com.microsoft.azure.eventhubs.EventData;
 import com.microsoft.azure.eventhubs.EventDataBatch;
+import com.microsoft.azure.eventhubs.PayloadCodec;
 import com.microsoft.azure.eventhubs.PayloadSizeExceededException;
 
+import org.apache.qpid.proton.Proton;
 import org.apache.qpid.proton.message.Message;
 
+import java.nio.BufferOverflowException;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
+/**
+ * Encodes the batch while it is being filled - each {@link EventData} added is encoded once, directly as an AMQP Data section
+ * appended to the batch envelope - so that sending the batch hands the encoded bytes to {@link MessageSender} as-is.
+ * <p>
+ * The sender holds on to those bytes until the send completes - it may wait for the send window, or retry - so a batch is sealed
+ * once it is sent: {@link #tryAdd(EventData)} then fails instead of overwriting bytes which are still being sent.
+ */
 final class EventDataBatchImpl implements EventDataBatch {
 
+    // Data section descriptor (0x00 0x53 0x75) followed by the vbin32 constructor (0xb0) and the 4 byte length of the encoded event
+    private static final int DATA_SECTION_HEADER_SIZE = 8;
+    private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+
     private final int maxMessageSize;
+    private final int maxEncodedSize;
     private final String partitionKey;
+    private final PayloadCodec payloadCodec;
     private final List<EventData> events;
-    private final byte[] eventBytes;
-    private int currentSize = 0;
+    private byte[] encodedBytes;
+    private int encodedSize = 0;
+    private volatile boolean sealed;
 
     EventDataBatchImpl(final int maxMessageSize, final String partitionKey) {
 
+        this(maxMessageSize, partitionKey, null);
+    }
+
+    // payloadCodec (if any) encodes the body of each event added - the batch itself stays a plain AMQP batch, which the service splits into events
+    EventDataBatchImpl(final int maxMessageSize, final String partitionKey, final PayloadCodec payloadCodec) {
+
         this.maxMessageSize = maxMessageSize;
         this.partitionKey = partitionKey;
+        this.payloadCodec = payloadCodec;
         this.events = new LinkedList<>();
-        this.currentSize = (maxMessageSize / 65536) * 1024; // reserve 1KB for every 64KB
-        this.eventBytes = new byte[maxMessageSize];
+        this.maxEncodedSize = maxMessageSize - (maxMessageSize / 65536) * 1024; // reserve 1KB for every 64KB
+        this.encodedBytes = new byte[Math.min(INITIAL_BUFFER_SIZE, this.maxEncodedSize)];
     }
 
     public final int getSize() {
@@ -41,20 +66,42 @@ final class EventDataBatchImpl implements EventDataBatch {
             throw new IllegalArgumentException("eventData cannot be null");
         }
 
+        if (this.sealed) {
+            throw new IllegalStateException("events cannot be added to an EventDataBatch which was sent - create a new batch");
+        }
+
         final EventDataImpl eventDataImpl = (EventDataImpl) eventData;
+        final Message amqpMessage = eventDataImpl.toAmqpMessage(this.partitionKey, this.payloadCodec);
+        final boolean isFirst = this.events.isEmpty();
 
-        final int size;
+        final int newEncodedSize;
         try {
-            size = getSize(eventDataImpl, events.isEmpty());
-        } catch (java.nio.BufferOverflowException exception) {
-            throw new PayloadSizeExceededException(String.format("Size of the payload exceeded Maximum message size: %s kb", this.maxMessageSize / 1024));
-        }
+            int dataSectionOffset = this.encodedSize;
+            if (isFirst) {
+                // proton-j doesn't support multiple dataSections to be part of AmqpMessage
+                // - the envelope carries the annotations of the first message, followed by one Data section per event
+                final Message batchMessage = Proton.message();
+                batchMessage.setMessageAnnotations(amqpMessage.getMessageAnnotations());
+                dataSectionOffset = this.encode(batchMessage, 0);
+            }
+
+            this.ensureCapacity(dataSectionOffset + DATA_SECTION_HEADER_SIZE + AmqpUtil.getDataSerializedSize(amqpMessage)
+                    + ClientConstants.MAX_EVENTHUB_AMQP_HEADER_SIZE_BYTES);
+
+            final int eventSize = this.encode(amqpMessage, dataSectionOffset + DATA_SECTION_HEADER_SIZE);
+            this.writeDataSectionHeader(dataSectionOffset, eventSize);
+            newEncodedSize = dataSectionOffset + DATA_SECTION_HEADER_SIZE + eventSize;
+        } catch (BufferOverflowException exception) {
+            // an event which overflows a non-empty batch is reported right away only if it can never fit - else it goes to the next batch
+            if (isFirst || AmqpUtil.getDataSerializedSize(amqpMessage) > this.maxEncodedSize) {
+                throw new PayloadSizeExceededException(String.format("Size of the payload exceeded Maximum message size: %s kb", this.maxMessageSize / 1024), exception);
+            }
 
-        if (this.currentSize + size > this.maxMessageSize)
             return false;
+        }
 
         this.events.add(eventDataImpl);
-        this.currentSize += size;
+        this.encodedSize = newEncodedSize;
         return true;
     }
 
@@ -63,31 +110,60 @@ final class EventDataBatchImpl implements EventDataBatch {
         return this.events.iterator();
     }
 
-    Iterable<EventData> getInternalIterable() {
+    String getPartitionKey() {
+
+        return this.partitionKey;
+    }
+
+    // seals the batch, and returns the encoded bytes to send - which are no longer written to
+    byte[] seal() {
 
-        return this.events;
+        this.sealed = true;
+        return this.encodedBytes;
     }
 
-    String getPartitionKey() {
+    int getEncodedSize() {
 
-        return this.partitionKey;
+        return this.encodedSize;
     }
 
-    private int getSize(final EventDataImpl eventData, final boolean isFirst) {
+    private int encode(final Message amqpMessage, final int offset) {
 
-        final Message amqpMessage = this.partitionKey != null ? eventData.toAmqpMessage(this.partitionKey) : eventData.toAmqpMessage();
-        int eventSize = amqpMessage.encode(this.eventBytes, 0, maxMessageSize); // actual encoded bytes size
-        eventSize += 16; // data section overhead
+        while (true) {
+            final int length = Math.min(this.encodedBytes.length, this.maxEncodedSize) - offset;
+            if (length <= 0) {
+                throw new BufferOverflowException();
+            }
 
-        if (isFirst) {
-            amqpMessage.setBody(null);
-            amqpMessage.setApplicationProperties(null);
-            amqpMessage.setProperties(null);
-            amqpMessage.setDeliveryAnnotations(null);
+            try {
+                return amqpMessage.encode(this.encodedBytes, offset, length);
+            } catch (BufferOverflowException exception) {
+                if (this.encodedBytes.length >= this.maxEncodedSize) {
+                    throw exception;
+                }
 
-            eventSize += amqpMessage.encode(this.eventBytes, 0, maxMessageSize);
+                this.ensureCapacity(this.encodedBytes.length << 1);
+            }
         }
+    }
+
+    private void ensureCapacity(final int requiredSize) {
+
+        if (requiredSize > this.encodedBytes.length && this.encodedBytes.length < this.maxEncodedSize) {
+            final int newSize = Math.min(Math.max(requiredSize, this.encodedBytes.length << 1), this.maxEncodedSize);
+            this.encodedBytes = Arrays.copyOf(this.encodedBytes, newSize);
+        }
+    }
+
+    private void writeDataSectionHeader(final int offset, final int dataSize) {
 
-        return eventSize;
+        this.encodedBytes[offset] = 0x00;
+        this.encodedBytes[offset + 1] = 0x53;
+        this.encodedBytes[offset + 2] = 0x75;
+        this.encodedBytes[offset + 3] = (byte) 0xb0;
+        this.encodedBytes[offset + 4] = (byte) (dataSize >>> 24);
+        this.encodedBytes[offset + 5] = (byte) (dataSize >>> 16);
+        this.encodedBytes[offset + 6] = (byte) (dataSize >>> 8);
+        this.encodedBytes[offset + 7] = (byte) dataSize;
     }
 }
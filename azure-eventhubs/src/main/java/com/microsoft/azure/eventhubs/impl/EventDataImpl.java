@@ -5,6 +5,8 @@
 package com.microsoft.azure.eventhubs.impl;
 
 import com.microsoft.azure.eventhubs.EventData;
+import com.microsoft.azure.eventhubs.PayloadCodec;
+import com.microsoft.azure.eventhubs.PayloadCodecs;
 import org.apache.qpid.proton.Proton;
 import org.apache.qpid.proton.amqp.Binary;
 import org.apache.qpid.proton.amqp.Symbol;
@@ -20,8 +22,10 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.nio.ByteBuffer;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 public final class EventDataImpl implements EventData {
@@ -31,70 +35,47 @@ public final class EventDataImpl implements EventData {
     transient private Binary bodyData;
     transient private Object amqpBody;
 
+    // a received EventData keeps the sections decoded by proton-j - and builds its views of them only when they are first accessed.
+    // EventData is shared across threads (ex: handed from the receive pump to user executors) - each view is built under the lock
+    // and published by clearing its volatile pending flag, so it is built once and seen whole by every thread
+    transient private final Message receivedMessage;
+    transient private final Map<Symbol, Object> receivedAnnotations;
+    transient private volatile boolean bodyPending;
+    transient private volatile boolean propertiesPending;
+    transient private volatile boolean systemPropertiesPending;
+    transient private final boolean payloadDecoding;
+    transient private boolean bodyDecoded;
+
     private Map<String, Object> properties;
     private SystemProperties systemProperties;
+    private String partitionId;
 
     private EventDataImpl() {
+        this.receivedMessage = null;
+        this.receivedAnnotations = null;
+        this.payloadDecoding = false;
     }
 
-    @SuppressWarnings("unchecked")
     EventDataImpl(Message amqpMessage) {
-        if (amqpMessage == null) {
-            throw new IllegalArgumentException("amqpMessage cannot be null");
-        }
-
-        final Map<Symbol, Object> messageAnnotations = amqpMessage.getMessageAnnotations().getValue();
-        final HashMap<String, Object> receiveProperties = new HashMap<>();
-
-        for (Map.Entry<Symbol, Object> annotation : messageAnnotations.entrySet()) {
-            receiveProperties.put(annotation.getKey().toString(), annotation.getValue() != null ? annotation.getValue() : null);
-        }
-
-        if (amqpMessage.getProperties() != null) {
-            if (amqpMessage.getMessageId() != null)
-                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_MESSAGE_ID, amqpMessage.getMessageId());
-            if (amqpMessage.getUserId() != null)
-                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_USER_ID, amqpMessage.getUserId());
-            if (amqpMessage.getAddress() != null)
-                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_TO, amqpMessage.getAddress());
-            if (amqpMessage.getSubject() != null)
-                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_SUBJECT, amqpMessage.getSubject());
-            if (amqpMessage.getReplyTo() != null)
-                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_REPLY_TO, amqpMessage.getReplyTo());
-            if (amqpMessage.getCorrelationId() != null)
-                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_CORRELATION_ID, amqpMessage.getCorrelationId());
-            if (amqpMessage.getContentType() != null)
-                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_CONTENT_TYPE, amqpMessage.getContentType());
-            if (amqpMessage.getContentEncoding() != null)
-                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_CONTENT_ENCODING, amqpMessage.getContentEncoding());
-            if (amqpMessage.getProperties().getAbsoluteExpiryTime() != null)
-                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_ABSOLUTE_EXPRITY_TIME, amqpMessage.getExpiryTime());
-            if (amqpMessage.getProperties().getCreationTime() != null)
-                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_CREATION_TIME, amqpMessage.getCreationTime());
-            if (amqpMessage.getGroupId() != null)
-                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_GROUP_ID, amqpMessage.getGroupId());
-            if (amqpMessage.getProperties().getGroupSequence() != null)
-                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_GROUP_SEQUENCE, amqpMessage.getGroupSequence());
-            if (amqpMessage.getReplyToGroupId() != null)
-                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_REPLY_TO_GROUP_ID, amqpMessage.getReplyToGroupId());
-        }
+        this(amqpMessage, null);
+    }
 
-        this.systemProperties = new SystemProperties(receiveProperties);
-        this.properties = amqpMessage.getApplicationProperties() == null ? null : amqpMessage.getApplicationProperties().getValue();
+    EventDataImpl(Message amqpMessage, final String partitionId) {
+        this(amqpMessage, partitionId, false);
+    }
 
-        final Section bodySection = amqpMessage.getBody();
-        if (bodySection != null) {
-            if (bodySection instanceof Data) {
-                this.bodyData = ((Data) bodySection).getValue();
-                this.amqpBody = this.bodyData;
-            } else if (bodySection instanceof AmqpValue) {
-                this.amqpBody = ((AmqpValue) bodySection).getValue();
-            } else if (bodySection instanceof AmqpSequence) {
-                this.amqpBody = ((AmqpSequence) bodySection).getValue();
-            }
+    EventDataImpl(Message amqpMessage, final String partitionId, final boolean payloadDecoding) {
+        if (amqpMessage == null) {
+            throw new IllegalArgumentException("amqpMessage cannot be null");
         }
 
-        amqpMessage.clear();
+        this.receivedMessage = amqpMessage;
+        this.receivedAnnotations = amqpMessage.getMessageAnnotations().getValue();
+        this.bodyPending = true;
+        this.propertiesPending = true;
+        this.systemPropertiesPending = true;
+        this.partitionId = partitionId;
+        this.payloadDecoding = payloadDecoding;
     }
 
     public EventDataImpl(byte[] data) {
@@ -128,10 +109,12 @@ public final class EventDataImpl implements EventData {
     }
 
     public Object getObject() {
+        this.materializeBody();
         return this.amqpBody;
     }
 
     public byte[] getBytes() {
+        this.materializeBody();
 
         if (this.bodyData == null)
             return null;
@@ -140,6 +123,8 @@ public final class EventDataImpl implements EventData {
     }
 
     public Map<String, Object> getProperties() {
+        this.materializeProperties();
+
         if (this.properties == null) {
             this.properties = new HashMap<>();
         }
@@ -148,11 +133,193 @@ public final class EventDataImpl implements EventData {
     }
 
     public SystemProperties getSystemProperties() {
+        this.materializeSystemProperties();
         return this.systemProperties;
     }
 
-    // This is intended to be used while sending EventData - so EventData.SystemProperties will not be copied over to the AmqpMessage
+    @Override
+    public String getPartitionId() {
+        return this.partitionId;
+    }
+
+    @Override
+    public String getOffset() {
+        return (String) this.getReceivedAnnotation(AmqpConstants.OFFSET, AmqpConstants.OFFSET_ANNOTATION_NAME);
+    }
+
+    @Override
+    public long getSequenceNumber() {
+        return (long) this.getReceivedAnnotation(AmqpConstants.SEQUENCE_NUMBER, AmqpConstants.SEQUENCE_NUMBER_ANNOTATION_NAME);
+    }
+
+    @Override
+    public long getEnqueuedTimeMillis() {
+        return ((Date) this.getReceivedAnnotation(AmqpConstants.ENQUEUED_TIME_UTC, AmqpConstants.ENQUEUED_TIME_UTC_ANNOTATION_NAME)).getTime();
+    }
+
+    // reads the annotation straight off the received message - or off the SystemProperties of a deserialized EventData
+    private Object getReceivedAnnotation(final Symbol annotation, final String systemPropertyName) {
+        final Object value;
+        if (this.receivedAnnotations != null) {
+            value = this.receivedAnnotations.get(annotation);
+        } else if (this.systemProperties != null) {
+            value = this.systemProperties.get(systemPropertyName);
+        } else {
+            value = null;
+        }
+
+        if (value == null) {
+            throw new IllegalStateException(String.format(Locale.US, "%s is only present on an EventData received from EventHubs", systemPropertyName));
+        }
+
+        return value;
+    }
+
+    private void materializeBody() {
+        if (!this.bodyPending) {
+            return;
+        }
+
+        synchronized (this) {
+            if (this.bodyPending) {
+                this.buildBody();
+                this.bodyPending = false;
+            }
+        }
+    }
+
+    // should be called under the lock
+    private void buildBody() {
+        final Section bodySection = this.receivedMessage.getBody();
+        if (bodySection != null) {
+            if (bodySection instanceof Data) {
+                this.bodyData = this.decodeBody(((Data) bodySection).getValue());
+                this.amqpBody = this.bodyData;
+            } else if (bodySection instanceof AmqpValue) {
+                this.amqpBody = ((AmqpValue) bodySection).getValue();
+            } else if (bodySection instanceof AmqpSequence) {
+                this.amqpBody = ((AmqpSequence) bodySection).getValue();
+            }
+        }
+    }
+
+    private void materializeProperties() {
+        if (!this.propertiesPending) {
+            return;
+        }
+
+        synchronized (this) {
+            if (this.propertiesPending) {
+                // never left null - getProperties would otherwise create the map outside the lock
+                this.properties = this.receivedMessage.getApplicationProperties() == null
+                        ? new HashMap<>()
+                        : this.receivedMessage.getApplicationProperties().getValue();
+                this.propertiesPending = false;
+            }
+        }
+    }
+
+    private void materializeSystemProperties() {
+        if (!this.systemPropertiesPending) {
+            return;
+        }
+
+        synchronized (this) {
+            if (this.systemPropertiesPending) {
+                this.buildSystemProperties();
+                this.systemPropertiesPending = false;
+            }
+        }
+    }
+
+    // should be called under the lock
+    private void buildSystemProperties() {
+        final Message amqpMessage = this.receivedMessage;
+        if (amqpMessage.getContentEncoding() != null && this.payloadDecoding) {
+            // whether the content-encoding still applies depends on whether the body decodes
+            this.materializeBody();
+        }
+
+        final HashMap<String, Object> receiveProperties = new HashMap<>();
+
+        for (Map.Entry<Symbol, Object> annotation : this.receivedAnnotations.entrySet()) {
+            receiveProperties.put(annotation.getKey().toString(), annotation.getValue() != null ? annotation.getValue() : null);
+        }
+
+        if (amqpMessage.getProperties() != null) {
+            if (amqpMessage.getMessageId() != null)
+                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_MESSAGE_ID, amqpMessage.getMessageId());
+            if (amqpMessage.getUserId() != null)
+                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_USER_ID, amqpMessage.getUserId());
+            if (amqpMessage.getAddress() != null)
+                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_TO, amqpMessage.getAddress());
+            if (amqpMessage.getSubject() != null)
+                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_SUBJECT, amqpMessage.getSubject());
+            if (amqpMessage.getReplyTo() != null)
+                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_REPLY_TO, amqpMessage.getReplyTo());
+            if (amqpMessage.getCorrelationId() != null)
+                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_CORRELATION_ID, amqpMessage.getCorrelationId());
+            if (amqpMessage.getContentType() != null)
+                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_CONTENT_TYPE, amqpMessage.getContentType());
+            if (amqpMessage.getContentEncoding() != null && !this.bodyDecoded)
+                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_CONTENT_ENCODING, amqpMessage.getContentEncoding());
+            if (amqpMessage.getProperties().getAbsoluteExpiryTime() != null)
+                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_ABSOLUTE_EXPRITY_TIME, amqpMessage.getExpiryTime());
+            if (amqpMessage.getProperties().getCreationTime() != null)
+                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_CREATION_TIME, amqpMessage.getCreationTime());
+            if (amqpMessage.getGroupId() != null)
+                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_GROUP_ID, amqpMessage.getGroupId());
+            if (amqpMessage.getProperties().getGroupSequence() != null)
+                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_GROUP_SEQUENCE, amqpMessage.getGroupSequence());
+            if (amqpMessage.getReplyToGroupId() != null)
+                receiveProperties.put(AmqpConstants.AMQP_PROPERTY_REPLY_TO_GROUP_ID, amqpMessage.getReplyToGroupId());
+        }
+
+        this.systemProperties = new SystemProperties(receiveProperties);
+    }
+
+    private void materialize() {
+        this.materializeBody();
+        this.materializeProperties();
+        this.materializeSystemProperties();
+    }
+
+    // with payloadDecoding, a body whose content-encoding has a registered codec is handed over decoded - and without the content-encoding,
+    // as it no longer applies. Otherwise bodies are handed over as received, for consumers which decode them themselves
+    private Binary decodeBody(final Binary body) {
+        if (!this.payloadDecoding) {
+            return body;
+        }
+
+        final PayloadCodec payloadCodec = PayloadCodecs.get(this.receivedMessage.getContentEncoding());
+        if (payloadCodec == null || body == null) {
+            return body;
+        }
+
+        try {
+            final byte[] decoded = payloadCodec.decode(body.getArray(), body.getArrayOffset(), body.getLength());
+            this.bodyDecoded = true;
+            return new Binary(decoded);
+        } catch (IOException exception) {
+            // not a valid encoding, or too large decoded - hand the body over as received, along with its content-encoding
+            return body;
+        }
+    }
+
     Message toAmqpMessage() {
+        return this.toAmqpMessage(null, null);
+    }
+
+    Message toAmqpMessage(final String partitionKey) {
+        return this.toAmqpMessage(partitionKey, null);
+    }
+
+    // This is intended to be used while sending EventData - so EventData.SystemProperties will not be copied over to the AmqpMessage
+    // the body is encoded with payloadCodec (if any) - unless the EventData carries its own content-encoding, the body is too small to gain
+    // from encoding, or the encoded body is not smaller
+    Message toAmqpMessage(final String partitionKey, final PayloadCodec payloadCodec) {
+        this.materialize();
+
         final Message amqpMessage = Proton.message();
 
         if (this.properties != null && !this.properties.isEmpty()) {
@@ -220,7 +387,16 @@ public final class EventDataImpl implements EventData {
         }
 
         if (this.bodyData != null) {
-            amqpMessage.setBody(new Data(this.bodyData));
+            Binary body = this.bodyData;
+            if (payloadCodec != null && amqpMessage.getContentEncoding() == null && body.getLength() >= PayloadCodecs.MIN_ENCODED_BODY_SIZE) {
+                final byte[] encoded = payloadCodec.encode(body.getArray(), body.getArrayOffset(), body.getLength());
+                if (encoded.length < body.getLength()) {
+                    body = new Binary(encoded);
+                    amqpMessage.setContentEncoding(payloadCodec.getContentEncoding());
+                }
+            }
+
+            amqpMessage.setBody(new Data(body));
         } else if (this.amqpBody != null) {
             if (this.amqpBody instanceof List) {
                 amqpMessage.setBody(new AmqpSequence((List) this.amqpBody));
@@ -229,22 +405,19 @@ public final class EventDataImpl implements EventData {
             }
         }
 
-        return amqpMessage;
-    }
-
-    Message toAmqpMessage(final String partitionKey) {
-        final Message amqpMessage = this.toAmqpMessage();
-
-        final MessageAnnotations messageAnnotations = (amqpMessage.getMessageAnnotations() == null)
-                ? new MessageAnnotations(new HashMap<>())
-                : amqpMessage.getMessageAnnotations();
-        messageAnnotations.getValue().put(AmqpConstants.PARTITION_KEY, partitionKey);
-        amqpMessage.setMessageAnnotations(messageAnnotations);
+        if (partitionKey != null) {
+            final MessageAnnotations messageAnnotations = (amqpMessage.getMessageAnnotations() == null)
+                    ? new MessageAnnotations(new HashMap<>())
+                    : amqpMessage.getMessageAnnotations();
+            messageAnnotations.getValue().put(AmqpConstants.PARTITION_KEY, partitionKey);
+            amqpMessage.setMessageAnnotations(messageAnnotations);
+        }
 
         return amqpMessage;
     }
 
     private void writeObject(ObjectOutputStream out) throws IOException {
+        this.materialize();
         out.defaultWriteObject();
 
         out.writeInt(this.bodyData == null ? BODY_DATA_NULL : this.bodyData.getLength());
@@ -4,14 +4,17 @@
  */
 package com.microsoft.azure.eventhubs.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
 
 import com.microsoft.azure.eventhubs.EventData;
+import com.microsoft.azure.eventhubs.PayloadCodec;
 import org.apache.qpid.proton.message.Message;
 
 /*
@@ -31,32 +34,46 @@ final class EventDataUtil {
     private EventDataUtil() {
     }
 
-    static LinkedList<EventData> toEventDataCollection(final Collection<Message> messages, final PassByRef<Message> lastMessageRef) {
+    static List<EventData> toEventDataCollection(final Collection<Message> messages, final PassByRef<Message> lastMessageRef) {
+
+        return EventDataUtil.toEventDataCollection(messages, lastMessageRef, null, false);
+    }
+
+    static List<EventData> toEventDataCollection(final Collection<Message> messages, final PassByRef<Message> lastMessageRef, final String partitionId,
+                                                 final boolean payloadDecoding) {
 
         if (messages == null) {
             return null;
         }
 
-        LinkedList<EventData> events = new LinkedList<>();
+        // array-backed, so that consumers of the batch (like EventProcessorHost) can get to the last event in O(1)
+        final List<EventData> events = new ArrayList<>(messages.size());
+        Message lastMessage = null;
         for (Message message : messages) {
 
-            events.add(new EventDataImpl(message));
-
-            if (lastMessageRef != null)
-                lastMessageRef.set(message);
+            events.add(new EventDataImpl(message, partitionId, payloadDecoding));
+            lastMessage = message;
         }
 
+        if (lastMessageRef != null && lastMessage != null)
+            lastMessageRef.set(lastMessage);
+
         return events;
     }
 
     static Iterable<Message> toAmqpMessages(final Iterable<EventData> eventDatas, final String partitionKey) {
 
+        return EventDataUtil.toAmqpMessages(eventDatas, partitionKey, null);
+    }
+
+    static Iterable<Message> toAmqpMessages(final Iterable<EventData> eventDatas, final String partitionKey, final PayloadCodec payloadCodec) {
+
         final LinkedList<Message> messages = new LinkedList<>();
         eventDatas.forEach(new Consumer<EventData>() {
             @Override
             public void accept(EventData eventData) {
                 EventDataImpl eventDataImpl = (EventDataImpl) eventData;
-                Message amqpMessage = partitionKey == null ? eventDataImpl.toAmqpMessage() : eventDataImpl.toAmqpMessage(partitionKey);
+                Message amqpMessage = eventDataImpl.toAmqpMessage(partitionKey, payloadCodec);
                 messages.add(amqpMessage);
             }
         });
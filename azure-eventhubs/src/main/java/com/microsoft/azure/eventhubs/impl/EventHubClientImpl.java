@@ -15,24 +15,36 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import com.microsoft.azure.eventhubs.AmqpException;
 import com.microsoft.azure.eventhubs.BatchOptions;
+import com.microsoft.azure.eventhubs.BufferedProducer;
+import com.microsoft.azure.eventhubs.BufferedProducerOptions;
 import com.microsoft.azure.eventhubs.ConnectionStringBuilder;
 import com.microsoft.azure.eventhubs.EventData;
 import com.microsoft.azure.eventhubs.EventDataBatch;
 import com.microsoft.azure.eventhubs.EventHubClient;
+import com.microsoft.azure.eventhubs.EventHubClientOptions;
+import com.microsoft.azure.eventhubs.EventHubConsumer;
+import com.microsoft.azure.eventhubs.EventHubConsumerOptions;
 import com.microsoft.azure.eventhubs.EventHubException;
 import com.microsoft.azure.eventhubs.EventPosition;
 import com.microsoft.azure.eventhubs.EventHubRuntimeInformation;
 import com.microsoft.azure.eventhubs.IllegalEntityException;
 import com.microsoft.azure.eventhubs.PartitionReceiver;
+import com.microsoft.azure.eventhubs.PayloadCodec;
 import com.microsoft.azure.eventhubs.PartitionRuntimeInformation;
 import com.microsoft.azure.eventhubs.PartitionSender;
+import com.microsoft.azure.eventhubs.PartitionedEventHubSender;
+import com.microsoft.azure.eventhubs.PartitionedEventHubSenderOptions;
+import com.microsoft.azure.eventhubs.SenderOptions;
 import com.microsoft.azure.eventhubs.ReceiverOptions;
 import com.microsoft.azure.eventhubs.RetryPolicy;
 
@@ -47,17 +59,29 @@ public final class EventHubClientImpl extends ClientEntity implements EventHubCl
 
     private final String eventHubName;
     private final Object senderCreateSync;
+    private final EventHubClientOptions.ConnectionAssignment connectionAssignment;
+    private final PayloadCodec payloadCodec;
+    private final SenderOptions senderOptions;
 
+    // underlyingFactory is factories[0] - it carries the management operations and the sends of this client
     private MessagingFactory underlyingFactory;
+    private MessagingFactory[] factories;
+    private AtomicInteger[] pendingCreates;
     private MessageSender sender;
     private CompletableFuture<Void> createSender;
     private Timer timer;
 
-    private EventHubClientImpl(final ConnectionStringBuilder connectionString, final Executor executor) throws IOException, IllegalEntityException {
+    private EventHubClientImpl(final ConnectionStringBuilder connectionString, final EventHubClientOptions options, final Executor executor)
+            throws IOException, IllegalEntityException {
         super(StringUtil.getRandomString(), null, executor);
 
         this.eventHubName = connectionString.getEventHubName();
         this.senderCreateSync = new Object();
+        this.connectionAssignment = options.connectionAssignment;
+        this.senderOptions = options.senderOptions;
+        this.payloadCodec = options.payloadCodec != null || options.senderOptions == null
+                ? options.payloadCodec
+                : options.senderOptions.payloadCodec;
     }
 
     public String getEventHubName() {
@@ -67,15 +91,79 @@ public final class EventHubClientImpl extends ClientEntity implements EventHubCl
     public static CompletableFuture<EventHubClient> create(
             final String connectionString, final RetryPolicy retryPolicy, final Executor executor)
             throws EventHubException, IOException {
+        return create(connectionString, retryPolicy, executor, new EventHubClientOptions());
+    }
+
+    public static CompletableFuture<EventHubClient> create(
+            final String connectionString, final RetryPolicy retryPolicy, final Executor executor, final EventHubClientOptions options)
+            throws EventHubException, IOException {
+        if (options == null) {
+            throw new IllegalArgumentException("options cannot be null");
+        }
+
+        if (options.connectionCount < 1) {
+            throw new IllegalArgumentException("connectionCount should be at least 1");
+        }
+
+        if (options.sessionCount < 0) {
+            throw new IllegalArgumentException("sessionCount cannot be negative");
+        }
+
+        if (options.connectionAssignment == null) {
+            throw new IllegalArgumentException("connectionAssignment cannot be null");
+        }
+
+        if (options.reactorGroup != null && !(options.reactorGroup instanceof ReactorGroupImpl)) {
+            throw new IllegalArgumentException("reactorGroup should be created using ReactorGroup.create");
+        }
+
+        if (options.maxPooledSendBufferSize < 1024) {
+            throw new IllegalArgumentException("maxPooledSendBufferSize should be at least 1024");
+        }
+
+        if (options.maxPooledSendBufferBytes < 0) {
+            throw new IllegalArgumentException("maxPooledSendBufferBytes cannot be negative");
+        }
+
+        // the send window is only created along with the sender of EventHubClient.send - validate its options up front
+        SendWindow.create(options.senderOptions);
+
         final ConnectionStringBuilder connStr = new ConnectionStringBuilder(connectionString);
-        final EventHubClientImpl eventHubClient = new EventHubClientImpl(connStr, executor);
+        final EventHubClientImpl eventHubClient = new EventHubClientImpl(connStr, options, executor);
+
+        @SuppressWarnings("unchecked")
+        final CompletableFuture<MessagingFactory>[] factoryCreates = new CompletableFuture[options.connectionCount];
+        for (int index = 0; index < factoryCreates.length; index++) {
+            // each connection pools its own send buffers
+            factoryCreates[index] = MessagingFactory.createFromConnectionString(connectionString.toString(), retryPolicy, executor,
+                    new MessagingFactory.ReactorFactory(), new BufferPool(options.maxPooledSendBufferSize, options.maxPooledSendBufferBytes),
+                    (ReactorGroupImpl) options.reactorGroup, options.sessionCount);
+        }
 
-        return MessagingFactory.createFromConnectionString(connectionString.toString(), retryPolicy, executor)
-                .thenApplyAsync(new Function<MessagingFactory, EventHubClient>() {
+        return CompletableFuture.allOf(factoryCreates)
+                .handleAsync(new BiFunction<Void, Throwable, EventHubClient>() {
                     @Override
-                    public EventHubClient apply(MessagingFactory factory) {
-                        eventHubClient.underlyingFactory = factory;
-                        eventHubClient.timer = new Timer(factory);
+                    public EventHubClient apply(Void voidArg, Throwable error) {
+                        if (error != null) {
+                            // the connections which did open are not handed to anyone - close them
+                            for (CompletableFuture<MessagingFactory> factoryCreate : factoryCreates) {
+                                if (!factoryCreate.isCompletedExceptionally()) {
+                                    factoryCreate.join().close();
+                                }
+                            }
+
+                            throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+                        }
+
+                        eventHubClient.factories = new MessagingFactory[factoryCreates.length];
+                        eventHubClient.pendingCreates = new AtomicInteger[factoryCreates.length];
+                        for (int index = 0; index < factoryCreates.length; index++) {
+                            eventHubClient.factories[index] = factoryCreates[index].join();
+                            eventHubClient.pendingCreates[index] = new AtomicInteger();
+                        }
+
+                        eventHubClient.underlyingFactory = eventHubClient.factories[0];
+                        eventHubClient.timer = new Timer(eventHubClient.underlyingFactory);
                         return eventHubClient;
                     }
                 }, executor);
@@ -88,7 +176,7 @@ public final class EventHubClientImpl extends ClientEntity implements EventHubCl
                     (aVoid) -> this.sender.getMaxMessageSize(),
                     this.executor).get();
             if (options.maxMessageSize == null) {
-                return new EventDataBatchImpl(maxSize, options.partitionKey);
+                return new EventDataBatchImpl(maxSize, options.partitionKey, this.payloadCodec);
             }
 
             if (options.maxMessageSize > maxSize) {
@@ -96,7 +184,7 @@ public final class EventHubClientImpl extends ClientEntity implements EventHubCl
                     options.maxMessageSize + ". The maximum allowed size is " + maxSize + ".");
             }
 
-            return new EventDataBatchImpl(options.maxMessageSize, options.partitionKey);
+            return new EventDataBatchImpl(options.maxMessageSize, options.partitionKey, this.payloadCodec);
         }
         );
     }
@@ -110,7 +198,7 @@ public final class EventHubClientImpl extends ClientEntity implements EventHubCl
         return this.createInternalSender().thenComposeAsync(new Function<Void, CompletableFuture<Void>>() {
             @Override
             public CompletableFuture<Void> apply(Void voidArg) {
-                return EventHubClientImpl.this.sender.send(((EventDataImpl) data).toAmqpMessage());
+                return EventHubClientImpl.this.sender.send(((EventDataImpl) data).toAmqpMessage(null, EventHubClientImpl.this.payloadCodec));
             }
         }, this.executor);
     }
@@ -124,7 +212,7 @@ public final class EventHubClientImpl extends ClientEntity implements EventHubCl
         return this.createInternalSender().thenComposeAsync(new Function<Void, CompletableFuture<Void>>() {
             @Override
             public CompletableFuture<Void> apply(Void voidArg) {
-                return EventHubClientImpl.this.sender.send(EventDataUtil.toAmqpMessages(eventDatas));
+                return EventHubClientImpl.this.sender.send(EventDataUtil.toAmqpMessages(eventDatas, null, EventHubClientImpl.this.payloadCodec));
             }
         }, this.executor);
     }
@@ -136,9 +224,18 @@ public final class EventHubClientImpl extends ClientEntity implements EventHubCl
         }
 
         final EventDataBatchImpl eventDataBatch = (EventDataBatchImpl) eventDatas;
-        return eventDataBatch.getPartitionKey() != null ?
-                this.send(eventDataBatch.getInternalIterable(), eventDataBatch.getPartitionKey()) :
-                this.send(eventDataBatch.getInternalIterable());
+        if (eventDataBatch.getPartitionKey() != null && eventDataBatch.getPartitionKey().length() > ClientConstants.MAX_PARTITION_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    String.format(Locale.US, "PartitionKey exceeds the maximum allowed length of partitionKey: %s", ClientConstants.MAX_PARTITION_KEY_LENGTH));
+        }
+
+        return this.createInternalSender().thenComposeAsync(new Function<Void, CompletableFuture<Void>>() {
+            @Override
+            public CompletableFuture<Void> apply(Void voidArg) {
+                return EventHubClientImpl.this.sender.send(
+                        eventDataBatch.seal(), eventDataBatch.getEncodedSize(), AmqpConstants.AMQP_BATCH_MESSAGE_FORMAT);
+            }
+        }, this.executor);
     }
 
     @Override
@@ -154,7 +251,7 @@ public final class EventHubClientImpl extends ClientEntity implements EventHubCl
         return this.createInternalSender().thenComposeAsync(new Function<Void, CompletableFuture<Void>>() {
             @Override
             public CompletableFuture<Void> apply(Void voidArg) {
-                return EventHubClientImpl.this.sender.send(((EventDataImpl) eventData).toAmqpMessage(partitionKey));
+                return EventHubClientImpl.this.sender.send(((EventDataImpl) eventData).toAmqpMessage(partitionKey, EventHubClientImpl.this.payloadCodec));
             }
         }, this.executor);
     }
@@ -177,7 +274,133 @@ public final class EventHubClientImpl extends ClientEntity implements EventHubCl
         return this.createInternalSender().thenComposeAsync(new Function<Void, CompletableFuture<Void>>() {
             @Override
             public CompletableFuture<Void> apply(Void voidArg) {
-                return EventHubClientImpl.this.sender.send(EventDataUtil.toAmqpMessages(eventDatas, partitionKey));
+                return EventHubClientImpl.this.sender.send(EventDataUtil.toAmqpMessages(eventDatas, partitionKey, EventHubClientImpl.this.payloadCodec));
+            }
+        }, this.executor);
+    }
+
+    @Override
+    public final CompletableFuture<BufferedProducer> createBufferedProducer(final BufferedProducerOptions options)
+            throws EventHubException {
+        final int factoryIndex = this.leastLoadedFactoryIndex();
+        return this.trackCreate(factoryIndex,
+                BufferedProducerImpl.create(this.factories[factoryIndex], this.eventHubName, options, this.executor));
+    }
+
+    @Override
+    public final CompletableFuture<PartitionedEventHubSender> createPartitionedSender(final PartitionedEventHubSenderOptions options)
+            throws EventHubException {
+        if (options == null) {
+            throw new IllegalArgumentException("options cannot be null");
+        }
+
+        final BufferedProducerOptions producerOptions = new BufferedProducerOptions().with(producer -> {
+            producer.maxMessageSize = options.maxMessageSize;
+            producer.lingerTime = options.lingerTime;
+            producer.senderOptions = options.senderOptions;
+        });
+
+        return this.getRuntimeInformation().thenComposeAsync(new Function<EventHubRuntimeInformation, CompletableFuture<PartitionedEventHubSender>>() {
+            @Override
+            public CompletableFuture<PartitionedEventHubSender> apply(EventHubRuntimeInformation runtimeInformation) {
+                final String[] partitionIds = runtimeInformation.getPartitionIds();
+
+                @SuppressWarnings("unchecked")
+                final CompletableFuture<BufferedProducer>[] producerCreates = new CompletableFuture[partitionIds.length];
+                for (int index = 0; index < partitionIds.length; index++) {
+                    final int factoryIndex = EventHubClientImpl.this.factoryIndexFor(partitionIds[index]);
+                    producerCreates[index] = EventHubClientImpl.this.trackCreate(factoryIndex,
+                            BufferedProducerImpl.create(EventHubClientImpl.this.factories[factoryIndex],
+                                    String.format("%s/Partitions/%s", EventHubClientImpl.this.eventHubName, partitionIds[index]),
+                                    producerOptions, EventHubClientImpl.this.executor));
+                }
+
+                return CompletableFuture.allOf(producerCreates).handleAsync(new BiFunction<Void, Throwable, PartitionedEventHubSender>() {
+                    @Override
+                    public PartitionedEventHubSender apply(Void voidArg, Throwable error) {
+                        final BufferedProducer[] producers = new BufferedProducer[producerCreates.length];
+                        for (int index = 0; index < producerCreates.length; index++) {
+                            producers[index] = producerCreates[index].isCompletedExceptionally() ? null : producerCreates[index].join();
+                        }
+
+                        if (error != null) {
+                            // the partition links which did open are not handed to anyone - close them
+                            PartitionedEventHubSenderImpl.closeAll(producers);
+                            throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+                        }
+
+                        return new PartitionedEventHubSenderImpl(partitionIds, producers, EventHubClientImpl.this.executor);
+                    }
+                }, EventHubClientImpl.this.executor);
+            }
+        }, this.executor);
+    }
+
+    @Override
+    public final CompletableFuture<EventHubConsumer> createConsumer(final String consumerGroupName, final EventPosition eventPosition, final EventHubConsumerOptions options)
+            throws EventHubException {
+        if (options == null) {
+            throw new IllegalArgumentException("options cannot be null");
+        }
+
+        if (options.quantum <= 0) {
+            throw new IllegalArgumentException("quantum should be a positive number");
+        }
+
+        if (StringUtil.isNullOrWhiteSpace(consumerGroupName)) {
+            throw new IllegalArgumentException("specify valid string for argument - 'consumerGroupName'");
+        }
+
+        if (options.partitionIds != null && options.partitionIds.length == 0) {
+            throw new IllegalArgumentException("partitionIds cannot be empty");
+        }
+
+        // all the partition links of a consumer share one connection - so that its reactor thread can drain them all
+        final int factoryIndex = this.leastLoadedFactoryIndex();
+        final MessagingFactory factory = this.factories[factoryIndex];
+        final CompletableFuture<String[]> partitionIdsFuture = options.partitionIds != null
+                ? CompletableFuture.completedFuture(options.partitionIds.clone())
+                : this.getRuntimeInformation().thenApply(new Function<EventHubRuntimeInformation, String[]>() {
+                    @Override
+                    public String[] apply(EventHubRuntimeInformation runtimeInformation) {
+                        return runtimeInformation.getPartitionIds();
+                    }
+                });
+
+        return partitionIdsFuture.thenComposeAsync(new Function<String[], CompletableFuture<EventHubConsumer>>() {
+            @Override
+            public CompletableFuture<EventHubConsumer> apply(String[] partitionIds) {
+                @SuppressWarnings("unchecked")
+                final CompletableFuture<PartitionReceiver>[] receiverCreates = new CompletableFuture[partitionIds.length];
+                for (int index = 0; index < partitionIds.length; index++) {
+                    try {
+                        receiverCreates[index] = EventHubClientImpl.this.trackCreate(factoryIndex,
+                                PartitionReceiverImpl.create(factory, EventHubClientImpl.this.eventHubName, consumerGroupName, partitionIds[index],
+                                        eventPosition, PartitionReceiverImpl.NULL_EPOCH, false, options.receiverOptions, EventHubClientImpl.this.executor));
+                    } catch (EventHubException | RuntimeException exception) {
+                        receiverCreates[index] = new CompletableFuture<>();
+                        receiverCreates[index].completeExceptionally(exception);
+                    }
+                }
+
+                return CompletableFuture.allOf(receiverCreates).handleAsync(new BiFunction<Void, Throwable, EventHubConsumer>() {
+                    @Override
+                    public EventHubConsumer apply(Void voidArg, Throwable error) {
+                        final PartitionReceiver[] receivers = new PartitionReceiver[receiverCreates.length];
+                        for (int index = 0; index < receiverCreates.length; index++) {
+                            receivers[index] = receiverCreates[index].isCompletedExceptionally() ? null : receiverCreates[index].join();
+                        }
+
+                        if (error != null) {
+                            // the partition links which did open are not handed to anyone - close them
+                            EventHubConsumerImpl.closeAll(receivers);
+                            throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+                        }
+
+                        return new EventHubConsumerImpl(factory, partitionIds, receivers, options.quantum,
+                                options.receiverOptions != null && options.receiverOptions.getPayloadDecoding(), EventHubClientImpl.this.executor);
+                    }
+                }, EventHubClientImpl.this.executor);
             }
         }, this.executor);
     }
@@ -185,7 +408,17 @@ public final class EventHubClientImpl extends ClientEntity implements EventHubCl
     @Override
     public final CompletableFuture<PartitionSender> createPartitionSender(final String partitionId)
             throws EventHubException {
-        return PartitionSenderImpl.Create(this.underlyingFactory, this.eventHubName, partitionId, this.executor);
+        final int factoryIndex = this.factoryIndexFor(partitionId);
+        return this.trackCreate(factoryIndex,
+                PartitionSenderImpl.Create(this.factories[factoryIndex], this.eventHubName, partitionId, this.executor));
+    }
+
+    @Override
+    public final CompletableFuture<PartitionSender> createPartitionSender(final String partitionId, final SenderOptions senderOptions)
+            throws EventHubException {
+        final int factoryIndex = this.factoryIndexFor(partitionId);
+        return this.trackCreate(factoryIndex,
+                PartitionSenderImpl.Create(this.factories[factoryIndex], this.eventHubName, partitionId, senderOptions, this.executor));
     }
 
     @Override
@@ -197,7 +430,9 @@ public final class EventHubClientImpl extends ClientEntity implements EventHubCl
     @Override
     public final CompletableFuture<PartitionReceiver> createReceiver(final String consumerGroupName, final String partitionId, final EventPosition eventPosition, final ReceiverOptions receiverOptions)
             throws EventHubException {
-        return PartitionReceiverImpl.create(this.underlyingFactory, this.eventHubName, consumerGroupName, partitionId, eventPosition, PartitionReceiverImpl.NULL_EPOCH, false, receiverOptions, this.executor);
+        final int factoryIndex = this.factoryIndexFor(partitionId);
+        return this.trackCreate(factoryIndex,
+                PartitionReceiverImpl.create(this.factories[factoryIndex], this.eventHubName, consumerGroupName, partitionId, eventPosition, PartitionReceiverImpl.NULL_EPOCH, false, receiverOptions, this.executor));
     }
 
     @Override
@@ -209,7 +444,9 @@ public final class EventHubClientImpl extends ClientEntity implements EventHubCl
     @Override
     public final CompletableFuture<PartitionReceiver> createEpochReceiver(final String consumerGroupName, final String partitionId, final EventPosition eventPosition, final long epoch, final ReceiverOptions receiverOptions)
             throws EventHubException {
-        return PartitionReceiverImpl.create(this.underlyingFactory, this.eventHubName, consumerGroupName, partitionId, eventPosition, epoch, true, receiverOptions, this.executor);
+        final int factoryIndex = this.factoryIndexFor(partitionId);
+        return this.trackCreate(factoryIndex,
+                PartitionReceiverImpl.create(this.factories[factoryIndex], this.eventHubName, consumerGroupName, partitionId, eventPosition, epoch, true, receiverOptions, this.executor));
     }
 
     @Override
@@ -220,10 +457,10 @@ public final class EventHubClientImpl extends ClientEntity implements EventHubCl
                         ? this.sender.close().thenComposeAsync(new Function<Void, CompletableFuture<Void>>() {
                                 @Override
                                 public CompletableFuture<Void> apply(Void voidArg) {
-                                    return EventHubClientImpl.this.underlyingFactory.close();
+                                    return EventHubClientImpl.this.closeFactories();
                                 }
                             }, this.executor)
-                        : this.underlyingFactory.close();
+                        : this.closeFactories();
 
                 return internalSenderClose;
             }
@@ -232,11 +469,68 @@ public final class EventHubClientImpl extends ClientEntity implements EventHubCl
         return CompletableFuture.completedFuture(null);
     }
 
+    private CompletableFuture<Void> closeFactories() {
+        final CompletableFuture<?>[] factoryCloses = new CompletableFuture<?>[this.factories.length];
+        for (int index = 0; index < this.factories.length; index++) {
+            factoryCloses[index] = this.factories[index].close();
+        }
+
+        return CompletableFuture.allOf(factoryCloses);
+    }
+
+    private int factoryIndexFor(final String partitionId) {
+        if (this.factories.length == 1) {
+            return 0;
+        }
+
+        if (this.connectionAssignment == EventHubClientOptions.ConnectionAssignment.LEAST_LOADED || partitionId == null) {
+            return this.leastLoadedFactoryIndex();
+        }
+
+        // partition ids are "0".."n-1" - spread them round-robin, and fall back to the hash for any other id
+        int partitionIndex;
+        try {
+            partitionIndex = Integer.parseInt(partitionId);
+        } catch (NumberFormatException exception) {
+            partitionIndex = partitionId.hashCode();
+        }
+
+        return (partitionIndex & Integer.MAX_VALUE) % this.factories.length;
+    }
+
+    // load of a connection is its open links plus the links being created on it
+    private int leastLoadedFactoryIndex() {
+        int leastLoadedIndex = 0;
+        int leastLoad = Integer.MAX_VALUE;
+        for (int index = 0; index < this.factories.length; index++) {
+            final int load = this.factories[index].getRegisteredLinkCount() + this.pendingCreates[index].get();
+            if (load < leastLoad) {
+                leastLoad = load;
+                leastLoadedIndex = index;
+            }
+        }
+
+        return leastLoadedIndex;
+    }
+
+    private <T> CompletableFuture<T> trackCreate(final int factoryIndex, final CompletableFuture<T> create) {
+        final AtomicInteger pendingCreate = this.pendingCreates[factoryIndex];
+        pendingCreate.incrementAndGet();
+        create.whenComplete(new BiConsumer<T, Throwable>() {
+            @Override
+            public void accept(T result, Throwable error) {
+                pendingCreate.decrementAndGet();
+            }
+        });
+
+        return create;
+    }
+
     private CompletableFuture<Void> createInternalSender() {
         if (!this.isSenderCreateStarted) {
             synchronized (this.senderCreateSync) {
                 if (!this.isSenderCreateStarted) {
-                    this.createSender = MessageSender.create(this.underlyingFactory, StringUtil.getRandomString(), this.eventHubName)
+                    this.createSender = MessageSender.create(this.underlyingFactory, StringUtil.getRandomString(), this.eventHubName, this.senderOptions)
                             .thenAcceptAsync(new Consumer<MessageSender>() {
                                 public void accept(MessageSender a) {
                                     EventHubClientImpl.this.sender = a;
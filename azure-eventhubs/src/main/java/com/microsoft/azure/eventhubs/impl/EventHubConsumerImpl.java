@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+
+import com.microsoft.azure.eventhubs.EventData;
+import com.microsoft.azure.eventhubs.EventHubConsumer;
+import com.microsoft.azure.eventhubs.PartitionReceiveHandler;
+import com.microsoft.azure.eventhubs.PartitionReceiver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drains the prefetch of one {@link MessageReceiver} per partition - all on the same {@link MessagingFactory} - using deficit round-robin.
+ * <p>
+ * CONTRACT: the round-robin state and the pending receives are only touched on the reactor thread of the {@link MessagingFactory}.
+ */
+final class EventHubConsumerImpl extends ClientEntity implements EventHubConsumer {
+    private static final Logger TRACE_LOGGER = LoggerFactory.getLogger(EventHubConsumerImpl.class);
+
+    private final MessagingFactory underlyingFactory;
+    private final String[] partitionIds;
+    private final PartitionReceiver[] partitionReceivers;
+    private final MessageReceiver[] messageReceivers;
+    private final DeficitRoundRobin roundRobin;
+    private final List<PendingReceive> pendingReceives;
+    private final Object receiveHandlerLock;
+
+    private volatile Duration receiveTimeout;
+    private PartitionReceiveHandler receiveHandler;
+    private CompletableFuture<Void> receiveHandlerStopped;
+
+    EventHubConsumerImpl(final MessagingFactory factory,
+                         final String[] partitionIds,
+                         final PartitionReceiver[] partitionReceivers,
+                         final int quantum,
+                         final boolean payloadDecoding,
+                         final Executor executor) {
+        super(StringUtil.getRandomString(), null, executor);
+
+        this.underlyingFactory = factory;
+        this.partitionIds = partitionIds;
+        this.partitionReceivers = partitionReceivers;
+        this.messageReceivers = new MessageReceiver[partitionReceivers.length];
+        this.pendingReceives = new LinkedList<>();
+        this.receiveHandlerLock = new Object();
+        this.receiveTimeout = factory.getOperationTimeout();
+
+        final PrefetchListener prefetchListener = new PrefetchListener() {
+            @Override
+            public void onPrefetched() {
+                EventHubConsumerImpl.this.completePendingReceives();
+            }
+
+            @Override
+            public void onError(Exception error) {
+                EventHubConsumerImpl.this.failPendingReceives(error);
+            }
+        };
+
+        for (int index = 0; index < partitionReceivers.length; index++) {
+            this.messageReceivers[index] = ((PartitionReceiverImpl) partitionReceivers[index]).getInternalReceiver();
+            this.messageReceivers[index].setPrefetchListener(prefetchListener);
+        }
+
+        this.roundRobin = new DeficitRoundRobin(this.messageReceivers, partitionIds, quantum, payloadDecoding);
+    }
+
+    @Override
+    public String[] getPartitionIds() {
+        return this.partitionIds.clone();
+    }
+
+    @Override
+    public Duration getReceiveTimeout() {
+        return this.receiveTimeout;
+    }
+
+    @Override
+    public void setReceiveTimeout(final Duration value) {
+        this.receiveTimeout = value;
+    }
+
+    @Override
+    public CompletableFuture<Iterable<EventData>> receive(final int maxEventCount) {
+        this.throwIfClosed();
+
+        if (maxEventCount <= 0) {
+            throw new IllegalArgumentException("parameter 'maxEventCount' should be a positive number");
+        }
+
+        final PendingReceive pendingReceive = new PendingReceive(maxEventCount);
+        final Duration timeout = this.receiveTimeout;
+
+        try {
+            this.underlyingFactory.scheduleOnReactorThread(new DispatchHandler() {
+                @Override
+                public void onEvent() {
+                    for (MessageReceiver messageReceiver : messageReceivers) {
+                        messageReceiver.recreateLinkIfClosed();
+                    }
+
+                    if (!tryComplete(pendingReceive)) {
+                        pendingReceives.add(pendingReceive);
+                        scheduleReceiveTimeout(pendingReceive, timeout);
+                    }
+                }
+            });
+        } catch (IOException | RejectedExecutionException schedulerException) {
+            pendingReceive.future.completeExceptionally(schedulerException);
+        }
+
+        return pendingReceive.future;
+    }
+
+    @Override
+    public CompletableFuture<Void> setReceiveHandler(final PartitionReceiveHandler receiveHandler, final boolean invokeWhenNoEvents) {
+        synchronized (this.receiveHandlerLock) {
+            if (receiveHandler == null) {
+                this.receiveHandler = null;
+                return this.receiveHandlerStopped == null ? CompletableFuture.completedFuture(null) : this.receiveHandlerStopped;
+            }
+
+            if (this.receiveHandler != null) {
+                throw new IllegalArgumentException(
+                        "Unexpected value for parameter 'receiveHandler'. EventHubConsumer was already registered with a PartitionReceiveHandler instance. Only 1 instance can be registered.");
+            }
+
+            this.receiveHandler = receiveHandler;
+            this.receiveHandlerStopped = new CompletableFuture<>();
+            this.receiveForHandler(receiveHandler, invokeWhenNoEvents, this.receiveHandlerStopped);
+
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    // the next receive is only issued once the handler returns - so the handler sees one batch at a time, without a thread of its own
+    private void receiveForHandler(final PartitionReceiveHandler handler, final boolean invokeWhenNoEvents, final CompletableFuture<Void> handlerStopped) {
+        if (!this.isHandlerRegistered(handler) || this.getIsClosingOrClosed()) {
+            this.unregisterHandler(handler);
+            handlerStopped.complete(null);
+            return;
+        }
+
+        this.receive(handler.getMaxEventCount()).handleAsync(new BiFunction<Iterable<EventData>, Throwable, Void>() {
+            @Override
+            public Void apply(Iterable<EventData> events, Throwable error) {
+                boolean isHandlerHealthy = true;
+                try {
+                    if (error != null) {
+                        isHandlerHealthy = false;
+                        handler.onError(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                    } else if (events != null || invokeWhenNoEvents) {
+                        handler.onReceive(events);
+                    }
+                } catch (Throwable userCodeError) {
+                    isHandlerHealthy = false;
+                    handler.onError(userCodeError);
+
+                    if (TRACE_LOGGER.isWarnEnabled()) {
+                        TRACE_LOGGER.warn(String.format(Locale.US, "consumer[%s], receive handler stopped after user exception %s", getClientId(), userCodeError.toString()));
+                    }
+                }
+
+                if (isHandlerHealthy) {
+                    receiveForHandler(handler, invokeWhenNoEvents, handlerStopped);
+                } else {
+                    unregisterHandler(handler);
+                    handlerStopped.complete(null);
+                }
+
+                return null;
+            }
+        }, this.executor);
+    }
+
+    private boolean isHandlerRegistered(final PartitionReceiveHandler handler) {
+        synchronized (this.receiveHandlerLock) {
+            return this.receiveHandler == handler;
+        }
+    }
+
+    private void unregisterHandler(final PartitionReceiveHandler handler) {
+        synchronized (this.receiveHandlerLock) {
+            if (this.receiveHandler == handler) {
+                this.receiveHandler = null;
+            }
+        }
+    }
+
+    private void scheduleReceiveTimeout(final PendingReceive pendingReceive, final Duration timeout) {
+        try {
+            this.underlyingFactory.scheduleOnReactorThread((int) timeout.toMillis(), new DispatchHandler() {
+                @Override
+                public void onEvent() {
+                    if (pendingReceives.remove(pendingReceive)) {
+                        completeOnExecutor(pendingReceive, null);
+                    }
+                }
+            });
+        } catch (IOException | RejectedExecutionException schedulerException) {
+            if (this.pendingReceives.remove(pendingReceive)) {
+                pendingReceive.future.completeExceptionally(schedulerException);
+            }
+        }
+    }
+
+    private void completePendingReceives() {
+        while (!this.pendingReceives.isEmpty() && this.tryComplete(this.pendingReceives.get(0))) {
+            this.pendingReceives.remove(0);
+        }
+    }
+
+    private void failPendingReceives(final Exception error) {
+        for (PendingReceive pendingReceive : this.pendingReceives) {
+            pendingReceive.future.completeExceptionally(error);
+        }
+
+        this.pendingReceives.clear();
+    }
+
+    private boolean tryComplete(final PendingReceive pendingReceive) {
+        final List<EventData> events = this.roundRobin.drain(pendingReceive.maxEventCount);
+        if (events == null) {
+            return false;
+        }
+
+        this.completeOnExecutor(pendingReceive, events);
+        return true;
+    }
+
+    // the futures complete on the executor - to keep the code continuing them off the reactor thread
+    private void completeOnExecutor(final PendingReceive pendingReceive, final Iterable<EventData> events) {
+        try {
+            this.executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    pendingReceive.future.complete(events);
+                }
+            });
+        } catch (RejectedExecutionException rejectedException) {
+            pendingReceive.future.complete(events);
+        }
+    }
+
+    @Override
+    protected CompletableFuture<Void> onClose() {
+        synchronized (this.receiveHandlerLock) {
+            this.receiveHandler = null;
+        }
+
+        // the receives still waiting for events fail as receives on a closed consumer do - before the partition links go away
+        final CompletableFuture<Void> pendingReceivesFailed = new CompletableFuture<>();
+        try {
+            this.underlyingFactory.scheduleOnReactorThread(new DispatchHandler() {
+                @Override
+                public void onEvent() {
+                    failPendingReceives(closedException());
+                    pendingReceivesFailed.complete(null);
+                }
+            });
+        } catch (IOException | RejectedExecutionException schedulerException) {
+            // the reactor is gone - nothing else touches the pending receives
+            this.failPendingReceives(this.closedException());
+            pendingReceivesFailed.complete(null);
+        }
+
+        return pendingReceivesFailed.thenComposeAsync(unUsed -> closeAll(this.partitionReceivers), this.executor);
+    }
+
+    static CompletableFuture<Void> closeAll(final PartitionReceiver[] partitionReceivers) {
+        final CompletableFuture<?>[] closes = new CompletableFuture<?>[partitionReceivers.length];
+        for (int index = 0; index < partitionReceivers.length; index++) {
+            closes[index] = partitionReceivers[index] == null
+                    ? CompletableFuture.completedFuture(null)
+                    : partitionReceivers[index].close();
+        }
+
+        return CompletableFuture.allOf(closes);
+    }
+
+    private static final class PendingReceive {
+        final CompletableFuture<Iterable<EventData>> future;
+        final int maxEventCount;
+
+        PendingReceive(final int maxEventCount) {
+            this.future = new CompletableFuture<>();
+            this.maxEventCount = maxEventCount;
+        }
+    }
+}
@@ -7,6 +7,7 @@ package com.microsoft.azure.eventhubs.impl;
 import java.io.IOException;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
 
 public class FaultTolerantObject<T extends IOObject> {
 
@@ -77,8 +78,8 @@ public class FaultTolerantObject<T extends IOObject> {
                     }
                 }
             });
-        } catch (IOException ioException) {
-            openCallback.onError(ioException);
+        } catch (IOException | RejectedExecutionException schedulerException) {
+            openCallback.onError(schedulerException);
         }
     }
 
@@ -119,8 +120,8 @@ public class FaultTolerantObject<T extends IOObject> {
                     }
                 }
             });
-        } catch (IOException ioException) {
-            closeCallback.onError(ioException);
+        } catch (IOException | RejectedExecutionException schedulerException) {
+            closeCallback.onError(schedulerException);
         }
     }
 }
@@ -9,6 +9,7 @@ import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
@@ -16,7 +17,6 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -45,9 +45,10 @@ import org.apache.qpid.proton.message.Message;
  * Common Receiver that abstracts all amqp related details
  * translates event-driven reactor model into async receive Api
  */
-public final class MessageReceiver extends ClientEntity implements AmqpReceiver, ErrorContextProvider {
+public final class MessageReceiver extends ClientEntity implements AmqpReceiver, ErrorContextProvider, DeficitRoundRobin.Partition {
     private static final Logger TRACE_LOGGER = LoggerFactory.getLogger(MessageReceiver.class);
     private static final int MIN_TIMEOUT_DURATION_MILLIS = 20;
+    private static final int PUSH_REJECTED_RETRY_MILLIS = 100;
 
     private final ConcurrentLinkedQueue<ReceiveWorkItem> pendingReceives;
     private final MessagingFactory underlyingFactory;
@@ -61,26 +62,39 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
     private final ActiveClientTokenManager activeClientTokenManager;
     private final WorkItem<MessageReceiver> linkOpen;
     private final ConcurrentLinkedQueue<Message> prefetchedMessages;
+    private final PrefetchRing prefetchRing;
+    private final AdaptiveCredit adaptiveCredit;
+    private final CreditGate creditGate;
     private final ReceiveWork receiveWork;
     private final CreateAndReceive createAndReceive;
     private final Object errorConditionLock;
     private final Timer timer;
 
     private volatile int nextCreditToFlow;
+    private volatile long prefetchedBytes;
+    private volatile PushReceiveHandler pushHandler;
+    private volatile PrefetchListener prefetchListener;
 
     private int prefetchCount;
+    private int creditWindow;
     private Receiver receiveLink;
     private Duration receiveTimeout;
     private Message lastReceivedMessage;
+    private byte[] lastReceivedFrame;
     private Exception lastKnownLinkError;
     private boolean creatingLink;
     private CompletableFuture<?> openTimer;
     private CompletableFuture<?> closeTimer;
+    private boolean pushInFlight;
+    private int pushGeneration;
+    private List<CompletableFuture<Void>> pushStopWaiters;
 
     private MessageReceiver(final MessagingFactory factory,
                             final String name,
                             final String recvPath,
                             final int prefetchCount,
+                            final boolean offHeapPrefetch,
+                            final AdaptiveCredit adaptiveCredit,
                             final ReceiverSettingsProvider settingsProvider) {
         super(name, factory, factory.executor);
 
@@ -89,10 +103,18 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
         this.receivePath = recvPath;
         this.prefetchCount = prefetchCount;
         this.prefetchedMessages = new ConcurrentLinkedQueue<>();
+        this.adaptiveCredit = adaptiveCredit;
+        this.creditWindow = adaptiveCredit != null ? adaptiveCredit.getCreditWindow() : prefetchCount;
+        this.prefetchRing = offHeapPrefetch
+                ? new PrefetchRing((int) Math.min(Integer.MAX_VALUE, adaptiveCredit != null
+                    ? adaptiveCredit.getByteBudget()
+                    : (long) prefetchCount * AdaptiveCredit.INITIAL_EVENT_SIZE_ESTIMATE))
+                : null;
         this.linkClose = new CompletableFuture<>();
         this.lastKnownLinkError = null;
         this.receiveTimeout = factory.getOperationTimeout();
         this.prefetchCountSync = new Object();
+        this.creditGate = new CreditGate(ReceiveMemoryGovernor.getInstance(), factory, new CreditSink());
         this.settingsProvider = settingsProvider;
         this.linkOpen = new WorkItem<>(new CompletableFuture<>(), factory.getOperationTimeout());
         this.timer = new Timer(factory);
@@ -174,11 +196,27 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
             final String recvPath,
             final int prefetchCount,
             final ReceiverSettingsProvider settingsProvider) {
+        return create(factory, name, recvPath, prefetchCount, false, null, settingsProvider);
+    }
+
+    // @param offHeapPrefetch when true, prefetched deliveries are held as raw bytes in direct memory
+    // and are decoded on the executor - instead of on the reactor thread as they arrive
+    // @param adaptiveCredit when not null, sizes the link credit in place of prefetchCount - which then only bounds maxMessageCount of receive()
+    public static CompletableFuture<MessageReceiver> create(
+            final MessagingFactory factory,
+            final String name,
+            final String recvPath,
+            final int prefetchCount,
+            final boolean offHeapPrefetch,
+            final AdaptiveCredit adaptiveCredit,
+            final ReceiverSettingsProvider settingsProvider) {
         MessageReceiver msgReceiver = new MessageReceiver(
                 factory,
                 name,
                 recvPath,
                 prefetchCount,
+                offHeapPrefetch,
+                adaptiveCredit,
                 settingsProvider);
         return msgReceiver.createLink();
     }
@@ -209,7 +247,8 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
 
         while ((currentMessage = this.pollPrefetchQueue()) != null) {
             if (returnMessages == null) {
-                returnMessages = new LinkedList<>();
+                // array-backed and sized for the whole batch - no per-message node, and the last message is found without a walk
+                returnMessages = new ArrayList<>(messageCount);
             }
 
             returnMessages.add(currentMessage);
@@ -221,6 +260,52 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
         return returnMessages;
     }
 
+    private List<byte[]> receiveFramesCore(final int messageCount) {
+        List<byte[]> returnFrames = null;
+        byte[] currentFrame;
+
+        while ((currentFrame = this.pollPrefetchRing()) != null) {
+            if (returnFrames == null) {
+                returnFrames = new ArrayList<>(messageCount);
+            }
+
+            returnFrames.add(currentFrame);
+            if (returnFrames.size() >= messageCount) {
+                break;
+            }
+        }
+
+        return returnFrames;
+    }
+
+    private static Collection<Message> decodeFrames(final List<byte[]> frames) {
+        if (frames == null) {
+            return null;
+        }
+
+        final List<Message> messages = new ArrayList<>(frames.size());
+        for (byte[] frame : frames) {
+            messages.add(decodeFrame(frame));
+        }
+
+        return messages;
+    }
+
+    private static Message decodeFrame(final byte[] frame) {
+        final Message message = Proton.message();
+        message.decode(frame, 0, frame.length);
+        return message;
+    }
+
+    private int getPrefetchedCount() {
+        return this.prefetchRing != null ? this.prefetchRing.size() : this.prefetchedMessages.size();
+    }
+
+    @Override
+    public boolean isPrefetchEmpty() {
+        return this.prefetchRing != null ? this.prefetchRing.isEmpty() : this.prefetchedMessages.isEmpty();
+    }
+
     public int getPrefetchCount() {
         synchronized (this.prefetchCountSync) {
             return this.prefetchCount;
@@ -234,6 +319,11 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
             this.prefetchCount = value;
         }
 
+        if (this.adaptiveCredit != null) {
+            // the credit window is sized by adaptiveCredit - prefetchCount only bounds maxMessageCount
+            return;
+        }
+
         try {
             this.underlyingFactory.scheduleOnReactorThread(new DispatchHandler() {
                 @Override
@@ -277,6 +367,198 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
         return onReceive;
     }
 
+    // messages are pushed to the handler as they arrive - instead of being returned by receive()
+    // @param handler null to stop pushing; the returned future completes once the batch being pushed (if any) is handled
+    public CompletableFuture<Void> setPushHandler(final PushReceiveHandler handler) {
+        if (handler != null) {
+            this.throwIfClosed();
+        }
+
+        this.pushHandler = handler;
+        final CompletableFuture<Void> pushHandlerSet = new CompletableFuture<>();
+
+        try {
+            this.underlyingFactory.scheduleOnReactorThread(new DispatchHandler() {
+                @Override
+                public void onEvent() {
+                    if (handler != null) {
+                        pushHandlerSet.complete(null);
+                        if (!isPrefetchEmpty()) {
+                            dispatchPush();
+                        } else if (!pushInFlight) {
+                            schedulePushOnNoMessages(handler);
+                        }
+                    } else if (!pushInFlight) {
+                        pushHandlerSet.complete(null);
+                    } else {
+                        if (pushStopWaiters == null) {
+                            pushStopWaiters = new ArrayList<>();
+                        }
+
+                        pushStopWaiters.add(pushHandlerSet);
+                    }
+                }
+            });
+        } catch (IOException|RejectedExecutionException schedulerException) {
+            pushHandlerSet.completeExceptionally(schedulerException);
+        }
+
+        return pushHandlerSet;
+    }
+
+    public boolean hasPushHandler() {
+        return this.pushHandler != null;
+    }
+
+    // takes the next batch off the prefetch - the handler sees one batch at a time
+    private void dispatchPush() {
+        final PushReceiveHandler handler = this.pushHandler;
+        if (handler == null || this.pushInFlight || this.isPrefetchEmpty()) {
+            return;
+        }
+
+        this.pushInFlight = true;
+        this.pushGeneration++;
+
+        if (this.prefetchRing != null) {
+            final List<byte[]> frames = this.receiveFramesCore(handler.getMaxMessageCount());
+            this.executePushReceive(handler, new Runnable() {
+                @Override
+                public void run() {
+                    handler.onReceive(decodeFrames(frames));
+                }
+            });
+        } else {
+            final Collection<Message> messages = this.receiveCore(handler.getMaxMessageCount());
+            this.executePushReceive(handler, new Runnable() {
+                @Override
+                public void run() {
+                    handler.onReceive(messages);
+                }
+            });
+        }
+    }
+
+    private void schedulePushOnNoMessages(final PushReceiveHandler handler) {
+        if (!handler.getInvokeWhenNoMessages()) {
+            return;
+        }
+
+        final int generation = this.pushGeneration;
+        try {
+            this.underlyingFactory.scheduleOnReactorThread((int) this.receiveTimeout.toMillis(), new DispatchHandler() {
+                @Override
+                public void onEvent() {
+                    if (pushHandler == handler && !pushInFlight && pushGeneration == generation && !getIsClosingOrClosed()) {
+                        pushInFlight = true;
+                        pushGeneration++;
+                        executePushReceive(handler, new Runnable() {
+                            @Override
+                            public void run() {
+                                handler.onReceive(null);
+                            }
+                        });
+                    }
+                }
+            });
+        } catch (IOException|RejectedExecutionException ignore) {
+            // the next message to arrive is still pushed
+        }
+    }
+
+    private void executePushReceive(final PushReceiveHandler handler, final Runnable onReceive) {
+        this.executePush(handler, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    onReceive.run();
+                } catch (Throwable userCodeError) {
+                    // same as the ReceivePump - the handler is not invoked again after it throws
+                    if (pushHandler == handler) {
+                        pushHandler = null;
+                    }
+
+                    handler.onError(userCodeError);
+
+                    if (TRACE_LOGGER.isWarnEnabled()) {
+                        TRACE_LOGGER.warn(String.format(Locale.US, "receiverPath[%s], push handler stopped after user exception %s", receivePath, userCodeError.toString()));
+                    }
+                } finally {
+                    try {
+                        underlyingFactory.scheduleOnReactorThread(new DispatchHandler() {
+                            @Override
+                            public void onEvent() {
+                                onPushComplete();
+                            }
+                        });
+                    } catch (IOException|RejectedExecutionException schedulerException) {
+                        // the connection is going down - and with it this receiver
+                        completePushStopWaiters();
+                    }
+                }
+            }
+        });
+    }
+
+    // should run on the Reactor Thread - which never runs the handler itself, as a slow handler would stall every link of the connection.
+    // A batch the executor rejects stays in flight and is offered again after a while - meanwhile no further batch is taken off the
+    // prefetch, so the link stops receiving once the prefetch is full
+    private void executePush(final PushReceiveHandler handler, final Runnable work) {
+        try {
+            handler.getExecutor().execute(work);
+        } catch (RejectedExecutionException rejectedException) {
+            if (TRACE_LOGGER.isDebugEnabled()) {
+                TRACE_LOGGER.debug(String.format(Locale.US, "receiverPath[%s], push handler executor rejected the batch, retrying in %sms",
+                        this.receivePath, PUSH_REJECTED_RETRY_MILLIS));
+            }
+
+            try {
+                this.underlyingFactory.scheduleOnReactorThread(PUSH_REJECTED_RETRY_MILLIS, new DispatchHandler() {
+                    @Override
+                    public void onEvent() {
+                        if (getIsClosingOrClosed()) {
+                            onPushAbandoned();
+                        } else {
+                            executePush(handler, work);
+                        }
+                    }
+                });
+            } catch (IOException|RejectedExecutionException schedulerException) {
+                // the connection is going down - and with it this receiver
+                this.onPushAbandoned();
+            }
+        }
+    }
+
+    private void onPushAbandoned() {
+        this.pushInFlight = false;
+        this.completePushStopWaiters();
+    }
+
+    private void onPushComplete() {
+        this.pushInFlight = false;
+        this.completePushStopWaiters();
+
+        final PushReceiveHandler currentHandler = this.pushHandler;
+        if (currentHandler != null && !this.getIsClosingOrClosed()) {
+            if (!this.isPrefetchEmpty()) {
+                this.dispatchPush();
+            } else {
+                this.schedulePushOnNoMessages(currentHandler);
+            }
+        }
+    }
+
+    private void completePushStopWaiters() {
+        if (this.pushStopWaiters != null) {
+            for (CompletableFuture<Void> pushStopWaiter : this.pushStopWaiters) {
+                pushStopWaiter.complete(null);
+            }
+
+            this.pushStopWaiters = null;
+        }
+    }
+
     @Override
     public void onOpenComplete(Exception exception) {
         this.creatingLink = false;
@@ -301,11 +583,11 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
             this.underlyingFactory.getRetryPolicy().resetRetryCount(this.underlyingFactory.getClientId());
 
             this.nextCreditToFlow = 0;
-            this.sendFlow(this.prefetchCount - this.prefetchedMessages.size());
+            this.sendFlow(this.getCreditWindow() - this.getPrefetchedCount() - this.creditGate.getWithheldCredit());
 
             if (TRACE_LOGGER.isInfoEnabled()) {
                 TRACE_LOGGER.info(String.format("receiverPath[%s], linkname[%s], updated-link-credit[%s], sentCredits[%s]",
-                        this.receivePath, this.receiveLink.getName(), this.receiveLink.getCredit(), this.prefetchCount));
+                        this.receivePath, this.receiveLink.getName(), this.receiveLink.getCredit(), this.getCreditWindow()));
             }
         } else {
             if (this.linkOpen != null && !this.linkOpen.getWork().isDone()) {
@@ -324,27 +606,72 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
     @Override
     public void onReceiveComplete(Delivery delivery) {
         int msgSize = delivery.pending();
-        byte[] buffer = new byte[msgSize];
+        if (this.adaptiveCredit != null) {
+            this.adaptiveCredit.onReceived(msgSize);
+        }
+
+        this.prefetchedBytes += msgSize;
+        this.creditGate.acquire(msgSize);
+
+        if (this.prefetchRing != null) {
+            this.prefetchRing.offer(receiveLink, msgSize);
+            delivery.settle();
+        } else {
+            byte[] buffer = new byte[msgSize];
+
+            int read = receiveLink.recv(buffer, 0, msgSize);
 
-        int read = receiveLink.recv(buffer, 0, msgSize);
+            Message message = Proton.message();
+            message.decode(buffer, 0, read);
 
-        Message message = Proton.message();
-        message.decode(buffer, 0, read);
+            delivery.settle();
 
-        delivery.settle();
+            this.prefetchedMessages.add(message);
+        }
 
-        this.prefetchedMessages.add(message);
         this.underlyingFactory.getRetryPolicy().resetRetryCount(this.getClientId());
 
         this.receiveWork.onEvent();
+        this.dispatchPush();
+
+        final PrefetchListener listener = this.prefetchListener;
+        if (listener != null) {
+            listener.onPrefetched();
+        }
+    }
+
+    void setPrefetchListener(final PrefetchListener listener) {
+        this.prefetchListener = listener;
+    }
+
+    // CONTRACT: to be called on the reactor thread - by a consumer which takes messages off the prefetch one at a time
+    @Override
+    public Message pollPrefetchedMessage() {
+        if (this.prefetchRing != null) {
+            final byte[] frame = this.pollPrefetchRing();
+            return frame == null ? null : decodeFrame(frame);
+        }
+
+        return this.pollPrefetchQueue();
+    }
+
+    // CONTRACT: to be called on the reactor thread - a consumer which drains the prefetch has no pending receive to recreate the link with
+    void recreateLinkIfClosed() {
+        this.createAndReceive.onEvent();
     }
 
     @Override
     public void onError(final Exception exception) {
         this.prefetchedMessages.clear();
+        if (this.prefetchRing != null) {
+            this.prefetchRing.clear();
+        }
+
+        this.releasePrefetchedBytes(this.prefetchedBytes);
         this.underlyingFactory.deregisterForConnectionError(this.receiveLink);
 
         if (this.getIsClosingOrClosed()) {
+            this.creditGate.close();
             if (this.closeTimer != null)
                 this.closeTimer.cancel(false);
 
@@ -360,6 +687,7 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
                 }
             }
 
+            this.pushHandler = null;
             this.linkClose.complete(null);
         } else {
             synchronized (this.errorConditionLock) {
@@ -371,9 +699,13 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
 
             this.onOpenComplete(completionException);
 
+            // a push handler or a prefetch listener waits on the link without a pending receive - retry it within the operation timeout
             final WorkItem<Collection<Message>> workItem = this.pendingReceives.peek();
-            final Duration nextRetryInterval = workItem != null && workItem.getTimeoutTracker() != null
-                    ? this.underlyingFactory.getRetryPolicy().getNextRetryInterval(this.getClientId(), completionException, workItem.getTimeoutTracker().remaining())
+            final Duration remainingTime = workItem != null && workItem.getTimeoutTracker() != null
+                    ? workItem.getTimeoutTracker().remaining()
+                    : (this.pushHandler != null || this.prefetchListener != null ? this.operationTimeout : null);
+            final Duration nextRetryInterval = remainingTime != null
+                    ? this.underlyingFactory.getRetryPolicy().getNextRetryInterval(this.getClientId(), completionException, remainingTime)
                     : null;
 
             boolean recreateScheduled = true;
@@ -400,6 +732,22 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
                 while ((pendingReceive = this.pendingReceives.poll()) != null) {
                     ExceptionUtil.completeExceptionally(pendingReceive.getWork(), completionException, this);
                 }
+
+                final PrefetchListener listener = this.prefetchListener;
+                if (listener != null) {
+                    listener.onError(completionException);
+                }
+
+                final PushReceiveHandler failedPushHandler = this.pushHandler;
+                if (failedPushHandler != null) {
+                    this.pushHandler = null;
+                    this.executePush(failedPushHandler, new Runnable() {
+                        @Override
+                        public void run() {
+                            failedPushHandler.onError(completionException);
+                        }
+                    });
+                }
             }
         }
     }
@@ -422,14 +770,15 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
                 // if the MessageReceiver is closed - we no-longer need to create the link
                 if (MessageReceiver.this.getIsClosingOrClosed()) {
 
-                    session.close();
+                    if (!SessionPool.isPooled(session))
+                        session.close();
                     return;
                 }
 
                 final Source source = new Source();
                 source.setAddress(receivePath);
 
-                final Map<Symbol, UnknownDescribedType> filterMap = MessageReceiver.this.settingsProvider.getFilter(MessageReceiver.this.lastReceivedMessage);
+                final Map<Symbol, UnknownDescribedType> filterMap = MessageReceiver.this.settingsProvider.getFilter(MessageReceiver.this.getLastReceivedMessage());
                 if (filterMap != null)
                     source.setFilter(filterMap);
 
@@ -518,16 +867,73 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
         if (message != null) {
             // message lastReceivedOffset should be up-to-date upon each poll - as recreateLink will depend on this
             this.lastReceivedMessage = message;
-            this.sendFlow(1);
+            this.onDelivered();
         }
 
         return message;
     }
 
+    // CONTRACT: with offHeapPrefetch, deliveries are handed to the caller of MessageReceiver.receive() only via Poll on prefetchRing
+    private byte[] pollPrefetchRing() {
+        final byte[] frame = this.prefetchRing.poll();
+        if (frame != null) {
+            // the last frame is decoded only if the link needs to be recreated
+            this.lastReceivedFrame = frame;
+            this.onDelivered();
+        }
+
+        return frame;
+    }
+
+    private Message getLastReceivedMessage() {
+        if (this.lastReceivedFrame != null) {
+            this.lastReceivedMessage = decodeFrame(this.lastReceivedFrame);
+            this.lastReceivedFrame = null;
+        }
+
+        return this.lastReceivedMessage;
+    }
+
+    private int getCreditWindow() {
+        return this.adaptiveCredit != null ? this.creditWindow : this.prefetchCount;
+    }
+
+    private void onDelivered() {
+        // individual message sizes are not kept - the bytes of the prefetch are released evenly across its messages
+        final int remainingCount = this.getPrefetchedCount();
+        this.releasePrefetchedBytes(remainingCount == 0 ? this.prefetchedBytes : this.prefetchedBytes / (remainingCount + 1));
+
+        this.flowOnDelivered();
+    }
+
+    private void releasePrefetchedBytes(final long bytes) {
+        this.prefetchedBytes -= bytes;
+        this.creditGate.release(bytes);
+    }
+
+    // replaces the credit of a delivered message - and, with adaptiveCredit, grows or shrinks the credit by the change in the credit window
+    private void flowOnDelivered() {
+        final int credits;
+        if (this.adaptiveCredit == null) {
+            credits = 1;
+        } else {
+            this.adaptiveCredit.onDelivered();
+            final int window = this.adaptiveCredit.getCreditWindow();
+            credits = 1 + window - this.creditWindow;
+            this.creditWindow = window;
+        }
+
+        this.creditGate.flow(credits);
+    }
+
     private void sendFlow(final int credits) {
+        this.sendFlow(credits, false);
+    }
+
+    private void sendFlow(final int credits, final boolean flush) {
         // slow down sending the flow - to make the protocol less-chat'y
         this.nextCreditToFlow += credits;
-        if (this.nextCreditToFlow >= this.prefetchCount || this.nextCreditToFlow >= 100) {
+        if ((flush && this.nextCreditToFlow > 0) || this.nextCreditToFlow >= this.getCreditWindow() || this.nextCreditToFlow >= 100) {
             final int tempFlow = this.nextCreditToFlow;
             this.receiveLink.flow(tempFlow);
             this.nextCreditToFlow = 0;
@@ -631,9 +1037,9 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
         final ReceiverContext errorContext = new ReceiverContext(this.underlyingFactory != null ? this.underlyingFactory.getHostName() : null,
                 this.receivePath,
                 referenceId,
-                isLinkOpened ? this.prefetchCount : null,
+                isLinkOpened ? this.getCreditWindow() : null,
                 isLinkOpened && link != null ? link.getCredit() : null,
-                isLinkOpened && this.prefetchedMessages != null ? this.prefetchedMessages.size() : null);
+                isLinkOpened ? this.getPrefetchedCount() : null);
 
         return errorContext;
     }
@@ -682,24 +1088,65 @@ public final class MessageReceiver extends ClientEntity implements AmqpReceiver,
         }
     }
 
+    private final class CreditSink implements CreditGate.Sink {
+
+        @Override
+        public void flow(final int credits, final boolean flush) {
+            sendFlow(credits, flush);
+        }
+
+        @Override
+        public boolean isClosingOrClosed() {
+            return getIsClosingOrClosed();
+        }
+
+        @Override
+        public long getAverageEventSize() {
+            final int prefetchedCount = getPrefetchedCount();
+            return prefetchedCount == 0 ? AdaptiveCredit.INITIAL_EVENT_SIZE_ESTIMATE : prefetchedBytes / prefetchedCount;
+        }
+    }
+
     private final class ReceiveWork extends DispatchHandler {
 
         @Override
         public void onEvent() {
 
             ReceiveWorkItem pendingReceive;
-            while (!prefetchedMessages.isEmpty() && (pendingReceive = pendingReceives.poll()) != null) {
+            while (!isPrefetchEmpty() && (pendingReceive = pendingReceives.poll()) != null) {
 
                 if (pendingReceive.getWork() != null && !pendingReceive.getWork().isDone()) {
 
-                    Collection<Message> receivedMessages = receiveCore(pendingReceive.maxMessageCount);
-                    pendingReceive.getWork().complete(receivedMessages);
+                    if (prefetchRing != null) {
+                        completeOnExecutor(pendingReceive.getWork(), receiveFramesCore(pendingReceive.maxMessageCount));
+                    } else {
+                        Collection<Message> receivedMessages = receiveCore(pendingReceive.maxMessageCount);
+                        pendingReceive.getWork().complete(receivedMessages);
+                    }
                 }
             }
         }
+
+        // frames leave the ring on the reactor thread - decoding them is left to the executor
+        private void completeOnExecutor(final CompletableFuture<Collection<Message>> work, final List<byte[]> frames) {
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            work.complete(decodeFrames(frames));
+                        } catch (RuntimeException decodeException) {
+                            work.completeExceptionally(decodeException);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException rejectedException) {
+                work.complete(decodeFrames(frames));
+            }
+        }
     }
 
-    private final class CreateAndReceive extends DispatchHandler {
+    private final class CreateAndReceive extends CoalescingDispatchHandler {
 
         @Override
         public void onEvent() {
@@ -11,20 +11,15 @@ import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZonedDateTime;
-import java.util.Comparator;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
-import java.util.UUID;
-import java.util.PriorityQueue;
 
 import com.microsoft.azure.eventhubs.*;
 
@@ -64,14 +59,25 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
     private final Duration operationTimeout;
     private final RetryPolicy retryPolicy;
     private final CompletableFuture<Void> linkClose;
-    private final Object pendingSendLock;
-    private final ConcurrentHashMap<String, ReplayableWorkItem<Void>> pendingSendsData;
-    private final PriorityQueue<WeightedDeliveryTag> pendingSends;
+    private final AtomicLong nextDeliveryTag;
+    // sends enqueued by any thread - drained by processSendWork on the Reactor Thread
+    private final ConcurrentLinkedQueue<ReplayableWorkItem<Void>> pendingSends;
+    // retries and re-sends after link recreation - drained ahead of pendingSends
+    private final ConcurrentLinkedQueue<ReplayableWorkItem<Void>> pendingRetrySends;
+    // deliveries written to the link and waiting for an outcome - accessed only on the Reactor Thread
+    private final HashMap<Long, ReplayableWorkItem<Void>> pendingSendsData;
     private final DispatchHandler sendWork;
     private final ActiveClientTokenManager activeClientTokenManager;
     private final String tokenAudience;
     private final Object errorConditionLock;
     private final Timer timer;
+    private final BufferPool bufferPool;
+    // buffers of completed sends - returned to the bufferPool on the Reactor Thread, where no send can still be copying them into the link
+    private final ConcurrentLinkedQueue<byte[]> completedSendBuffers;
+    private final DispatchHandler releaseBuffersWork;
+    private final SendWindow sendWindow;
+    // pre-settled sends are complete once written to the link - they are neither tracked in pendingSendsData nor timed out
+    private final boolean settled;
 
     private volatile int maxMessageSize;
     private volatile Sender sendLink;
@@ -88,7 +94,16 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
             final MessagingFactory factory,
             final String sendLinkName,
             final String senderPath) {
-        final MessageSender msgSender = new MessageSender(factory, sendLinkName, senderPath);
+        return create(factory, sendLinkName, senderPath, null);
+    }
+
+    public static CompletableFuture<MessageSender> create(
+            final MessagingFactory factory,
+            final String sendLinkName,
+            final String senderPath,
+            final SenderOptions senderOptions) {
+        final boolean settled = senderOptions != null && senderOptions.deliveryMode == SenderOptions.DeliveryMode.AT_MOST_ONCE;
+        final MessageSender msgSender = new MessageSender(factory, sendLinkName, senderPath, SendWindow.create(senderOptions), settled);
         msgSender.openLinkTracker = TimeoutTracker.create(factory.getOperationTimeout());
         msgSender.initializeLinkOpen(msgSender.openLinkTracker);
 
@@ -106,13 +121,17 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
         return msgSender.linkFirstOpen;
     }
 
-    private MessageSender(final MessagingFactory factory, final String sendLinkName, final String senderPath) {
+    private MessageSender(final MessagingFactory factory, final String sendLinkName, final String senderPath,
+                          final SendWindow sendWindow, final boolean settled) {
         super(sendLinkName, factory, factory.executor);
 
         this.sendPath = senderPath;
         this.underlyingFactory = factory;
         this.operationTimeout = factory.getOperationTimeout();
         this.timer = new Timer(factory);
+        this.bufferPool = factory.getBufferPool();
+        this.sendWindow = sendWindow;
+        this.settled = settled;
 
         this.lastKnownLinkError = null;
         this.lastKnownErrorReportedAt = Instant.EPOCH;
@@ -122,19 +141,31 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
 
         this.errorConditionLock = new Object();
 
-        this.pendingSendLock = new Object();
-        this.pendingSendsData = new ConcurrentHashMap<>();
-        this.pendingSends = new PriorityQueue<>(1000, new DeliveryTagComparator());
+        this.nextDeliveryTag = new AtomicLong();
+        this.pendingSends = new ConcurrentLinkedQueue<>();
+        this.pendingRetrySends = new ConcurrentLinkedQueue<>();
+        this.pendingSendsData = new HashMap<>();
 
         this.linkClose = new CompletableFuture<>();
 
-        this.sendWork = new DispatchHandler() {
+        this.sendWork = new CoalescingDispatchHandler() {
             @Override
             public void onEvent() {
                 MessageSender.this.processSendWork();
             }
         };
 
+        this.completedSendBuffers = new ConcurrentLinkedQueue<>();
+        this.releaseBuffersWork = new CoalescingDispatchHandler() {
+            @Override
+            public void onEvent() {
+                byte[] buffer;
+                while ((buffer = MessageSender.this.completedSendBuffers.poll()) != null) {
+                    MessageSender.this.bufferPool.release(buffer);
+                }
+            }
+        };
+
         this.tokenAudience = String.format(ClientConstants.TOKEN_AUDIENCE_FORMAT, underlyingFactory.getHostName(), sendPath);
         this.activeClientTokenManager = new ActiveClientTokenManager(
                 this,
@@ -183,8 +214,86 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
         return this.maxMessageSize;
     }
 
-    private CompletableFuture<Void> send(byte[] bytes, int arrayOffset, int messageFormat) {
-        return this.send(bytes, arrayOffset, messageFormat, null, null);
+    // sends an already encoded message - ex: an EventDataBatchImpl encoded while it was being filled
+    public CompletableFuture<Void> send(byte[] bytes, int arrayOffset, int messageFormat) {
+        if (this.sendWindow == null) {
+            return this.send(bytes, arrayOffset, messageFormat, null, null);
+        }
+
+        final CompletableFuture<Void> admission = this.sendWindow.acquire(arrayOffset);
+        if (admission.isDone()) {
+            return admission.isCompletedExceptionally()
+                    ? admission
+                    : this.sendAdmitted(bytes, arrayOffset, messageFormat, null);
+        }
+
+        // the time spent waiting for the window counts against the operationTimeout of the send
+        final TimeoutTracker tracker = TimeoutTracker.create(this.operationTimeout);
+        final CompletableFuture<Void> onSend = new CompletableFuture<>();
+        final CompletableFuture<?> admissionTimeout = this.timer.schedule(
+                () -> this.sendWindow.abandon(admission, new TimeoutException(String.format(Locale.US,
+                        "%s at %s, waiting for the send window.", MessageSender.SEND_TIMED_OUT, ZonedDateTime.now()))),
+                this.operationTimeout);
+
+        // admitted when an in-flight send completes - which could be on the Reactor Thread, so hop to the executor
+        admission.whenComplete((unUsed, exception) -> {
+            admissionTimeout.cancel(false);
+            if (exception != null) {
+                onSend.completeExceptionally(exception);
+                return;
+            }
+
+            try {
+                this.executor.execute(() -> this.sendOnAdmission(bytes, arrayOffset, messageFormat, tracker, onSend));
+            } catch (RejectedExecutionException rejectedException) {
+                this.sendWindow.release(arrayOffset);
+                onSend.completeExceptionally(rejectedException);
+            }
+        });
+
+        // a send cancelled while it waits gives up its place in the window
+        onSend.whenComplete((unUsed, exception) -> {
+            if (exception instanceof CancellationException) {
+                this.sendWindow.abandon(admission, exception);
+            }
+        });
+
+        return onSend;
+    }
+
+    private void sendOnAdmission(final byte[] bytes, final int encodedSize, final int messageFormat,
+                                 final TimeoutTracker tracker, final CompletableFuture<Void> onSend) {
+        if (onSend.isDone()) {
+            // cancelled after it was admitted
+            this.sendWindow.release(encodedSize);
+            return;
+        }
+
+        try {
+            this.sendAdmitted(bytes, encodedSize, messageFormat, tracker).whenComplete((unUsed, exception) -> {
+                if (exception != null) {
+                    onSend.completeExceptionally(exception);
+                } else {
+                    onSend.complete(null);
+                }
+            });
+        } catch (RuntimeException exception) {
+            onSend.completeExceptionally(exception);
+        }
+    }
+
+    // the send holds its place in the sendWindow until it completes
+    private CompletableFuture<Void> sendAdmitted(final byte[] bytes, final int encodedSize, final int messageFormat, final TimeoutTracker tracker) {
+        final CompletableFuture<Void> sendTask;
+        try {
+            sendTask = this.send(bytes, encodedSize, messageFormat, null, tracker);
+        } catch (RuntimeException exception) {
+            this.sendWindow.release(encodedSize);
+            throw exception;
+        }
+
+        sendTask.whenComplete((unUsed, exception) -> this.sendWindow.release(encodedSize));
+        return sendTask;
     }
 
     private CompletableFuture<Void> sendCore(
@@ -206,7 +315,8 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
                 new ReplayableWorkItem<>(bytes, arrayOffset, messageFormat, onSendFuture, tracker);
 
         final TimeoutTracker currentSendTracker = sendWaiterData.getTimeoutTracker();
-        final String deliveryTag = UUID.randomUUID().toString().replace("-", StringUtil.EMPTY) + "_" + currentSendTracker.elapsed().getSeconds();
+        final long deliveryTag = this.nextDeliveryTag.incrementAndGet();
+        sendWaiterData.setDeliveryTag(deliveryTag);
 
         if (lastKnownError != null) {
             sendWaiterData.setLastKnownException(lastKnownError);
@@ -215,6 +325,10 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
         if (timeoutTask != null)
             timeoutTask.cancel(false);
 
+        if (this.settled) {
+            return this.enqueueSend(sendWaiterData, isRetrySend);
+        }
+
         final CompletableFuture<?> timeoutTimerTask = this.timer.schedule(
                 new SendTimeout(deliveryTag, sendWaiterData),
                 currentSendTracker.remaining());
@@ -234,19 +348,24 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
 
         sendWaiterData.setTimeoutTask(timeoutTimerTask);
 
-        synchronized (this.pendingSendLock) {
-            this.pendingSendsData.put(deliveryTag, sendWaiterData);
-            this.pendingSends.offer(new WeightedDeliveryTag(deliveryTag, isRetrySend ? 1 : 0));
+        return this.enqueueSend(sendWaiterData, isRetrySend);
+    }
+
+    private CompletableFuture<Void> enqueueSend(final ReplayableWorkItem<Void> sendWaiterData, final boolean isRetrySend) {
+        if (isRetrySend) {
+            this.pendingRetrySends.offer(sendWaiterData);
+        } else {
+            this.pendingSends.offer(sendWaiterData);
         }
 
         try {
             this.underlyingFactory.scheduleOnReactorThread(this.sendWork);
         } catch (IOException|RejectedExecutionException schedulerException) {
-            onSendFuture.completeExceptionally(
+            sendWaiterData.getWork().completeExceptionally(
                     new OperationCancelledException("Send failed while dispatching to Reactor, see cause for more details.", schedulerException));
         }
 
-        return onSendFuture;
+        return sendWaiterData.getWork();
     }
 
     private CompletableFuture<Void> send(
@@ -275,7 +394,7 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
 
         final int maxMessageSizeTemp = this.maxMessageSize;
 
-        final byte[] bytes = new byte[maxMessageSizeTemp];
+        final byte[] bytes = this.bufferPool.lease(maxMessageSizeTemp);
         int encodedSize = batchMessage.encode(bytes, 0, maxMessageSizeTemp);
         int byteArrayOffset = encodedSize;
 
@@ -285,22 +404,25 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
             int payloadSize = AmqpUtil.getDataSerializedSize(amqpMessage);
             int allocationSize = Math.min(payloadSize + ClientConstants.MAX_EVENTHUB_AMQP_HEADER_SIZE_BYTES, maxMessageSizeTemp);
 
-            byte[] messageBytes = new byte[allocationSize];
-            int messageSizeBytes = amqpMessage.encode(messageBytes, 0, allocationSize);
-            messageWrappedByData.setBody(new Data(new Binary(messageBytes, 0, messageSizeBytes)));
-
+            final byte[] messageBytes = this.bufferPool.lease(allocationSize);
             try {
+                int messageSizeBytes = amqpMessage.encode(messageBytes, 0, allocationSize);
+                messageWrappedByData.setBody(new Data(new Binary(messageBytes, 0, messageSizeBytes)));
+
                 encodedSize = messageWrappedByData.encode(bytes, byteArrayOffset, maxMessageSizeTemp - byteArrayOffset - 1);
             } catch (BufferOverflowException exception) {
+                this.bufferPool.release(bytes);
                 final CompletableFuture<Void> sendTask = new CompletableFuture<>();
                 sendTask.completeExceptionally(new PayloadSizeExceededException(String.format("Size of the payload exceeded Maximum message size: %s kb", maxMessageSizeTemp / 1024), exception));
                 return sendTask;
+            } finally {
+                this.bufferPool.release(messageBytes);
             }
 
             byteArrayOffset = byteArrayOffset + encodedSize;
         }
 
-        return this.send(bytes, byteArrayOffset, AmqpConstants.AMQP_BATCH_MESSAGE_FORMAT);
+        return this.sendLeased(bytes, byteArrayOffset, AmqpConstants.AMQP_BATCH_MESSAGE_FORMAT);
     }
 
     public CompletableFuture<Void> send(Message msg) {
@@ -309,17 +431,43 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
         final int maxMessageSizeTemp = this.maxMessageSize;
         int allocationSize = Math.min(payloadSize + ClientConstants.MAX_EVENTHUB_AMQP_HEADER_SIZE_BYTES, maxMessageSizeTemp);
 
-        final byte[] bytes = new byte[allocationSize];
+        final byte[] bytes = this.bufferPool.lease(allocationSize);
         int encodedSize = 0;
         try {
             encodedSize = msg.encode(bytes, 0, allocationSize);
         } catch (BufferOverflowException exception) {
+            this.bufferPool.release(bytes);
             final CompletableFuture<Void> sendTask = new CompletableFuture<Void>();
             sendTask.completeExceptionally(new PayloadSizeExceededException(String.format("Size of the payload exceeded Maximum message size: %s kb", maxMessageSizeTemp / 1024), exception));
             return sendTask;
         }
 
-        return this.send(bytes, encodedSize, DeliveryImpl.DEFAULT_MESSAGE_FORMAT);
+        return this.sendLeased(bytes, encodedSize, DeliveryImpl.DEFAULT_MESSAGE_FORMAT);
+    }
+
+    // the leased buffer is replayed on retries and link recreation - and returned to the pool only once the send completes
+    private CompletableFuture<Void> sendLeased(final byte[] bytes, final int encodedSize, final int messageFormat) {
+        final CompletableFuture<Void> sendTask;
+        try {
+            sendTask = this.send(bytes, encodedSize, messageFormat);
+        } catch (RuntimeException exception) {
+            this.bufferPool.release(bytes);
+            throw exception;
+        }
+
+        sendTask.whenComplete((unUsed, exception) -> this.releaseOnReactorThread(bytes));
+        return sendTask;
+    }
+
+    // a send can complete on any thread (ex: cancelled by the caller) while processSendWork is still copying its buffer into the link -
+    // processSendWork skips completed sends, so the buffer is safe to reuse once the Reactor Thread gets to it
+    private void releaseOnReactorThread(final byte[] bytes) {
+        this.completedSendBuffers.offer(bytes);
+        try {
+            this.underlyingFactory.scheduleOnReactorThread(this.releaseBuffersWork);
+        } catch (IOException|RejectedExecutionException ignore) {
+            // released along with the buffer of the next completed send - or left to the GC with this sender
+        }
     }
 
     @Override
@@ -351,22 +499,9 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
                 if (this.openTimer != null)
                     this.openTimer.cancel(false);
             } else {
-                synchronized (this.pendingSendLock) {
-                    if (!this.pendingSendsData.isEmpty()) {
-                        final List<String> unacknowledgedSends = new LinkedList<>();
-                        unacknowledgedSends.addAll(this.pendingSendsData.keySet());
-
-                        if (unacknowledgedSends.size() > 0) {
-                            final Iterator<String> reverseReader = unacknowledgedSends.iterator();
-                            while (reverseReader.hasNext()) {
-                                final String unacknowledgedSend = reverseReader.next();
-                                if (this.pendingSendsData.get(unacknowledgedSend).isWaitingForAck()) {
-                                    this.pendingSends.offer(new WeightedDeliveryTag(unacknowledgedSend, 1));
-                                }
-                            }
-                        }
-
-                        unacknowledgedSends.clear();
+                for (ReplayableWorkItem<Void> unacknowledgedSend : this.pendingSendsData.values()) {
+                    if (unacknowledgedSend.isWaitingForAck()) {
+                        this.pendingRetrySends.offer(unacknowledgedSend);
                     }
                 }
             }
@@ -394,18 +529,9 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
             if (this.closeTimer != null && !this.closeTimer.isDone())
                 this.closeTimer.cancel(false);
 
-            synchronized (this.pendingSendLock) {
-                for (Map.Entry<String, ReplayableWorkItem<Void>> pendingSend : this.pendingSendsData.entrySet()) {
-                    ExceptionUtil.completeExceptionally(pendingSend.getValue().getWork(),
-                            completionException == null
-                                    ? new OperationCancelledException("Send cancelled as the Sender instance is Closed before the sendOperation completed.")
-                                    : completionException,
-                            this);
-                }
-
-                this.pendingSendsData.clear();
-                this.pendingSends.clear();
-            }
+            this.cleanupPendingSends(completionException == null
+                    ? new OperationCancelledException("Send cancelled as the Sender instance is Closed before the sendOperation completed.")
+                    : completionException);
 
             this.linkClose.complete(null);
 
@@ -421,9 +547,9 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
 
             this.onOpenComplete(finalCompletionException);
 
-            final Map.Entry<String, ReplayableWorkItem<Void>> pendingSendEntry = IteratorUtil.getFirst(this.pendingSendsData.entrySet());
-            if (pendingSendEntry != null && pendingSendEntry.getValue() != null) {
-                final TimeoutTracker tracker = pendingSendEntry.getValue().getTimeoutTracker();
+            final ReplayableWorkItem<Void> pendingSend = this.peekPendingSend();
+            if (pendingSend != null) {
+                final TimeoutTracker tracker = pendingSend.getTimeoutTracker();
                 if (tracker != null) {
                     final Duration nextRetryInterval = this.retryPolicy.getNextRetryInterval(this.getClientId(), finalCompletionException, tracker.remaining());
                     boolean scheduledRecreate = true;
@@ -445,14 +571,7 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
                     }
 
                     if (nextRetryInterval == null || !scheduledRecreate) {
-                        synchronized (this.pendingSendLock) {
-                            for (Map.Entry<String, ReplayableWorkItem<Void>> pendingSend : this.pendingSendsData.entrySet()) {
-                                this.cleanupFailedSend(pendingSend.getValue(), finalCompletionException);
-                            }
-
-                            this.pendingSendsData.clear();
-                            this.pendingSends.clear();
-                        }
+                        this.cleanupPendingSends(finalCompletionException);
                     }
                 }
             }
@@ -462,7 +581,7 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
     @Override
     public void onSendComplete(final Delivery delivery) {
         final DeliveryState outcome = delivery.getRemoteState();
-        final String deliveryTag = new String(delivery.getTag());
+        final long deliveryTag = MessageSender.fromDeliveryTag(delivery.getTag());
 
         if (TRACE_LOGGER.isTraceEnabled())
             TRACE_LOGGER.trace(
@@ -543,6 +662,60 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
         ExceptionUtil.completeExceptionally(failedSend.getWork(), exception, this);
     }
 
+    // should run on Reactor Thread
+    private void cleanupPendingSends(final Exception exception) {
+        for (ReplayableWorkItem<Void> pendingSend : this.pendingSendsData.values()) {
+            this.cleanupFailedSend(pendingSend, exception);
+        }
+
+        this.pendingSendsData.clear();
+
+        ReplayableWorkItem<Void> queuedSend;
+        while ((queuedSend = this.pendingRetrySends.poll()) != null) {
+            this.cleanupFailedSend(queuedSend, exception);
+        }
+
+        while ((queuedSend = this.pendingSends.poll()) != null) {
+            this.cleanupFailedSend(queuedSend, exception);
+        }
+    }
+
+    // should run on Reactor Thread
+    private ReplayableWorkItem<Void> peekPendingSend() {
+        final ReplayableWorkItem<Void> inFlightSend = IteratorUtil.getFirst(this.pendingSendsData.values());
+        if (inFlightSend != null) {
+            return inFlightSend;
+        }
+
+        final ReplayableWorkItem<Void> retrySend = this.pendingRetrySends.peek();
+        return retrySend != null ? retrySend : this.pendingSends.peek();
+    }
+
+    private static byte[] toDeliveryTag(final long deliveryTag) {
+        final byte[] tag = new byte[Long.BYTES];
+        long value = deliveryTag;
+        for (int index = Long.BYTES - 1; index >= 0; index--) {
+            tag[index] = (byte) value;
+            value >>>= Byte.SIZE;
+        }
+
+        return tag;
+    }
+
+    private static long fromDeliveryTag(final byte[] tag) {
+        // tags not minted by this sender never match a pending send - and are reported as a mismatch
+        if (tag == null || tag.length != Long.BYTES) {
+            return 0L;
+        }
+
+        long deliveryTag = 0L;
+        for (int index = 0; index < Long.BYTES; index++) {
+            deliveryTag = (deliveryTag << Byte.SIZE) | (tag[index] & 0xFF);
+        }
+
+        return deliveryTag;
+    }
+
     private void createSendLink() {
         if (this.creatingLink)
             return;
@@ -554,7 +727,8 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
             public void accept(Session session) {
                 if (MessageSender.this.getIsClosingOrClosed()) {
 
-                    session.close();
+                    if (!SessionPool.isPooled(session))
+                        session.close();
                     return;
                 }
 
@@ -566,7 +740,7 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
                 final Source source = new Source();
                 sender.setSource(source);
 
-                sender.setSenderSettleMode(SenderSettleMode.UNSETTLED);
+                sender.setSenderSettleMode(MessageSender.this.settled ? SenderSettleMode.SETTLED : SenderSettleMode.UNSETTLED);
 
                 final SendLinkHandler handler = new SendLinkHandler(MessageSender.this);
                 BaseHandler.setHandler(sender, handler);
@@ -701,9 +875,9 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
             return;
 
         if (TRACE_LOGGER.isDebugEnabled()) {
-            int numberOfSendsWaitingforCredit = this.pendingSends.size();
+            int numberOfSendsWaitingforCredit = this.pendingRetrySends.size() + this.pendingSends.size();
             TRACE_LOGGER.debug(String.format(Locale.US, "path[%s], linkName[%s], remoteLinkCredit[%s], pendingSendsWaitingForCredit[%s], pendingSendsWaitingDelivery[%s]",
-                    this.sendPath, this.sendLink.getName(), creditIssued, numberOfSendsWaitingforCredit, this.pendingSendsData.size() - numberOfSendsWaitingforCredit));
+                    this.sendPath, this.sendLink.getName(), creditIssued, numberOfSendsWaitingforCredit, this.pendingSendsData.size()));
         }
 
         this.sendWork.onEvent();
@@ -725,73 +899,65 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
 
         while (this.sendLink.getLocalState() == EndpointState.ACTIVE && this.sendLink.getRemoteState() == EndpointState.ACTIVE
                 && this.sendLink.getCredit() > 0) {
-            final WeightedDeliveryTag weightedDelivery;
-            final ReplayableWorkItem<Void> sendData;
-            final String deliveryTag;
-            synchronized (this.pendingSendLock) {
-                weightedDelivery = this.pendingSends.poll();
-                if (weightedDelivery != null) {
-                    deliveryTag = weightedDelivery.getDeliveryTag();
-                    sendData = this.pendingSendsData.get(deliveryTag);
-                } else {
-                    sendData = null;
-                    deliveryTag = null;
+            ReplayableWorkItem<Void> sendData = this.pendingRetrySends.poll();
+            if (sendData == null) {
+                sendData = this.pendingSends.poll();
+                if (sendData == null) {
+                    break;
                 }
             }
 
-            if (sendData != null) {
-                if (sendData.getWork() != null && sendData.getWork().isDone()) {
-                    // CoreSend could enque Sends into PendingSends Queue and can fail the SendCompletableFuture
-                    // (when It fails to schedule the ProcessSendWork on reactor Thread)
-                    this.pendingSendsData.remove(deliveryTag);
-                    continue;
-                }
-
-                Delivery delivery = null;
-                boolean linkAdvance = false;
-                int sentMsgSize = 0;
-                Exception sendException = null;
+            final long deliveryTag = sendData.getDeliveryTag();
+            if (sendData.getWork() != null && sendData.getWork().isDone()) {
+                // CoreSend could enque Sends into PendingSends Queue and can fail the SendCompletableFuture
+                // (when It fails to schedule the ProcessSendWork on reactor Thread)
+                this.pendingSendsData.remove(deliveryTag);
+                continue;
+            }
 
-                try {
-                    delivery = this.sendLink.delivery(deliveryTag.getBytes());
-                    delivery.setMessageFormat(sendData.getMessageFormat());
+            if (!this.settled) {
+                this.pendingSendsData.put(deliveryTag, sendData);
+            }
 
-                    sentMsgSize = this.sendLink.send(sendData.getMessage(), 0, sendData.getEncodedMessageSize());
-                    assert sentMsgSize == sendData.getEncodedMessageSize() : "Contract of the ProtonJ library for Sender.Send API changed";
+            Delivery delivery = null;
+            boolean linkAdvance = false;
+            int sentMsgSize = 0;
+            Exception sendException = null;
 
-                    linkAdvance = this.sendLink.advance();
-                } catch (Exception exception) {
-                    sendException = exception;
-                }
+            try {
+                delivery = this.sendLink.delivery(MessageSender.toDeliveryTag(deliveryTag));
+                delivery.setMessageFormat(sendData.getMessageFormat());
 
-                if (linkAdvance) {
-                    sendData.setWaitingForAck();
-                } else {
-                    if (TRACE_LOGGER.isDebugEnabled()) {
-                        TRACE_LOGGER.debug(
-                                String.format(Locale.US, "path[%s], linkName[%s], deliveryTag[%s], sentMessageSize[%s], payloadActualSize[%s] - sendlink advance failed",
-                                        this.sendPath, this.sendLink.getName(), deliveryTag, sentMsgSize, sendData.getEncodedMessageSize()));
-                    }
+                sentMsgSize = this.sendLink.send(sendData.getMessage(), 0, sendData.getEncodedMessageSize());
+                assert sentMsgSize == sendData.getEncodedMessageSize() : "Contract of the ProtonJ library for Sender.Send API changed";
 
-                    if (delivery != null) {
-                        delivery.free();
-                    }
+                linkAdvance = this.sendLink.advance();
+            } catch (Exception exception) {
+                sendException = exception;
+            }
 
-                    sendData.getWork().completeExceptionally(sendException != null
-                            ? new OperationCancelledException("Send operation failed. Please see cause for more details", sendException)
-                            : new OperationCancelledException(
-                            String.format(Locale.US, "Send operation failed while advancing delivery(tag: %s) on SendLink(path: %s).", this.sendPath, deliveryTag)));
-                }
+            if (linkAdvance && this.settled) {
+                delivery.settle();
+                sendData.clearMessage();
+                sendData.getWork().complete(null);
+            } else if (linkAdvance) {
+                sendData.setWaitingForAck();
             } else {
-                if (deliveryTag != null) {
-                    if (TRACE_LOGGER.isDebugEnabled()) {
-                        TRACE_LOGGER.debug(
-                                String.format(Locale.US, "path[%s], linkName[%s], deliveryTag[%s] - sendData not found for this delivery.",
-                                        this.sendPath, this.sendLink.getName(), deliveryTag));
-                    }
+                if (TRACE_LOGGER.isDebugEnabled()) {
+                    TRACE_LOGGER.debug(
+                            String.format(Locale.US, "path[%s], linkName[%s], deliveryTag[%s], sentMessageSize[%s], payloadActualSize[%s] - sendlink advance failed",
+                                    this.sendPath, this.sendLink.getName(), deliveryTag, sentMsgSize, sendData.getEncodedMessageSize()));
                 }
 
-                break;
+                if (delivery != null) {
+                    delivery.free();
+                }
+
+                this.pendingSendsData.remove(deliveryTag);
+                sendData.getWork().completeExceptionally(sendException != null
+                        ? new OperationCancelledException("Send operation failed. Please see cause for more details", sendException)
+                        : new OperationCancelledException(
+                        String.format(Locale.US, "Send operation failed while advancing delivery(tag: %s) on SendLink(path: %s).", this.sendPath, deliveryTag)));
             }
         }
     }
@@ -859,6 +1025,10 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
 
     @Override
     protected CompletableFuture<Void> onClose() {
+        if (this.sendWindow != null) {
+            this.sendWindow.close(this.closedException());
+        }
+
         if (!this.getIsClosed()) {
             try {
                 this.activeClientTokenManager.cancel();
@@ -892,37 +1062,12 @@ public final class MessageSender extends ClientEntity implements AmqpSender, Err
         }
     }
 
-    private static class WeightedDeliveryTag {
-        private final String deliveryTag;
-        private final int priority;
-
-        WeightedDeliveryTag(final String deliveryTag, final int priority) {
-            this.deliveryTag = deliveryTag;
-            this.priority = priority;
-        }
-
-        public String getDeliveryTag() {
-            return this.deliveryTag;
-        }
-
-        public int getPriority() {
-            return this.priority;
-        }
-    }
-
-    private static class DeliveryTagComparator implements Comparator<WeightedDeliveryTag> {
-        @Override
-        public int compare(WeightedDeliveryTag deliveryTag0, WeightedDeliveryTag deliveryTag1) {
-            return deliveryTag1.getPriority() - deliveryTag0.getPriority();
-        }
-    }
-
     private class SendTimeout implements Runnable {
-        private final String deliveryTag;
+        private final long deliveryTag;
         private final ReplayableWorkItem<Void> sendWaiterData;
 
         public SendTimeout(
-                final String deliveryTag,
+                final long deliveryTag,
                 final ReplayableWorkItem<Void> sendWaiterData) {
             this.sendWaiterData = sendWaiterData;
             this.deliveryTag = deliveryTag;
@@ -14,6 +14,7 @@ import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -44,13 +45,19 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
     private final CompletableFuture<Void> closeTask;
     private final ConnectionHandler connectionHandler;
     private final LinkedList<Link> registeredLinks;
+    private final AtomicInteger registeredLinkCount;
     private final Object reactorLock;
     private final Object cbsChannelCreateLock;
     private final Object mgmtChannelCreateLock;
     private final SharedAccessSignatureTokenProvider tokenProvider;
     private final ReactorFactory reactorFactory;
+    private final TimingWheel timingWheel;
+    private final BufferPool bufferPool;
+    private final ReactorGroupImpl reactorGroup;
+    private final SessionPool sessionPool;
 
     private Reactor reactor;
+    private ReactorGroupImpl.SharedReactor sharedReactor;
     private ReactorDispatcher reactorScheduler;
     private Connection connection;
     private CBSChannel cbsChannel;
@@ -65,15 +72,22 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
     MessagingFactory(final ConnectionStringBuilder builder,
                      final RetryPolicy retryPolicy,
                      final Executor executor,
-                     final ReactorFactory reactorFactory) {
+                     final ReactorFactory reactorFactory,
+                     final BufferPool bufferPool,
+                     final ReactorGroupImpl reactorGroup,
+                     final int sessionCount) {
         super("MessagingFactory".concat(StringUtil.getRandomString()), null, executor);
 
         this.hostName = builder.getEndpoint().getHost();
         this.reactorFactory = reactorFactory;
+        this.bufferPool = bufferPool;
+        this.reactorGroup = reactorGroup;
+        this.sessionPool = sessionCount > 0 ? new SessionPool(sessionCount) : null;
 
         this.operationTimeout = builder.getOperationTimeout();
         this.retryPolicy = retryPolicy;
         this.registeredLinks = new LinkedList<>();
+        this.registeredLinkCount = new AtomicInteger();
         this.reactorLock = new Object();
         this.connectionHandler = new ConnectionHandler(this);
         this.cbsChannelCreateLock = new Object();
@@ -82,6 +96,7 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
                 ? new SharedAccessSignatureTokenProvider(builder.getSasKeyName(), builder.getSasKey())
                 : new SharedAccessSignatureTokenProvider(builder.getSharedAccessSignature());
 
+        this.timingWheel = new TimingWheel(this, ClientConstants.TIMING_WHEEL_TICK_IN_MS, ClientConstants.TIMING_WHEEL_SIZE);
         this.closeTask = new CompletableFuture<>();
     }
 
@@ -101,12 +116,34 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
         }
     }
 
+    @Override
+    public TimingWheel getTimingWheel() {
+        return this.timingWheel;
+    }
+
+    public BufferPool getBufferPool() {
+        return this.bufferPool;
+    }
+
     public SharedAccessSignatureTokenProvider getTokenProvider() {
         return this.tokenProvider;
     }
 
     private void createConnection() throws IOException {
         this.open = new CompletableFuture<>();
+        if (this.reactorGroup != null) {
+            // the shared Reactor is already running - the connection is created on it like any other work
+            this.joinReactorGroup();
+            this.scheduleOnReactorThread(new DispatchHandler() {
+                @Override
+                public void onEvent() {
+                    connection = getReactor().connectionToHost(hostName, ClientConstants.AMQPS_PORT, connectionHandler);
+                }
+            });
+
+            return;
+        }
+
         this.startReactor(new ReactorHandler() {
             @Override
             public void onReactorInit(Event e) {
@@ -119,6 +156,11 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
     }
 
     private void startReactor(final ReactorHandler reactorHandler) throws IOException {
+        if (this.reactorGroup != null) {
+            this.joinReactorGroup();
+            return;
+        }
+
         final Reactor newReactor = this.reactorFactory.create(reactorHandler);
         synchronized (this.reactorLock) {
             this.reactor = newReactor;
@@ -126,9 +168,59 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
             reactorHandler.unsafeSetReactorDispatcher(this.reactorScheduler);
         }
 
+        this.timingWheel.onReactorRestart();
         executor.execute(new RunReactor(newReactor, executor));
     }
 
+    // picks up the current Reactor of the SharedReactor this factory is assigned to - which changes when a failed shared Reactor is replaced
+    private void joinReactorGroup() {
+        final ReactorGroupImpl.SharedReactor assigned = this.reactorGroup.attach(this);
+        synchronized (this.reactorLock) {
+            this.sharedReactor = assigned;
+            this.reactor = assigned.getReactor();
+            this.reactorScheduler = assigned.getDispatcher();
+        }
+
+        this.timingWheel.onReactorRestart();
+    }
+
+    // a Reactor of its own is stopped - from a shared Reactor, only the connection of this factory leaves
+    private void stopReactor() {
+        if (this.reactorGroup == null) {
+            this.getReactor().stop();
+            return;
+        }
+
+        try {
+            this.scheduleOnReactorThread(new DispatchHandler() {
+                @Override
+                public void onEvent() {
+                    leaveReactorGroup();
+                }
+            });
+        } catch (IOException | RejectedExecutionException schedulerException) {
+            this.leaveReactorGroup();
+        }
+    }
+
+    private void leaveReactorGroup() {
+        if (this.connection != null && this.connection.getLocalState() != EndpointState.CLOSED) {
+            this.connection.close();
+        }
+
+        this.reactorGroup.detach(this.sharedReactor, this);
+        this.onReactorStopped();
+    }
+
+    private void onReactorStopped() {
+        if (this.getIsClosingOrClosed() && !this.closeTask.isDone()) {
+            this.closeTask.complete(null);
+
+            if (this.closeTimer != null)
+                this.closeTimer.cancel(false);
+        }
+    }
+
     public CBSChannel getCBSChannel() {
         synchronized (this.cbsChannelCreateLock) {
             if (this.cbsChannel == null) {
@@ -161,6 +253,10 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
             this.connection = this.getReactor().connectionToHost(this.hostName, ClientConstants.AMQPS_PORT, this.connectionHandler);
         }
 
+        if (this.sessionPool != null) {
+            return this.sessionPool.getSession(this.connection, path, onRemoteSessionOpen, onRemoteSessionOpenError);
+        }
+
         final Session session = this.connection.session();
         BaseHandler.setHandler(session, new SessionHandler(path, onRemoteSessionOpen, onRemoteSessionOpenError));
         session.open();
@@ -192,11 +288,49 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
             final RetryPolicy retryPolicy,
             final Executor executor,
             final ReactorFactory reactorFactory) throws IOException {
+        return createFromConnectionString(connectionString, retryPolicy, executor, reactorFactory, new BufferPool());
+    }
+
+    public static CompletableFuture<MessagingFactory> createFromConnectionString(
+            final String connectionString,
+            final RetryPolicy retryPolicy,
+            final Executor executor,
+            final ReactorFactory reactorFactory,
+            final BufferPool bufferPool) throws IOException {
+        return createFromConnectionString(connectionString, retryPolicy, executor, reactorFactory, bufferPool, null);
+    }
+
+    public static CompletableFuture<MessagingFactory> createFromConnectionString(
+            final String connectionString,
+            final RetryPolicy retryPolicy,
+            final Executor executor,
+            final ReactorFactory reactorFactory,
+            final BufferPool bufferPool,
+            final ReactorGroupImpl reactorGroup) throws IOException {
+        return createFromConnectionString(connectionString, retryPolicy, executor, reactorFactory, bufferPool, reactorGroup, 0);
+    }
+
+    // sessionCount: the number of sessions the links of the connection are multiplexed over - 0, for a session per link
+    public static CompletableFuture<MessagingFactory> createFromConnectionString(
+            final String connectionString,
+            final RetryPolicy retryPolicy,
+            final Executor executor,
+            final ReactorFactory reactorFactory,
+            final BufferPool bufferPool,
+            final ReactorGroupImpl reactorGroup,
+            final int sessionCount) throws IOException {
+        if (bufferPool == null) {
+            throw new IllegalArgumentException("bufferPool cannot be null");
+        }
+
         final ConnectionStringBuilder builder = new ConnectionStringBuilder(connectionString);
         final MessagingFactory messagingFactory = new MessagingFactory(builder,
                 (retryPolicy != null) ? retryPolicy : RetryPolicy.getDefault(),
                 executor,
-                reactorFactory);
+                reactorFactory,
+                bufferPool,
+                reactorGroup,
+                sessionCount);
 
         messagingFactory.createConnection();
 
@@ -207,7 +341,7 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
                                                 public void run() {
                                                     if (!messagingFactory.open.isDone()) {
                                                         messagingFactory.open.completeExceptionally(new TimeoutException("Opening MessagingFactory timed out."));
-                                                        messagingFactory.getReactor().stop();
+                                                        messagingFactory.stopReactor();
                                                     }
                                                 }
                                             },
@@ -218,7 +352,7 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
                 (unUsed, exception) -> {
                     if (exception != null && !(exception instanceof CancellationException)) {
                         messagingFactory.open.completeExceptionally(exception);
-                        messagingFactory.getReactor().stop();
+                        messagingFactory.stopReactor();
                     }
                 }, messagingFactory.executor);
 
@@ -245,7 +379,7 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
     public void onConnectionError(ErrorCondition error) {
 
         if (!this.open.isDone()) {
-            this.getReactor().stop();
+            this.stopReactor();
             this.onOpenComplete(ExceptionUtil.toException(error));
         } else {
             final Connection currentConnection = this.connection;
@@ -277,11 +411,11 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
         }
 
         if (this.getIsClosingOrClosed() && !this.closeTask.isDone()) {
-            this.getReactor().stop();
+            this.stopReactor();
         }
     }
 
-    private void onReactorError(Exception cause) {
+    void onReactorError(Exception cause) {
         if (!this.open.isDone()) {
             this.onOpenComplete(cause);
         } else {
@@ -289,11 +423,16 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
 
             try {
                 if (this.getIsClosingOrClosed()) {
+                    if (this.reactorGroup != null) {
+                        this.reactorGroup.detach(this.sharedReactor, this);
+                        this.onReactorStopped();
+                    }
+
                     return;
-                } else {
+                } else if (this.reactorGroup == null || !this.reactorGroup.getIsClosed()) {
                     this.startReactor(new ReactorHandler());
                 }
-            } catch (IOException e) {
+            } catch (IOException | RejectedExecutionException e) {
 				TRACE_LOGGER.error(String.format(Locale.US, "messagingFactory[%s], hostName[%s], error[%s]",
 						this.getClientId(), this.getHostName(),
 						ExceptionUtil.toStackTraceString(e, "Re-starting reactor failed with error")));
@@ -321,14 +460,17 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
 
     @Override
     protected CompletableFuture<Void> onClose() {
-        if (!this.getIsClosed()) {
+        if (this.reactorGroup != null && this.reactorGroup.getIsClosed()) {
+            // the shared Reactor is gone - and the connection with it
+            this.closeTask.complete(null);
+        } else if (!this.getIsClosed()) {
                 final Timer timer = new Timer(this);
                 this.closeTimer = timer.schedule(new Runnable() {
                                                      @Override
                                                      public void run() {
                                                          if (!closeTask.isDone()) {
                                                              closeTask.completeExceptionally(new TimeoutException("Closing MessagingFactory timed out."));
-                                                             getReactor().stop();
+                                                             stopReactor();
                                                          }
                                                      }
                                                  },
@@ -497,12 +639,7 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
 
                 this.rctr.free();
 
-                if (getIsClosingOrClosed() && !closeTask.isDone()) {
-                    closeTask.complete(null);
-
-                    if (closeTimer != null)
-                        closeTimer.cancel(false);
-                }
+                onReactorStopped();
             }
         }
     }
@@ -510,11 +647,19 @@ public final class MessagingFactory extends ClientEntity implements AmqpConnecti
     @Override
     public void registerForConnectionError(Link link) {
         this.registeredLinks.add(link);
+        this.registeredLinkCount.incrementAndGet();
     }
 
     @Override
     public void deregisterForConnectionError(Link link) {
-        this.registeredLinks.remove(link);
+        if (this.registeredLinks.remove(link)) {
+            this.registeredLinkCount.decrementAndGet();
+        }
+    }
+
+    // registeredLinks is accessed only on the Reactor Thread - this count can be read from any thread
+    public int getRegisteredLinkCount() {
+        return this.registeredLinkCount.get();
     }
 
     public void scheduleOnReactorThread(final DispatchHandler handler) throws IOException, RejectedExecutionException {
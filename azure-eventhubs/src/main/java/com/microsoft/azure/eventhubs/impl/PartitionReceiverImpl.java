@@ -97,7 +97,12 @@ final class PartitionReceiverImpl extends ClientEntity implements ReceiverSettin
         return MessageReceiver.create(this.underlyingFactory,
                 StringUtil.getRandomString(),
                 String.format("%s/ConsumerGroups/%s/Partitions/%s", this.eventHubName, this.consumerGroupName, this.partitionId),
-                PartitionReceiverImpl.DEFAULT_PREFETCH_COUNT, this)
+                PartitionReceiverImpl.DEFAULT_PREFETCH_COUNT,
+                this.receiverOptions != null && this.receiverOptions.getOffHeapPrefetch(),
+                this.receiverOptions != null && this.receiverOptions.getPrefetchByteBudget() > 0
+                        ? new AdaptiveCredit(this.receiverOptions.getPrefetchByteBudget(), this.receiverOptions.getTargetLatency())
+                        : null,
+                this)
                 .thenAcceptAsync(new Consumer<MessageReceiver>() {
                     public void accept(MessageReceiver r) {
                         PartitionReceiverImpl.this.internalReceiver = r;
@@ -105,6 +110,10 @@ final class PartitionReceiverImpl extends ClientEntity implements ReceiverSettin
                 }, this.executor);
     }
 
+    final MessageReceiver getInternalReceiver() {
+        return this.internalReceiver;
+    }
+
     final EventPosition getStartingPosition() {
         return this.eventPosition;
     }
@@ -147,28 +156,33 @@ final class PartitionReceiverImpl extends ClientEntity implements ReceiverSettin
         return this.internalReceiver.receive(maxEventCount).thenApplyAsync(new Function<Collection<Message>, Iterable<EventData>>() {
             @Override
             public Iterable<EventData> apply(Collection<Message> amqpMessages) {
-                PassByRef<Message> lastMessageRef = null;
-                if (PartitionReceiverImpl.this.receiverOptions != null && PartitionReceiverImpl.this.receiverOptions.getReceiverRuntimeMetricEnabled())
-                    lastMessageRef = new PassByRef<>();
+                return PartitionReceiverImpl.this.toEventDataCollection(amqpMessages);
+            }
+        }, this.executor);
+    }
 
-                final Iterable<EventData> events = EventDataUtil.toEventDataCollection(amqpMessages, lastMessageRef);
+    private Iterable<EventData> toEventDataCollection(final Collection<Message> amqpMessages) {
+        PassByRef<Message> lastMessageRef = null;
+        if (this.receiverOptions != null && this.receiverOptions.getReceiverRuntimeMetricEnabled())
+            lastMessageRef = new PassByRef<>();
 
-                if (lastMessageRef != null && lastMessageRef.get() != null) {
+        final Iterable<EventData> events = EventDataUtil.toEventDataCollection(amqpMessages, lastMessageRef, this.partitionId,
+                this.receiverOptions != null && this.receiverOptions.getPayloadDecoding());
 
-                    final DeliveryAnnotations deliveryAnnotations = lastMessageRef.get().getDeliveryAnnotations();
-                    if (deliveryAnnotations != null && deliveryAnnotations.getValue() != null) {
+        if (lastMessageRef != null && lastMessageRef.get() != null) {
 
-                        final Map<Symbol, Object> deliveryAnnotationsMap = deliveryAnnotations.getValue();
-                        PartitionReceiverImpl.this.runtimeInformation.setRuntimeInformation(
-                                (long) deliveryAnnotationsMap.get(ClientConstants.LAST_ENQUEUED_SEQUENCE_NUMBER),
-                                ((Date) deliveryAnnotationsMap.get(ClientConstants.LAST_ENQUEUED_TIME_UTC)).toInstant(),
-                                (String) deliveryAnnotationsMap.get(ClientConstants.LAST_ENQUEUED_OFFSET));
-                    }
-                }
+            final DeliveryAnnotations deliveryAnnotations = lastMessageRef.get().getDeliveryAnnotations();
+            if (deliveryAnnotations != null && deliveryAnnotations.getValue() != null) {
 
-                return events;
+                final Map<Symbol, Object> deliveryAnnotationsMap = deliveryAnnotations.getValue();
+                this.runtimeInformation.setRuntimeInformation(
+                        (long) deliveryAnnotationsMap.get(ClientConstants.LAST_ENQUEUED_SEQUENCE_NUMBER),
+                        ((Date) deliveryAnnotationsMap.get(ClientConstants.LAST_ENQUEUED_TIME_UTC)).toInstant(),
+                        (String) deliveryAnnotationsMap.get(ClientConstants.LAST_ENQUEUED_OFFSET));
             }
-        }, this.executor);
+        }
+
+        return events;
     }
 
     public CompletableFuture<Void> setReceiveHandler(final PartitionReceiveHandler receiveHandler) {
@@ -182,11 +196,19 @@ final class PartitionReceiverImpl extends ClientEntity implements ReceiverSettin
                 if (this.receivePump != null && this.receivePump.isRunning()) {
                     return this.receivePump.stop();
                 }
+
+                if (this.internalReceiver.hasPushHandler()) {
+                    return this.internalReceiver.setPushHandler(null);
+                }
             } else {
-                if (this.receivePump != null && this.receivePump.isRunning())
+                if ((this.receivePump != null && this.receivePump.isRunning()) || this.internalReceiver.hasPushHandler())
                     throw new IllegalArgumentException(
                             "Unexpected value for parameter 'receiveHandler'. PartitionReceiver was already registered with a PartitionReceiveHandler instance. Only 1 instance can be registered.");
 
+                if (this.receiverOptions != null && this.receiverOptions.getPushReceiveHandler()) {
+                    return this.internalReceiver.setPushHandler(this.createPushReceiveHandler(receiveHandler, invokeWhenNoEvents));
+                }
+
                 this.receivePump = new ReceivePump(
                         new ReceivePump.IPartitionReceiver() {
                             @Override
@@ -216,6 +238,39 @@ final class PartitionReceiverImpl extends ClientEntity implements ReceiverSettin
         }
     }
 
+    private PushReceiveHandler createPushReceiveHandler(final PartitionReceiveHandler receiveHandler, final boolean invokeWhenNoEvents) {
+        final Executor handlerExecutor = this.receiverOptions.getReceiveHandlerExecutor() != null
+                ? this.receiverOptions.getReceiveHandlerExecutor()
+                : this.executor;
+
+        return new PushReceiveHandler() {
+            @Override
+            public int getMaxMessageCount() {
+                return receiveHandler.getMaxEventCount();
+            }
+
+            @Override
+            public boolean getInvokeWhenNoMessages() {
+                return invokeWhenNoEvents;
+            }
+
+            @Override
+            public Executor getExecutor() {
+                return handlerExecutor;
+            }
+
+            @Override
+            public void onReceive(Collection<Message> messages) {
+                receiveHandler.onReceive(messages == null ? null : PartitionReceiverImpl.this.toEventDataCollection(messages));
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                receiveHandler.onError(error);
+            }
+        };
+    }
+
     @Override
     public CompletableFuture<Void> onClose() {
         if (this.receivePump != null && this.receivePump.isRunning()) {
@@ -15,22 +15,35 @@ final class PartitionSenderImpl extends ClientEntity implements PartitionSender
     private final String partitionId;
     private final String eventHubName;
     private final MessagingFactory factory;
+    private final SenderOptions senderOptions;
+    private final PayloadCodec payloadCodec;
 
     private MessageSender internalSender;
 
-    private PartitionSenderImpl(final MessagingFactory factory, final String eventHubName, final String partitionId, final Executor executor) {
+    private PartitionSenderImpl(final MessagingFactory factory, final String eventHubName, final String partitionId,
+                                final SenderOptions senderOptions, final Executor executor) {
         super(null, null, executor);
 
         this.partitionId = partitionId;
         this.eventHubName = eventHubName;
         this.factory = factory;
+        this.senderOptions = senderOptions;
+        this.payloadCodec = senderOptions == null ? null : senderOptions.payloadCodec;
     }
 
     static CompletableFuture<PartitionSender> Create(final MessagingFactory factory,
                                                          final String eventHubName,
                                                          final String partitionId,
                                                          final Executor executor) throws EventHubException {
-        final PartitionSenderImpl sender = new PartitionSenderImpl(factory, eventHubName, partitionId, executor);
+        return Create(factory, eventHubName, partitionId, null, executor);
+    }
+
+    static CompletableFuture<PartitionSender> Create(final MessagingFactory factory,
+                                                         final String eventHubName,
+                                                         final String partitionId,
+                                                         final SenderOptions senderOptions,
+                                                         final Executor executor) throws EventHubException {
+        final PartitionSenderImpl sender = new PartitionSenderImpl(factory, eventHubName, partitionId, senderOptions, executor);
         return sender.createInternalSender()
                 .thenApplyAsync(new Function<Void, PartitionSender>() {
                     public PartitionSender apply(Void a) {
@@ -41,7 +54,7 @@ final class PartitionSenderImpl extends ClientEntity implements PartitionSender
 
     private CompletableFuture<Void> createInternalSender() throws EventHubException {
         return MessageSender.create(this.factory, StringUtil.getRandomString(),
-                String.format("%s/Partitions/%s", this.eventHubName, this.partitionId))
+                String.format("%s/Partitions/%s", this.eventHubName, this.partitionId), this.senderOptions)
                 .thenAcceptAsync(new Consumer<MessageSender>() {
                     public void accept(MessageSender a) {
                         PartitionSenderImpl.this.internalSender = a;
@@ -62,7 +75,7 @@ final class PartitionSenderImpl extends ClientEntity implements PartitionSender
         int maxSize = this.internalSender.getMaxMessageSize();
 
         if (options.maxMessageSize == null) {
-            return new EventDataBatchImpl(maxSize, null);
+            return new EventDataBatchImpl(maxSize, null, this.payloadCodec);
         }
 
         if (options.maxMessageSize > maxSize) {
@@ -70,11 +83,11 @@ final class PartitionSenderImpl extends ClientEntity implements PartitionSender
                     options.maxMessageSize + ". The maximum allowed size is " + maxSize + ".");
         }
 
-        return new EventDataBatchImpl(options.maxMessageSize, null);
+        return new EventDataBatchImpl(options.maxMessageSize, null, this.payloadCodec);
     }
 
     public final CompletableFuture<Void> send(EventData data) {
-        return this.internalSender.send(((EventDataImpl) data).toAmqpMessage());
+        return this.internalSender.send(((EventDataImpl) data).toAmqpMessage(null, this.payloadCodec));
     }
 
     public final CompletableFuture<Void> send(Iterable<EventData> eventDatas) {
@@ -82,7 +95,7 @@ final class PartitionSenderImpl extends ClientEntity implements PartitionSender
             throw new IllegalArgumentException("EventData batch cannot be empty.");
         }
 
-        return this.internalSender.send(EventDataUtil.toAmqpMessages(eventDatas));
+        return this.internalSender.send(EventDataUtil.toAmqpMessages(eventDatas, null, this.payloadCodec));
     }
 
     public final CompletableFuture<Void> send(EventDataBatch eventDatas) {
@@ -95,7 +108,8 @@ final class PartitionSenderImpl extends ClientEntity implements PartitionSender
             "continue using PartitionSenderImpl with EventDataBatches, then please do not set a partition key in your BatchOptions");
         }
 
-        return this.internalSender.send(EventDataUtil.toAmqpMessages(((EventDataBatchImpl) eventDatas).getInternalIterable()));
+        final EventDataBatchImpl eventDataBatch = (EventDataBatchImpl) eventDatas;
+        return this.internalSender.send(eventDataBatch.seal(), eventDataBatch.getEncodedSize(), AmqpConstants.AMQP_BATCH_MESSAGE_FORMAT);
     }
 
     @Override
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.microsoft.azure.eventhubs.BufferedProducer;
+import com.microsoft.azure.eventhubs.EventData;
+import com.microsoft.azure.eventhubs.PartitionedEventHubSender;
+
+/**
+ * Holds one {@link BufferedProducer} per partition - each on its own partition link - and routes every {@link EventData} to one of them.
+ */
+final class PartitionedEventHubSenderImpl extends ClientEntity implements PartitionedEventHubSender {
+
+    private final String[] partitionIds;
+    private final BufferedProducer[] partitionProducers;
+    private final AtomicInteger nextPartition;
+
+    PartitionedEventHubSenderImpl(final String[] partitionIds, final BufferedProducer[] partitionProducers, final Executor executor) {
+        super(StringUtil.getRandomString(), null, executor);
+
+        this.partitionIds = partitionIds;
+        this.partitionProducers = partitionProducers;
+        this.nextPartition = new AtomicInteger();
+    }
+
+    @Override
+    public String[] getPartitionIds() {
+        return this.partitionIds.clone();
+    }
+
+    @Override
+    public CompletableFuture<Void> send(final EventData data) {
+        if (data == null) {
+            throw new IllegalArgumentException("EventData cannot be null.");
+        }
+
+        this.throwIfClosed();
+
+        final int partitionIndex = (this.nextPartition.getAndIncrement() & Integer.MAX_VALUE) % this.partitionProducers.length;
+        return this.partitionProducers[partitionIndex].send(data);
+    }
+
+    @Override
+    public CompletableFuture<Void> send(final EventData data, final String partitionKey) {
+        if (data == null) {
+            throw new IllegalArgumentException("EventData cannot be null.");
+        }
+
+        if (partitionKey == null) {
+            throw new IllegalArgumentException("partitionKey cannot be null");
+        }
+
+        this.throwIfClosed();
+
+        final int partitionIndex = (partitionKey.hashCode() & Integer.MAX_VALUE) % this.partitionProducers.length;
+        return this.partitionProducers[partitionIndex].send(data);
+    }
+
+    @Override
+    public CompletableFuture<Void> flush() {
+        final CompletableFuture<?>[] flushes = new CompletableFuture<?>[this.partitionProducers.length];
+        for (int index = 0; index < this.partitionProducers.length; index++) {
+            flushes[index] = this.partitionProducers[index].flush();
+        }
+
+        return CompletableFuture.allOf(flushes);
+    }
+
+    @Override
+    protected CompletableFuture<Void> onClose() {
+        return closeAll(this.partitionProducers);
+    }
+
+    static CompletableFuture<Void> closeAll(final BufferedProducer[] partitionProducers) {
+        final CompletableFuture<?>[] closes = new CompletableFuture<?>[partitionProducers.length];
+        for (int index = 0; index < partitionProducers.length; index++) {
+            closes[index] = partitionProducers[index] == null
+                    ? CompletableFuture.completedFuture(null)
+                    : partitionProducers[index].close();
+        }
+
+        return CompletableFuture.allOf(closes);
+    }
+}
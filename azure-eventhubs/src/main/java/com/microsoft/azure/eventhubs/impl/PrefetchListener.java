@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+// listener of a MessageReceiver whose prefetch is drained by a consumer using MessageReceiver.pollPrefetchedMessage()
+interface PrefetchListener {
+    // invoked on the reactor thread whenever a message is added to the prefetch
+    void onPrefetched();
+
+    // invoked on the reactor thread when the link fails beyond retries
+    void onError(Exception error);
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+
+import org.apache.qpid.proton.codec.WritableBuffer;
+import org.apache.qpid.proton.engine.Receiver;
+
+/**
+ * Ring of raw delivery bytes held in direct memory - as length-prefixed frames, in the order they were received.
+ * Frames are copied off the link without an intermediate heap copy, and are only handed out (and decoded) when they are polled.
+ * The ring starts small and doubles in capacity when a frame does not fit, up to the prefetch it holds - so a receiver whose prefetch
+ * is never filled does not reserve direct memory for all of it. A drained ring keeps its buffer for the next deliveries, and only goes
+ * back to its initial capacity when it has grown well beyond it - so a burst does not hold on to direct memory either.
+ * <p>
+ * CONTRACT: all methods other than {@link #size()} are to be called on the reactor thread.
+ */
+final class PrefetchRing {
+    private static final int FRAME_HEADER_SIZE = 4;
+    private static final int MIN_CAPACITY = 1024;
+    private static final int DEFAULT_INITIAL_CAPACITY = 64 * 1024;
+    // a drained ring which grew beyond this multiple of its initial capacity goes back to the initial capacity
+    private static final int SHRINK_FACTOR = 4;
+    // the largest direct buffer the JVM can reliably allocate
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final int initialCapacity;
+    private final int maxCapacity;
+    private ByteBuffer buffer;
+    private int head;
+    private int usedBytes;
+    private volatile int frameCount;
+
+    // maxCapacity is the size of the prefetch - the ring only grows beyond it for a frame which would not fit otherwise
+    PrefetchRing(final int maxCapacity) {
+        this(DEFAULT_INITIAL_CAPACITY, maxCapacity);
+    }
+
+    PrefetchRing(final int initialCapacity, final int maxCapacity) {
+        this.maxCapacity = Math.min(Math.max(maxCapacity, MIN_CAPACITY), MAX_CAPACITY);
+        this.initialCapacity = Math.min(Math.max(initialCapacity, MIN_CAPACITY), this.maxCapacity);
+        this.buffer = ByteBuffer.allocateDirect(this.initialCapacity);
+    }
+
+    int size() {
+        return this.frameCount;
+    }
+
+    boolean isEmpty() {
+        return this.frameCount == 0;
+    }
+
+    int capacity() {
+        return this.buffer.capacity();
+    }
+
+    void clear() {
+        this.head = 0;
+        this.usedBytes = 0;
+        this.frameCount = 0;
+
+        if (this.buffer.capacity() / SHRINK_FACTOR >= this.initialCapacity) {
+            // the grown buffer is freed along with its ByteBuffer
+            this.buffer = ByteBuffer.allocateDirect(this.initialCapacity);
+        }
+    }
+
+    // reads the pending bytes of the current delivery on the link into the ring
+    void offer(final Receiver link, final int pending) {
+        this.ensureCapacity(FRAME_HEADER_SIZE + pending);
+
+        final int headerPosition = this.wrap(this.head + this.usedBytes);
+        int tail = this.wrap(headerPosition + FRAME_HEADER_SIZE);
+        int length = 0;
+        while (length < pending) {
+            final ByteBuffer region = this.buffer.duplicate();
+            ((Buffer) region).limit(tail + Math.min(pending - length, this.buffer.capacity() - tail));
+            ((Buffer) region).position(tail);
+
+            final int read = link.recv(new WritableBuffer.ByteBufferWrapper(region));
+            if (read <= 0) {
+                break;
+            }
+
+            length += read;
+            tail = this.wrap(tail + read);
+        }
+
+        int position = headerPosition;
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            this.buffer.put(position, (byte) (length >>> shift));
+            position = this.wrap(position + 1);
+        }
+
+        this.usedBytes += FRAME_HEADER_SIZE + length;
+        this.frameCount++;
+    }
+
+    // copies the oldest frame out of the ring - null if the ring is empty
+    byte[] poll() {
+        if (this.frameCount == 0) {
+            return null;
+        }
+
+        int length = 0;
+        for (int index = 0; index < FRAME_HEADER_SIZE; index++) {
+            length = (length << 8) | (this.buffer.get(this.head) & 0xff);
+            this.head = this.wrap(this.head + 1);
+        }
+
+        final byte[] frame = new byte[length];
+        this.copyTo(this.head, frame, length);
+
+        this.head = this.wrap(this.head + length);
+        this.usedBytes -= FRAME_HEADER_SIZE + length;
+        this.frameCount--;
+
+        if (this.frameCount == 0) {
+            this.clear();
+        }
+
+        return frame;
+    }
+
+    private void ensureCapacity(final int required) {
+        if (this.buffer.capacity() - this.usedBytes >= required) {
+            return;
+        }
+
+        final ByteBuffer newBuffer = ByteBuffer.allocateDirect(grownCapacity(this.buffer.capacity(), this.usedBytes, required, this.maxCapacity));
+
+        // direct to direct - the frames are laid out from the start of the new buffer, unwrapped
+        final int firstChunk = Math.min(this.usedBytes, this.buffer.capacity() - this.head);
+        final ByteBuffer region = this.buffer.duplicate();
+        ((Buffer) region).limit(this.head + firstChunk);
+        ((Buffer) region).position(this.head);
+        newBuffer.put(region);
+
+        if (firstChunk < this.usedBytes) {
+            ((Buffer) region).position(0);
+            ((Buffer) region).limit(this.usedBytes - firstChunk);
+            newBuffer.put(region);
+        }
+
+        this.buffer = newBuffer;
+        this.head = 0;
+    }
+
+    // doubles the capacity up to maxCapacity - or to what the frames need, if more
+    static int grownCapacity(final int capacity, final int usedBytes, final int required, final int maxCapacity) {
+        final long neededCapacity = (long) usedBytes + required;
+        if (neededCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException(String.format(Locale.US,
+                    "prefetched deliveries exceed the maximum size of the prefetch ring: usedBytes[%s], required[%s]", usedBytes, required));
+        }
+
+        return (int) Math.max(Math.min((long) capacity * 2, Math.max(maxCapacity, capacity)), neededCapacity);
+    }
+
+    private void copyTo(final int position, final byte[] destination, final int length) {
+        final int firstChunk = Math.min(length, this.buffer.capacity() - position);
+
+        final ByteBuffer region = this.buffer.duplicate();
+        ((Buffer) region).position(position);
+        region.get(destination, 0, firstChunk);
+
+        if (firstChunk < length) {
+            ((Buffer) region).position(0);
+            region.get(destination, firstChunk, length - firstChunk);
+        }
+    }
+
+    private int wrap(final int position) {
+        return position >= this.buffer.capacity() ? position - this.buffer.capacity() : position;
+    }
+}
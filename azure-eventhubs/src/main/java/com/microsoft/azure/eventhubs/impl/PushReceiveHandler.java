@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.util.Collection;
+import java.util.concurrent.Executor;
+
+import org.apache.qpid.proton.message.Message;
+
+// handler to which a MessageReceiver pushes the messages it receives - one batch at a time, in order
+interface PushReceiveHandler {
+    int getMaxMessageCount();
+
+    // whether onReceive should be invoked with null, when no messages arrive within the receive timeout
+    boolean getInvokeWhenNoMessages();
+
+    Executor getExecutor();
+
+    // invoked on the executor - never concurrently for a MessageReceiver
+    void onReceive(Collection<Message> messages);
+
+    // invoked when the link fails beyond retries - no more messages are pushed after this
+    void onError(Throwable error);
+}
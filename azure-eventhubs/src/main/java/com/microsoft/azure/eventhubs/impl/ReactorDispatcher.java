@@ -5,11 +5,13 @@
 package com.microsoft.azure.eventhubs.impl;
 
 import java.io.IOException;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.Pipe;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.qpid.proton.engine.BaseHandler;
 import org.apache.qpid.proton.engine.Event;
@@ -26,18 +28,26 @@ import org.apache.qpid.proton.reactor.Selectable.Callback;
  * It uses a {@link Pipe} as the IO on which Reactor Listens to.
  * Cardinality: multiple {@link ReactorDispatcher}'s could be attached to 1 {@link Reactor}.
  * Each {@link ReactorDispatcher} should be initialized Synchronously - as it calls API in {@link Reactor} which is not thread-safe.
+ * The {@link Pipe} is only signaled when the workQueue goes from empty to non-empty - work queued while the Reactor has yet to drain the workQueue
+ * rides on the signal which is already pending.
  */
 public final class ReactorDispatcher {
     private final Reactor reactor;
     private final Pipe ioSignal;
     private final ConcurrentLinkedQueue<BaseHandler> workQueue;
     private final ScheduleHandler workScheduler;
+    private final AtomicBoolean isSignalPending;
+    private final ByteBuffer signalBuffer;
+    private final ByteBuffer drainBuffer;
 
     public ReactorDispatcher(final Reactor reactor) throws IOException {
         this.reactor = reactor;
         this.ioSignal = Pipe.open();
         this.workQueue = new ConcurrentLinkedQueue<>();
         this.workScheduler = new ScheduleHandler();
+        this.isSignalPending = new AtomicBoolean();
+        this.signalBuffer = ByteBuffer.allocate(1);
+        this.drainBuffer = ByteBuffer.allocate(1024);
 
         initializeSelectable();
     }
@@ -56,15 +66,37 @@ public final class ReactorDispatcher {
     public void invoke(final DispatchHandler timerCallback) throws IOException, RejectedExecutionException {
         this.throwIfSchedulerError();
 
-        this.workQueue.offer(timerCallback);
-        this.signalWorkQueue();
+        final boolean isCoalescing = timerCallback instanceof CoalescingDispatchHandler;
+        if (isCoalescing && !((CoalescingDispatchHandler) timerCallback).tryQueue()) {
+            return;
+        }
+
+        try {
+            this.queueWork(timerCallback);
+        } catch (IOException | RejectedExecutionException schedulerException) {
+            // the work will never run - let the next invoke queue it again (possibly on a recreated dispatcher)
+            if (isCoalescing) {
+                ((CoalescingDispatchHandler) timerCallback).onQueueFailed();
+            }
+
+            throw schedulerException;
+        }
     }
 
     public void invoke(final int delay, final DispatchHandler timerCallback) throws IOException, RejectedExecutionException {
         this.throwIfSchedulerError();
 
-        this.workQueue.offer(new DelayHandler(this.reactor, delay, timerCallback));
-        this.signalWorkQueue();
+        this.queueWork(new DelayHandler(this.reactor, delay, timerCallback));
+    }
+
+    private void queueWork(final BaseHandler work) throws IOException, RejectedExecutionException {
+        this.workQueue.offer(work);
+        try {
+            this.signalWorkQueue();
+        } catch (IOException | RejectedExecutionException schedulerException) {
+            this.workQueue.remove(work);
+            throw schedulerException;
+        }
     }
 
     private void throwIfSchedulerError() {
@@ -76,10 +108,24 @@ public final class ReactorDispatcher {
     }
 
     private void signalWorkQueue() throws IOException {
+        if (!this.isSignalPending.compareAndSet(false, true)) {
+            return;
+        }
+
         try {
-            while (this.ioSignal.sink().write(ByteBuffer.allocate(1)) == 0) {
+            synchronized (this.signalBuffer) {
+                ((Buffer) this.signalBuffer).clear();
+                while (this.ioSignal.sink().write(this.signalBuffer) == 0) {
+                }
             }
-        } catch (ClosedChannelException ignorePipeClosedDuringReactorShutdown) {
+        } catch (ClosedChannelException pipeClosedDuringReactorShutdown) {
+            // the Reactor is gone and already drained the workQueue - the work would sit there forever
+            this.isSignalPending.set(false);
+            throw new RejectedExecutionException("ReactorDispatcher instance is closed.", pipeClosedDuringReactorShutdown);
+        } catch (IOException ioException) {
+            // the signal never made it to the Reactor - let the next invoke signal again
+            this.isSignalPending.set(false);
+            throw ioException;
         }
     }
 
@@ -104,12 +150,16 @@ public final class ReactorDispatcher {
         @Override
         public void run(Selectable selectable) {
             try {
-                ioSignal.source().read(ByteBuffer.allocate(1024));
+                ((Buffer) drainBuffer).clear();
+                ioSignal.source().read(drainBuffer);
             } catch (ClosedChannelException ignorePipeClosedDuringReactorShutdown) {
             } catch (IOException ioException) {
                 throw new RuntimeException(ioException);
             }
 
+            // cleared before the workQueue is drained - work queued from here on signals again
+            isSignalPending.set(false);
+
             BaseHandler topWork;
             while ((topWork = workQueue.poll()) != null) {
                 topWork.onTimerTask(null);
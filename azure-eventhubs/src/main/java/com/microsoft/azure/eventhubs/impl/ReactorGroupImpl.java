@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.microsoft.azure.eventhubs.EventHubException;
+import com.microsoft.azure.eventhubs.OperationCancelledException;
+import com.microsoft.azure.eventhubs.ReactorGroup;
+import org.apache.qpid.proton.engine.HandlerException;
+import org.apache.qpid.proton.reactor.Reactor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a fixed number of {@link Reactor}s - each shared by the connections of any number of {@link MessagingFactory}s.
+ * Each {@link SharedReactor} has one {@link ReactorDispatcher}, which all its {@link MessagingFactory}s schedule their work on.
+ * If a {@link Reactor} fails, it is replaced by a new one - and all its {@link MessagingFactory}s are notified, on the new {@link Reactor},
+ * the same way they are when a {@link Reactor} of their own fails.
+ */
+public final class ReactorGroupImpl implements ReactorGroup {
+    private static final Logger TRACE_LOGGER = LoggerFactory.getLogger(ReactorGroupImpl.class);
+
+    private final SharedReactor[] sharedReactors;
+    private final Executor executor;
+    private final CompletableFuture<Void> closeTask;
+    private final Object attachLock;
+
+    private volatile boolean isClosed;
+
+    public ReactorGroupImpl(final int reactorCount, final Executor executor) throws IOException {
+        if (reactorCount < 1) {
+            throw new IllegalArgumentException("reactorCount should be at least 1");
+        }
+
+        if (executor == null) {
+            throw new IllegalArgumentException("executor cannot be null");
+        }
+
+        this.executor = executor;
+        this.closeTask = new CompletableFuture<>();
+        this.attachLock = new Object();
+        this.sharedReactors = new SharedReactor[reactorCount];
+        for (int index = 0; index < reactorCount; index++) {
+            this.sharedReactors[index] = new SharedReactor(index);
+        }
+
+        for (SharedReactor sharedReactor : this.sharedReactors) {
+            sharedReactor.start();
+        }
+    }
+
+    @Override
+    public int getReactorCount() {
+        return this.sharedReactors.length;
+    }
+
+    @Override
+    public int getConnectionCount() {
+        synchronized (this.attachLock) {
+            int connectionCount = 0;
+            for (SharedReactor sharedReactor : this.sharedReactors) {
+                connectionCount += sharedReactor.factories.size();
+            }
+
+            return connectionCount;
+        }
+    }
+
+    boolean getIsClosed() {
+        return this.isClosed;
+    }
+
+    // a factory which is already attached keeps its SharedReactor - others get the one with the fewest factories
+    SharedReactor attach(final MessagingFactory factory) {
+        synchronized (this.attachLock) {
+            if (this.isClosed) {
+                throw new RejectedExecutionException("ReactorGroup is closed");
+            }
+
+            SharedReactor leastLoaded = null;
+            for (SharedReactor sharedReactor : this.sharedReactors) {
+                if (sharedReactor.factories.contains(factory)) {
+                    return sharedReactor;
+                }
+
+                if (leastLoaded == null || sharedReactor.factories.size() < leastLoaded.factories.size()) {
+                    leastLoaded = sharedReactor;
+                }
+            }
+
+            leastLoaded.factories.add(factory);
+            return leastLoaded;
+        }
+    }
+
+    void detach(final SharedReactor sharedReactor, final MessagingFactory factory) {
+        synchronized (this.attachLock) {
+            sharedReactor.factories.remove(factory);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> close() {
+        synchronized (this.attachLock) {
+            if (this.isClosed) {
+                return this.closeTask;
+            }
+
+            this.isClosed = true;
+        }
+
+        final CompletableFuture<?>[] stops = new CompletableFuture<?>[this.sharedReactors.length];
+        for (int index = 0; index < this.sharedReactors.length; index++) {
+            stops[index] = this.sharedReactors[index].stop();
+        }
+
+        CompletableFuture.allOf(stops).whenComplete((unused, error) -> this.closeTask.complete(null));
+        return this.closeTask;
+    }
+
+    final class SharedReactor {
+        private final int index;
+        private final List<MessagingFactory> factories;
+        private final CompletableFuture<Void> stopped;
+
+        private volatile Reactor reactor;
+        private volatile ReactorDispatcher dispatcher;
+
+        SharedReactor(final int index) throws IOException {
+            this.index = index;
+            this.factories = new LinkedList<>();
+            this.stopped = new CompletableFuture<>();
+            this.createReactor();
+        }
+
+        Reactor getReactor() {
+            return this.reactor;
+        }
+
+        ReactorDispatcher getDispatcher() {
+            return this.dispatcher;
+        }
+
+        private void createReactor() throws IOException {
+            final ReactorHandler reactorHandler = new ReactorHandler();
+            final Reactor newReactor = ProtonUtil.reactor(reactorHandler);
+            this.dispatcher = new ReactorDispatcher(newReactor);
+            reactorHandler.unsafeSetReactorDispatcher(this.dispatcher);
+            this.reactor = newReactor;
+        }
+
+        private void start() {
+            executor.execute(new RunSharedReactor(this.reactor));
+        }
+
+        private CompletableFuture<Void> stop() {
+            try {
+                this.dispatcher.invoke(new DispatchHandler() {
+                    @Override
+                    public void onEvent() {
+                        SharedReactor.this.reactor.stop();
+                    }
+                });
+            } catch (IOException | RejectedExecutionException schedulerException) {
+                this.stopped.complete(null);
+            }
+
+            return this.stopped;
+        }
+
+        private List<MessagingFactory> getFactories() {
+            synchronized (attachLock) {
+                return new LinkedList<>(this.factories);
+            }
+        }
+
+        // the factories learn about the failure on the new Reactor - so that, like with a Reactor of their own, they recover on the Reactor thread
+        private void restart(final Exception cause) {
+            try {
+                this.createReactor();
+            } catch (IOException ioException) {
+                TRACE_LOGGER.error(String.format(Locale.US, "reactorGroup, reactor[%s], error[%s]", this.index,
+                        ExceptionUtil.toStackTraceString(ioException, "Re-starting shared reactor failed with error")));
+
+                this.onStopped(cause);
+                return;
+            }
+
+            for (final MessagingFactory factory : this.getFactories()) {
+                try {
+                    this.dispatcher.invoke(new DispatchHandler() {
+                        @Override
+                        public void onEvent() {
+                            factory.onReactorError(cause);
+                        }
+                    });
+                } catch (IOException | RejectedExecutionException schedulerException) {
+                    factory.onReactorError(cause);
+                }
+            }
+
+            this.start();
+        }
+
+        // no Reactor left to run the factories on - they fail the way they do when their own Reactor can not be restarted
+        private void onStopped(final Exception cause) {
+            for (MessagingFactory factory : this.getFactories()) {
+                factory.onReactorError(cause);
+            }
+
+            this.stopped.complete(null);
+        }
+
+        private final class RunSharedReactor implements Runnable {
+            final private Reactor rctr;
+
+            volatile boolean hasStarted;
+
+            RunSharedReactor(final Reactor reactor) {
+                this.rctr = reactor;
+                this.hasStarted = false;
+            }
+
+            @Override
+            public void run() {
+                if (TRACE_LOGGER.isInfoEnabled() && !this.hasStarted) {
+                    TRACE_LOGGER.info(String.format(Locale.US, "reactorGroup, reactor[%s], info[%s]", index, "starting shared reactor instance."));
+                }
+
+                boolean reScheduledReactor = false;
+                Exception failure = null;
+
+                try {
+                    if (!this.hasStarted) {
+                        this.rctr.start();
+                        this.hasStarted = true;
+                    }
+
+                    if (!Thread.interrupted() && this.rctr.process()) {
+                        try {
+                            executor.execute(this);
+                            reScheduledReactor = true;
+                        } catch (RejectedExecutionException exception) {
+                            if (TRACE_LOGGER.isWarnEnabled()) {
+                                TRACE_LOGGER.warn(String.format(Locale.US, "reactorGroup, reactor[%s], error[%s]", index,
+                                        ExceptionUtil.toStackTraceString(exception, "scheduling shared reactor failed")));
+                            }
+
+                            this.rctr.attachments().set(RejectedExecutionException.class, RejectedExecutionException.class, exception);
+                        }
+
+                        return;
+                    }
+
+                    this.rctr.stop();
+                } catch (HandlerException handlerException) {
+                    if (TRACE_LOGGER.isWarnEnabled()) {
+                        TRACE_LOGGER.warn(String.format(Locale.US, "reactorGroup, reactor[%s], error[%s]", index,
+                                ExceptionUtil.toStackTraceString(handlerException, "UnHandled exception while processing events in shared reactor:")));
+                    }
+
+                    final Throwable cause = handlerException.getCause() == null ? handlerException : handlerException.getCause();
+                    failure = new EventHubException(
+                            true,
+                            String.format(Locale.US, "%s, %s", cause.getMessage() != null ? cause.getMessage() : "Reactor encountered unrecoverable error",
+                                    ExceptionUtil.getTrackingIDAndTimeToLog()),
+                            cause);
+                } finally {
+                    if (!reScheduledReactor) {
+                        this.rctr.free();
+
+                        if (isClosed) {
+                            SharedReactor.this.onStopped(new OperationCancelledException("the ReactorGroup of this connection is closed"));
+                        } else {
+                            SharedReactor.this.restart(failure != null
+                                    ? failure
+                                    : new EventHubException(true, "shared reactor stopped unexpectedly"));
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
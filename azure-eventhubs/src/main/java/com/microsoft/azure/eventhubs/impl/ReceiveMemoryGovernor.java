@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Accounts for the bytes held in the prefetch of every {@link MessageReceiver} in the process, across all {@link MessagingFactory} instances.
+ * <p>
+ * While the bytes held exceed the limit - or, when a heap usage threshold is set, while a heap pool stays above it after collection -
+ * receivers withhold the credit they would otherwise flow. As prefetched bytes are released, the withheld credit is granted back
+ * to the receivers with the most withheld credit first.
+ */
+public final class ReceiveMemoryGovernor {
+    private static final Logger TRACE_LOGGER = LoggerFactory.getLogger(ReceiveMemoryGovernor.class);
+    private static final ReceiveMemoryGovernor INSTANCE = new ReceiveMemoryGovernor(null);
+
+    private final AtomicLong heldBytes;
+    private final Set<Participant> withholding;
+    private final Object heapThresholdLock;
+    private final HeapUsage heapUsage;
+
+    private volatile long limit;
+    private volatile List<MemoryPoolMXBean> heapThresholdPools;
+    private volatile boolean heapThresholdExceeded;
+    private NotificationListener heapThresholdListener;
+
+    // @param heapUsage when null, heap usage is read from the heap memory pools - once a threshold is set by setHeapUsageThreshold
+    ReceiveMemoryGovernor(final HeapUsage heapUsage) {
+        this.heldBytes = new AtomicLong();
+        this.withholding = ConcurrentHashMap.newKeySet();
+        this.heapThresholdLock = new Object();
+        this.heapThresholdPools = Collections.emptyList();
+        this.heapUsage = heapUsage != null ? heapUsage : new HeapUsage() {
+            @Override
+            public boolean isThresholdExceeded() {
+                return ReceiveMemoryGovernor.this.isHeapThresholdExceeded();
+            }
+        };
+    }
+
+    public static ReceiveMemoryGovernor getInstance() {
+        return INSTANCE;
+    }
+
+    public long getLimit() {
+        return this.limit;
+    }
+
+    public void setLimit(final long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("limit cannot be negative");
+        }
+
+        this.limit = bytes;
+        this.rebalance();
+    }
+
+    public long getHeldBytes() {
+        return this.heldBytes.get();
+    }
+
+    public void setHeapUsageThreshold(final double fraction) {
+        if (fraction < 0 || fraction >= 1) {
+            throw new IllegalArgumentException("fraction should be in the range [0, 1)");
+        }
+
+        synchronized (this.heapThresholdLock) {
+            final List<MemoryPoolMXBean> pools = new ArrayList<>();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && pool.getUsage().getMax() > 0) {
+                    pool.setCollectionUsageThreshold(fraction == 0 ? 0 : (long) (pool.getUsage().getMax() * fraction));
+                    if (fraction > 0) {
+                        pools.add(pool);
+                    }
+                }
+            }
+
+            this.heapThresholdPools = pools;
+            this.heapThresholdExceeded = false;
+
+            if (fraction > 0 && this.heapThresholdListener == null) {
+                this.heapThresholdListener = new NotificationListener() {
+                    @Override
+                    public void handleNotification(Notification notification, Object handback) {
+                        if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                            ReceiveMemoryGovernor.this.heapThresholdExceeded = true;
+
+                            if (TRACE_LOGGER.isWarnEnabled()) {
+                                TRACE_LOGGER.warn(String.format(Locale.US, "heap usage threshold exceeded, receivers withhold credit - heldBytes[%s]",
+                                        ReceiveMemoryGovernor.this.heldBytes.get()));
+                            }
+                        }
+                    }
+                };
+
+                ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(this.heapThresholdListener, null, null);
+            }
+        }
+
+        this.rebalance();
+    }
+
+    void acquire(final long bytes) {
+        this.heldBytes.addAndGet(bytes);
+    }
+
+    void release(final long bytes) {
+        this.heldBytes.addAndGet(-bytes);
+
+        if (!this.withholding.isEmpty()) {
+            this.rebalance();
+        }
+    }
+
+    boolean shouldWithhold() {
+        final long currentLimit = this.limit;
+        return (currentLimit > 0 && this.heldBytes.get() >= currentLimit) || this.heapUsage.isThresholdExceeded();
+    }
+
+    void withhold(final Participant participant) {
+        this.withholding.add(participant);
+    }
+
+    void remove(final Participant participant) {
+        this.withholding.remove(participant);
+    }
+
+    // grants withheld credit back - most withheld first, for as many bytes as are available under the limit
+    void rebalance() {
+        if (this.withholding.isEmpty() || this.heapUsage.isThresholdExceeded()) {
+            return;
+        }
+
+        final long currentLimit = this.limit;
+        long availableBytes = currentLimit > 0 ? currentLimit - this.heldBytes.get() : Long.MAX_VALUE;
+        if (availableBytes <= 0) {
+            return;
+        }
+
+        final List<Participant> participants = new ArrayList<>(this.withholding);
+        participants.sort(new Comparator<Participant>() {
+            @Override
+            public int compare(Participant first, Participant second) {
+                return Integer.compare(second.getWithheldCredit(), first.getWithheldCredit());
+            }
+        });
+
+        for (Participant participant : participants) {
+            if (availableBytes <= 0) {
+                break;
+            }
+
+            // removing claims the participant - so that concurrent rebalances do not grant it twice
+            if (!this.withholding.remove(participant)) {
+                continue;
+            }
+
+            final int withheldCredit = participant.getWithheldCredit();
+            if (withheldCredit <= 0) {
+                continue;
+            }
+
+            final long eventSize = Math.max(1, participant.getAverageEventSize());
+            final int credits = (int) Math.min(withheldCredit, Math.max(1, availableBytes / eventSize));
+            availableBytes -= credits * eventSize;
+            participant.grantCredit(credits);
+        }
+    }
+
+    private boolean isHeapThresholdExceeded() {
+        if (!this.heapThresholdExceeded) {
+            return false;
+        }
+
+        for (MemoryPoolMXBean pool : this.heapThresholdPools) {
+            if (pool.getCollectionUsage() != null && pool.getCollectionUsage().getUsed() >= pool.getCollectionUsageThreshold()) {
+                return true;
+            }
+        }
+
+        this.heapThresholdExceeded = false;
+        return false;
+    }
+
+    interface HeapUsage {
+        boolean isThresholdExceeded();
+    }
+
+    interface Participant {
+        int getWithheldCredit();
+
+        long getAverageEventSize();
+
+        // called on any thread - credits are to be flowed on the reactor thread
+        void grantCredit(int credits);
+    }
+}
@@ -12,6 +12,7 @@ public class ReplayableWorkItem<T> extends WorkItem<T> {
     private int messageFormat;
     private int encodedMessageSize;
     private boolean waitingForAck;
+    private long deliveryTag;
 
     private Exception lastKnownException;
     private CompletableFuture<?> timeoutTask;
@@ -64,6 +65,14 @@ public class ReplayableWorkItem<T> extends WorkItem<T> {
         this.timeoutTask = timeoutTask;
     }
 
+    public long getDeliveryTag() {
+        return this.deliveryTag;
+    }
+
+    public void setDeliveryTag(final long deliveryTag) {
+        this.deliveryTag = deliveryTag;
+    }
+
     public void setWaitingForAck() {
         this.waitingForAck = true;
     }
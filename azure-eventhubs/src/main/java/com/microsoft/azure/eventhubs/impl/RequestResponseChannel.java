@@ -40,6 +40,7 @@ public class RequestResponseChannel implements IOObject {
     private OperationResult<Void, Exception> onOpen;
     private OperationResult<Void, Exception> onClose; // handles closeLink due to failures
     private OperationResult<Void, Exception> onGraceFullClose; // handles intentional close
+    private byte[] requestBuffer; // reused across requests - sendLink.send copies the encoded request
 
     public RequestResponseChannel(
             final String linkName,
@@ -121,11 +122,13 @@ public class RequestResponseChannel implements IOObject {
         sendLink.delivery(UUID.randomUUID().toString().replace("-", StringUtil.EMPTY).getBytes());
         final int payloadSize = AmqpUtil.getDataSerializedSize(message) + 512; // need buffer for headers
 
-        final byte[] bytes = new byte[payloadSize];
-        final int encodedSize = message.encode(bytes, 0, payloadSize);
+        if (this.requestBuffer == null || this.requestBuffer.length < payloadSize)
+            this.requestBuffer = new byte[payloadSize];
+
+        final int encodedSize = message.encode(this.requestBuffer, 0, payloadSize);
 
         receiveLink.flow(1);
-        sendLink.send(bytes, 0, encodedSize);
+        sendLink.send(this.requestBuffer, 0, encodedSize);
         sendLink.advance();
     }
 
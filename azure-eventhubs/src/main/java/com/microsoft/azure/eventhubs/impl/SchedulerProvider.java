@@ -3,4 +3,6 @@ package com.microsoft.azure.eventhubs.impl;
 interface SchedulerProvider {
 
     ReactorDispatcher getReactorScheduler();
+
+    TimingWheel getTimingWheel();
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.util.LinkedList;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+import com.microsoft.azure.eventhubs.QuotaExceededException;
+import com.microsoft.azure.eventhubs.SenderOptions;
+
+/**
+ * Bounds the sends in flight on a {@link MessageSender} - by count and by encoded size.
+ * Sends which don't fit either wait (in FIFO order) for in-flight sends to complete, or fail right away.
+ * A waiting send which is given up on (cancelled or timed out) must be {@link #abandon}ed - else it is admitted later and holds its place for good.
+ * Once the sender closes, the window is {@link #close}d - the sends still waiting for it fail, rather than wait for sends which are never to complete.
+ */
+final class SendWindow {
+
+    private static final CompletableFuture<Void> ADMITTED = CompletableFuture.completedFuture(null);
+
+    private final int maxInFlightSends;
+    private final long maxInFlightBytes;
+    private final boolean failWhenFull;
+    private final Object windowLock;
+    private final LinkedList<Waiter> waiters;
+
+    private int inFlightSends;
+    private long inFlightBytes;
+    private Throwable closedCause;
+
+    private SendWindow(final int maxInFlightSends, final long maxInFlightBytes, final boolean failWhenFull) {
+        this.maxInFlightSends = maxInFlightSends;
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.failWhenFull = failWhenFull;
+        this.windowLock = new Object();
+        this.waiters = new LinkedList<>();
+    }
+
+    // returns null if the options don't bound the window
+    static SendWindow create(final SenderOptions options) {
+        if (options == null || (options.maxInFlightSends == null && options.maxInFlightBytes == null)) {
+            return null;
+        }
+
+        if (options.maxInFlightSends != null && options.maxInFlightSends <= 0) {
+            throw new IllegalArgumentException("maxInFlightSends should be positive");
+        }
+
+        if (options.maxInFlightBytes != null && options.maxInFlightBytes <= 0) {
+            throw new IllegalArgumentException("maxInFlightBytes should be positive");
+        }
+
+        return new SendWindow(
+                options.maxInFlightSends == null ? Integer.MAX_VALUE : options.maxInFlightSends,
+                options.maxInFlightBytes == null ? Long.MAX_VALUE : options.maxInFlightBytes,
+                options.whenWindowFull == SenderOptions.WindowFullBehavior.FAIL);
+    }
+
+    /**
+     * @return a future which completes once the send of the given size is admitted into the window -
+     * the caller must {@link #release(int)} the same size once the send completes
+     */
+    CompletableFuture<Void> acquire(final int size) {
+        synchronized (this.windowLock) {
+            if (this.closedCause != null) {
+                final CompletableFuture<Void> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(this.closedCause);
+                return rejected;
+            }
+
+            if (this.waiters.isEmpty() && this.fits(size)) {
+                this.admit(size);
+                return ADMITTED;
+            }
+
+            if (this.failWhenFull) {
+                final CompletableFuture<Void> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(new QuotaExceededException(String.format(Locale.US,
+                        "Send window is full: inFlightSends[%s], inFlightBytes[%s]", this.inFlightSends, this.inFlightBytes)));
+                return rejected;
+            }
+
+            final Waiter waiter = new Waiter(size);
+            this.waiters.add(waiter);
+            return waiter.admission;
+        }
+    }
+
+    void release(final int size) {
+        final LinkedList<Waiter> admitted;
+        synchronized (this.windowLock) {
+            this.inFlightSends--;
+            this.inFlightBytes -= size;
+
+            admitted = this.admitWaiters();
+        }
+
+        this.completeAdmitted(admitted);
+    }
+
+    /**
+     * Takes a send which is still waiting out of the window and fails its admission with the given cause.
+     *
+     * @return false if the send was already admitted (or failed) - the caller then holds its place and must {@link #release(int)} it
+     */
+    boolean abandon(final CompletableFuture<Void> admission, final Throwable cause) {
+        Waiter abandoned = null;
+        LinkedList<Waiter> admitted = null;
+        synchronized (this.windowLock) {
+            for (Waiter waiter : this.waiters) {
+                if (waiter.admission == admission) {
+                    abandoned = waiter;
+                    break;
+                }
+            }
+
+            if (abandoned == null) {
+                return false;
+            }
+
+            // the head of the queue could have been holding back smaller sends behind it
+            this.waiters.remove(abandoned);
+            admitted = this.admitWaiters();
+        }
+
+        abandoned.admission.completeExceptionally(cause);
+        this.completeAdmitted(admitted);
+        return true;
+    }
+
+    /**
+     * Fails the admission of the sends still waiting - and of any send which asks for admission later - with the given cause.
+     */
+    void close(final Throwable cause) {
+        final LinkedList<Waiter> failed;
+        synchronized (this.windowLock) {
+            if (this.closedCause != null) {
+                return;
+            }
+
+            this.closedCause = cause;
+            failed = new LinkedList<>(this.waiters);
+            this.waiters.clear();
+        }
+
+        for (Waiter waiter : failed) {
+            waiter.admission.completeExceptionally(cause);
+        }
+    }
+
+    int getWaiterCount() {
+        synchronized (this.windowLock) {
+            return this.waiters.size();
+        }
+    }
+
+    // should be called under windowLock
+    private LinkedList<Waiter> admitWaiters() {
+        LinkedList<Waiter> admitted = null;
+        while (!this.waiters.isEmpty() && this.fits(this.waiters.peek().size)) {
+            final Waiter waiter = this.waiters.poll();
+            this.admit(waiter.size);
+            if (admitted == null) {
+                admitted = new LinkedList<>();
+            }
+
+            admitted.add(waiter);
+        }
+
+        return admitted;
+    }
+
+    // admissions are completed outside the windowLock - they run continuations
+    private void completeAdmitted(final LinkedList<Waiter> admitted) {
+        if (admitted != null) {
+            for (Waiter waiter : admitted) {
+                if (!waiter.admission.complete(null)) {
+                    // the admission was cancelled meanwhile - nobody will send on this place
+                    this.release(waiter.size);
+                }
+            }
+        }
+    }
+
+    // a send larger than the byte limit is let through on an empty window - else it would wait forever
+    private boolean fits(final int size) {
+        return this.inFlightSends < this.maxInFlightSends
+                && (this.inFlightSends == 0 || this.inFlightBytes + size <= this.maxInFlightBytes);
+    }
+
+    private void admit(final int size) {
+        this.inFlightSends++;
+        this.inFlightBytes += size;
+    }
+
+    private static final class Waiter {
+        final int size;
+        final CompletableFuture<Void> admission;
+
+        Waiter(final int size) {
+            this.size = size;
+            this.admission = new CompletableFuture<>();
+        }
+    }
+}
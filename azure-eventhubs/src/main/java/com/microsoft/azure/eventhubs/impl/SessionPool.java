@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.apache.qpid.proton.amqp.transport.ErrorCondition;
+import org.apache.qpid.proton.engine.BaseHandler;
+import org.apache.qpid.proton.engine.Connection;
+import org.apache.qpid.proton.engine.EndpointState;
+import org.apache.qpid.proton.engine.Session;
+
+/**
+ * A fixed number of {@link Session}s of a {@link Connection}, which the links of the connection are spread across - round-robin.
+ * A session is begun when the first link asks for it, and begun again when it is found closed - or on a connection which is no longer current.
+ * Links asking for a session which is still opening are called back once it opens - all with the outcome of the one begin.
+ * <p>
+ * Pooled sessions end with their connection: links closing - or the entities which asked for them closing - leave them open.
+ * <p>
+ * CONTRACT: to be used on the Reactor thread only.
+ */
+final class SessionPool {
+    private final PooledSession[] sessions;
+    private int nextSession;
+
+    SessionPool(final int sessionCount) {
+        this.sessions = new PooledSession[sessionCount];
+        for (int index = 0; index < sessionCount; index++) {
+            this.sessions[index] = new PooledSession();
+        }
+    }
+
+    // links must not end a session which other links are multiplexed on
+    static boolean isPooled(final Session session) {
+        return session.attachments().get(SessionPool.class, Boolean.class) != null;
+    }
+
+    Session getSession(final Connection connection,
+                       final String path,
+                       final Consumer<Session> onSessionOpen,
+                       final BiConsumer<ErrorCondition, Exception> onSessionOpenError) {
+        final PooledSession pooledSession = this.sessions[this.nextSession];
+        this.nextSession = (this.nextSession + 1) % this.sessions.length;
+
+        return pooledSession.getSession(connection, path, onSessionOpen, onSessionOpenError);
+    }
+
+    private static final class PooledSession {
+        private final List<Consumer<Session>> openWaiters = new LinkedList<>();
+        private final List<BiConsumer<ErrorCondition, Exception>> openErrorWaiters = new LinkedList<>();
+
+        private Session session;
+        private boolean isOpen;
+
+        Session getSession(final Connection connection,
+                           final String path,
+                           final Consumer<Session> onSessionOpen,
+                           final BiConsumer<ErrorCondition, Exception> onSessionOpenError) {
+            if (this.session == null
+                    || this.session.getConnection() != connection
+                    || this.session.getLocalState() == EndpointState.CLOSED
+                    || this.session.getRemoteState() == EndpointState.CLOSED) {
+                this.begin(connection, path);
+            }
+
+            if (this.isOpen) {
+                if (onSessionOpen != null) {
+                    onSessionOpen.accept(this.session);
+                }
+            } else {
+                if (onSessionOpen != null) {
+                    this.openWaiters.add(onSessionOpen);
+                }
+
+                if (onSessionOpenError != null) {
+                    this.openErrorWaiters.add(onSessionOpenError);
+                }
+            }
+
+            return this.session;
+        }
+
+        private void begin(final Connection connection, final String path) {
+            final Session newSession = connection.session();
+            newSession.attachments().set(SessionPool.class, Boolean.class, Boolean.TRUE);
+
+            this.session = newSession;
+            this.isOpen = false;
+
+            BaseHandler.setHandler(newSession, new SessionHandler(path,
+                    new Consumer<Session>() {
+                        @Override
+                        public void accept(Session openedSession) {
+                            PooledSession.this.onOpen(newSession);
+                        }
+                    },
+                    new BiConsumer<ErrorCondition, Exception>() {
+                        @Override
+                        public void accept(ErrorCondition error, Exception exception) {
+                            PooledSession.this.onOpenError(newSession, error, exception);
+                        }
+                    }));
+            newSession.open();
+        }
+
+        private void onOpen(final Session openedSession) {
+            if (openedSession != this.session) {
+                return;
+            }
+
+            this.isOpen = true;
+            this.openErrorWaiters.clear();
+
+            final List<Consumer<Session>> waiters = new LinkedList<>(this.openWaiters);
+            this.openWaiters.clear();
+            for (Consumer<Session> waiter : waiters) {
+                waiter.accept(openedSession);
+            }
+        }
+
+        private void onOpenError(final Session failedSession, final ErrorCondition error, final Exception exception) {
+            if (failedSession != this.session) {
+                return;
+            }
+
+            this.session = null;
+            this.openWaiters.clear();
+
+            final List<BiConsumer<ErrorCondition, Exception>> waiters = new LinkedList<>(this.openErrorWaiters);
+            this.openErrorWaiters.clear();
+            for (BiConsumer<ErrorCondition, Exception> waiter : waiters) {
+                waiter.accept(error, exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.qpid.proton.engine.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timing wheel which backs all the timeouts of one {@link MessagingFactory}.
+ * <p>
+ * Scheduling a timeout only enqueues it - the wheel itself is owned by the Reactor Thread, which is woken up once per tick
+ * (by a single Reactor timer task - re-armed only while there are pending timeouts), moves newly scheduled timeouts into
+ * their buckets, unlinks the cancelled ones and runs all the timeouts which expired in the elapsed ticks.
+ * Timeouts which are further away than one revolution of the wheel stay in their bucket until the tick they are due.
+ */
+final class TimingWheel {
+
+    private static final Logger TRACE_LOGGER = LoggerFactory.getLogger(TimingWheel.class);
+
+    private final SchedulerProvider schedulerProvider;
+    private final long tickInNanos;
+    private final int tickInMillis;
+    private final Bucket[] buckets;
+    private final int mask;
+    private final ConcurrentLinkedQueue<Timeout> scheduledTimeouts;
+    private final ConcurrentLinkedQueue<Timeout> cancelledTimeouts;
+    // the dispatcher on which the tick is currently armed - null when the wheel is idle
+    private final AtomicReference<ReactorDispatcher> armedDispatcher;
+    private final long startTime;
+
+    // accessed only on the Reactor Thread
+    private long currentTick;
+    private int activeTimeouts;
+
+    TimingWheel(final SchedulerProvider schedulerProvider, final int tickInMillis, final int wheelSize) {
+        if (tickInMillis <= 0) {
+            throw new IllegalArgumentException("tickInMillis should be positive");
+        }
+
+        if (wheelSize <= 0 || (wheelSize & (wheelSize - 1)) != 0) {
+            throw new IllegalArgumentException("wheelSize should be a positive power of 2");
+        }
+
+        this.schedulerProvider = schedulerProvider;
+        this.tickInMillis = tickInMillis;
+        this.tickInNanos = TimeUnit.MILLISECONDS.toNanos(tickInMillis);
+        this.buckets = new Bucket[wheelSize];
+        for (int index = 0; index < wheelSize; index++) {
+            this.buckets[index] = new Bucket();
+        }
+
+        this.mask = wheelSize - 1;
+        this.scheduledTimeouts = new ConcurrentLinkedQueue<>();
+        this.cancelledTimeouts = new ConcurrentLinkedQueue<>();
+        this.armedDispatcher = new AtomicReference<>();
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Schedules the runnable to run on the Reactor Thread once the delay elapses.
+     *
+     * @return a future which completes once the runnable ran - cancelling it cancels the timeout.
+     * If the wheel cannot be armed on the Reactor, the returned future is completed exceptionally.
+     */
+    CompletableFuture<?> schedule(final Runnable runnable, final Duration runAfter) {
+        final long deadline = System.nanoTime() - this.startTime + Math.max(0, runAfter.toNanos());
+        final Timeout timeout = new Timeout(runnable, deadline);
+
+        this.scheduledTimeouts.offer(timeout);
+        try {
+            this.arm();
+        } catch (IOException | RejectedExecutionException schedulerException) {
+            timeout.completeExceptionally(schedulerException);
+        }
+
+        return timeout;
+    }
+
+    /**
+     * Re-arms the tick on the current {@link ReactorDispatcher} - invoked when the Reactor is recreated,
+     * as the tick armed on the previous Reactor will never fire.
+     */
+    void onReactorRestart() {
+        final ReactorDispatcher previous = this.armedDispatcher.get();
+        if (previous != null && this.armedDispatcher.compareAndSet(previous, null)) {
+            try {
+                this.arm();
+            } catch (IOException | RejectedExecutionException schedulerException) {
+                if (TRACE_LOGGER.isWarnEnabled()) {
+                    TRACE_LOGGER.warn(String.format(Locale.US, "timingWheel - re-arming on restarted reactor failed, error[%s]",
+                            schedulerException.getMessage()));
+                }
+            }
+        }
+    }
+
+    private void arm() throws IOException, RejectedExecutionException {
+        final ReactorDispatcher dispatcher = this.schedulerProvider.getReactorScheduler();
+        final ReactorDispatcher armed = this.armedDispatcher.get();
+        if (armed == dispatcher || !this.armedDispatcher.compareAndSet(armed, dispatcher)) {
+            return;
+        }
+
+        try {
+            dispatcher.invoke(this.tickInMillis, new Tick(dispatcher));
+        } catch (IOException | RejectedExecutionException schedulerException) {
+            this.armedDispatcher.compareAndSet(dispatcher, null);
+            throw schedulerException;
+        }
+    }
+
+    // should run on Reactor Thread
+    private void onTick() {
+        final long elapsedTicks = (System.nanoTime() - this.startTime) / this.tickInNanos;
+
+        Timeout cancelled;
+        while ((cancelled = this.cancelledTimeouts.poll()) != null) {
+            if (cancelled.bucket != null) {
+                cancelled.bucket.remove(cancelled);
+                this.activeTimeouts--;
+            }
+        }
+
+        Timeout scheduled;
+        while ((scheduled = this.scheduledTimeouts.poll()) != null) {
+            if (scheduled.isDone()) {
+                continue;
+            }
+
+            final long deadlineTick = Math.max(this.currentTick, (scheduled.deadline + this.tickInNanos - 1) / this.tickInNanos);
+            this.buckets[(int) (deadlineTick & this.mask)].add(scheduled);
+            this.activeTimeouts++;
+        }
+
+        // a full revolution visits every bucket - no need to sweep the wheel more than once, however long the reactor stalled
+        final long lastTick = Math.min(elapsedTicks, this.currentTick + this.mask);
+        for (; this.currentTick <= lastTick; this.currentTick++) {
+            this.activeTimeouts -= this.buckets[(int) (this.currentTick & this.mask)].expire(elapsedTicks * this.tickInNanos);
+        }
+
+        this.currentTick = Math.max(this.currentTick, elapsedTicks);
+    }
+
+    private final class Tick extends DispatchHandler {
+        private final ReactorDispatcher dispatcher;
+
+        Tick(final ReactorDispatcher dispatcher) {
+            this.dispatcher = dispatcher;
+        }
+
+        @Override
+        public void onEvent() {
+            // ticks are always delivered as Reactor timer tasks - see onTimerTask
+        }
+
+        @Override
+        public void onTimerTask(Event e) {
+            if (TimingWheel.this.armedDispatcher.get() != this.dispatcher) {
+                // superseded by a tick armed on a recreated reactor
+                return;
+            }
+
+            try {
+                TimingWheel.this.onTick();
+            } finally {
+                if (TimingWheel.this.activeTimeouts > 0 || !TimingWheel.this.scheduledTimeouts.isEmpty()
+                        || TimingWheel.this.rearmIfScheduledWhileDisarming(this.dispatcher)) {
+                    e.getReactor().schedule(TimingWheel.this.tickInMillis, this);
+                }
+            }
+        }
+    }
+
+    // the wheel is idle - disarm, unless a timeout was scheduled while disarming
+    private boolean rearmIfScheduledWhileDisarming(final ReactorDispatcher dispatcher) {
+        this.armedDispatcher.compareAndSet(dispatcher, null);
+        return !this.scheduledTimeouts.isEmpty() && this.armedDispatcher.compareAndSet(null, dispatcher);
+    }
+
+    private final class Timeout extends CompletableFuture<Void> {
+        private final Runnable runnable;
+        private final long deadline;
+
+        // accessed only on the Reactor Thread
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        Timeout(final Runnable runnable, final long deadline) {
+            this.runnable = runnable;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                TimingWheel.this.cancelledTimeouts.offer(this);
+            }
+
+            return cancelled;
+        }
+
+        void run() {
+            if (this.isDone()) {
+                return;
+            }
+
+            try {
+                this.runnable.run();
+                this.complete(null);
+            } catch (Exception exception) {
+                this.completeExceptionally(exception);
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(final Timeout timeout) {
+            timeout.bucket = this;
+            if (this.head == null) {
+                this.head = this.tail = timeout;
+            } else {
+                this.tail.next = timeout;
+                timeout.previous = this.tail;
+                this.tail = timeout;
+            }
+        }
+
+        void remove(final Timeout timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                this.head = timeout.next;
+            }
+
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                this.tail = timeout.previous;
+            }
+
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        // unlinks and runs all timeouts due by now - returns the number of timeouts removed from the bucket
+        int expire(final long now) {
+            int expired = 0;
+            Timeout timeout = this.head;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                if (timeout.deadline <= now) {
+                    this.remove(timeout);
+                    expired++;
+                    timeout.run();
+                }
+
+                timeout = next;
+            }
+
+            return expired;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.microsoft.azure.eventhubs.PayloadCodec;
+
+/**
+ * {@link PayloadCodec} over the java.util.zip streams - GZIP or ZLIB (the HTTP deflate content-encoding).
+ * <p>
+ * Decoding stops with an {@link IOException} once the decoded body exceeds maxDecodedLength - a few KB of zeros
+ * compress a thousand-fold, so an unbounded decode lets a single event exhaust the heap of the receiver.
+ */
+public final class ZipPayloadCodec implements PayloadCodec {
+
+    private static final int BUFFER_SIZE = 4 * 1024;
+
+    private final String contentEncoding;
+    private final boolean gzip;
+    private final int maxDecodedLength;
+
+    private ZipPayloadCodec(final String contentEncoding, final boolean gzip, final int maxDecodedLength) {
+        if (maxDecodedLength <= 0) {
+            throw new IllegalArgumentException("maxDecodedLength should be a positive number");
+        }
+
+        this.contentEncoding = contentEncoding;
+        this.gzip = gzip;
+        this.maxDecodedLength = maxDecodedLength;
+    }
+
+    public static ZipPayloadCodec gzip(final int maxDecodedLength) {
+        return new ZipPayloadCodec("gzip", true, maxDecodedLength);
+    }
+
+    public static ZipPayloadCodec deflate(final int maxDecodedLength) {
+        return new ZipPayloadCodec("deflate", false, maxDecodedLength);
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return this.contentEncoding;
+    }
+
+    @Override
+    public byte[] encode(final byte[] data, final int offset, final int length) {
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream(Math.max(length / 4, 64));
+        try (final OutputStream encoder = this.gzip ? new GZIPOutputStream(encoded, BUFFER_SIZE) : new DeflaterOutputStream(encoded)) {
+            encoder.write(data, offset, length);
+        } catch (IOException exception) {
+            // writes to a ByteArrayOutputStream don't fail
+            throw new UncheckedIOException(exception);
+        }
+
+        return encoded.toByteArray();
+    }
+
+    @Override
+    public byte[] decode(final byte[] data, final int offset, final int length) throws IOException {
+        final ByteArrayInputStream encoded = new ByteArrayInputStream(data, offset, length);
+        final ByteArrayOutputStream decoded = new ByteArrayOutputStream((int) Math.min(length * 4L, this.maxDecodedLength));
+        try (final InputStream decoder = this.gzip ? new GZIPInputStream(encoded, BUFFER_SIZE) : new InflaterInputStream(encoded)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = decoder.read(buffer)) != -1) {
+                if (read > this.maxDecodedLength - decoded.size()) {
+                    throw new IOException(String.format(Locale.US, "%s body decodes to more than %s bytes", this.contentEncoding, this.maxDecodedLength));
+                }
+
+                decoded.write(buffer, 0, read);
+            }
+        }
+
+        return decoded.toByteArray();
+    }
+}
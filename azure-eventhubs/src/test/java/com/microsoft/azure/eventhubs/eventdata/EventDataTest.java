@@ -87,6 +87,12 @@ public class EventDataTest
 		Assert.assertTrue(EventData.create("Test".getBytes()).getSystemProperties() == null);
 	}
 
+	@Test (expected = IllegalStateException.class)
+	public void sendingEventsHaveNoSequenceNumber()
+	{
+		EventData.create("Test".getBytes()).getSequenceNumber();
+	}
+
 	private EventData serializeAndDeserialize(final EventData input) throws IOException, ClassNotFoundException
 	{
 		ByteArrayOutputStream baos = new ByteArrayOutputStream();
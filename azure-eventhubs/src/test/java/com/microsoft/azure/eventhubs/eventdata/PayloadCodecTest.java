@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.eventdata;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.microsoft.azure.eventhubs.PayloadCodec;
+import com.microsoft.azure.eventhubs.PayloadCodecs;
+
+public class PayloadCodecTest
+{
+	static final byte[] payload = "{\"deviceId\":\"device-0001\",\"temperature\":21.5,\"humidity\":40.2}{\"deviceId\":\"device-0001\",\"temperature\":21.5,\"humidity\":40.2}"
+			.getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	public void gzipRoundTrip() throws IOException
+	{
+		roundTrip(PayloadCodecs.GZIP);
+	}
+
+	@Test
+	public void deflateRoundTrip() throws IOException
+	{
+		roundTrip(PayloadCodecs.DEFLATE);
+	}
+
+	@Test
+	public void builtInCodecsAreRegistered()
+	{
+		Assert.assertSame(PayloadCodecs.GZIP, PayloadCodecs.get("gzip"));
+		Assert.assertSame(PayloadCodecs.DEFLATE, PayloadCodecs.get("DEFLATE"));
+		Assert.assertNull(PayloadCodecs.get("br"));
+		Assert.assertNull(PayloadCodecs.get(null));
+	}
+
+	@Test
+	public void customCodecCanBeRegistered()
+	{
+		final PayloadCodec identity = new PayloadCodec()
+		{
+			@Override
+			public String getContentEncoding()
+			{
+				return "x-identity";
+			}
+
+			@Override
+			public byte[] encode(byte[] data, int offset, int length)
+			{
+				return java.util.Arrays.copyOfRange(data, offset, offset + length);
+			}
+
+			@Override
+			public byte[] decode(byte[] data, int offset, int length)
+			{
+				return java.util.Arrays.copyOfRange(data, offset, offset + length);
+			}
+		};
+
+		PayloadCodecs.register(identity);
+		Assert.assertSame(identity, PayloadCodecs.get("X-Identity"));
+	}
+
+	@Test (expected = IOException.class)
+	public void invalidEncodingFailsDecode() throws IOException
+	{
+		PayloadCodecs.GZIP.decode(payload, 0, payload.length);
+	}
+
+	private static void roundTrip(final PayloadCodec codec) throws IOException
+	{
+		final byte[] framed = new byte[payload.length + 10];
+		System.arraycopy(payload, 0, framed, 5, payload.length);
+
+		final byte[] encoded = codec.encode(framed, 5, payload.length);
+		Assert.assertTrue(encoded.length < payload.length);
+
+		final byte[] padded = new byte[encoded.length + 3];
+		System.arraycopy(encoded, 0, padded, 3, encoded.length);
+		Assert.assertArrayEquals(payload, codec.decode(padded, 3, encoded.length));
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BufferPoolTest
+{
+	@Test
+	public void leasesAreRoundedUpToSizeClasses()
+	{
+		final BufferPool pool = new BufferPool();
+
+		Assert.assertEquals(1024, pool.lease(1).length);
+		Assert.assertEquals(1024, pool.lease(1024).length);
+		Assert.assertEquals(2048, pool.lease(1025).length);
+		Assert.assertEquals(BufferPool.DEFAULT_MAX_BUFFER_SIZE, pool.lease(BufferPool.DEFAULT_MAX_BUFFER_SIZE).length);
+	}
+
+	@Test
+	public void releasedBufferIsLeasedAgain()
+	{
+		final BufferPool pool = new BufferPool();
+
+		final byte[] buffer = pool.lease(3000);
+		pool.release(buffer);
+		Assert.assertSame(buffer, pool.lease(2049));
+		Assert.assertNotSame(buffer, pool.lease(2049));
+	}
+
+	@Test
+	public void buffersBeyondLargestSizeClassAreNotPooled()
+	{
+		final BufferPool pool = new BufferPool(4096, 1024 * 1024);
+
+		final byte[] oversized = pool.lease(5000);
+		Assert.assertEquals(5000, oversized.length);
+		pool.release(oversized);
+		Assert.assertNotSame(oversized, pool.lease(5000));
+
+		// power of 2, but larger than the largest size class
+		final byte[] large = new byte[8192];
+		pool.release(large);
+		Assert.assertNotSame(large, pool.lease(8192));
+	}
+
+	@Test
+	public void sizeClassRetainsAtMostItsShareOfPooledBytes()
+	{
+		// 4KB per size class - 4 buffers of 1KB
+		final BufferPool pool = new BufferPool(4096, 4096);
+
+		final byte[][] leased = new byte[6][];
+		for (int index = 0; index < leased.length; index++)
+		{
+			leased[index] = pool.lease(1024);
+		}
+
+		for (byte[] buffer : leased)
+		{
+			pool.release(buffer);
+		}
+
+		for (int index = 0; index < 4; index++)
+		{
+			Assert.assertSame(leased[index], pool.lease(1024));
+		}
+
+		// the pool is exhausted - new arrays are allocated
+		final byte[] allocated = pool.lease(1024);
+		for (byte[] buffer : leased)
+		{
+			Assert.assertNotSame(buffer, allocated);
+		}
+	}
+
+	@Test
+	public void zeroPooledBytesDisablesPooling()
+	{
+		final BufferPool pool = new BufferPool(4096, 0);
+
+		final byte[] buffer = pool.lease(1024);
+		pool.release(buffer);
+		Assert.assertNotSame(buffer, pool.lease(1024));
+	}
+
+	@Test
+	public void foreignBuffersAreIgnored()
+	{
+		final BufferPool pool = new BufferPool();
+
+		pool.release(null);
+		pool.release(new byte[1500]);
+		pool.release(new byte[512]);
+		Assert.assertEquals(1024, pool.lease(1000).length);
+		Assert.assertEquals(2048, pool.lease(1500).length);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void maxBufferSizeBelowSmallestSizeClassIsRejected()
+	{
+		new BufferPool(512, 4096);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void negativePooledBytesIsRejected()
+	{
+		new BufferPool(4096, -1);
+	}
+}
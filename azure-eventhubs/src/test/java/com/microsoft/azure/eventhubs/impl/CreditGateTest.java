@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.reactor.Reactor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+// the credit a MessageReceiver flows while the ReceiveMemoryGovernor is over and back under its budget
+public class CreditGateTest
+{
+	static final long eventSize = 100;
+
+	Reactor reactor;
+	ReactorDispatcher dispatcher;
+	volatile boolean heapThresholdExceeded;
+	volatile boolean closed;
+	ReceiveMemoryGovernor governor;
+	List<Integer> flowedCredits;
+	CreditGate creditGate;
+
+	@Before
+	public void initialize() throws IOException
+	{
+		this.reactor = Proton.reactor();
+		this.reactor.setTimeout(5);
+		this.reactor.start();
+		this.dispatcher = new ReactorDispatcher(this.reactor);
+
+		this.governor = new ReceiveMemoryGovernor(() -> this.heapThresholdExceeded);
+		this.flowedCredits = new CopyOnWriteArrayList<>();
+		this.creditGate = new CreditGate(this.governor, new SchedulerProvider()
+		{
+			@Override
+			public ReactorDispatcher getReactorScheduler()
+			{
+				return CreditGateTest.this.dispatcher;
+			}
+
+			@Override
+			public TimingWheel getTimingWheel()
+			{
+				return null;
+			}
+		}, new CreditGate.Sink()
+		{
+			@Override
+			public void flow(final int credits, final boolean flush)
+			{
+				CreditGateTest.this.flowedCredits.add(credits);
+			}
+
+			@Override
+			public boolean isClosingOrClosed()
+			{
+				return CreditGateTest.this.closed;
+			}
+
+			@Override
+			public long getAverageEventSize()
+			{
+				return eventSize;
+			}
+		});
+	}
+
+	@After
+	public void cleanup()
+	{
+		this.reactor.stop();
+		this.reactor.free();
+	}
+
+	@Test
+	public void creditIsFlowedWithinBudget()
+	{
+		this.governor.setLimit(10 * eventSize);
+		this.creditGate.acquire(5 * eventSize);
+
+		this.creditGate.flow(1);
+		this.creditGate.flow(2);
+
+		Assert.assertEquals(3, sum(this.flowedCredits));
+		Assert.assertEquals(0, this.creditGate.getWithheldCredit());
+	}
+
+	@Test
+	public void creditIsWithheldOverTheLimitAndGrantedOnceBytesAreReleased()
+	{
+		this.governor.setLimit(10 * eventSize);
+		this.creditGate.acquire(10 * eventSize);
+
+		for (int index = 0; index < 4; index++)
+		{
+			this.creditGate.flow(1);
+		}
+
+		this.processFor(50);
+		Assert.assertTrue(this.flowedCredits.isEmpty());
+		Assert.assertEquals(4, this.creditGate.getWithheldCredit());
+
+		// room for 4 events of the average size
+		this.creditGate.release(4 * eventSize);
+		this.processUntil(() -> sum(this.flowedCredits) == 4);
+		Assert.assertEquals(0, this.creditGate.getWithheldCredit());
+
+		// back under the limit - credit is flowed again
+		this.creditGate.flow(1);
+		Assert.assertEquals(5, sum(this.flowedCredits));
+	}
+
+	@Test
+	public void creditIsGrantedBackOnlyForTheBytesReleased()
+	{
+		this.governor.setLimit(10 * eventSize);
+		this.creditGate.acquire(10 * eventSize);
+
+		for (int index = 0; index < 5; index++)
+		{
+			this.creditGate.flow(1);
+		}
+
+		// room for 3 of the 5 withheld credits
+		this.creditGate.release(3 * eventSize);
+		this.processUntil(() -> sum(this.flowedCredits) == 3);
+		this.processFor(50);
+		Assert.assertEquals(3, sum(this.flowedCredits));
+		Assert.assertEquals(2, this.creditGate.getWithheldCredit());
+
+		this.creditGate.release(2 * eventSize);
+		this.processUntil(() -> sum(this.flowedCredits) == 5);
+		Assert.assertEquals(0, this.creditGate.getWithheldCredit());
+	}
+
+	@Test
+	public void creditIsWithheldWhileHeapUsageIsOverTheThreshold()
+	{
+		this.heapThresholdExceeded = true;
+
+		this.creditGate.flow(1);
+		this.creditGate.flow(1);
+
+		// releasing bytes does not grant credit back while the heap stays over the threshold
+		this.creditGate.acquire(eventSize);
+		this.creditGate.release(eventSize);
+		this.processFor(50);
+		Assert.assertTrue(this.flowedCredits.isEmpty());
+		Assert.assertEquals(2, this.creditGate.getWithheldCredit());
+
+		// the periodic retry grants the credit back once heap usage drops
+		this.heapThresholdExceeded = false;
+		this.processUntil(() -> sum(this.flowedCredits) == 2);
+		Assert.assertEquals(0, this.creditGate.getWithheldCredit());
+	}
+
+	@Test
+	public void withheldCreditOfClosedReceiverIsNotFlowed()
+	{
+		this.governor.setLimit(10 * eventSize);
+		this.creditGate.acquire(10 * eventSize);
+		this.creditGate.flow(1);
+
+		this.closed = true;
+		this.creditGate.close();
+		this.creditGate.release(10 * eventSize);
+
+		this.processFor(50);
+		Assert.assertTrue(this.flowedCredits.isEmpty());
+	}
+
+	private static int sum(final List<Integer> credits)
+	{
+		int sum = 0;
+		for (int credit : credits)
+		{
+			sum += credit;
+		}
+
+		return sum;
+	}
+
+	private void processUntil(final BooleanSupplier condition)
+	{
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline)
+		{
+			this.reactor.process();
+		}
+
+		Assert.assertTrue("timed out processing the reactor", condition.getAsBoolean());
+	}
+
+	private void processFor(final long millis)
+	{
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+		while (System.nanoTime() < deadline)
+		{
+			this.reactor.process();
+		}
+	}
+}
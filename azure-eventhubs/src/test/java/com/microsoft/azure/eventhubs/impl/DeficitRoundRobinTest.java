@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.amqp.messaging.Data;
+import org.apache.qpid.proton.amqp.messaging.MessageAnnotations;
+import org.apache.qpid.proton.message.Message;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.microsoft.azure.eventhubs.EventData;
+
+// how EventHubConsumerImpl shares each batch across partitions with uneven backlogs
+public class DeficitRoundRobinTest
+{
+	@Test
+	public void partitionsWithUnevenBacklogsShareEachBatch()
+	{
+		final PrefetchedPartition[] partitions = { backlog(100, 100), backlog(5, 100), backlog(20, 100) };
+		final DeficitRoundRobin roundRobin = new DeficitRoundRobin(partitions, new String[] { "0", "1", "2" }, 300, false);
+
+		// 3 events of each partition per round
+		Assert.assertEquals("000111222000", partitionsOf(roundRobin.drain(12)));
+
+		// partition 1 runs dry - the others carry on in turn
+		Assert.assertEquals("11222000222000", partitionsOf(roundRobin.drain(14)));
+		Assert.assertTrue(partitions[1].isPrefetchEmpty());
+	}
+
+	@Test
+	public void partitionWithLargeEventsGetsItsShareOfBytes()
+	{
+		final PrefetchedPartition[] partitions = { backlog(10, 1000), backlog(50, 100) };
+		final DeficitRoundRobin roundRobin = new DeficitRoundRobin(partitions, new String[] { "0", "1" }, 500, false);
+
+		// an event of 1000 bytes overdraws the deficit of partition 0 - it sits out the next round
+		Assert.assertEquals("0" + "11111" + "11111" + "0" + "11111", partitionsOf(roundRobin.drain(17)));
+	}
+
+	@Test
+	public void fullBatchCarriesOnFromTheSamePartition()
+	{
+		final PrefetchedPartition[] partitions = { backlog(10, 100), backlog(10, 100) };
+		final DeficitRoundRobin roundRobin = new DeficitRoundRobin(partitions, new String[] { "0", "1" }, 400, false);
+
+		Assert.assertEquals("00", partitionsOf(roundRobin.drain(2)));
+
+		// partition 0 is not charged again - it hands over what is left of its quantum first
+		Assert.assertEquals("00111100", partitionsOf(roundRobin.drain(8)));
+	}
+
+	@Test
+	public void nothingPrefetchedDrainsToNull()
+	{
+		final PrefetchedPartition[] partitions = { backlog(0, 100), backlog(0, 100) };
+		final DeficitRoundRobin roundRobin = new DeficitRoundRobin(partitions, new String[] { "0", "1" }, 400, false);
+
+		Assert.assertNull(roundRobin.drain(10));
+
+		// an idle partition does not bank deficit while it has nothing prefetched
+		partitions[0].add(5, 100);
+		partitions[1].add(5, 100);
+		Assert.assertEquals("00001111", partitionsOf(roundRobin.drain(8)));
+	}
+
+	private static String partitionsOf(final List<EventData> events)
+	{
+		final StringBuilder partitions = new StringBuilder();
+		for (EventData event : events)
+		{
+			partitions.append(event.getPartitionId());
+		}
+
+		return partitions.toString();
+	}
+
+	private static PrefetchedPartition backlog(final int eventCount, final int eventSize)
+	{
+		final PrefetchedPartition partition = new PrefetchedPartition();
+		partition.add(eventCount, eventSize);
+		return partition;
+	}
+
+	private static final class PrefetchedPartition implements DeficitRoundRobin.Partition
+	{
+		final Queue<Message> prefetch = new ArrayDeque<>();
+
+		void add(final int eventCount, final int eventSize)
+		{
+			for (int index = 0; index < eventCount; index++)
+			{
+				final Message message = Proton.message();
+				message.setBody(new Data(new Binary(new byte[eventSize])));
+
+				final Map<Symbol, Object> annotations = new HashMap<>();
+				annotations.put(AmqpConstants.OFFSET, String.valueOf(index));
+				message.setMessageAnnotations(new MessageAnnotations(annotations));
+				this.prefetch.add(message);
+			}
+		}
+
+		@Override
+		public Message pollPrefetchedMessage()
+		{
+			return this.prefetch.poll();
+		}
+
+		@Override
+		public boolean isPrefetchEmpty()
+		{
+			return this.prefetch.isEmpty();
+		}
+	}
+}
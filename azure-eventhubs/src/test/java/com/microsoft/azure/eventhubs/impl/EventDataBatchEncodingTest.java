@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.messaging.Data;
+import org.apache.qpid.proton.amqp.messaging.MessageAnnotations;
+import org.apache.qpid.proton.codec.AMQPDefinedTypes;
+import org.apache.qpid.proton.codec.DecoderImpl;
+import org.apache.qpid.proton.codec.EncoderImpl;
+import org.apache.qpid.proton.message.Message;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.microsoft.azure.eventhubs.EventData;
+import com.microsoft.azure.eventhubs.PayloadSizeExceededException;
+
+// the batch envelope EventDataBatchImpl encodes while it is filled - decoded back section by section with proton-j
+public class EventDataBatchEncodingTest
+{
+	static final int maxMessageSize = 256 * 1024;
+	static final int eventCount = 50;
+
+	@Test
+	public void envelopeCarriesTheAnnotationsAndOneDataSectionPerEvent() throws PayloadSizeExceededException
+	{
+		final EventDataBatchImpl batch = new EventDataBatchImpl(maxMessageSize, "key-1");
+		for (int index = 0; index < eventCount; index++)
+		{
+			final EventData eventData = new EventDataImpl(("event-" + index).getBytes(StandardCharsets.UTF_8));
+			eventData.getProperties().put("index", index);
+			Assert.assertTrue(batch.tryAdd(eventData));
+		}
+
+		// the service splits a message of this format into its events
+		Assert.assertEquals(0x80013700, AmqpConstants.AMQP_BATCH_MESSAGE_FORMAT);
+
+		final List<Object> sections = decodeSections(batch.seal(), batch.getEncodedSize());
+		Assert.assertEquals(eventCount + 1, sections.size());
+
+		final MessageAnnotations envelopeAnnotations = (MessageAnnotations) sections.get(0);
+		Assert.assertEquals("key-1", envelopeAnnotations.getValue().get(AmqpConstants.PARTITION_KEY));
+
+		for (int index = 0; index < eventCount; index++)
+		{
+			final Binary encodedEvent = ((Data) sections.get(index + 1)).getValue();
+			final Message event = Proton.message();
+			event.decode(encodedEvent.getArray(), encodedEvent.getArrayOffset(), encodedEvent.getLength());
+
+			final Binary body = ((Data) event.getBody()).getValue();
+			Assert.assertEquals("event-" + index, new String(body.getArray(), body.getArrayOffset(), body.getLength(), StandardCharsets.UTF_8));
+			Assert.assertEquals(index, event.getApplicationProperties().getValue().get("index"));
+			Assert.assertEquals("key-1", event.getMessageAnnotations().getValue().get(AmqpConstants.PARTITION_KEY));
+		}
+	}
+
+	@Test
+	public void sealedBatchKeepsItsBytesAndRejectsEvents() throws PayloadSizeExceededException
+	{
+		final EventDataBatchImpl batch = new EventDataBatchImpl(maxMessageSize, null);
+		Assert.assertTrue(batch.tryAdd(new EventDataImpl(new byte[16])));
+
+		final byte[] sentBytes = batch.seal();
+		final int sentSize = batch.getEncodedSize();
+		final byte[] sentCopy = Arrays.copyOf(sentBytes, sentSize);
+
+		try
+		{
+			batch.tryAdd(new EventDataImpl(new byte[16]));
+			Assert.fail("tryAdd should fail once the batch is sent");
+		}
+		catch (IllegalStateException expected)
+		{
+		}
+
+		Assert.assertEquals(1, batch.getSize());
+		Assert.assertEquals(sentSize, batch.getEncodedSize());
+		Assert.assertArrayEquals(sentCopy, Arrays.copyOf(sentBytes, sentSize));
+
+		// sending the batch again hands over the same bytes
+		Assert.assertSame(sentBytes, batch.seal());
+	}
+
+	private static List<Object> decodeSections(final byte[] bytes, final int length)
+	{
+		final DecoderImpl decoder = new DecoderImpl();
+		final EncoderImpl encoder = new EncoderImpl(decoder);
+		AMQPDefinedTypes.registerAllTypes(decoder, encoder);
+
+		final ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+		decoder.setByteBuffer(buffer);
+
+		final List<Object> sections = new ArrayList<>();
+		while (buffer.hasRemaining())
+		{
+			sections.add(decoder.readObject());
+		}
+
+		return sections;
+	}
+}
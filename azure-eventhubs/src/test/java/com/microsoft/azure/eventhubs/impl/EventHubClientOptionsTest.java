@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.microsoft.azure.eventhubs.EventHubClient;
+import com.microsoft.azure.eventhubs.EventHubClientOptions;
+import com.microsoft.azure.eventhubs.ReactorGroup;
+import com.microsoft.azure.eventhubs.SenderOptions;
+
+// options are validated before any connection is opened
+public class EventHubClientOptionsTest
+{
+	static final String connectionString = "Endpoint=sb://test.servicebus.windows.net/;SharedAccessKeyName=keyName;SharedAccessKey=key;EntityPath=hub";
+
+	@Test (expected = IllegalArgumentException.class)
+	public void foreignReactorGroupIsRejected() throws Exception
+	{
+		final ReactorGroup foreignGroup = new ReactorGroup()
+		{
+			@Override
+			public int getReactorCount()
+			{
+				return 1;
+			}
+
+			@Override
+			public int getConnectionCount()
+			{
+				return 0;
+			}
+
+			@Override
+			public CompletableFuture<Void> close()
+			{
+				return CompletableFuture.completedFuture(null);
+			}
+		};
+
+		create(new EventHubClientOptions().with(options -> options.reactorGroup = foreignGroup));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void invalidSendWindowOfTheClientSenderIsRejected() throws Exception
+	{
+		create(new EventHubClientOptions().with(options -> options.senderOptions = new SenderOptions().with(sender -> sender.maxInFlightBytes = 0)));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void zeroConnectionsIsRejected() throws Exception
+	{
+		create(new EventHubClientOptions().with(options -> options.connectionCount = 0));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void negativeSessionCountIsRejected() throws Exception
+	{
+		create(new EventHubClientOptions().with(options -> options.sessionCount = -1));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void sendBufferSizeBelow1KBIsRejected() throws Exception
+	{
+		create(new EventHubClientOptions().with(options -> options.maxPooledSendBufferSize = 512));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void negativePooledSendBufferBytesIsRejected() throws Exception
+	{
+		create(new EventHubClientOptions().with(options -> options.maxPooledSendBufferBytes = -1));
+	}
+
+	private static void create(final EventHubClientOptions options) throws Exception
+	{
+		EventHubClient.create(connectionString, null, Executors.newSingleThreadExecutor(), options);
+	}
+}
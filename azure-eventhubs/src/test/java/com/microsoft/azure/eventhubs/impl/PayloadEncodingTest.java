@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.io.IOException;
+
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.messaging.Data;
+import org.apache.qpid.proton.message.Message;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.microsoft.azure.eventhubs.PayloadCodecs;
+
+// bodies encoded by the sender, and the bounds on decoding them
+public class PayloadEncodingTest
+{
+	@Test
+	public void bodySmallerThanTheThresholdIsSentAsIs()
+	{
+		final byte[] body = new byte[PayloadCodecs.MIN_ENCODED_BODY_SIZE - 1];
+		final Message message = new EventDataImpl(body).toAmqpMessage(null, PayloadCodecs.GZIP);
+
+		Assert.assertNull(message.getContentEncoding());
+		Assert.assertArrayEquals(body, ((Data) message.getBody()).getValue().getArray());
+	}
+
+	@Test
+	public void bodyAtTheThresholdIsEncoded() throws IOException
+	{
+		final byte[] body = new byte[PayloadCodecs.MIN_ENCODED_BODY_SIZE];
+		final Message message = new EventDataImpl(body).toAmqpMessage(null, PayloadCodecs.GZIP);
+
+		Assert.assertEquals("gzip", message.getContentEncoding());
+		final Binary encoded = ((Data) message.getBody()).getValue();
+		Assert.assertTrue(encoded.getLength() < body.length);
+		Assert.assertArrayEquals(body, PayloadCodecs.GZIP.decode(encoded.getArray(), encoded.getArrayOffset(), encoded.getLength()));
+	}
+
+	@Test
+	public void decodeUpToTheLimitSucceeds() throws IOException
+	{
+		final ZipPayloadCodec codec = ZipPayloadCodec.gzip(4096);
+		final byte[] body = new byte[4096];
+		final byte[] encoded = codec.encode(body, 0, body.length);
+
+		Assert.assertArrayEquals(body, codec.decode(encoded, 0, encoded.length));
+	}
+
+	@Test (expected = IOException.class)
+	public void decodeBeyondTheLimitFails() throws IOException
+	{
+		final ZipPayloadCodec codec = ZipPayloadCodec.deflate(4096);
+		// a few hundred bytes which decode to a megabyte
+		final byte[] encoded = codec.encode(new byte[1024 * 1024], 0, 1024 * 1024);
+
+		codec.decode(encoded, 0, encoded.length);
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+import org.apache.qpid.proton.codec.WritableBuffer;
+import org.apache.qpid.proton.engine.Receiver;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrefetchRingTest
+{
+	@Test
+	public void framesArePolledInOrder()
+	{
+		final PrefetchRing ring = new PrefetchRing(1024, 64 * 1024);
+
+		offer(ring, frame(1, 100));
+		offer(ring, frame(2, 0));
+		offer(ring, frame(3, 200));
+		Assert.assertEquals(3, ring.size());
+
+		Assert.assertArrayEquals(frame(1, 100), ring.poll());
+		Assert.assertArrayEquals(frame(2, 0), ring.poll());
+		Assert.assertArrayEquals(frame(3, 200), ring.poll());
+		Assert.assertNull(ring.poll());
+		Assert.assertTrue(ring.isEmpty());
+	}
+
+	@Test
+	public void framesWrapAroundTheEndOfTheRing()
+	{
+		final PrefetchRing ring = new PrefetchRing(1024, 64 * 1024);
+
+		offer(ring, frame(1, 400));
+		offer(ring, frame(2, 400));
+		Assert.assertArrayEquals(frame(1, 400), ring.poll());
+
+		// the header and body of these frames wrap around to the start of the ring
+		offer(ring, frame(3, 300));
+		offer(ring, frame(4, 200));
+		Assert.assertEquals(1024, ring.capacity());
+
+		Assert.assertArrayEquals(frame(2, 400), ring.poll());
+		Assert.assertArrayEquals(frame(3, 300), ring.poll());
+		Assert.assertArrayEquals(frame(4, 200), ring.poll());
+	}
+
+	@Test
+	public void ringGrowsKeepingWrappedFramesAndKeepsItsBufferOnceDrained()
+	{
+		final PrefetchRing ring = new PrefetchRing(1024, 64 * 1024);
+
+		offer(ring, frame(1, 400));
+		offer(ring, frame(2, 400));
+		Assert.assertArrayEquals(frame(1, 400), ring.poll());
+		offer(ring, frame(3, 300));
+
+		// does not fit - the wrapped contents move to a larger buffer
+		offer(ring, frame(4, 1500));
+		Assert.assertTrue(ring.capacity() >= 2048);
+
+		Assert.assertArrayEquals(frame(2, 400), ring.poll());
+		Assert.assertArrayEquals(frame(3, 300), ring.poll());
+		Assert.assertTrue(ring.capacity() >= 2048);
+		Assert.assertArrayEquals(frame(4, 1500), ring.poll());
+
+		// not well beyond the initial capacity - the drained ring is reused as-is
+		final int grownCapacity = ring.capacity();
+		Assert.assertTrue(grownCapacity < 4 * 1024);
+		offer(ring, frame(5, 100));
+		Assert.assertEquals(grownCapacity, ring.capacity());
+		Assert.assertArrayEquals(frame(5, 100), ring.poll());
+	}
+
+	@Test
+	public void ringStartsSmallAndGrowsUpToThePrefetch()
+	{
+		final PrefetchRing ring = new PrefetchRing(16 * 1024 * 1024);
+		Assert.assertEquals(64 * 1024, ring.capacity());
+
+		final PrefetchRing smallPrefetch = new PrefetchRing(8 * 1024);
+		Assert.assertEquals(8 * 1024, smallPrefetch.capacity());
+	}
+
+	@Test
+	public void clearKeepsTheBufferUnlessGrownWellBeyondTheInitialCapacity()
+	{
+		final PrefetchRing ring = new PrefetchRing(1024, 64 * 1024);
+
+		offer(ring, frame(1, 1500));
+		final int grownCapacity = ring.capacity();
+		Assert.assertTrue(grownCapacity > 1024 && grownCapacity < 4 * 1024);
+
+		ring.clear();
+		Assert.assertTrue(ring.isEmpty());
+		Assert.assertEquals(grownCapacity, ring.capacity());
+		Assert.assertNull(ring.poll());
+
+		offer(ring, frame(2, 5000));
+		Assert.assertTrue(ring.capacity() >= 4 * 1024);
+
+		ring.clear();
+		Assert.assertTrue(ring.isEmpty());
+		Assert.assertEquals(1024, ring.capacity());
+	}
+
+	@Test
+	public void grownCapacityDoublesUpToTheMaximum()
+	{
+		Assert.assertEquals(2048, PrefetchRing.grownCapacity(1024, 900, 200, 64 * 1024));
+		Assert.assertEquals(5000, PrefetchRing.grownCapacity(1024, 1000, 4000, 64 * 1024));
+
+		// doubling stops at the size of the prefetch - unless the frames need more
+		Assert.assertEquals(3000, PrefetchRing.grownCapacity(2048, 1900, 200, 3000));
+		Assert.assertEquals(3500, PrefetchRing.grownCapacity(3000, 2900, 600, 3000));
+
+		// doubling would overflow an int
+		Assert.assertEquals(Integer.MAX_VALUE - 8, PrefetchRing.grownCapacity(1500000000, 1400000000, 200000000, Integer.MAX_VALUE - 8));
+	}
+
+	@Test (expected = IllegalStateException.class)
+	public void growingBeyondTheMaximumFails()
+	{
+		PrefetchRing.grownCapacity(Integer.MAX_VALUE - 8, Integer.MAX_VALUE - 100, 1000, Integer.MAX_VALUE - 8);
+	}
+
+	private static byte[] frame(final int seed, final int length)
+	{
+		final byte[] frame = new byte[length];
+		for (int index = 0; index < length; index++)
+		{
+			frame[index] = (byte) (seed * 31 + index);
+		}
+
+		return frame;
+	}
+
+	// a link whose current delivery holds the given bytes - handed out in small reads, as a link does across transfer frames
+	private static void offer(final PrefetchRing ring, final byte[] delivery)
+	{
+		final int[] position = new int[1];
+		final Receiver link = (Receiver) Proxy.newProxyInstance(Receiver.class.getClassLoader(), new Class<?>[] { Receiver.class },
+				(proxy, method, args) ->
+				{
+					if (!method.getName().equals("recv") || args.length != 1 || !(args[0] instanceof WritableBuffer))
+					{
+						throw new UnsupportedOperationException(method.getName());
+					}
+
+					final WritableBuffer target = (WritableBuffer) args[0];
+					final int read = Math.min(Math.min(target.remaining(), 97), delivery.length - position[0]);
+					target.put(Arrays.copyOfRange(delivery, position[0], position[0] + read), 0, read);
+					position[0] += read;
+					return read;
+				});
+
+		ring.offer(link, delivery.length);
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.reactor.Reactor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReactorDispatcherTest
+{
+	Reactor reactor;
+	ReactorDispatcher dispatcher;
+	AtomicInteger runCount;
+	CoalescingDispatchHandler work;
+
+	@Before
+	public void initializeReactor() throws IOException
+	{
+		this.reactor = Proton.reactor();
+		this.reactor.setTimeout(10);
+		this.reactor.start();
+		this.dispatcher = new ReactorDispatcher(this.reactor);
+		this.runCount = new AtomicInteger();
+		this.work = new CoalescingDispatchHandler()
+		{
+			@Override
+			public void onEvent()
+			{
+				runCount.incrementAndGet();
+			}
+		};
+	}
+
+	@After
+	public void cleanup()
+	{
+		if (this.reactor != null)
+		{
+			this.reactor.free();
+		}
+	}
+
+	@Test
+	public void coalescingWorkIsQueuedOnceUntilItRuns() throws IOException
+	{
+		this.dispatcher.invoke(this.work);
+		this.dispatcher.invoke(this.work);
+		this.dispatcher.invoke(this.work);
+		this.processUntilRunCount(1);
+		this.reactor.process();
+		Assert.assertEquals(1, this.runCount.get());
+
+		// runs again once invoked after it ran
+		this.dispatcher.invoke(this.work);
+		this.processUntilRunCount(2);
+		Assert.assertEquals(2, this.runCount.get());
+	}
+
+	@Test
+	public void workOnClosedDispatcherIsRejected() throws IOException
+	{
+		this.closeReactor();
+
+		try
+		{
+			this.dispatcher.invoke(this.work);
+			Assert.fail("work queued on a closed dispatcher should be rejected");
+		}
+		catch (RejectedExecutionException expected)
+		{
+		}
+
+		// the failed queue must not leave the work marked as queued
+		Assert.assertTrue(this.work.tryQueue());
+		Assert.assertEquals(0, this.runCount.get());
+	}
+
+	@Test
+	public void workQueuedBeforeCloseRuns() throws IOException
+	{
+		this.dispatcher.invoke(this.work);
+		this.closeReactor();
+		Assert.assertEquals(1, this.runCount.get());
+	}
+
+	private void processUntilRunCount(int expected)
+	{
+		for (int iteration = 0; iteration < 100 && this.runCount.get() < expected; iteration++)
+		{
+			this.reactor.process();
+		}
+	}
+
+	private void closeReactor()
+	{
+		this.reactor.stop();
+		this.reactor.free();
+		this.reactor = null;
+	}
+}
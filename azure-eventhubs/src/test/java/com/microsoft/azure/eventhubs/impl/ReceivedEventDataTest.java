@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.amqp.messaging.ApplicationProperties;
+import org.apache.qpid.proton.amqp.messaging.Data;
+import org.apache.qpid.proton.amqp.messaging.MessageAnnotations;
+import org.apache.qpid.proton.message.Message;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.microsoft.azure.eventhubs.EventData;
+import com.microsoft.azure.eventhubs.PayloadCodecs;
+
+// EventData built lazily from a received message - see EventDataTest for EventData created by the public constructors
+public class ReceivedEventDataTest
+{
+	static final byte[] payload = "{\"deviceId\":\"device-0001\",\"temperature\":21.5}{\"deviceId\":\"device-0001\",\"temperature\":21.5}"
+			.getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	public void sectionsOfReceivedMessageAreMaterializedOnAccess()
+	{
+		final EventData eventData = new EventDataImpl(receivedMessage(payload, null), "3");
+
+		Assert.assertEquals("3", eventData.getPartitionId());
+		Assert.assertEquals("1024", eventData.getOffset());
+		Assert.assertEquals(7L, eventData.getSequenceNumber());
+		Assert.assertArrayEquals(payload, eventData.getBytes());
+		Assert.assertEquals("value", eventData.getProperties().get("key"));
+		Assert.assertEquals("1024", eventData.getSystemProperties().getOffset());
+		Assert.assertEquals(7L, eventData.getSystemProperties().getSequenceNumber());
+		Assert.assertEquals("message-1", eventData.getSystemProperties().get(AmqpConstants.AMQP_PROPERTY_MESSAGE_ID));
+
+		// sections stay readable after all of them were built
+		Assert.assertArrayEquals(payload, eventData.getBytes());
+		Assert.assertEquals("value", eventData.getProperties().get("key"));
+	}
+
+	@Test
+	public void receivedMessageWithoutApplicationPropertiesHasMutableProperties()
+	{
+		final Message message = receivedMessage(payload, null);
+		message.setApplicationProperties(null);
+		final EventData eventData = new EventDataImpl(message, "0");
+
+		Assert.assertTrue(eventData.getProperties().isEmpty());
+		eventData.getProperties().put("added", "value");
+		Assert.assertEquals("value", eventData.getProperties().get("added"));
+	}
+
+	@Test
+	public void encodedBodyIsHandedOverAsReceivedByDefault()
+	{
+		final byte[] encoded = PayloadCodecs.GZIP.encode(payload, 0, payload.length);
+		final EventData eventData = new EventDataImpl(receivedMessage(encoded, "gzip"), "0");
+
+		Assert.assertEquals("gzip", eventData.getSystemProperties().get(AmqpConstants.AMQP_PROPERTY_CONTENT_ENCODING));
+		Assert.assertArrayEquals(encoded, eventData.getBytes());
+	}
+
+	@Test
+	public void encodedBodyIsDecodedWithoutContentEncoding()
+	{
+		final byte[] encoded = PayloadCodecs.GZIP.encode(payload, 0, payload.length);
+		final EventData eventData = new EventDataImpl(receivedMessage(encoded, "gzip"), "0", true);
+
+		// system properties first - they depend on whether the body decodes
+		Assert.assertFalse(eventData.getSystemProperties().containsKey(AmqpConstants.AMQP_PROPERTY_CONTENT_ENCODING));
+		Assert.assertArrayEquals(payload, eventData.getBytes());
+	}
+
+	@Test
+	public void receivedEventDataSurvivesSerialization() throws Exception
+	{
+		final EventData eventData = new EventDataImpl(receivedMessage(payload, null), "0");
+
+		final ByteArrayOutputStream byteArrayStream = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectStream = new ObjectOutputStream(byteArrayStream))
+		{
+			objectStream.writeObject(eventData);
+		}
+
+		final EventData deserialized;
+		try (ObjectInputStream objectStream = new ObjectInputStream(new ByteArrayInputStream(byteArrayStream.toByteArray())))
+		{
+			deserialized = (EventData) objectStream.readObject();
+		}
+
+		Assert.assertArrayEquals(payload, deserialized.getBytes());
+		Assert.assertEquals("value", deserialized.getProperties().get("key"));
+		Assert.assertEquals("1024", deserialized.getOffset());
+		Assert.assertEquals(7L, deserialized.getSequenceNumber());
+	}
+
+	@Test
+	public void sectionsCanBeFirstAccessedConcurrently() throws Exception
+	{
+		final int threadCount = 4;
+		final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try
+		{
+			for (int round = 0; round < 500; round++)
+			{
+				final EventData eventData = new EventDataImpl(receivedMessage(payload, null), "0");
+				final CountDownLatch start = new CountDownLatch(1);
+				final List<Future<Void>> readers = new ArrayList<>();
+				for (int thread = 0; thread < threadCount; thread++)
+				{
+					final int firstSection = thread;
+					readers.add(executor.submit(new Callable<Void>()
+					{
+						@Override
+						public Void call() throws Exception
+						{
+							start.await();
+							// each thread starts with a different section
+							for (int section = 0; section < 3; section++)
+							{
+								readSection(eventData, (firstSection + section) % 3);
+							}
+							return null;
+						}
+					}));
+				}
+
+				start.countDown();
+				for (Future<Void> reader : readers)
+				{
+					reader.get(10, TimeUnit.SECONDS);
+				}
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	private static void readSection(final EventData eventData, final int section)
+	{
+		switch (section)
+		{
+			case 0:
+				Assert.assertArrayEquals(payload, eventData.getBytes());
+				break;
+			case 1:
+				Assert.assertEquals("value", eventData.getProperties().get("key"));
+				break;
+			default:
+				Assert.assertEquals("1024", eventData.getSystemProperties().getOffset());
+				Assert.assertEquals("message-1", eventData.getSystemProperties().get(AmqpConstants.AMQP_PROPERTY_MESSAGE_ID));
+				break;
+		}
+	}
+
+	private static Message receivedMessage(final byte[] body, final String contentEncoding)
+	{
+		final Message message = Proton.message();
+		message.setBody(new Data(new Binary(body)));
+		message.setMessageId("message-1");
+		if (contentEncoding != null)
+		{
+			message.setContentEncoding(contentEncoding);
+		}
+
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("key", "value");
+		message.setApplicationProperties(new ApplicationProperties(properties));
+
+		final Map<Symbol, Object> annotations = new HashMap<>();
+		annotations.put(AmqpConstants.OFFSET, "1024");
+		annotations.put(AmqpConstants.SEQUENCE_NUMBER, 7L);
+		annotations.put(AmqpConstants.ENQUEUED_TIME_UTC, new Date());
+		message.setMessageAnnotations(new MessageAnnotations(annotations));
+		return message;
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.microsoft.azure.eventhubs.QuotaExceededException;
+import com.microsoft.azure.eventhubs.SenderOptions;
+import com.microsoft.azure.eventhubs.TimeoutException;
+
+public class SendWindowAdmissionTest
+{
+	@Test
+	public void unboundedOptionsCreateNoWindow()
+	{
+		Assert.assertNull(SendWindow.create(null));
+		Assert.assertNull(SendWindow.create(new SenderOptions()));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void nonPositiveLimitIsRejected()
+	{
+		SendWindow.create(new SenderOptions().with(options -> options.maxInFlightSends = 0));
+	}
+
+	@Test
+	public void waitersAreAdmittedInOrderOnRelease()
+	{
+		final SendWindow window = SendWindow.create(new SenderOptions().with(options -> options.maxInFlightSends = 2));
+
+		Assert.assertTrue(window.acquire(10).isDone());
+		Assert.assertTrue(window.acquire(10).isDone());
+		final CompletableFuture<Void> first = window.acquire(10);
+		final CompletableFuture<Void> second = window.acquire(10);
+		Assert.assertFalse(first.isDone());
+		Assert.assertFalse(second.isDone());
+
+		window.release(10);
+		Assert.assertTrue(first.isDone());
+		Assert.assertFalse(second.isDone());
+
+		window.release(10);
+		Assert.assertTrue(second.isDone());
+		Assert.assertEquals(0, window.getWaiterCount());
+	}
+
+	@Test
+	public void byteLimitHoldsBackSendsButLetsOversizedSendThroughOnEmptyWindow()
+	{
+		final SendWindow window = SendWindow.create(new SenderOptions().with(options -> options.maxInFlightBytes = 100));
+
+		Assert.assertTrue(window.acquire(500).isDone());
+		final CompletableFuture<Void> waiting = window.acquire(1);
+		Assert.assertFalse(waiting.isDone());
+
+		window.release(500);
+		Assert.assertTrue(waiting.isDone());
+	}
+
+	@Test
+	public void fullWindowFailsFastWhenAsked() throws InterruptedException
+	{
+		final SendWindow window = SendWindow.create(new SenderOptions().with(options -> {
+			options.maxInFlightSends = 1;
+			options.whenWindowFull = SenderOptions.WindowFullBehavior.FAIL;
+		}));
+
+		Assert.assertTrue(window.acquire(10).isDone());
+		try
+		{
+			window.acquire(10).get();
+			Assert.fail("send beyond a full window should fail");
+		}
+		catch (ExecutionException expected)
+		{
+			Assert.assertTrue(expected.getCause() instanceof QuotaExceededException);
+		}
+	}
+
+	@Test
+	public void abandonedWaiterGivesUpItsPlace() throws InterruptedException
+	{
+		final SendWindow window = SendWindow.create(new SenderOptions().with(options -> options.maxInFlightSends = 1));
+
+		Assert.assertTrue(window.acquire(10).isDone());
+		final CompletableFuture<Void> timedOut = window.acquire(10);
+		final CompletableFuture<Void> next = window.acquire(10);
+
+		Assert.assertTrue(window.abandon(timedOut, new TimeoutException("timed out waiting for the send window")));
+		try
+		{
+			timedOut.get();
+			Assert.fail("abandoned admission should fail");
+		}
+		catch (ExecutionException expected)
+		{
+			Assert.assertTrue(expected.getCause() instanceof TimeoutException);
+		}
+
+		// the place the abandoned send waited for goes to the next one
+		window.release(10);
+		Assert.assertTrue(next.isDone());
+		Assert.assertFalse(next.isCompletedExceptionally());
+
+		// and the window is whole again once that completes
+		window.release(10);
+		Assert.assertTrue(window.acquire(10).isDone());
+	}
+
+	@Test
+	public void abandoningAnAdmittedSendLeavesTheReleaseToTheCaller()
+	{
+		final SendWindow window = SendWindow.create(new SenderOptions().with(options -> options.maxInFlightSends = 1));
+
+		Assert.assertTrue(window.acquire(10).isDone());
+		final CompletableFuture<Void> admitted = window.acquire(10);
+		window.release(10);
+		Assert.assertTrue(admitted.isDone());
+
+		Assert.assertFalse(window.abandon(admitted, new CancellationException()));
+		Assert.assertFalse(window.acquire(10).isDone());
+	}
+
+	@Test
+	public void closingTheWindowFailsWaitersAndLaterSends() throws InterruptedException
+	{
+		final SendWindow window = SendWindow.create(new SenderOptions().with(options -> options.maxInFlightSends = 1));
+
+		Assert.assertTrue(window.acquire(10).isDone());
+		final CompletableFuture<Void> first = window.acquire(10);
+		final CompletableFuture<Void> second = window.acquire(10);
+
+		final IllegalStateException closed = new IllegalStateException("sender closed");
+		window.close(closed);
+		Assert.assertEquals(0, window.getWaiterCount());
+		assertFailedWith(closed, first);
+		assertFailedWith(closed, second);
+		assertFailedWith(closed, window.acquire(10));
+
+		// the send which was in flight still completes
+		window.release(10);
+		Assert.assertEquals(0, window.getWaiterCount());
+	}
+
+	@Test
+	public void cancelledAdmissionIsNotLeaked()
+	{
+		final SendWindow window = SendWindow.create(new SenderOptions().with(options -> options.maxInFlightSends = 1));
+
+		Assert.assertTrue(window.acquire(10).isDone());
+		final CompletableFuture<Void> cancelled = window.acquire(10);
+		cancelled.cancel(false);
+
+		// admitting the cancelled waiter hands its place straight back
+		window.release(10);
+		Assert.assertEquals(0, window.getWaiterCount());
+		Assert.assertTrue(window.acquire(10).isDone());
+	}
+
+	private static void assertFailedWith(final Throwable cause, final CompletableFuture<Void> admission) throws InterruptedException
+	{
+		try
+		{
+			admission.get();
+			Assert.fail("admission into a closed window should fail");
+		}
+		catch (ExecutionException expected)
+		{
+			Assert.assertSame(cause, expected.getCause());
+		}
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.impl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.reactor.Reactor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TimingWheelTest
+{
+	static final int tickInMillis = 10;
+	static final int wheelSize = 4;
+
+	Reactor reactor;
+	ReactorDispatcher dispatcher;
+	TimingWheel timingWheel;
+
+	@Before
+	public void initializeReactor() throws IOException
+	{
+		this.reactor = Proton.reactor();
+		this.reactor.setTimeout(tickInMillis / 2);
+		this.reactor.start();
+		this.dispatcher = new ReactorDispatcher(this.reactor);
+		this.timingWheel = new TimingWheel(new SchedulerProvider()
+		{
+			@Override
+			public ReactorDispatcher getReactorScheduler()
+			{
+				return TimingWheelTest.this.dispatcher;
+			}
+
+			@Override
+			public TimingWheel getTimingWheel()
+			{
+				return TimingWheelTest.this.timingWheel;
+			}
+		}, tickInMillis, wheelSize);
+	}
+
+	@After
+	public void cleanup()
+	{
+		if (this.reactor != null)
+		{
+			this.reactor.stop();
+			this.reactor.free();
+		}
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void wheelSizeShouldBeAPowerOf2()
+	{
+		new TimingWheel(null, tickInMillis, 3);
+	}
+
+	@Test
+	public void timeoutRunsOnceItsDelayElapsed()
+	{
+		final long scheduledAt = System.nanoTime();
+		final long[] ranAt = new long[1];
+		final CompletableFuture<?> timeout = this.timingWheel.schedule(() -> ranAt[0] = System.nanoTime(), Duration.ofMillis(35));
+
+		this.processUntil(timeout::isDone);
+		Assert.assertFalse(timeout.isCompletedExceptionally());
+		Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(ranAt[0] - scheduledAt) >= 35);
+	}
+
+	@Test
+	public void timeoutsBeyondOneRevolutionWaitForTheirTick()
+	{
+		// one revolution of the wheel is 40ms - the 100ms timeout shares its bucket with earlier ticks
+		final List<String> ran = new CopyOnWriteArrayList<>();
+		final long scheduledAt = System.nanoTime();
+		final long[] lateRanAt = new long[1];
+		final CompletableFuture<?> late = this.timingWheel.schedule(() -> {
+			lateRanAt[0] = System.nanoTime();
+			ran.add("late");
+		}, Duration.ofMillis(100));
+		final CompletableFuture<?> early = this.timingWheel.schedule(() -> ran.add("early"), Duration.ofMillis(20));
+
+		this.processUntil(late::isDone);
+		Assert.assertTrue(early.isDone());
+		Assert.assertEquals("early", ran.get(0));
+		Assert.assertEquals("late", ran.get(1));
+		Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(lateRanAt[0] - scheduledAt) >= 100);
+	}
+
+	@Test
+	public void cancelledTimeoutDoesNotRun()
+	{
+		final List<String> ran = new CopyOnWriteArrayList<>();
+		final CompletableFuture<?> cancelled = this.timingWheel.schedule(() -> ran.add("cancelled"), Duration.ofMillis(20));
+		final CompletableFuture<?> kept = this.timingWheel.schedule(() -> ran.add("kept"), Duration.ofMillis(60));
+
+		// let the cancelled timeout reach its bucket first
+		this.processFor(10);
+		Assert.assertTrue(cancelled.cancel(false));
+
+		this.processUntil(kept::isDone);
+		Assert.assertEquals(1, ran.size());
+		Assert.assertEquals("kept", ran.get(0));
+	}
+
+	@Test
+	public void idleWheelIsArmedAgainBySchedule()
+	{
+		final CompletableFuture<?> first = this.timingWheel.schedule(() -> { }, Duration.ofMillis(10));
+		this.processUntil(first::isDone);
+
+		// no pending timeouts - the tick is disarmed
+		this.processFor(5 * tickInMillis);
+
+		final CompletableFuture<?> second = this.timingWheel.schedule(() -> { }, Duration.ofMillis(10));
+		this.processUntil(second::isDone);
+		Assert.assertFalse(second.isCompletedExceptionally());
+	}
+
+	@Test
+	public void failingRunnableCompletesTimeoutExceptionally()
+	{
+		final CompletableFuture<?> timeout = this.timingWheel.schedule(() -> { throw new IllegalStateException("failed"); }, Duration.ofMillis(10));
+
+		this.processUntil(timeout::isDone);
+		Assert.assertTrue(timeout.isCompletedExceptionally());
+	}
+
+	@Test
+	public void scheduleOnStoppedReactorCompletesExceptionally()
+	{
+		this.reactor.stop();
+		this.reactor.free();
+		this.reactor = null;
+
+		final CompletableFuture<?> timeout = this.timingWheel.schedule(() -> { }, Duration.ofMillis(10));
+		Assert.assertTrue(timeout.isCompletedExceptionally());
+		try
+		{
+			timeout.join();
+		}
+		catch (Exception expected)
+		{
+			Assert.assertTrue(expected.getCause() instanceof RejectedExecutionException);
+		}
+	}
+
+	private void processUntil(final BooleanSupplier condition)
+	{
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline)
+		{
+			this.reactor.process();
+		}
+
+		Assert.assertTrue("timed out processing the reactor", condition.getAsBoolean());
+	}
+
+	private void processFor(final long millis)
+	{
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+		while (System.nanoTime() < deadline)
+		{
+			this.reactor.process();
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.sendrecv;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.microsoft.azure.eventhubs.*;
+import com.microsoft.azure.eventhubs.lib.ApiTestBase;
+import com.microsoft.azure.eventhubs.lib.TestContext;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BufferedProducerTest extends ApiTestBase
+{
+	static EventHubClient ehClient;
+
+	@BeforeClass
+	public static void initializeEventHub() throws Exception
+	{
+		final ConnectionStringBuilder connectionString = TestContext.getConnectionString();
+		ehClient = EventHubClient.createSync(connectionString.toString(), TestContext.EXECUTOR_SERVICE);
+	}
+
+	@Test
+	public void sendsCompleteAfterLingerTime() throws Exception
+	{
+		final BufferedProducer producer = ehClient.createBufferedProducerSync(
+				new BufferedProducerOptions().with(options -> options.lingerTime = Duration.ofMillis(100)));
+
+		try
+		{
+			final int eventCount = 100;
+			@SuppressWarnings("unchecked")
+			final CompletableFuture<Void>[] sends = new CompletableFuture[eventCount];
+			for (int count = 0; count < eventCount; count++)
+				sends[count] = producer.send(EventData.create("test string".getBytes()));
+
+			CompletableFuture.allOf(sends).get(30, TimeUnit.SECONDS);
+		}
+		finally
+		{
+			producer.closeSync();
+		}
+	}
+
+	@Test
+	public void oversizedEventFailsWithoutFailingBatch() throws Exception
+	{
+		final BufferedProducer producer = ehClient.createBufferedProducerSync(new BufferedProducerOptions());
+
+		try
+		{
+			final CompletableFuture<Void> within = producer.send(EventData.create(new byte[1024]));
+			final CompletableFuture<Void> tooBig = producer.send(EventData.create(new byte[1024 * 1024 * 2]));
+
+			Assert.assertTrue(tooBig.isCompletedExceptionally());
+			producer.flush().get(30, TimeUnit.SECONDS);
+			within.get(30, TimeUnit.SECONDS);
+		}
+		finally
+		{
+			producer.closeSync();
+		}
+	}
+
+	@AfterClass
+	public static void cleanupClient() throws EventHubException
+	{
+		if (ehClient != null)
+			ehClient.closeSync();
+	}
+}
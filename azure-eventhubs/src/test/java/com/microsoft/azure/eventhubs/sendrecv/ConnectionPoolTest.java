@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.sendrecv;
+
+import com.microsoft.azure.eventhubs.*;
+import com.microsoft.azure.eventhubs.lib.ApiTestBase;
+import com.microsoft.azure.eventhubs.lib.TestContext;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ConnectionPoolTest extends ApiTestBase
+{
+	static final String cgName = TestContext.getConsumerGroupName();
+
+	static EventHubClient ehClient;
+	static String[] partitionIds;
+
+	@BeforeClass
+	public static void initializeEventHub() throws Exception
+	{
+		final ConnectionStringBuilder connectionString = TestContext.getConnectionString();
+		ehClient = EventHubClient.createSync(connectionString.toString(), null, TestContext.EXECUTOR_SERVICE,
+				new EventHubClientOptions().with(options -> options.connectionCount = 2));
+		partitionIds = ehClient.getRuntimeInformation().get().getPartitionIds();
+	}
+
+	@Test
+	public void sendAndReceiveOnEveryPartition() throws Exception
+	{
+		for (String partitionId : partitionIds)
+		{
+			final PartitionReceiver receiver = ehClient.createReceiverSync(cgName, partitionId, EventPosition.fromEndOfStream());
+			final PartitionSender sender = ehClient.createPartitionSenderSync(partitionId);
+
+			try
+			{
+				sender.sendSync(EventData.create("test string".getBytes()));
+
+				final Iterable<EventData> events = receiver.receiveSync(10);
+				Assert.assertTrue(events != null && events.iterator().hasNext());
+			}
+			finally
+			{
+				sender.closeSync();
+				receiver.closeSync();
+			}
+		}
+	}
+
+	@Test
+	public void leastLoadedAssignment() throws Exception
+	{
+		final EventHubClient leastLoadedClient = EventHubClient.createSync(TestContext.getConnectionString().toString(), null, TestContext.EXECUTOR_SERVICE,
+				new EventHubClientOptions().with(options -> {
+					options.connectionCount = 3;
+					options.connectionAssignment = EventHubClientOptions.ConnectionAssignment.LEAST_LOADED;
+				}));
+
+		try
+		{
+			final PartitionSender sender = leastLoadedClient.createPartitionSenderSync(partitionIds[0]);
+			sender.sendSync(EventData.create("test string".getBytes()));
+			sender.closeSync();
+		}
+		finally
+		{
+			leastLoadedClient.closeSync();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void connectionCountShouldBePositive() throws Exception
+	{
+		EventHubClient.createSync(TestContext.getConnectionString().toString(), null, TestContext.EXECUTOR_SERVICE,
+				new EventHubClientOptions().with(options -> options.connectionCount = 0));
+	}
+
+	@AfterClass
+	public static void cleanupClient() throws EventHubException
+	{
+		if (ehClient != null)
+			ehClient.closeSync();
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.sendrecv;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.microsoft.azure.eventhubs.ConnectionStringBuilder;
+import com.microsoft.azure.eventhubs.EventData;
+import com.microsoft.azure.eventhubs.EventHubClient;
+import com.microsoft.azure.eventhubs.EventHubConsumer;
+import com.microsoft.azure.eventhubs.EventHubConsumerOptions;
+import com.microsoft.azure.eventhubs.EventHubException;
+import com.microsoft.azure.eventhubs.EventPosition;
+import com.microsoft.azure.eventhubs.PartitionSender;
+import com.microsoft.azure.eventhubs.lib.ApiTestBase;
+import com.microsoft.azure.eventhubs.lib.TestContext;
+
+public class EventHubConsumerTest extends ApiTestBase
+{
+	static final String cgName = TestContext.getConsumerGroupName();
+	static final String[] partitionIds = new String[] { "0", "1" };
+	static final String SEQUENCE_PROPERTY = "sequence";
+	static final int eventCount = 50;
+
+	static EventHubClient ehClient;
+
+	EventHubConsumer consumer = null;
+
+	@BeforeClass
+	public static void initializeEventHub() throws Exception
+	{
+		final ConnectionStringBuilder connectionString = TestContext.getConnectionString();
+		ehClient = EventHubClient.createSync(connectionString.toString(), TestContext.EXECUTOR_SERVICE);
+	}
+
+	@Test
+	public void receiveEventsOfAllPartitionsInPartitionOrder() throws EventHubException
+	{
+		consumer = ehClient.createConsumerSync(cgName, EventPosition.fromEndOfStream(),
+				new EventHubConsumerOptions().with(options -> { options.partitionIds = partitionIds; options.quantum = 1024; }));
+		consumer.setReceiveTimeout(Duration.ofSeconds(5));
+
+		for (String partitionId : partitionIds)
+		{
+			final PartitionSender sender = ehClient.createPartitionSenderSync(partitionId);
+			final List<EventData> events = new LinkedList<>();
+			for (int index = 0; index < eventCount; index++)
+			{
+				final EventData event = EventData.create(new byte[256]);
+				event.getProperties().put(SEQUENCE_PROPERTY, index);
+				events.add(event);
+			}
+
+			sender.sendSync(events);
+			sender.closeSync();
+		}
+
+		final Map<String, Integer> nextSequence = new HashMap<>();
+		int receivedEvents = 0;
+		Iterable<EventData> receivedBatch;
+		while (receivedEvents < eventCount * partitionIds.length && (receivedBatch = consumer.receiveSync(10)) != null)
+		{
+			for (EventData event : receivedBatch)
+			{
+				Assert.assertNotNull(event.getPartitionId());
+				final int expectedSequence = nextSequence.getOrDefault(event.getPartitionId(), 0);
+				Assert.assertEquals(expectedSequence, event.getProperties().get(SEQUENCE_PROPERTY));
+				nextSequence.put(event.getPartitionId(), expectedSequence + 1);
+				receivedEvents++;
+			}
+		}
+
+		Assert.assertEquals(eventCount * partitionIds.length, receivedEvents);
+		for (String partitionId : partitionIds)
+			Assert.assertEquals(eventCount, (int) nextSequence.get(partitionId));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void nonPositiveQuantumIsRejected() throws EventHubException
+	{
+		ehClient.createConsumerSync(cgName, EventPosition.fromEndOfStream(), new EventHubConsumerOptions().with(options -> options.quantum = 0));
+	}
+
+	@After
+	public void cleanup() throws EventHubException
+	{
+		if (consumer != null)
+		{
+			consumer.closeSync();
+			consumer = null;
+		}
+	}
+
+	@AfterClass
+	public static void cleanupClient() throws EventHubException
+	{
+		if (ehClient != null)
+			ehClient.closeSync();
+	}
+}
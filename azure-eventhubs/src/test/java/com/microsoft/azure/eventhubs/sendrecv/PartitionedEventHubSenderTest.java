@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.sendrecv;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.microsoft.azure.eventhubs.*;
+import com.microsoft.azure.eventhubs.lib.ApiTestBase;
+import com.microsoft.azure.eventhubs.lib.TestContext;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PartitionedEventHubSenderTest extends ApiTestBase
+{
+	static final String cgName = TestContext.getConsumerGroupName();
+
+	static EventHubClient ehClient;
+
+	@BeforeClass
+	public static void initializeEventHub() throws Exception
+	{
+		final ConnectionStringBuilder connectionString = TestContext.getConnectionString();
+		ehClient = EventHubClient.createSync(connectionString.toString(), TestContext.EXECUTOR_SERVICE);
+	}
+
+	@Test
+	public void roundRobinSendsCompleteOnAllPartitions() throws Exception
+	{
+		final PartitionedEventHubSender sender = ehClient.createPartitionedSenderSync(
+				new PartitionedEventHubSenderOptions().with(options -> options.lingerTime = Duration.ofMillis(100)));
+
+		try
+		{
+			Assert.assertEquals(ehClient.getRuntimeInformation().get().getPartitionCount(), sender.getPartitionIds().length);
+
+			final int eventCount = 100;
+			@SuppressWarnings("unchecked")
+			final CompletableFuture<Void>[] sends = new CompletableFuture[eventCount];
+			for (int count = 0; count < eventCount; count++)
+				sends[count] = sender.send(EventData.create("test string".getBytes()));
+
+			CompletableFuture.allOf(sends).get(30, TimeUnit.SECONDS);
+		}
+		finally
+		{
+			sender.closeSync();
+		}
+	}
+
+	@Test
+	public void samePartitionKeyLandsOnSamePartition() throws Exception
+	{
+		final PartitionedEventHubSender sender = ehClient.createPartitionedSenderSync(new PartitionedEventHubSenderOptions());
+		final String partitionKey = "samePartitionKey";
+		final String partitionId = sender.getPartitionIds()[(partitionKey.hashCode() & Integer.MAX_VALUE) % sender.getPartitionIds().length];
+		final PartitionReceiver receiver = ehClient.createReceiverSync(cgName, partitionId, EventPosition.fromEndOfStream());
+
+		try
+		{
+			final int eventCount = 10;
+			for (int count = 0; count < eventCount; count++)
+				sender.send(EventData.create("test string".getBytes()), partitionKey);
+
+			sender.flush().get(30, TimeUnit.SECONDS);
+
+			int received = 0;
+			while (received < eventCount)
+			{
+				final Iterable<EventData> events = receiver.receiveSync(eventCount);
+				Assert.assertNotNull(events);
+				for (EventData ignored : events)
+					received++;
+			}
+
+			Assert.assertEquals(eventCount, received);
+		}
+		finally
+		{
+			receiver.closeSync();
+			sender.closeSync();
+		}
+	}
+
+	@AfterClass
+	public static void cleanupClient() throws EventHubException
+	{
+		if (ehClient != null)
+			ehClient.closeSync();
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.sendrecv;
+
+import java.time.Duration;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.microsoft.azure.eventhubs.EventData;
+import com.microsoft.azure.eventhubs.EventHubClient;
+import com.microsoft.azure.eventhubs.EventHubClientOptions;
+import com.microsoft.azure.eventhubs.EventPosition;
+import com.microsoft.azure.eventhubs.PartitionReceiver;
+import com.microsoft.azure.eventhubs.ReactorGroup;
+import com.microsoft.azure.eventhubs.lib.ApiTestBase;
+import com.microsoft.azure.eventhubs.lib.TestContext;
+
+public class ReactorGroupTest extends ApiTestBase
+{
+	static final String cgName = TestContext.getConsumerGroupName();
+	static final String partitionId = "0";
+	static final int clientCount = 4;
+
+	ReactorGroup reactorGroup = null;
+	EventHubClient[] ehClients = new EventHubClient[clientCount];
+
+	@Test
+	public void clientsShareTheReactorsOfTheGroup() throws Exception
+	{
+		reactorGroup = ReactorGroup.create(1, TestContext.EXECUTOR_SERVICE);
+		final EventHubClientOptions options = new EventHubClientOptions().with(clientOptions -> clientOptions.reactorGroup = reactorGroup);
+		for (int index = 0; index < clientCount; index++)
+			ehClients[index] = EventHubClient.createSync(TestContext.getConnectionString().toString(), null, TestContext.EXECUTOR_SERVICE, options);
+
+		Assert.assertEquals(clientCount, reactorGroup.getConnectionCount());
+
+		final PartitionReceiver receiver = ehClients[0].createReceiverSync(cgName, partitionId, EventPosition.fromEndOfStream());
+		receiver.setReceiveTimeout(Duration.ofSeconds(10));
+
+		ehClients[clientCount - 1].sendSync(EventData.create("reactorgroup".getBytes()), partitionId);
+
+		final Iterable<EventData> events = receiver.receiveSync(10);
+		Assert.assertNotNull(events);
+		Assert.assertTrue(events.iterator().hasNext());
+
+		receiver.closeSync();
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void zeroReactorsIsRejected() throws Exception
+	{
+		ReactorGroup.create(0, TestContext.EXECUTOR_SERVICE);
+	}
+
+	@After
+	public void cleanup() throws Exception
+	{
+		for (int index = 0; index < clientCount; index++)
+		{
+			if (ehClients[index] != null)
+			{
+				ehClients[index].closeSync();
+				ehClients[index] = null;
+			}
+		}
+
+		if (reactorGroup != null)
+		{
+			reactorGroup.closeSync();
+			reactorGroup = null;
+		}
+	}
+}
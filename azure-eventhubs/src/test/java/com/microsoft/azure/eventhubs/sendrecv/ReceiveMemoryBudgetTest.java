@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.sendrecv;
+
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.microsoft.azure.eventhubs.ConnectionStringBuilder;
+import com.microsoft.azure.eventhubs.EventData;
+import com.microsoft.azure.eventhubs.EventHubClient;
+import com.microsoft.azure.eventhubs.EventHubException;
+import com.microsoft.azure.eventhubs.EventPosition;
+import com.microsoft.azure.eventhubs.PartitionReceiver;
+import com.microsoft.azure.eventhubs.PartitionSender;
+import com.microsoft.azure.eventhubs.ReceiveMemoryBudget;
+import com.microsoft.azure.eventhubs.lib.ApiTestBase;
+import com.microsoft.azure.eventhubs.lib.TestContext;
+
+public class ReceiveMemoryBudgetTest extends ApiTestBase
+{
+	static final String cgName = TestContext.getConsumerGroupName();
+	static final String partitionId = "0";
+	static final int eventCount = 50;
+	static final int eventSize = 1024;
+
+	static EventHubClient ehClient;
+
+	PartitionReceiver receiver = null;
+	PartitionSender sender = null;
+
+	@BeforeClass
+	public static void initializeEventHub() throws Exception
+	{
+		final ConnectionStringBuilder connectionString = TestContext.getConnectionString();
+		ehClient = EventHubClient.createSync(connectionString.toString(), TestContext.EXECUTOR_SERVICE);
+	}
+
+	@Test
+	public void receiveAllEventsWithinBudget() throws EventHubException
+	{
+		ReceiveMemoryBudget.setLimit(4 * eventSize);
+
+		receiver = ehClient.createReceiverSync(cgName, partitionId, EventPosition.fromEndOfStream());
+		receiver.setReceiveTimeout(Duration.ofSeconds(5));
+
+		sender = ehClient.createPartitionSenderSync(partitionId);
+		final List<EventData> events = new LinkedList<>();
+		for (int index = 0; index < eventCount; index++)
+			events.add(EventData.create(new byte[eventSize]));
+
+		sender.sendSync(events);
+
+		int receivedEvents = 0;
+		Iterable<EventData> receivedBatch;
+		while (receivedEvents < eventCount && (receivedBatch = receiver.receiveSync(10)) != null)
+		{
+			for (EventData event : receivedBatch)
+			{
+				Assert.assertEquals(eventSize, event.getBytes().length);
+				receivedEvents++;
+			}
+		}
+
+		Assert.assertEquals(eventCount, receivedEvents);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void invalidHeapUsageThresholdIsRejected()
+	{
+		ReceiveMemoryBudget.setHeapUsageThreshold(1.5);
+	}
+
+	@After
+	public void cleanup() throws EventHubException
+	{
+		ReceiveMemoryBudget.setLimit(0);
+
+		if (sender != null)
+		{
+			sender.closeSync();
+			sender = null;
+		}
+
+		if (receiver != null)
+		{
+			receiver.closeSync();
+			receiver = null;
+		}
+	}
+
+	@AfterClass
+	public static void cleanupClient() throws EventHubException
+	{
+		if (ehClient != null)
+			ehClient.closeSync();
+	}
+}
@@ -96,6 +96,59 @@ public class ReceivePumpEventHubTest extends ApiTestBase
 		invokeSignal.get(3, TimeUnit.SECONDS);
 	}
 	
+	@Test()
+	public void testPushReceiveHandlerInvokeOnTimeoutKnobTrue() throws EventHubException, InterruptedException, ExecutionException, TimeoutException
+	{
+		final ReceiverOptions options = new ReceiverOptions();
+		options.setPushReceiveHandler(true);
+		final PartitionReceiver pushReceiver = ehClient.createReceiverSync(cgName, partitionId, EventPosition.fromEnqueuedTime(Instant.now()), options);
+		try
+		{
+			CompletableFuture<Void> invokeSignal = new CompletableFuture<Void>();
+			pushReceiver.setReceiveTimeout(Duration.ofSeconds(1));
+			pushReceiver.setReceiveHandler(new InvokeOnReceiveEventValidator(invokeSignal), true);
+			invokeSignal.get(3, TimeUnit.SECONDS);
+
+			pushReceiver.setReceiveHandler(null).get();
+
+			invokeSignal = new CompletableFuture<Void>();
+			pushReceiver.setReceiveHandler(new InvokeOnReceiveEventValidator(invokeSignal), true);
+			invokeSignal.get(3, TimeUnit.SECONDS);
+		}
+		finally
+		{
+			pushReceiver.closeSync();
+		}
+	}
+
+	@Test()
+	public void testPushReceiveHandlerReceivesEvents() throws EventHubException, InterruptedException, ExecutionException, TimeoutException
+	{
+		final ReceiverOptions options = new ReceiverOptions();
+		options.setPushReceiveHandler(true);
+		final PartitionReceiver pushReceiver = ehClient.createReceiverSync(cgName, partitionId, EventPosition.fromEndOfStream(), options);
+		final PartitionSender sender = ehClient.createPartitionSenderSync(partitionId);
+		try
+		{
+			final CompletableFuture<Void> validator = new CompletableFuture<Void>();
+			pushReceiver.setReceiveHandler(new SendTest.OrderValidator(validator, 20));
+
+			for (int count = 0; count < 20; count++)
+			{
+				final EventData event = EventData.create("a".getBytes());
+				event.getProperties().put(SendTest.ORDER_PROPERTY, count);
+				sender.sendSync(event);
+			}
+
+			validator.get(25, TimeUnit.SECONDS);
+		}
+		finally
+		{
+			sender.closeSync();
+			pushReceiver.closeSync();
+		}
+	}
+
 	@After
 	public void cleanupTest() throws EventHubException
 	{
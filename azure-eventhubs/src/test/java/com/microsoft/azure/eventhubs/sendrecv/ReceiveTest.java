@@ -141,6 +141,55 @@ public class ReceiveTest extends ApiTestBase
 		Assert.assertTrue(eventReturnedByOffsetReceiver.getSystemProperties().getSequenceNumber() == event.getSystemProperties().getSequenceNumber() + 1);
 	}
 	
+	@Test()
+	public void testOffHeapPrefetchReceivesInOrder() throws EventHubException
+	{
+		datetimeReceiver = ehClient.createReceiverSync(cgName, partitionId, EventPosition.fromEnqueuedTime(Instant.EPOCH));
+		Iterable<EventData> events = datetimeReceiver.receiveSync(100);
+
+		Assert.assertTrue(events != null && events.iterator().hasNext());
+		final EventData event = events.iterator().next();
+
+		final ReceiverOptions options = new ReceiverOptions();
+		options.setOffHeapPrefetch(true);
+		offsetReceiver = ehClient.createReceiverSync(cgName, partitionId, EventPosition.fromSequenceNumber(event.getSequenceNumber(), true), options);
+
+		long expectedSequenceNumber = event.getSequenceNumber();
+		for (EventData eventReturnedByOffHeapReceiver : offsetReceiver.receiveSync(100))
+		{
+			Assert.assertEquals(expectedSequenceNumber++, eventReturnedByOffHeapReceiver.getSequenceNumber());
+			Assert.assertTrue(eventReturnedByOffHeapReceiver.getBytes() != null);
+		}
+	}
+
+	@Test()
+	public void testByteBudgetedPrefetchReceives() throws EventHubException, ExecutionException, InterruptedException
+	{
+		final ReceiverOptions options = new ReceiverOptions();
+		options.setPrefetchByteBudget(64 * 1024);
+		options.setTargetLatency(Duration.ofMillis(200));
+		offsetReceiver = ehClient.createReceiverSync(cgName, partitionId, EventPosition.fromEndOfStream(), options);
+		offsetReceiver.setReceiveTimeout(Duration.ofSeconds(5));
+
+		TestBase.pushEventsToPartition(ehClient, partitionId, 50).get();
+
+		int receivedEvents = 0;
+		Iterable<EventData> events;
+		while (receivedEvents < 50 && (events = offsetReceiver.receiveSync(10)) != null)
+		{
+			for (EventData event : events)
+				receivedEvents++;
+		}
+
+		Assert.assertEquals(50, receivedEvents);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNegativePrefetchByteBudgetIsRejected()
+	{
+		new ReceiverOptions().setPrefetchByteBudget(-1);
+	}
+
 	@Test()
 	public void testReceivedBodyAndProperties() throws EventHubException
 	{
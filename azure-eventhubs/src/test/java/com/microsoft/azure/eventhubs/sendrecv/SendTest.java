@@ -128,6 +128,31 @@ public class SendTest extends ApiTestBase
 		ehClient.sendSync(events, partitionKey);
 		validateSignal.get(partitionCount * 5, TimeUnit.SECONDS);
 	}
+
+	@Test
+	public void sendAtMostOnceIsReceived() throws EventHubException, InterruptedException, ExecutionException, TimeoutException
+	{
+		final int eventCount = 50;
+		final CompletableFuture<Void> validator = new CompletableFuture<>();
+		final PartitionReceiver receiver = ehClient.createReceiverSync(cgName, partitionId, EventPosition.fromEndOfStream());
+		this.receivers.add(receiver);
+		receiver.setReceiveHandler(new OrderValidator(validator, eventCount));
+
+		sender = ehClient.createPartitionSenderSync(partitionId,
+				new SenderOptions().with(options -> options.deliveryMode = SenderOptions.DeliveryMode.AT_MOST_ONCE));
+
+		@SuppressWarnings("unchecked")
+		final CompletableFuture<Void>[] sends = new CompletableFuture[eventCount];
+		for (int count = 0; count < eventCount; count++)
+		{
+			final EventData event = EventData.create("a".getBytes());
+			event.getProperties().put(ORDER_PROPERTY, count);
+			sends[count] = sender.send(event);
+		}
+
+		CompletableFuture.allOf(sends).get(10, TimeUnit.SECONDS);
+		validator.get(25, TimeUnit.SECONDS);
+	}
 	
 	@After
 	public void cleanup() throws EventHubException
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.sendrecv;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.microsoft.azure.eventhubs.*;
+import com.microsoft.azure.eventhubs.lib.ApiTestBase;
+import com.microsoft.azure.eventhubs.lib.TestContext;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SendWindowTest extends ApiTestBase
+{
+	static final String partitionId = "0";
+	static EventHubClient ehClient;
+
+	@BeforeClass
+	public static void initializeEventHub() throws Exception
+	{
+		final ConnectionStringBuilder connectionString = TestContext.getConnectionString();
+		ehClient = EventHubClient.createSync(connectionString.toString(), TestContext.EXECUTOR_SERVICE);
+	}
+
+	@Test
+	public void sendsBeyondWindowWaitForInFlightSends() throws Exception
+	{
+		final PartitionSender sender = ehClient.createPartitionSenderSync(partitionId,
+				new SenderOptions().with(options -> options.maxInFlightSends = 2));
+
+		try
+		{
+			final int eventCount = 20;
+			@SuppressWarnings("unchecked")
+			final CompletableFuture<Void>[] sends = new CompletableFuture[eventCount];
+			for (int count = 0; count < eventCount; count++)
+				sends[count] = sender.send(EventData.create("test string".getBytes()));
+
+			CompletableFuture.allOf(sends).get(60, TimeUnit.SECONDS);
+		}
+		finally
+		{
+			sender.closeSync();
+		}
+	}
+
+	@Test
+	public void sendsBeyondWindowFailFast() throws Exception
+	{
+		final PartitionSender sender = ehClient.createPartitionSenderSync(partitionId,
+				new SenderOptions().with(options -> {
+					options.maxInFlightSends = 1;
+					options.whenWindowFull = SenderOptions.WindowFullBehavior.FAIL;
+				}));
+
+		try
+		{
+			final CompletableFuture<Void> first = sender.send(EventData.create("test string".getBytes()));
+			final CompletableFuture<Void> second = sender.send(EventData.create("test string".getBytes()));
+
+			try
+			{
+				second.get(30, TimeUnit.SECONDS);
+				Assert.fail("send beyond the window should fail");
+			}
+			catch (ExecutionException exception)
+			{
+				Assert.assertTrue(exception.getCause() instanceof QuotaExceededException);
+			}
+
+			first.get(30, TimeUnit.SECONDS);
+			sender.send(EventData.create("test string".getBytes())).get(30, TimeUnit.SECONDS);
+		}
+		finally
+		{
+			sender.closeSync();
+		}
+	}
+
+	@AfterClass
+	public static void cleanupClient() throws EventHubException
+	{
+		if (ehClient != null)
+			ehClient.closeSync();
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) Microsoft. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for full license information.
+ */
+package com.microsoft.azure.eventhubs.sendrecv;
+
+import java.time.Duration;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.microsoft.azure.eventhubs.EventData;
+import com.microsoft.azure.eventhubs.EventHubClient;
+import com.microsoft.azure.eventhubs.EventHubClientOptions;
+import com.microsoft.azure.eventhubs.EventHubException;
+import com.microsoft.azure.eventhubs.EventPosition;
+import com.microsoft.azure.eventhubs.PartitionReceiver;
+import com.microsoft.azure.eventhubs.PartitionSender;
+import com.microsoft.azure.eventhubs.lib.ApiTestBase;
+import com.microsoft.azure.eventhubs.lib.TestContext;
+
+public class SessionPoolTest extends ApiTestBase
+{
+	static final String cgName = TestContext.getConsumerGroupName();
+	static final String partitionId = "0";
+	static final int receiverCount = 4;
+
+	static EventHubClient ehClient;
+
+	@BeforeClass
+	public static void initializeEventHub() throws Exception
+	{
+		ehClient = EventHubClient.createSync(TestContext.getConnectionString().toString(), null, TestContext.EXECUTOR_SERVICE,
+				new EventHubClientOptions().with(options -> options.sessionCount = 2));
+	}
+
+	@Test
+	public void linksShareTheSessionsOfTheConnection() throws EventHubException
+	{
+		final PartitionReceiver[] receivers = new PartitionReceiver[receiverCount];
+		for (int index = 0; index < receiverCount; index++)
+		{
+			receivers[index] = ehClient.createReceiverSync(cgName, partitionId, EventPosition.fromEndOfStream());
+			receivers[index].setReceiveTimeout(Duration.ofSeconds(10));
+		}
+
+		final PartitionSender sender = ehClient.createPartitionSenderSync(partitionId);
+		sender.sendSync(EventData.create("sessionpool".getBytes()));
+
+		for (PartitionReceiver receiver : receivers)
+		{
+			final Iterable<EventData> events = receiver.receiveSync(10);
+			Assert.assertNotNull(events);
+			Assert.assertTrue(events.iterator().hasNext());
+		}
+
+		// closing links must leave the sessions the other links are on open
+		receivers[0].closeSync();
+		sender.sendSync(EventData.create("sessionpool".getBytes()));
+		Assert.assertNotNull(receivers[1].receiveSync(10));
+
+		for (int index = 1; index < receiverCount; index++)
+			receivers[index].closeSync();
+
+		sender.closeSync();
+	}
+
+	@AfterClass
+	public static void cleanup() throws EventHubException
+	{
+		if (ehClient != null)
+			ehClient.closeSync();
+	}
+}